@@ -0,0 +1,141 @@
+package com.admin.common.concurrent;
+
+import com.admin.common.trace.TraceCarrier;
+import com.admin.common.trace.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟线程任务执行器
+ *
+ * 每个任务运行在独立的虚拟线程上，并发上限由信号量而不是线程池大小控制：
+ * maxConcurrency 限制同时执行的任务数，maxConcurrency + queueCapacity 限制已提交未完成的任务数，
+ * 超出时与 CallerRunsPolicy 一致由调用线程直接执行；提交时传递调用线程的链路追踪上下文
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+public class VirtualThreadTaskExecutor implements AsyncTaskExecutor, AutoCloseable {
+
+    private final ThreadFactory threadFactory;
+
+    private final int maxConcurrency;
+
+    private final Semaphore running;
+
+    private final Semaphore admission;
+
+    private final int admissionPermits;
+
+    private final long awaitTerminationMillis;
+
+    private volatile boolean closed;
+
+    /**
+     * @param threadNamePrefix       虚拟线程名前缀
+     * @param maxConcurrency         同时执行的任务上限
+     * @param queueCapacity          等待执行的任务上限
+     * @param awaitTerminationMillis 关闭时等待已提交任务完成的最长时间
+     */
+    public VirtualThreadTaskExecutor(String threadNamePrefix, int maxConcurrency, int queueCapacity,
+                                     long awaitTerminationMillis) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency必须大于0: " + maxConcurrency);
+        }
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+        this.maxConcurrency = maxConcurrency;
+        this.running = new Semaphore(maxConcurrency);
+        this.admissionPermits = maxConcurrency + Math.max(queueCapacity, 0);
+        this.admission = new Semaphore(admissionPermits);
+        this.awaitTerminationMillis = awaitTerminationMillis;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (closed) {
+            throw new RejectedExecutionException("执行器已关闭");
+        }
+        TraceCarrier carrier = TraceContext.current();
+        if (!admission.tryAcquire()) {
+            // 积压已满，由调用线程执行，形成背压
+            task.run();
+            return;
+        }
+        try {
+            threadFactory.newThread(() -> runBounded(task, carrier)).start();
+        } catch (Throwable e) {
+            admission.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    /**
+     * 当前正在执行的任务数
+     */
+    public int getActiveCount() {
+        return maxConcurrency - running.availablePermits();
+    }
+
+    /**
+     * 已提交未完成的任务数，包括正在执行和等待执行的任务
+     */
+    public int getPendingCount() {
+        return admissionPermits - admission.availablePermits();
+    }
+
+    /**
+     * 停止接收新任务，并在限定时间内等待已提交的任务完成
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            if (!admission.tryAcquire(admissionPermits, awaitTerminationMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("虚拟线程执行器关闭时仍有未完成的任务，剩余: {}", getPendingCount());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runBounded(Runnable task, TraceCarrier carrier) {
+        try {
+            running.acquire();
+            try {
+                TraceContext.runWith(carrier, task);
+            } finally {
+                running.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            log.error("虚拟线程任务执行异常: {}", e.getMessage(), e);
+        } finally {
+            admission.release();
+        }
+    }
+}
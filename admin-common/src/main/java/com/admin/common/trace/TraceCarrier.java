@@ -0,0 +1,73 @@
+package com.admin.common.trace;
+
+import lombok.Getter;
+
+/**
+ * 链路追踪上下文载体
+ *
+ * 不可变对象，修改时返回新实例，可以安全地在线程、异步回调和响应式流之间共享
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Getter
+public final class TraceCarrier {
+
+    private final String traceId;
+
+    private final String spanId;
+
+    private final String userId;
+
+    private final String username;
+
+    private TraceCarrier(String traceId, String spanId, String userId, String username) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.userId = userId;
+        this.username = username;
+    }
+
+    /**
+     * 开始新的链路
+     */
+    public static TraceCarrier newTrace() {
+        return new TraceCarrier(TraceContext.generateTraceId(), TraceContext.generateSpanId(), null, null);
+    }
+
+    /**
+     * 延续上游传入的链路，上游未传SpanId时生成新的SpanId
+     */
+    public static TraceCarrier of(String traceId, String spanId) {
+        return new TraceCarrier(traceId, spanId != null ? spanId : TraceContext.generateSpanId(), null, null);
+    }
+
+    public TraceCarrier withTraceId(String traceId) {
+        return new TraceCarrier(traceId, spanId, userId, username);
+    }
+
+    public TraceCarrier withSpanId(String spanId) {
+        return new TraceCarrier(traceId, spanId, userId, username);
+    }
+
+    public TraceCarrier withUserId(String userId) {
+        return new TraceCarrier(traceId, spanId, userId, username);
+    }
+
+    public TraceCarrier withUsername(String username) {
+        return new TraceCarrier(traceId, spanId, userId, username);
+    }
+
+    /**
+     * 同一链路下的新Span
+     */
+    public TraceCarrier newSpan() {
+        return new TraceCarrier(traceId, TraceContext.generateSpanId(), userId, username);
+    }
+
+    @Override
+    public String toString() {
+        return "TraceCarrier{traceId=" + traceId + ", spanId=" + spanId + ", userId=" + userId + "}";
+    }
+}
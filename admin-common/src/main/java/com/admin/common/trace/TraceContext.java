@@ -2,14 +2,20 @@ package com.admin.common.trace;
 
 import org.slf4j.MDC;
 
-import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 链路追踪上下文
- * 
+ *
  * 提供TraceId的生成、传递和清理功能
  * 支持跨线程传递和异步任务追踪
  *
+ * 当前链路以不可变的{@link TraceCarrier}绑定在线程上，跨线程时只传递载体引用，
+ * 通过{@link #runWith}在作用域内绑定并在结束时恢复原值；
+ * MDC不随上下文变化实时写入，由{@link TraceMdcTurboFilter}在日志真正输出前按需同步
+ *
  * @author admin
  * @version 1.0
  * @since 2024-01-15
@@ -20,38 +26,84 @@ public class TraceContext {
      * TraceId的MDC键名
      */
     public static final String TRACE_ID_KEY = "traceId";
-    
+
     /**
      * SpanId的MDC键名
      */
     public static final String SPAN_ID_KEY = "spanId";
-    
+
     /**
      * 用户ID的MDC键名
      */
     public static final String USER_ID_KEY = "userId";
-    
+
     /**
      * 用户名的MDC键名
      */
     public static final String USERNAME_KEY = "username";
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * 当前线程绑定的链路
+     */
+    private static final ThreadLocal<TraceCarrier> CURRENT = new ThreadLocal<>();
+
     /**
-     * 生成新的TraceId
+     * 当前线程最近一次同步到MDC的链路
+     */
+    private static final ThreadLocal<TraceCarrier> MDC_SYNCED = new ThreadLocal<>();
+
+    /**
+     * 生成新的TraceId，32位十六进制，兼容W3C traceparent格式
      *
      * @return TraceId
      */
     public static String generateTraceId() {
-        return UUID.randomUUID().toString().replace("-", "");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = random.nextLong();
+        if (high == 0 && low == 0) {
+            low = 1;
+        }
+        char[] chars = new char[32];
+        writeHex(high, chars, 0);
+        writeHex(low, chars, 16);
+        return new String(chars);
     }
 
     /**
-     * 生成新的SpanId
+     * 生成新的SpanId，16位十六进制
      *
      * @return SpanId
      */
     public static String generateSpanId() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        long id = ThreadLocalRandom.current().nextLong();
+        char[] chars = new char[16];
+        writeHex(id != 0 ? id : 1, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 获取当前线程绑定的链路
+     *
+     * @return 链路载体，未开始链路时为null
+     */
+    public static TraceCarrier current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 绑定链路到当前线程
+     *
+     * @param carrier 链路载体，为null时解除绑定
+     */
+    public static void attach(TraceCarrier carrier) {
+        if (carrier == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(carrier);
+        }
     }
 
     /**
@@ -60,7 +112,8 @@ public class TraceContext {
      * @param traceId TraceId
      */
     public static void setTraceId(String traceId) {
-        MDC.put(TRACE_ID_KEY, traceId);
+        TraceCarrier carrier = CURRENT.get();
+        attach(carrier != null ? carrier.withTraceId(traceId) : TraceCarrier.of(traceId, null));
     }
 
     /**
@@ -69,7 +122,8 @@ public class TraceContext {
      * @return TraceId
      */
     public static String getTraceId() {
-        return MDC.get(TRACE_ID_KEY);
+        TraceCarrier carrier = CURRENT.get();
+        return carrier != null ? carrier.getTraceId() : null;
     }
 
     /**
@@ -78,7 +132,10 @@ public class TraceContext {
      * @param spanId SpanId
      */
     public static void setSpanId(String spanId) {
-        MDC.put(SPAN_ID_KEY, spanId);
+        TraceCarrier carrier = CURRENT.get();
+        if (carrier != null) {
+            attach(carrier.withSpanId(spanId));
+        }
     }
 
     /**
@@ -87,7 +144,8 @@ public class TraceContext {
      * @return SpanId
      */
     public static String getSpanId() {
-        return MDC.get(SPAN_ID_KEY);
+        TraceCarrier carrier = CURRENT.get();
+        return carrier != null ? carrier.getSpanId() : null;
     }
 
     /**
@@ -96,8 +154,9 @@ public class TraceContext {
      * @param userId 用户ID
      */
     public static void setUserId(Long userId) {
-        if (userId != null) {
-            MDC.put(USER_ID_KEY, String.valueOf(userId));
+        TraceCarrier carrier = CURRENT.get();
+        if (userId != null && carrier != null) {
+            attach(carrier.withUserId(String.valueOf(userId)));
         }
     }
 
@@ -107,7 +166,8 @@ public class TraceContext {
      * @return 用户ID
      */
     public static String getUserId() {
-        return MDC.get(USER_ID_KEY);
+        TraceCarrier carrier = CURRENT.get();
+        return carrier != null ? carrier.getUserId() : null;
     }
 
     /**
@@ -116,8 +176,9 @@ public class TraceContext {
      * @param username 用户名
      */
     public static void setUsername(String username) {
-        if (username != null) {
-            MDC.put(USERNAME_KEY, username);
+        TraceCarrier carrier = CURRENT.get();
+        if (username != null && carrier != null) {
+            attach(carrier.withUsername(username));
         }
     }
 
@@ -127,7 +188,8 @@ public class TraceContext {
      * @return 用户名
      */
     public static String getUsername() {
-        return MDC.get(USERNAME_KEY);
+        TraceCarrier carrier = CURRENT.get();
+        return carrier != null ? carrier.getUsername() : null;
     }
 
     /**
@@ -136,10 +198,9 @@ public class TraceContext {
      * @return TraceId
      */
     public static String initTrace() {
-        String traceId = generateTraceId();
-        setTraceId(traceId);
-        setSpanId(generateSpanId());
-        return traceId;
+        TraceCarrier carrier = TraceCarrier.newTrace();
+        attach(carrier);
+        return carrier.getTraceId();
     }
 
     /**
@@ -162,46 +223,92 @@ public class TraceContext {
      * @param traceId 已存在的TraceId
      */
     public static void setExistingTraceId(String traceId) {
-        setTraceId(traceId);
-        setSpanId(generateSpanId());
+        attach(TraceCarrier.of(traceId, null));
     }
 
     /**
      * 清理当前线程的追踪信息
      */
     public static void clear() {
-        MDC.clear();
+        CURRENT.remove();
+        if (MDC_SYNCED.get() != null) {
+            MDC_SYNCED.remove();
+            removeMdc();
+        }
+    }
+
+    /**
+     * 在指定链路下执行任务，结束后恢复当前线程原有的链路
+     *
+     * @param carrier 链路载体，可为null
+     * @param task    要执行的任务
+     */
+    public static void runWith(TraceCarrier carrier, Runnable task) {
+        TraceCarrier previous = CURRENT.get();
+        attach(carrier);
+        try {
+            task.run();
+        } finally {
+            attach(previous);
+        }
     }
 
     /**
-     * 清理指定的MDC键
+     * 在指定链路下执行任务（带返回值），结束后恢复当前线程原有的链路
      *
-     * @param key MDC键
+     * @param carrier 链路载体，可为null
+     * @param task    要执行的任务
+     * @param <T>     返回值类型
+     * @return 任务执行结果
      */
-    public static void remove(String key) {
-        MDC.remove(key);
+    public static <T> T callWith(TraceCarrier carrier, Callable<T> task) throws Exception {
+        TraceCarrier previous = CURRENT.get();
+        attach(carrier);
+        try {
+            return task.call();
+        } finally {
+            attach(previous);
+        }
     }
 
     /**
-     * 复制当前线程的MDC到新线程
-     * 用于异步任务的链路追踪传递
+     * 捕获当前链路，返回在执行时恢复该链路的任务
      *
-     * @return MDC副本
+     * @param task 要执行的任务
+     * @return 包装后的任务
      */
-    public static java.util.Map<String, String> copyContext() {
-        return MDC.getCopyOfContextMap();
+    public static Runnable wrap(Runnable task) {
+        TraceCarrier carrier = CURRENT.get();
+        if (carrier == null) {
+            return task;
+        }
+        return () -> runWith(carrier, task);
     }
 
     /**
-     * 设置MDC上下文
-     * 用于异步任务中恢复链路追踪信息
+     * 捕获当前链路，返回在执行时恢复该链路的任务（带返回值）
      *
-     * @param contextMap MDC上下文映射
+     * @param task 要执行的任务
+     * @param <T>  返回值类型
+     * @return 包装后的任务
      */
-    public static void setContext(java.util.Map<String, String> contextMap) {
-        if (contextMap != null && !contextMap.isEmpty()) {
-            MDC.setContextMap(contextMap);
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        TraceCarrier carrier = CURRENT.get();
+        if (carrier == null) {
+            return task;
         }
+        return () -> callWith(carrier, task);
+    }
+
+    /**
+     * 包装执行器，提交任务时捕获提交线程的链路，
+     * 可直接传给 CompletableFuture 的 *Async 方法
+     *
+     * @param executor 执行器
+     * @return 传递链路的执行器
+     */
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
     }
 
     /**
@@ -214,11 +321,11 @@ public class TraceContext {
         if (traceId == null) {
             initTrace();
         }
-        
+
         try {
             task.run();
         } finally {
-            // 不清理MDC，保持链路追踪信息
+            // 不清理上下文，保持链路追踪信息
         }
     }
 
@@ -229,16 +336,58 @@ public class TraceContext {
      * @param <T>  返回值类型
      * @return 任务执行结果
      */
-    public static <T> T callWithTrace(java.util.concurrent.Callable<T> task) throws Exception {
+    public static <T> T callWithTrace(Callable<T> task) throws Exception {
         String traceId = getTraceId();
         if (traceId == null) {
             initTrace();
         }
-        
+
         try {
             return task.call();
         } finally {
-            // 不清理MDC，保持链路追踪信息
+            // 不清理上下文，保持链路追踪信息
+        }
+    }
+
+    /**
+     * 将当前链路同步到MDC，链路未变化时不做任何操作
+     */
+    static void syncMdc() {
+        TraceCarrier carrier = CURRENT.get();
+        if (carrier == MDC_SYNCED.get()) {
+            return;
+        }
+        if (carrier == null) {
+            MDC_SYNCED.remove();
+            removeMdc();
+            return;
+        }
+        MDC_SYNCED.set(carrier);
+        putMdc(TRACE_ID_KEY, carrier.getTraceId());
+        putMdc(SPAN_ID_KEY, carrier.getSpanId());
+        putMdc(USER_ID_KEY, carrier.getUserId());
+        putMdc(USERNAME_KEY, carrier.getUsername());
+    }
+
+    private static void putMdc(String key, String value) {
+        if (value != null) {
+            MDC.put(key, value);
+        } else {
+            MDC.remove(key);
+        }
+    }
+
+    private static void removeMdc() {
+        MDC.remove(TRACE_ID_KEY);
+        MDC.remove(SPAN_ID_KEY);
+        MDC.remove(USER_ID_KEY);
+        MDC.remove(USERNAME_KEY);
+    }
+
+    private static void writeHex(long value, char[] chars, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
         }
     }
 }
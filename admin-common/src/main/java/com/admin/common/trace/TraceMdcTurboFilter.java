@@ -0,0 +1,28 @@
+package com.admin.common.trace;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * 按需同步链路MDC的Logback过滤器
+ *
+ * 在日志事件创建前执行，只对级别已启用的日志把当前链路写入MDC，
+ * 未输出日志的代码路径不产生任何MDC开销；需在logback配置中以 turboFilter 注册
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class TraceMdcTurboFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            TraceContext.syncMdc();
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -1,5 +1,7 @@
 package com.admin.common.utils;
 
+import com.admin.common.utils.ip.IpLocationResolver;
+import com.admin.common.utils.ip.IpRangeIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
@@ -21,6 +23,8 @@ public class IpUtils {
     private static final String LOCALHOST_IPV4 = "127.0.0.1";
     private static final String LOCALHOST_IPV6 = "0:0:0:0:0:0:0:1";
     private static final int IP_MAX_LENGTH = 15;
+    private static final String INTERNAL_LOCATION = "内网IP";
+    private static final String UNKNOWN_LOCATION = "未知位置";
 
     /**
      * 获取客户端IP地址
@@ -106,6 +110,57 @@ public class IpUtils {
         }
     }
 
+    /**
+     * 获取IP地址归属地
+     *
+     * 内网和回环地址返回"内网IP"，其余地址查询离线IP库，未配置IP库或未收录时返回"未知位置"
+     *
+     * @param ip IP地址
+     * @return 归属地
+     */
+    public static String getIpLocation(String ip) {
+        if (!StringUtils.hasText(ip) || "localhost".equals(ip) || isInternalLiteral(ip)) {
+            return INTERNAL_LOCATION;
+        }
+        IpLocationResolver resolver = IpLocationResolver.getDefault();
+        if (resolver == null) {
+            return UNKNOWN_LOCATION;
+        }
+        try {
+            String location = resolver.lookup(ip);
+            return StringUtils.hasText(location) ? location : UNKNOWN_LOCATION;
+        } catch (Exception e) {
+            log.warn("获取IP归属地异常: {}, {}", ip, e.getMessage());
+            return UNKNOWN_LOCATION;
+        }
+    }
+
+    /**
+     * 按地址字面量判断内网或回环地址，不做DNS解析
+     */
+    private static boolean isInternalLiteral(String ip) {
+        long v4 = IpRangeIndex.parseIpv4(ip);
+        if (v4 >= 0) {
+            long first = v4 >>> 24;
+            long second = (v4 >>> 16) & 0xFF;
+            return first == 10 || first == 127
+                    || first == 172 && second >= 16 && second <= 31
+                    || first == 192 && second == 168;
+        }
+        long[] v6 = IpRangeIndex.parseIpv6(ip);
+        if (v6 == null) {
+            return false;
+        }
+        if (v6[0] == 0 && (v6[1] == 1 || (v6[1] >>> 32) == 0xFFFFL)) {
+            // ::1 或 IPv4映射地址
+            return v6[1] == 1 || isInternalLiteral(((v6[1] >>> 24) & 0xFF) + "." + ((v6[1] >>> 16) & 0xFF)
+                    + "." + ((v6[1] >>> 8) & 0xFF) + "." + (v6[1] & 0xFF));
+        }
+        long prefix = v6[0] >>> 48;
+        // fc00::/7 唯一本地地址，fe80::/10 链路本地地址
+        return (prefix & 0xFE00) == 0xFC00 || (prefix & 0xFFC0) == 0xFE80;
+    }
+
     /**
      * 获取本机IP地址
      *
@@ -0,0 +1,156 @@
+package com.admin.common.utils.ip;
+
+import cn.hutool.cache.impl.LRUCache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * IP归属地解析器
+ *
+ * 持有当前生效的{@link IpRangeIndex}，查询时按固定间隔检查数据文件修改时间，文件变化后由抢到锁的线程重新加载，
+ * 新索引构建完成后整体替换，查询线程不会看到半成品；重复IP命中小容量LRU缓存
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+public class IpLocationResolver {
+
+    private static volatile IpLocationResolver defaultResolver;
+
+    private final Path dataFile;
+
+    private final long checkIntervalMillis;
+
+    private final LRUCache<String, String> cache;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile IpRangeIndex index = IpRangeIndex.EMPTY;
+
+    private volatile long loadedModifiedTime = -1;
+
+    private volatile long nextCheckAt;
+
+    /**
+     * @param dataFile 数据文件
+     * @param checkIntervalMillis 检查文件变化的间隔，小于等于0表示不热加载
+     * @param cacheSize LRU缓存容量
+     */
+    public IpLocationResolver(Path dataFile, long checkIntervalMillis, int cacheSize) {
+        this.dataFile = dataFile;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.cache = new LRUCache<>(Math.max(cacheSize, 1));
+        reload();
+    }
+
+    /**
+     * 获取全局解析器，未配置时返回null
+     */
+    public static IpLocationResolver getDefault() {
+        return defaultResolver;
+    }
+
+    /**
+     * 设置全局解析器，供{@code IpUtils}使用
+     */
+    public static void setDefault(IpLocationResolver resolver) {
+        defaultResolver = resolver;
+    }
+
+    /**
+     * 查询归属地
+     *
+     * @param ip IP地址
+     * @return 归属地，未收录时返回null
+     */
+    public String lookup(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        checkForUpdate();
+        String location = cache.get(ip);
+        if (location != null) {
+            return location.isEmpty() ? null : location;
+        }
+        location = index.lookup(ip);
+        cache.put(ip, location != null ? location : "");
+        return location;
+    }
+
+    /**
+     * 重新加载数据文件
+     *
+     * @return 是否加载成功
+     */
+    public boolean reload() {
+        reloadLock.lock();
+        try {
+            return doReload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * 当前索引
+     */
+    public IpRangeIndex getIndex() {
+        return index;
+    }
+
+    private void checkForUpdate() {
+        if (checkIntervalMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now < nextCheckAt || !reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            nextCheckAt = now + checkIntervalMillis;
+            if (modifiedTime() != loadedModifiedTime) {
+                doReload();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private boolean doReload() {
+        nextCheckAt = System.currentTimeMillis() + checkIntervalMillis;
+        long modifiedTime = modifiedTime();
+        if (modifiedTime < 0) {
+            if (loadedModifiedTime != modifiedTime) {
+                log.warn("IP归属地数据文件不存在: {}", dataFile);
+                loadedModifiedTime = modifiedTime;
+            }
+            return false;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            IpRangeIndex loaded = IpRangeIndex.load(dataFile);
+            index = loaded;
+            loadedModifiedTime = modifiedTime;
+            cache.clear();
+            log.info("IP归属地数据已加载: {}, {}, 耗时{}ms", dataFile, loaded, System.currentTimeMillis() - start);
+            return true;
+        } catch (IOException e) {
+            log.error("加载IP归属地数据失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private long modifiedTime() {
+        try {
+            return Files.getLastModifiedTime(dataFile).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
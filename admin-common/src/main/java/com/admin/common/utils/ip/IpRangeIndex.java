@@ -0,0 +1,360 @@
+package com.admin.common.utils.ip;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IP段归属地索引
+ *
+ * 从本地文本文件加载IP段，IPv4段存为按起始地址排序的int数组（无符号比较），IPv6段存为高低64位long数组，
+ * 归属地字符串去重后按下标引用，查询为一次地址解析加一次二分查找（IPv4不产生临时对象）；实例创建后不可变
+ *
+ * 数据文件每行一个IP段，分隔符为"|"或","，#开头为注释：
+ * <pre>
+ * 起始IP|结束IP|国家|区域|省份|城市|运营商
+ * 1.0.1.0|1.0.3.255|中国|0|福建省|福州市|电信
+ * 2001:250::|2001:250:ffff:ffff:ffff:ffff:ffff:ffff|中国|0|北京|北京市|教育网
+ * </pre>
+ * 第三列起为归属地字段，值为"0"或空的字段忽略，其余以空格拼接
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+public final class IpRangeIndex {
+
+    /**
+     * 空索引
+     */
+    public static final IpRangeIndex EMPTY = new IpRangeIndex(new int[0], new int[0], new int[0],
+            new long[0], new long[0], new long[0], new long[0], new int[0], new String[0]);
+
+    private static final long UNSIGNED_INT_MASK = 0xFFFFFFFFL;
+
+    private final int[] v4Starts;
+    private final int[] v4Ends;
+    private final int[] v4Locations;
+
+    private final long[] v6StartHigh;
+    private final long[] v6StartLow;
+    private final long[] v6EndHigh;
+    private final long[] v6EndLow;
+    private final int[] v6Locations;
+
+    private final String[] locations;
+
+    private IpRangeIndex(int[] v4Starts, int[] v4Ends, int[] v4Locations,
+                         long[] v6StartHigh, long[] v6StartLow, long[] v6EndHigh, long[] v6EndLow,
+                         int[] v6Locations, String[] locations) {
+        this.v4Starts = v4Starts;
+        this.v4Ends = v4Ends;
+        this.v4Locations = v4Locations;
+        this.v6StartHigh = v6StartHigh;
+        this.v6StartLow = v6StartLow;
+        this.v6EndHigh = v6EndHigh;
+        this.v6EndLow = v6EndLow;
+        this.v6Locations = v6Locations;
+        this.locations = locations;
+    }
+
+    /**
+     * 查询归属地
+     *
+     * @param ip IPv4或IPv6地址字面量
+     * @return 归属地，地址无效或未收录时返回null
+     */
+    public String lookup(String ip) {
+        long v4 = parseIpv4(ip);
+        if (v4 >= 0) {
+            return lookupIpv4(v4);
+        }
+        long[] v6 = parseIpv6(ip);
+        if (v6 == null) {
+            return null;
+        }
+        if (v6[0] == 0 && (v6[1] >>> 32) == 0xFFFFL) {
+            // IPv4映射地址 ::ffff:a.b.c.d
+            return lookupIpv4(v6[1] & UNSIGNED_INT_MASK);
+        }
+        return lookupIpv6(v6[0], v6[1]);
+    }
+
+    /**
+     * IPv4段数量
+     */
+    public int ipv4Size() {
+        return v4Starts.length;
+    }
+
+    /**
+     * IPv6段数量
+     */
+    public int ipv6Size() {
+        return v6Locations.length;
+    }
+
+    private String lookupIpv4(long ip) {
+        int low = 0;
+        int high = v4Starts.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if ((v4Starts[mid] & UNSIGNED_INT_MASK) <= ip) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0 || ip > (v4Ends[found] & UNSIGNED_INT_MASK)) {
+            return null;
+        }
+        return locations[v4Locations[found]];
+    }
+
+    private String lookupIpv6(long ipHigh, long ipLow) {
+        int low = 0;
+        int high = v6Locations.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compareUnsigned128(v6StartHigh[mid], v6StartLow[mid], ipHigh, ipLow) <= 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0 || compareUnsigned128(ipHigh, ipLow, v6EndHigh[found], v6EndLow[found]) > 0) {
+            return null;
+        }
+        return locations[v6Locations[found]];
+    }
+
+    private static int compareUnsigned128(long aHigh, long aLow, long bHigh, long bLow) {
+        int result = Long.compareUnsigned(aHigh, bHigh);
+        return result != 0 ? result : Long.compareUnsigned(aLow, bLow);
+    }
+
+    /**
+     * 从数据文件加载索引
+     *
+     * @param file 数据文件
+     * @return 索引
+     * @throws IOException 读取失败
+     */
+    public static IpRangeIndex load(Path file) throws IOException {
+        Builder builder = new Builder();
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                if (!builder.add(line)) {
+                    log.warn("忽略无效的IP段数据: {}:{}", file.getFileName(), lineNumber);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 解析IPv4地址
+     *
+     * @param ip 地址字面量
+     * @return 无符号32位地址，不是合法IPv4时返回-1
+     */
+    public static long parseIpv4(String ip) {
+        if (ip == null) {
+            return -1;
+        }
+        int length = ip.length();
+        if (length < 7 || length > 15) {
+            return -1;
+        }
+        long result = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < length; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                result = (result << 8) | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || octet < 0) {
+            return -1;
+        }
+        return (result << 8) | octet;
+    }
+
+    /**
+     * 解析IPv6地址
+     *
+     * @param ip 地址字面量
+     * @return 高低64位，不是合法IPv6时返回null
+     */
+    public static long[] parseIpv6(String ip) {
+        if (!isIpv6Literal(ip)) {
+            return null;
+        }
+        try {
+            // 已确认是以十六进制数字或冒号开头的字面量，InetAddress 按IPv6字面量解析，不会发起DNS查询
+            byte[] bytes = InetAddress.getByName(ip).getAddress();
+            if (bytes.length == 4) {
+                long v4 = ((bytes[0] & 0xFFL) << 24) | ((bytes[1] & 0xFFL) << 16) | ((bytes[2] & 0xFFL) << 8) | (bytes[3] & 0xFFL);
+                return new long[]{0, 0xFFFF00000000L | v4};
+            }
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < 8; i++) {
+                high = (high << 8) | (bytes[i] & 0xFF);
+                low = (low << 8) | (bytes[i + 8] & 0xFF);
+            }
+            return new long[]{high, low};
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 是否形如IPv6字面量：含冒号，以十六进制数字或冒号开头，只含十六进制数字、冒号、点和数字区域ID。
+     * 地址可能来自客户端可控的请求头，其它字符一律拒绝，避免交给 InetAddress 时被当作主机名解析
+     */
+    private static boolean isIpv6Literal(String ip) {
+        if (ip == null || ip.isEmpty() || ip.length() > 64 || ip.indexOf(':') < 0) {
+            return false;
+        }
+        char first = ip.charAt(0);
+        if (first != ':' && Character.digit(first, 16) < 0) {
+            return false;
+        }
+        int scope = ip.indexOf('%');
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            boolean valid = scope >= 0 && i > scope
+                    ? c >= '0' && c <= '9'
+                    : c == ':' || c == '.' || c == '%' || Character.digit(c, 16) >= 0;
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 索引构建器
+     */
+    private static final class Builder {
+
+        private final List<long[]> v4Ranges = new ArrayList<>();
+        private final List<long[]> v6Ranges = new ArrayList<>();
+        private final Map<String, Integer> locationIds = new HashMap<>();
+        private final List<String> locationList = new ArrayList<>();
+
+        boolean add(String line) {
+            String[] columns = line.split(line.indexOf('|') >= 0 ? "\\|" : ",", -1);
+            if (columns.length < 3) {
+                return false;
+            }
+            int locationId = locationId(columns);
+            String start = columns[0].trim();
+            String end = columns[1].trim();
+            long v4Start = parseIpv4(start);
+            long v4End = parseIpv4(end);
+            if (v4Start >= 0 && v4End >= v4Start) {
+                v4Ranges.add(new long[]{v4Start, v4End, locationId});
+                return true;
+            }
+            long[] v6Start = parseIpv6(start);
+            long[] v6End = parseIpv6(end);
+            if (v6Start != null && v6End != null
+                    && compareUnsigned128(v6Start[0], v6Start[1], v6End[0], v6End[1]) <= 0) {
+                v6Ranges.add(new long[]{v6Start[0], v6Start[1], v6End[0], v6End[1], locationId});
+                return true;
+            }
+            return false;
+        }
+
+        private int locationId(String[] columns) {
+            StringBuilder location = new StringBuilder();
+            for (int i = 2; i < columns.length; i++) {
+                String value = columns[i].trim();
+                if (value.isEmpty() || "0".equals(value)) {
+                    continue;
+                }
+                if (location.length() > 0) {
+                    location.append(' ');
+                }
+                location.append(value);
+            }
+            return locationIds.computeIfAbsent(location.toString(), key -> {
+                locationList.add(key);
+                return locationList.size() - 1;
+            });
+        }
+
+        IpRangeIndex build() {
+            v4Ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+            v6Ranges.sort((a, b) -> compareUnsigned128(a[0], a[1], b[0], b[1]));
+
+            int v4Count = v4Ranges.size();
+            int[] v4Starts = new int[v4Count];
+            int[] v4Ends = new int[v4Count];
+            int[] v4Locations = new int[v4Count];
+            for (int i = 0; i < v4Count; i++) {
+                long[] range = v4Ranges.get(i);
+                v4Starts[i] = (int) range[0];
+                v4Ends[i] = (int) range[1];
+                v4Locations[i] = (int) range[2];
+            }
+
+            int v6Count = v6Ranges.size();
+            long[] v6StartHigh = new long[v6Count];
+            long[] v6StartLow = new long[v6Count];
+            long[] v6EndHigh = new long[v6Count];
+            long[] v6EndLow = new long[v6Count];
+            int[] v6Locations = new int[v6Count];
+            for (int i = 0; i < v6Count; i++) {
+                long[] range = v6Ranges.get(i);
+                v6StartHigh[i] = range[0];
+                v6StartLow[i] = range[1];
+                v6EndHigh[i] = range[2];
+                v6EndLow[i] = range[3];
+                v6Locations[i] = (int) range[4];
+            }
+            return new IpRangeIndex(v4Starts, v4Ends, v4Locations,
+                    v6StartHigh, v6StartLow, v6EndHigh, v6EndLow, v6Locations,
+                    locationList.toArray(new String[0]));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IpRangeIndex{ipv4=" + v4Starts.length + ", ipv6=" + v6Locations.length
+                + ", locations=" + locations.length + "}";
+    }
+}
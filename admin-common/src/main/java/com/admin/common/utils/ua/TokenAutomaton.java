@@ -0,0 +1,109 @@
+package com.admin.common.utils.ua;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * 多关键字匹配自动机（Aho-Corasick）
+ *
+ * 构建时把关键字编译为ASCII字符上的完整转移表，匹配时对文本只扫描一遍，
+ * 返回出现过的关键字位掩码（第i个关键字对应第i位），最多支持64个关键字；非ASCII字符回到初始状态
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+final class TokenAutomaton {
+
+    private static final int ALPHABET = 128;
+
+    private final int[][] transitions;
+
+    private final long[] outputs;
+
+    TokenAutomaton(String[] tokens) {
+        if (tokens.length > Long.SIZE) {
+            throw new IllegalArgumentException("关键字数量不能超过64: " + tokens.length);
+        }
+        List<int[]> trie = new ArrayList<>();
+        List<Long> output = new ArrayList<>();
+        trie.add(newState());
+        output.add(0L);
+
+        // 构建字典树
+        for (int i = 0; i < tokens.length; i++) {
+            int state = 0;
+            for (char c : tokens[i].toCharArray()) {
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("关键字只能包含ASCII字符: " + tokens[i]);
+                }
+                if (trie.get(state)[c] < 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newState());
+                    output.add(0L);
+                }
+                state = trie.get(state)[c];
+            }
+            output.set(state, output.get(state) | (1L << i));
+        }
+
+        // 按层计算失败指针，并把缺失的转移补全为失败指针上的转移
+        int[] fail = new int[trie.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] < 0) {
+                root[c] = 0;
+            } else {
+                fail[root[c]] = 0;
+                queue.add(root[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = trie.get(state);
+            output.set(state, output.get(state) | output.get(fail[state]));
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = row[c];
+                if (child < 0) {
+                    row[c] = trie.get(fail[state])[c];
+                } else {
+                    fail[child] = trie.get(fail[state])[c];
+                    queue.add(child);
+                }
+            }
+        }
+
+        this.transitions = trie.toArray(new int[0][]);
+        this.outputs = new long[output.size()];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = output.get(i);
+        }
+    }
+
+    /**
+     * 匹配文本中出现的关键字
+     *
+     * @param text 文本
+     * @return 关键字位掩码
+     */
+    long match(String text) {
+        int state = 0;
+        long found = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            state = c < ALPHABET ? transitions[state][c] : 0;
+            found |= outputs[state];
+        }
+        return found;
+    }
+
+    private static int[] newState() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
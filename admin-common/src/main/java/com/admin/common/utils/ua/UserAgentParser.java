@@ -0,0 +1,297 @@
+package com.admin.common.utils.ua;
+
+import cn.hutool.cache.impl.LRUCache;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户代理解析器
+ *
+ * 浏览器、操作系统、设备关键字预编译为一个{@link TokenAutomaton}，解析时只扫描一遍User-Agent，
+ * 再按关键字位掩码判定结果；解析结果按原始User-Agent放入有界LRU缓存，并统计命中率
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class UserAgentParser {
+
+    public static final String UNKNOWN = "Unknown";
+
+    /**
+     * 超过该长度的User-Agent不缓存，避免异常请求头挤占缓存
+     */
+    private static final int MAX_CACHEABLE_LENGTH = 1024;
+
+    private static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static volatile UserAgentParser defaultParser;
+
+    private static final TokenAutomaton AUTOMATON;
+
+    static {
+        Token[] tokens = Token.values();
+        String[] literals = new String[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            literals[i] = tokens[i].literal;
+        }
+        AUTOMATON = new TokenAutomaton(literals);
+    }
+
+    private final LRUCache<String, UserAgentInfo> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public UserAgentParser(int cacheSize) {
+        this.cache = new LRUCache<>(Math.max(cacheSize, 1));
+    }
+
+    /**
+     * 获取全局解析器
+     */
+    public static UserAgentParser getDefault() {
+        UserAgentParser parser = defaultParser;
+        if (parser == null) {
+            synchronized (UserAgentParser.class) {
+                parser = defaultParser;
+                if (parser == null) {
+                    parser = new UserAgentParser(DEFAULT_CACHE_SIZE);
+                    defaultParser = parser;
+                }
+            }
+        }
+        return parser;
+    }
+
+    /**
+     * 替换全局解析器，用于按配置调整缓存容量
+     */
+    public static void setDefault(UserAgentParser parser) {
+        defaultParser = parser;
+    }
+
+    /**
+     * 解析User-Agent
+     *
+     * @param userAgent 原始User-Agent，可为空
+     * @return 解析结果，不为null
+     */
+    public UserAgentInfo parse(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UserAgentInfo.UNKNOWN_INFO;
+        }
+        if (userAgent.length() > MAX_CACHEABLE_LENGTH) {
+            misses.increment();
+            return doParse(userAgent);
+        }
+        UserAgentInfo info = cache.get(userAgent);
+        if (info != null) {
+            hits.increment();
+            return info;
+        }
+        misses.increment();
+        info = doParse(userAgent);
+        cache.put(userAgent, info);
+        return info;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    private static UserAgentInfo doParse(String userAgent) {
+        long mask = AUTOMATON.match(userAgent);
+        String browser = resolveBrowser(mask);
+        return new UserAgentInfo(browser, resolveVersion(userAgent, browser), resolveOs(mask), resolveDeviceType(mask));
+    }
+
+    private static boolean has(long mask, Token token) {
+        return (mask & (1L << token.ordinal())) != 0;
+    }
+
+    private static String resolveBrowser(long mask) {
+        if (has(mask, Token.EDG)) {
+            return "Microsoft Edge";
+        } else if (has(mask, Token.CHROME) && !has(mask, Token.CHROMIUM)) {
+            return "Google Chrome";
+        } else if (has(mask, Token.FIREFOX)) {
+            return "Mozilla Firefox";
+        } else if (has(mask, Token.SAFARI) && !has(mask, Token.CHROME)) {
+            return "Safari";
+        } else if (has(mask, Token.OPERA) || has(mask, Token.OPR)) {
+            return "Opera";
+        } else if (has(mask, Token.CHROMIUM)) {
+            return "Chromium";
+        } else if (has(mask, Token.MSIE) || has(mask, Token.TRIDENT)) {
+            return "Internet Explorer";
+        }
+        return UNKNOWN;
+    }
+
+    private static String resolveOs(long mask) {
+        // 移动设备优先检测
+        if (has(mask, Token.ANDROID)) {
+            return "Android";
+        } else if (has(mask, Token.IPHONE)) {
+            return "iOS (iPhone)";
+        } else if (has(mask, Token.IPAD)) {
+            return "iOS (iPad)";
+        } else if (has(mask, Token.IPOD)) {
+            return "iOS (iPod)";
+        }
+        // 桌面操作系统
+        if (has(mask, Token.WINDOWS_NT_10)) {
+            return "Windows 10/11";
+        } else if (has(mask, Token.WINDOWS_NT_6_3)) {
+            return "Windows 8.1";
+        } else if (has(mask, Token.WINDOWS_NT_6_2)) {
+            return "Windows 8";
+        } else if (has(mask, Token.WINDOWS_NT_6_1)) {
+            return "Windows 7";
+        } else if (has(mask, Token.WINDOWS_NT_6_0)) {
+            return "Windows Vista";
+        } else if (has(mask, Token.WINDOWS_NT_5_1)) {
+            return "Windows XP";
+        } else if (has(mask, Token.WINDOWS)) {
+            return "Windows";
+        } else if (has(mask, Token.MAC_OS_X)) {
+            return "macOS";
+        } else if (has(mask, Token.MACINTOSH)) {
+            return "Mac OS";
+        } else if (has(mask, Token.LINUX)) {
+            return "Linux";
+        } else if (has(mask, Token.UBUNTU)) {
+            return "Ubuntu";
+        } else if (has(mask, Token.CENTOS)) {
+            return "CentOS";
+        }
+        return UNKNOWN;
+    }
+
+    private static String resolveDeviceType(long mask) {
+        if (has(mask, Token.MOBILE) || has(mask, Token.ANDROID) || has(mask, Token.IPHONE) || has(mask, Token.IPOD)) {
+            return "Mobile";
+        } else if (has(mask, Token.IPAD) || has(mask, Token.TABLET)) {
+            return "Tablet";
+        }
+        return "Desktop";
+    }
+
+    /**
+     * 按识别出的浏览器提取版本号
+     */
+    private static String resolveVersion(String userAgent, String browser) {
+        return switch (browser) {
+            case "Microsoft Edge" -> extractVersion(userAgent, "Edg/", "Edge/");
+            case "Google Chrome" -> extractVersion(userAgent, "Chrome/");
+            case "Mozilla Firefox" -> extractVersion(userAgent, "Firefox/");
+            case "Safari" -> extractVersion(userAgent, "Version/");
+            case "Opera" -> extractVersion(userAgent, "OPR/", "Opera/");
+            case "Chromium" -> extractVersion(userAgent, "Chromium/");
+            case "Internet Explorer" -> extractVersion(userAgent, "MSIE ", "rv:");
+            default -> UNKNOWN;
+        };
+    }
+
+    /**
+     * 提取版本号，只保留主版本和次版本
+     */
+    private static String extractVersion(String userAgent, String... prefixes) {
+        for (String prefix : prefixes) {
+            int start = userAgent.indexOf(prefix);
+            if (start == -1) {
+                continue;
+            }
+            start += prefix.length();
+            int end = start;
+            int dots = 0;
+            while (end < userAgent.length()) {
+                char c = userAgent.charAt(end);
+                if (c == '.' && ++dots == 2 || c != '.' && !Character.isLetterOrDigit(c)) {
+                    break;
+                }
+                end++;
+            }
+            if (end > start) {
+                return userAgent.substring(start, end);
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * 识别用的关键字，声明顺序即位掩码中的位序
+     */
+    private enum Token {
+        EDG("Edg"),
+        CHROME("Chrome"),
+        CHROMIUM("Chromium"),
+        FIREFOX("Firefox"),
+        SAFARI("Safari"),
+        OPERA("Opera"),
+        OPR("OPR"),
+        MSIE("MSIE"),
+        TRIDENT("Trident"),
+        ANDROID("Android"),
+        IPHONE("iPhone"),
+        IPAD("iPad"),
+        IPOD("iPod"),
+        WINDOWS_NT_10("Windows NT 10.0"),
+        WINDOWS_NT_6_3("Windows NT 6.3"),
+        WINDOWS_NT_6_2("Windows NT 6.2"),
+        WINDOWS_NT_6_1("Windows NT 6.1"),
+        WINDOWS_NT_6_0("Windows NT 6.0"),
+        WINDOWS_NT_5_1("Windows NT 5.1"),
+        WINDOWS("Windows"),
+        MAC_OS_X("Mac OS X"),
+        MACINTOSH("Macintosh"),
+        LINUX("Linux"),
+        UBUNTU("Ubuntu"),
+        CENTOS("CentOS"),
+        MOBILE("Mobile"),
+        TABLET("Tablet");
+
+        private final String literal;
+
+        Token(String literal) {
+            this.literal = literal;
+        }
+    }
+
+    /**
+     * 解析结果
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class UserAgentInfo {
+
+        static final UserAgentInfo UNKNOWN_INFO = new UserAgentInfo(UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN);
+
+        private final String browser;
+
+        private final String browserVersion;
+
+        private final String os;
+
+        private final String deviceType;
+
+        /**
+         * 浏览器名称加版本号，如 Google Chrome 120.0
+         */
+        public String getBrowserWithVersion() {
+            return UNKNOWN.equals(browserVersion) ? browser : browser + " " + browserVersion;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.admin.framework.excel.config;
 
+import com.admin.common.concurrent.VirtualThreadTaskExecutor;
+import com.admin.common.trace.TraceContext;
 import com.admin.framework.excel.service.ImportExportFileService;
 import com.admin.framework.excel.service.ImportExportTaskService;
 import com.admin.framework.excel.service.ExcelImportService;
@@ -9,11 +11,14 @@ import com.admin.framework.excel.service.impl.ImportExportTaskServiceImpl;
 import com.admin.framework.excel.service.impl.ExcelImportServiceImpl;
 import com.admin.framework.excel.service.impl.ExcelExportServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -36,6 +41,8 @@ public class ImportExportAutoConfiguration {
 
     private final ImportExportProperties properties;
 
+    private final Environment environment;
+
     /**
      * Excel导入服务
      */
@@ -59,23 +66,32 @@ public class ImportExportAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public ImportExportFileService importExportFileService() {
-        return new ImportExportFileServiceImpl(null); // MinioService由依赖注入提供
+    public ImportExportFileService importExportFileService(
+            @Qualifier("importExportTaskExecutor") Executor taskExecutor) {
+        return new ImportExportFileServiceImpl(null, taskExecutor); // MinioService由依赖注入提供
     }
 
     // ImportExportTaskService 通过 @Service 注解自动注册，无需手动配置Bean
 
     /**
      * 导入导出任务执行器
+     *
+     * 开启虚拟线程时，系统最大并发任务数作为同时执行的任务上限
      */
     @Bean("importExportTaskExecutor")
     @ConditionalOnMissingBean(name = "importExportTaskExecutor")
     public Executor taskExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("ImportExport-", properties.getTask().getMaxSystemConcurrentTasks(),
+                    properties.getTask().getQueueCapacity(), 60_000L);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(properties.getTask().getCorePoolSize());
         executor.setMaxPoolSize(properties.getTask().getMaxPoolSize());
         executor.setQueueCapacity(properties.getTask().getQueueCapacity());
         executor.setThreadNamePrefix("ImportExport-");
+        // 传递提交线程的链路上下文
+        executor.setTaskDecorator(TraceContext::wrap);
         executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
         executor.initialize();
         return executor;
@@ -4,6 +4,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * 导入导出文件存储服务接口
@@ -33,6 +34,18 @@ public interface ImportExportFileService {
      */
     String saveExportFile(byte[] data, String fileName, Long taskId);
 
+    /**
+     * 流式保存导出文件
+     * 
+     * 写入的内容边生成边分片上传，不在内存中缓存完整文件；写入过程抛出异常时上传取消
+     * 
+     * @param fileName 文件名
+     * @param taskId 任务ID
+     * @param writer 文件内容写入逻辑
+     * @return 文件存储路径
+     */
+    String saveExportFile(String fileName, Long taskId, ExportContentWriter writer);
+
     /**
      * 保存错误报告文件
      * 
@@ -106,4 +119,19 @@ public interface ImportExportFileService {
      * @return 清理文件数量
      */
     int cleanExpiredFiles(int days);
-}
\ No newline at end of file
+
+    /**
+     * 导出文件内容写入逻辑
+     */
+    @FunctionalInterface
+    interface ExportContentWriter {
+
+        /**
+         * 把文件内容写入输出流，无需关闭输出流
+         * 
+         * @param outputStream 输出流
+         * @throws Exception 写入失败
+         */
+        void write(OutputStream outputStream) throws Exception;
+    }
+}
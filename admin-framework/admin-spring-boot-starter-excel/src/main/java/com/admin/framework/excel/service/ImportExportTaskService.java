@@ -53,6 +53,15 @@ public interface ImportExportTaskService {
      */
     void updateTaskProgress(Long taskId, int processed, int total);
 
+    /**
+     * 更新分片导出进度，与任务进度写入同一个缓存
+     * 
+     * @param taskId 任务ID
+     * @param completedShards 已完成分片数
+     * @param totalShards 分片总数
+     */
+    void updateShardProgress(Long taskId, int completedShards, int totalShards);
+
     /**
      * 更新任务统计信息
      * 
@@ -0,0 +1,194 @@
+package com.admin.framework.excel.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导出文件上传管道
+ *
+ * 生成线程写入输出端，上传线程从输入端读取，中间只保留有限个数据块。
+ * 与 PipedInputStream 不同，生成失败时可以中止管道，让上传端读到异常而不是正常结束，
+ * 避免把残缺文件当作完整文件上传；上传端提前退出时生成端写入也会立即失败
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+final class ExportUploadPipe {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final byte[] END = new byte[0];
+
+    private static final byte[] ABORTED = new byte[0];
+
+    private final BlockingQueue<byte[]> chunks;
+
+    private final PipeOutputStream outputStream = new PipeOutputStream();
+
+    private final PipeInputStream inputStream = new PipeInputStream();
+
+    private volatile boolean readerClosed;
+
+    private volatile Throwable abortCause;
+
+    ExportUploadPipe(int capacity) {
+        this.chunks = new ArrayBlockingQueue<>(capacity);
+    }
+
+    OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * 生成失败时中止管道，上传端随后读取会抛出异常
+     */
+    void abort(Throwable cause) {
+        abortCause = cause;
+        outputStream.closed = true;
+        chunks.clear();
+        chunks.offer(ABORTED);
+    }
+
+    private void put(byte[] chunk) throws IOException {
+        try {
+            while (!chunks.offer(chunk, 1, TimeUnit.SECONDS)) {
+                if (readerClosed) {
+                    throw new IOException("上传已终止");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("写入导出文件被中断");
+        }
+    }
+
+    private final class PipeOutputStream extends OutputStream {
+
+        private byte[] buffer = new byte[CHUNK_SIZE];
+
+        private int count;
+
+        private volatile boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureOpen();
+            if (count == buffer.length) {
+                flushChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            while (len > 0) {
+                if (count == buffer.length) {
+                    flushChunk();
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            if (count > 0) {
+                flushChunk();
+            }
+            closed = true;
+            put(END);
+        }
+
+        private void flushChunk() throws IOException {
+            put(buffer.length == count ? buffer : Arrays.copyOf(buffer, count));
+            buffer = new byte[CHUNK_SIZE];
+            count = 0;
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("导出管道已关闭");
+            }
+            if (readerClosed) {
+                throw new IOException("上传已终止");
+            }
+        }
+    }
+
+    private final class PipeInputStream extends InputStream {
+
+        private byte[] current;
+
+        private int position;
+
+        private boolean finished;
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return current[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+            readerClosed = true;
+            chunks.clear();
+        }
+
+        private boolean fill() throws IOException {
+            while (!finished && (current == null || position == current.length)) {
+                byte[] next;
+                try {
+                    next = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("读取导出文件被中断");
+                }
+                if (next == ABORTED) {
+                    throw new IOException("导出文件生成失败", abortCause);
+                }
+                if (next == END) {
+                    finished = true;
+                } else {
+                    current = next;
+                    position = 0;
+                }
+            }
+            return !finished;
+        }
+    }
+}
@@ -3,10 +3,11 @@ package com.admin.framework.excel.service.impl;
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.util.StrUtil;
+import com.admin.common.result.minio.UploadResult;
 import com.admin.framework.excel.service.ImportExportFileService;
 import com.admin.framework.minio.service.MinioService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -15,11 +16,20 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 导入导出文件存储服务实现
@@ -30,10 +40,16 @@ import java.util.List;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ImportExportFileServiceImpl implements ImportExportFileService {
 
     private final MinioService minioService;
+    private final Executor taskExecutor;
+
+    public ImportExportFileServiceImpl(MinioService minioService,
+                                       @Qualifier("importExportTaskExecutor") Executor taskExecutor) {
+        this.minioService = minioService;
+        this.taskExecutor = taskExecutor;
+    }
 
     @Value("${admin.file.default-bucket:default}")
     private String defaultBucket;
@@ -43,6 +59,12 @@ public class ImportExportFileServiceImpl implements ImportExportFileService {
     private static final String EXPORT_PATH_PREFIX = "import-export/export/";
     private static final String ERROR_REPORT_PREFIX = "import-export/error-report/";
 
+    // 流式导出的分片大小和管道缓冲块数
+    private static final long EXPORT_PART_SIZE = 8L * 1024 * 1024;
+    private static final int PIPE_CAPACITY = 16;
+    // 等待上传任务在执行器中开始执行的最长时间
+    private static final long UPLOAD_START_TIMEOUT_SECONDS = 5L;
+
     @Override
     public String uploadImportFile(MultipartFile file, Long taskId) {
         try {
@@ -72,11 +94,7 @@ public class ImportExportFileServiceImpl implements ImportExportFileService {
         try {
             // 生成文件路径
             String extension = getFileExtension(fileName);
-            String newFileName = String.format("export_task_%d_%s%s", 
-                taskId, 
-                DateUtil.format(LocalDateTime.now(), "yyyyMMdd_HHmmss"),
-                extension);
-            String filePath = EXPORT_PATH_PREFIX + generateDatePath() + "/" + newFileName;
+            String filePath = generateExportPath(extension, taskId);
 
             // 上传到MinIO
             try (InputStream inputStream = new ByteArrayInputStream(data)) {
@@ -93,6 +111,106 @@ public class ImportExportFileServiceImpl implements ImportExportFileService {
         }
     }
 
+    @Override
+    public String saveExportFile(String fileName, Long taskId, ExportContentWriter writer) {
+        String extension = getFileExtension(fileName);
+        String filePath = generateExportPath(extension, taskId);
+        String contentType = getContentType(extension);
+
+        // 上传由导入导出执行器读取管道，当前线程负责生成内容
+        ExportUploadPipe pipe = new ExportUploadPipe(PIPE_CAPACITY);
+        CompletableFuture<UploadResult> upload = new CompletableFuture<>();
+        if (!startUpload(pipe, upload, filePath, contentType)) {
+            log.warn("导入导出执行器繁忙，导出文件改为写入临时文件后上传，任务ID: {}", taskId);
+            return saveExportFileBuffered(filePath, extension, contentType, taskId, writer);
+        }
+
+        try {
+            writer.write(pipe.getOutputStream());
+            pipe.getOutputStream().close();
+        } catch (Exception e) {
+            pipe.abort(e);
+            upload.exceptionally(ex -> null).join();
+            log.error("导出文件生成失败，任务ID: {}", taskId, e);
+            throw new RuntimeException("文件保存失败: " + e.getMessage());
+        }
+
+        UploadResult result = upload.join();
+        if (result == null || !result.isSuccess()) {
+            throw new RuntimeException("文件保存失败: " + (result != null ? result.getMessage() : "上传未完成"));
+        }
+        log.info("导出文件流式保存成功，任务ID: {}, 文件路径: {}", taskId, filePath);
+        return filePath;
+    }
+
+    /**
+     * 把管道上传提交到导入导出执行器
+     *
+     * 导出本身通常就运行在该执行器上，执行器积压已满时任务会在当前线程直接执行或长时间排队，
+     * 这两种情况下上传都不能与内容生成并行，收回任务并返回false
+     */
+    private boolean startUpload(ExportUploadPipe pipe, CompletableFuture<UploadResult> upload,
+                                String filePath, String contentType) {
+        Thread caller = Thread.currentThread();
+        AtomicBoolean claimed = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            taskExecutor.execute(() -> {
+                if (Thread.currentThread() == caller || !claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                started.countDown();
+                try (InputStream inputStream = pipe.getInputStream()) {
+                    upload.complete(minioService.uploadStream(defaultBucket, filePath, inputStream,
+                            EXPORT_PART_SIZE, contentType));
+                } catch (Throwable e) {
+                    upload.completeExceptionally(e);
+                }
+            });
+            started.await(UPLOAD_START_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("提交导出上传任务被拒绝: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 超时仍未开始时收回任务，之后即使被调度也直接返回
+        return !claimed.compareAndSet(false, true);
+    }
+
+    /**
+     * 先把内容写入临时文件，再在当前线程上传
+     */
+    private String saveExportFileBuffered(String filePath, String extension, String contentType, Long taskId,
+                                          ExportContentWriter writer) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("export-" + taskId + "-", extension);
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                writer.write(outputStream);
+            }
+            UploadResult result;
+            try (InputStream inputStream = Files.newInputStream(tempFile)) {
+                result = minioService.uploadStream(defaultBucket, filePath, inputStream, EXPORT_PART_SIZE, contentType);
+            }
+            if (result == null || !result.isSuccess()) {
+                throw new IOException(result != null ? result.getMessage() : "上传未完成");
+            }
+        } catch (Exception e) {
+            log.error("导出文件保存失败，任务ID: {}", taskId, e);
+            throw new RuntimeException("文件保存失败: " + e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    log.warn("删除导出临时文件失败: {}", e.getMessage());
+                }
+            }
+        }
+        log.info("导出文件保存成功，任务ID: {}, 文件路径: {}", taskId, filePath);
+        return filePath;
+    }
+
     @Override
     public String saveErrorReportFile(String errorContent, Long taskId) {
         try {
@@ -297,6 +415,17 @@ public class ImportExportFileServiceImpl implements ImportExportFileService {
         }
     }
 
+    /**
+     * 生成导出文件路径
+     */
+    private String generateExportPath(String extension, Long taskId) {
+        String newFileName = String.format("export_task_%d_%s%s", 
+            taskId, 
+            DateUtil.format(LocalDateTime.now(), "yyyyMMdd_HHmmss"),
+            extension);
+        return EXPORT_PATH_PREFIX + generateDatePath() + "/" + newFileName;
+    }
+
     /**
      * 生成日期路径 (yyyy/MM/dd)
      */
@@ -311,6 +440,9 @@ public class ImportExportFileServiceImpl implements ImportExportFileService {
         if (StrUtil.isBlank(fileName)) {
             return ".xlsx";
         }
+        if (fileName.toLowerCase().endsWith(".csv.gz")) {
+            return fileName.substring(fileName.length() - ".csv.gz".length());
+        }
         int lastDotIndex = fileName.lastIndexOf(".");
         return lastDotIndex != -1 ? fileName.substring(lastDotIndex) : ".xlsx";
     }
@@ -326,6 +458,8 @@ public class ImportExportFileServiceImpl implements ImportExportFileService {
                 return "application/vnd.ms-excel";
             case ".csv":
                 return "text/csv";
+            case ".csv.gz":
+                return "application/gzip";
             case ".txt":
                 return "text/plain";
             default:
@@ -129,6 +129,16 @@ ImportExportTaskServiceImpl implements ImportExportTaskService {
         log.debug("更新任务{}进度: {}/{} ({}%)", taskId, processed, total, progress);
     }
 
+    @Override
+    public void updateShardProgress(Long taskId, int completedShards, int totalShards) {
+        String progressKey = "task:progress:" + taskId;
+        redisTemplate.opsForHash().putAll(progressKey, 
+            java.util.Map.of("completedShards", completedShards, "totalShards", totalShards));
+        redisTemplate.expire(progressKey, 30, TimeUnit.MINUTES);
+        
+        log.debug("更新任务{}分片进度: {}/{}", taskId, completedShards, totalShards);
+    }
+
     @Override
     @Transactional
     public void updateTaskStatistics(Long taskId, int totalCount, int successCount, int failCount) {
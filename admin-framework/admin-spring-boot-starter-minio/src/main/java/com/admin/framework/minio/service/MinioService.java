@@ -70,6 +70,21 @@ public interface MinioService {
     UploadResult uploadFile(String bucketName, String objectName, InputStream inputStream, 
                            long size, String contentType);
 
+    /**
+     * 上传长度未知的文件流
+     * 
+     * 客户端按分片大小缓冲并逐片上传，内存占用只与分片大小有关；读取流出错时上传失败，不会生成残缺对象
+     * 
+     * @param bucketName 存储桶名称
+     * @param objectName 对象名称
+     * @param inputStream 输入流
+     * @param partSize 分片大小，不小于5MB
+     * @param contentType 内容类型
+     * @return 上传结果
+     */
+    UploadResult uploadStream(String bucketName, String objectName, InputStream inputStream,
+                             long partSize, String contentType);
+
     /**
      * 下载文件
      * 
@@ -0,0 +1,80 @@
+package com.admin.framework.redis.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 缓存条目包装
+ *
+ * 在缓存值旁记录上次加载耗时与过期时间，读取时按XFetch算法以一定概率在过期前提前刷新：
+ * 加载越慢、越接近过期，提前刷新的概率越高，避免热点键在同一时刻过期引发并发回源
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 缓存值
+     */
+    private Object value;
+
+    /**
+     * 上次加载耗时（毫秒），未知时为0
+     */
+    private long delta;
+
+    /**
+     * 过期时间戳（毫秒）
+     */
+    private long expireAt;
+
+    /**
+     * 创建缓存条目
+     *
+     * @param value 缓存值
+     * @param delta 加载耗时（毫秒）
+     * @param ttl 过期时间
+     * @return 缓存条目
+     */
+    public static CacheEntry of(Object value, long delta, Duration ttl) {
+        return new CacheEntry(value, delta, System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    /**
+     * 判断是否应提前刷新：now - delta * beta * ln(rand) >= expireAt
+     *
+     * @param beta 提前程度系数，大于1更激进，不大于0时关闭提前刷新
+     * @return 是否提前刷新
+     */
+    public boolean shouldRefreshEarly(double beta) {
+        if (beta <= 0 || delta <= 0 || expireAt <= 0) {
+            return false;
+        }
+        // 取(0, 1]区间的随机数，避免ln(0)
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double gap = -delta * beta * Math.log(random);
+        return System.currentTimeMillis() + gap >= expireAt;
+    }
+
+    /**
+     * 取出缓存值，兼容未包装的旧格式数据
+     *
+     * @param cached Redis中读取的对象
+     * @return 缓存值
+     */
+    public static Object unwrap(Object cached) {
+        return cached instanceof CacheEntry entry ? entry.getValue() : cached;
+    }
+}
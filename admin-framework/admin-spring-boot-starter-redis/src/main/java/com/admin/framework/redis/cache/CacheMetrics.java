@@ -0,0 +1,317 @@
+package com.admin.framework.redis.cache;
+
+import com.admin.framework.redis.constant.RedisKeyConstants;
+import com.admin.framework.redis.serializer.CompactRedisSerializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存指标
+ *
+ * 按缓存名称（Spring Cache）或键前缀（RedisCache直接读写）记录命中、未命中、空值命中、回源耗时、
+ * 删除次数和写入数据大小，注册到Micrometer后可通过 /actuator/metrics 查看：
+ * admin.cache.gets、admin.cache.loads、admin.cache.evictions、admin.cache.payload.size
+ * 键前缀只取已登记的前缀，未登记的统一归入"other"，避免指标标签基数失控
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+public class CacheMetrics {
+
+    public static final String METRIC_GETS = "admin.cache.gets";
+    public static final String METRIC_LOADS = "admin.cache.loads";
+    public static final String METRIC_EVICTIONS = "admin.cache.evictions";
+    public static final String METRIC_PAYLOAD_SIZE = "admin.cache.payload.size";
+
+    public static final String RESULT_LOCAL_HIT = "local_hit";
+    public static final String RESULT_REMOTE_HIT = "remote_hit";
+    public static final String RESULT_MISS = "miss";
+    public static final String RESULT_NULL_HIT = "null_hit";
+
+    private static final String TAG_CACHE = "cache";
+    private static final String TAG_RESULT = "result";
+    private static final String OTHER_PREFIX = "other";
+
+    /**
+     * Caffeine本地缓存指标（CaffeineCacheMetrics注册）
+     */
+    private static final String METRIC_LOCAL_EVICTIONS = "cache.evictions";
+    private static final String METRIC_LOCAL_SIZE = "cache.size";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 已登记的键前缀，按长度倒序以便最长匹配
+     */
+    private final List<String> keyPrefixes = new CopyOnWriteArrayList<>();
+
+    private final ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<>();
+
+    public CacheMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        registerKeyPrefixConstants();
+    }
+
+    /**
+     * 获取指标注册表，供本地缓存绑定Caffeine统计
+     */
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    /**
+     * 登记键前缀，RedisCache直接读写时按最长匹配的前缀统计
+     *
+     * @param prefix 键前缀
+     */
+    public void registerKeyPrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty() || keyPrefixes.contains(prefix)) {
+            return;
+        }
+        synchronized (keyPrefixes) {
+            if (!keyPrefixes.contains(prefix)) {
+                List<String> sorted = new ArrayList<>(keyPrefixes);
+                sorted.add(prefix);
+                sorted.sort(Comparator.comparingInt(String::length).reversed());
+                keyPrefixes.clear();
+                keyPrefixes.addAll(sorted);
+            }
+        }
+    }
+
+    /**
+     * 解析键所属的前缀
+     *
+     * @param key 缓存键
+     * @return 已登记的最长前缀，未匹配时为"other"
+     */
+    public String resolveKeyPrefix(String key) {
+        if (key != null) {
+            for (String prefix : keyPrefixes) {
+                if (key.startsWith(prefix)) {
+                    return prefix;
+                }
+            }
+        }
+        return OTHER_PREFIX;
+    }
+
+    /**
+     * 记录读取结果
+     *
+     * @param cache 缓存名称或键前缀
+     * @param result 读取结果，取值见RESULT_*常量
+     */
+    public void recordGet(String cache, String result) {
+        counter(METRIC_GETS, cache, result).increment();
+    }
+
+    /**
+     * 记录回源加载耗时
+     *
+     * @param cache 缓存名称或键前缀
+     * @param nanos 耗时（纳秒）
+     * @param success 是否加载成功
+     */
+    public void recordLoad(String cache, long nanos, boolean success) {
+        String result = success ? "success" : "failure";
+        Timer timer = (Timer) meters.computeIfAbsent(meterKey(METRIC_LOADS, cache, result),
+                k -> Timer.builder(METRIC_LOADS)
+                        .description("缓存回源加载耗时")
+                        .tag(TAG_CACHE, cache)
+                        .tag(TAG_RESULT, result)
+                        .register(meterRegistry));
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录删除的条目数
+     *
+     * @param cache 缓存名称或键前缀
+     * @param count 删除数量
+     */
+    public void recordEviction(String cache, long count) {
+        if (count > 0) {
+            counter(METRIC_EVICTIONS, cache, null).increment(count);
+        }
+    }
+
+    /**
+     * 记录刚写入的值序列化后的大小，须在同一线程写入Redis之后立即调用
+     *
+     * 大小取自值序列化器本次写入时留下的字节数，不再重复序列化；
+     * 值序列化器被替换为其它实现时不记录
+     *
+     * @param cache 缓存名称或键前缀
+     */
+    public void recordPayload(String cache) {
+        int size = CompactRedisSerializer.takeLastSerializedSize();
+        if (size >= 0) {
+            payloadSummary(cache).record(size);
+        }
+    }
+
+    /**
+     * 汇总各缓存的指标
+     *
+     * @return 按缓存名称排序的统计列表
+     */
+    public List<CacheStats> getStats() {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        for (Counter counter : meterRegistry.find(METRIC_GETS).counters()) {
+            CacheStats item = stats.computeIfAbsent(counter.getId().getTag(TAG_CACHE), CacheMetrics::emptyStats);
+            long count = (long) counter.count();
+            switch (String.valueOf(counter.getId().getTag(TAG_RESULT))) {
+                case RESULT_LOCAL_HIT -> item.setLocalHits(item.getLocalHits() + count);
+                case RESULT_REMOTE_HIT -> item.setRemoteHits(item.getRemoteHits() + count);
+                case RESULT_NULL_HIT -> item.setNullHits(item.getNullHits() + count);
+                default -> item.setMisses(item.getMisses() + count);
+            }
+        }
+        for (Timer timer : meterRegistry.find(METRIC_LOADS).timers()) {
+            CacheStats item = stats.computeIfAbsent(timer.getId().getTag(TAG_CACHE), CacheMetrics::emptyStats);
+            item.setLoads(item.getLoads() + timer.count());
+            if ("failure".equals(timer.getId().getTag(TAG_RESULT))) {
+                item.setLoadFailures(item.getLoadFailures() + timer.count());
+            }
+            item.setTotalLoadTimeMs(item.getTotalLoadTimeMs() + timer.totalTime(TimeUnit.MILLISECONDS));
+            item.setMaxLoadTimeMs(Math.max(item.getMaxLoadTimeMs(), timer.max(TimeUnit.MILLISECONDS)));
+        }
+        for (Counter counter : meterRegistry.find(METRIC_EVICTIONS).counters()) {
+            CacheStats item = stats.computeIfAbsent(counter.getId().getTag(TAG_CACHE), CacheMetrics::emptyStats);
+            item.setEvictions(item.getEvictions() + (long) counter.count());
+        }
+        for (DistributionSummary summary : meterRegistry.find(METRIC_PAYLOAD_SIZE).summaries()) {
+            CacheStats item = stats.computeIfAbsent(summary.getId().getTag(TAG_CACHE), CacheMetrics::emptyStats);
+            item.setPayloadWrites(summary.count());
+            item.setAvgPayloadBytes(summary.mean());
+            item.setMaxPayloadBytes(summary.max());
+        }
+        // 本地一级缓存的容量淘汰与条目数，由多级缓存绑定的Caffeine统计提供
+        for (FunctionCounter counter : meterRegistry.find(METRIC_LOCAL_EVICTIONS).tag(TAG_CACHE, c -> stats.containsKey(c)).functionCounters()) {
+            CacheStats item = stats.get(counter.getId().getTag(TAG_CACHE));
+            item.setLocalEvictions(item.getLocalEvictions() + (long) counter.count());
+        }
+        for (Gauge gauge : meterRegistry.find(METRIC_LOCAL_SIZE).tag(TAG_CACHE, c -> stats.containsKey(c)).gauges()) {
+            stats.get(gauge.getId().getTag(TAG_CACHE)).setLocalSize((long) gauge.value());
+        }
+
+        stats.values().forEach(item -> {
+            long hits = item.getLocalHits() + item.getRemoteHits() + item.getNullHits();
+            long total = hits + item.getMisses();
+            item.setHitRate(total > 0 ? (double) hits / total : 0D);
+            item.setAvgLoadTimeMs(item.getLoads() > 0 ? item.getTotalLoadTimeMs() / item.getLoads() : 0D);
+        });
+        return new ArrayList<>(stats.values());
+    }
+
+    private Counter counter(String name, String cache, String result) {
+        return (Counter) meters.computeIfAbsent(meterKey(name, cache, result), k -> {
+            Counter.Builder builder = Counter.builder(name).tag(TAG_CACHE, cache);
+            if (result != null) {
+                builder.tag(TAG_RESULT, result);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private DistributionSummary payloadSummary(String cache) {
+        return (DistributionSummary) meters.computeIfAbsent(meterKey(METRIC_PAYLOAD_SIZE, cache, null),
+                k -> DistributionSummary.builder(METRIC_PAYLOAD_SIZE)
+                        .description("缓存写入数据序列化后的大小")
+                        .baseUnit("bytes")
+                        .tag(TAG_CACHE, cache)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(64D)
+                        .maximumExpectedValue(4D * 1024 * 1024)
+                        .register(meterRegistry));
+    }
+
+    private static String meterKey(String name, String cache, String result) {
+        return name + "|" + cache + "|" + result;
+    }
+
+    private static CacheStats emptyStats(String cache) {
+        return CacheStats.builder().cache(cache).build();
+    }
+
+    /**
+     * 登记RedisKeyConstants中定义的全部键前缀
+     */
+    private void registerKeyPrefixConstants() {
+        for (Field field : RedisKeyConstants.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class
+                    && field.getName().endsWith("_PREFIX") && !"GLOBAL_PREFIX".equals(field.getName())) {
+                try {
+                    registerKeyPrefix((String) field.get(null));
+                } catch (IllegalAccessException e) {
+                    log.warn("登记缓存键前缀失败: {}", field.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * 单个缓存的统计汇总
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheStats {
+        /**
+         * 缓存名称或键前缀
+         */
+        private String cache;
+        private long localHits;
+        private long remoteHits;
+        private long nullHits;
+        private long misses;
+        private double hitRate;
+        private long loads;
+        private long loadFailures;
+        private double totalLoadTimeMs;
+        private double avgLoadTimeMs;
+        private double maxLoadTimeMs;
+        private long evictions;
+        private long payloadWrites;
+        private double avgPayloadBytes;
+        private double maxPayloadBytes;
+        /**
+         * 本地一级缓存容量淘汰次数
+         */
+        private long localEvictions;
+        /**
+         * 本地一级缓存当前条目数
+         */
+        private long localSize;
+    }
+}
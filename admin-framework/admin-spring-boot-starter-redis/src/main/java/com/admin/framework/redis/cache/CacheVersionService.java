@@ -0,0 +1,160 @@
+package com.admin.framework.redis.cache;
+
+import com.admin.framework.redis.constant.RedisKeyConstants;
+import com.admin.framework.redis.core.RedisCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 缓存实体版本服务
+ *
+ * 为每个实体维护一个版本号并嵌入缓存键，实体变更时只需递增版本号，
+ * 旧版本的缓存条目不再被访问，由TTL自然过期，无需批量删除
+ * 版本号以Redis为准，本地缓存一份并通过发布订阅在变更时失效
+ *
+ * 用法：@Cacheable(key = "@cacheVersionService.key('user', #userId)")
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheVersionService implements MessageListener {
+
+    private static final String SEPARATOR = ":";
+
+    private final RedisCache redisCache;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 本地版本号缓存，定期过期以弥补订阅断线期间丢失的消息
+     */
+    private final Cache<String, Long> localVersions = Caffeine.newBuilder()
+            .maximumSize(100000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.CACHE_VERSION_CHANNEL));
+    }
+
+    /**
+     * 获取实体当前版本号
+     *
+     * @param namespace 版本命名空间
+     * @param id 实体ID
+     * @return 版本号，从未变更过的实体为0
+     */
+    public long getVersion(String namespace, Object id) {
+        String field = namespace + SEPARATOR + id;
+        Long version = localVersions.getIfPresent(field);
+        if (version != null) {
+            return version;
+        }
+        try {
+            Object stored = redisCache.hGet(RedisKeyConstants.CACHE_VERSIONS, field);
+            version = stored instanceof Number number ? number.longValue() : 0L;
+            localVersions.put(field, version);
+            return version;
+        } catch (Exception e) {
+            log.error("获取缓存版本号失败，实体: {}, 错误: {}", field, e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * 构建嵌入版本号的缓存键
+     *
+     * @param namespace 版本命名空间
+     * @param id 实体ID
+     * @return 形如 "{id}:v{version}" 的缓存键
+     */
+    public String key(String namespace, Object id) {
+        return id + SEPARATOR + "v" + getVersion(namespace, id);
+    }
+
+    /**
+     * 递增实体版本号，使该实体相关的缓存条目失效
+     * 事务内调用时在提交后执行，避免并发读取在提交前把旧数据写入新版本的缓存键
+     *
+     * @param namespace 版本命名空间
+     * @param id 实体ID
+     */
+    public void bump(String namespace, Object id) {
+        if (id == null) {
+            return;
+        }
+        bump(namespace, Set.of(id));
+    }
+
+    /**
+     * 批量递增实体版本号
+     *
+     * @param namespace 版本命名空间
+     * @param ids 实体ID集合
+     */
+    public void bump(String namespace, Collection<?> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        Set<Object> snapshot = new LinkedHashSet<>(ids);
+        snapshot.remove(null);
+        runAfterCommit(() -> snapshot.forEach(id -> {
+            String field = namespace + SEPARATOR + id;
+            try {
+                Long version = redisCache.hIncrement(RedisKeyConstants.CACHE_VERSIONS, field, 1L);
+                if (version != null) {
+                    localVersions.put(field, version);
+                }
+                redisCache.publish(RedisKeyConstants.CACHE_VERSION_CHANNEL, field);
+            } catch (Exception e) {
+                localVersions.invalidate(field);
+                log.error("递增缓存版本号失败，实体: {}, 错误: {}", field, e.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * 接收其他节点广播的版本变更，清除本地版本号缓存
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            localVersions.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.error("处理缓存版本变更广播失败: {}", e.getMessage());
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.admin.framework.redis.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多级缓存
+ *
+ * L1为进程内Caffeine缓存，L2为Redis缓存；读取先查L1，未命中再查L2并回填L1
+ * 写入和删除同时作用于两级，并广播给其他节点清除各自的L1，避免读到旧值
+ * L2中的值以CacheEntry包装；sync = true 的@Cacheable方法经单飞加载回源，并按XFetch提前刷新
+ * 读取结果、回源耗时、删除次数和写入大小按缓存名称记录到CacheMetrics
+ * 注意：L1中的对象按引用返回，调用方不应修改缓存返回的对象
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class MultiLevelCache extends AbstractValueAdaptingCache {
+
+    private static final String SEPARATOR = "::";
+
+    private final String name;
+
+    private final Cache<String, Object> localCache;
+
+    private final org.springframework.cache.Cache remoteCache;
+
+    private final MultiLevelCacheManager cacheManager;
+
+    public MultiLevelCache(String name, Cache<String, Object> localCache,
+                           org.springframework.cache.Cache remoteCache, MultiLevelCacheManager cacheManager) {
+        // L2不缓存null值，两级保持一致
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    /**
+     * 获取本地一级缓存
+     */
+    public Cache<String, Object> getLocalCache() {
+        return localCache;
+    }
+
+    /**
+     * 获取Redis二级缓存
+     */
+    public org.springframework.cache.Cache getRemoteCache() {
+        return remoteCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            metrics().recordGet(name, CacheMetrics.RESULT_LOCAL_HIT);
+            return value;
+        }
+
+        value = CacheEntry.unwrap(lookupRemote(key));
+        if (value != null) {
+            metrics().recordGet(name, CacheMetrics.RESULT_REMOTE_HIT);
+            localCache.put(localKey, value);
+        } else {
+            metrics().recordGet(name, CacheMetrics.RESULT_MISS);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            metrics().recordGet(name, CacheMetrics.RESULT_LOCAL_HIT);
+            return (T) value;
+        }
+
+        Object stored = lookupRemote(key);
+        if (stored instanceof CacheEntry entry && entry.getValue() != null) {
+            metrics().recordGet(name, CacheMetrics.RESULT_REMOTE_HIT);
+            value = entry.getValue();
+            if (entry.shouldRefreshEarly(cacheManager.getProperties().getEarlyRefreshBeta())) {
+                value = cacheManager.getSingleFlightLoader().refresh(flightKey(localKey), (T) value,
+                        () -> loadAndPut(key, valueLoader));
+            }
+        } else if (stored != null) {
+            metrics().recordGet(name, CacheMetrics.RESULT_REMOTE_HIT);
+            value = stored;
+        } else {
+            metrics().recordGet(name, CacheMetrics.RESULT_MISS);
+            value = cacheManager.getSingleFlightLoader().load(flightKey(localKey),
+                    () -> (T) CacheEntry.unwrap(lookupRemote(key)), () -> loadAndPut(key, valueLoader));
+        }
+        if (value != null) {
+            localCache.put(localKey, value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        putRemote(key, value, 0);
+        String localKey = localKey(key);
+        if (value != null) {
+            localCache.put(localKey, value);
+        } else {
+            localCache.invalidate(localKey);
+        }
+        cacheManager.publishEvict(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value != null ? wrap(value, 0) : null);
+        if (existing != null && existing.get() instanceof CacheEntry entry) {
+            existing = toValueWrapper(entry.getValue());
+        }
+        String localKey = localKey(key);
+        Object current = existing != null ? existing.get() : value;
+        if (current != null) {
+            localCache.put(localKey, current);
+        }
+        if (existing == null) {
+            cacheManager.publishEvict(name, localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        metrics().recordEviction(name, 1);
+        String localKey = localKey(key);
+        localCache.invalidate(localKey);
+        cacheManager.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remoteCache.evictIfPresent(key);
+        if (evicted) {
+            metrics().recordEviction(name, 1);
+        }
+        String localKey = localKey(key);
+        localCache.invalidate(localKey);
+        cacheManager.publishEvict(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        metrics().recordEviction(name, localCache.estimatedSize());
+        localCache.invalidateAll();
+        cacheManager.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remoteCache.invalidate();
+        metrics().recordEviction(name, localCache.estimatedSize());
+        localCache.invalidateAll();
+        cacheManager.publishClear(name);
+        return invalidated;
+    }
+
+    /**
+     * 仅清除本地缓存条目，用于处理其他节点的失效广播
+     */
+    void evictLocal(String localKey) {
+        localCache.invalidate(localKey);
+    }
+
+    /**
+     * 仅清空本地缓存，用于处理其他节点的失效广播
+     */
+    void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    /**
+     * 回源加载并写入两级缓存，记录加载耗时供提前刷新判断
+     */
+    private <T> T loadAndPut(Object key, Callable<T> valueLoader) {
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            metrics().recordLoad(name, System.nanoTime() - start, false);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long elapsed = System.nanoTime() - start;
+        metrics().recordLoad(name, elapsed, true);
+        if (value != null) {
+            putRemote(key, value, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            cacheManager.publishEvict(name, localKey(key));
+        }
+        return value;
+    }
+
+    private Object lookupRemote(Object key) {
+        ValueWrapper wrapper = remoteCache.get(key);
+        return wrapper != null ? wrapper.get() : null;
+    }
+
+    private void putRemote(Object key, Object value, long delta) {
+        if (value != null) {
+            CacheEntry entry = wrap(value, delta);
+            remoteCache.put(key, entry);
+            metrics().recordPayload(name);
+        } else {
+            remoteCache.put(key, null);
+        }
+    }
+
+    private CacheMetrics metrics() {
+        return cacheManager.getCacheMetrics();
+    }
+
+    private CacheEntry wrap(Object value, long delta) {
+        return CacheEntry.of(value, delta, cacheManager.getProperties().resolveRedisTtl(name));
+    }
+
+    /**
+     * 单飞加载键，包含缓存名称以区分不同缓存中的相同键
+     */
+    private String flightKey(String localKey) {
+        return name + SEPARATOR + localKey;
+    }
+
+    /**
+     * 本地缓存键与Redis缓存键保持一致的字符串形式，便于跨节点按键失效
+     */
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,176 @@
+package com.admin.framework.redis.cache;
+
+import cn.hutool.core.util.IdUtil;
+import com.admin.framework.redis.config.AdminCacheProperties;
+import com.admin.framework.redis.constant.RedisKeyConstants;
+import com.admin.framework.redis.core.RedisCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 多级缓存管理器
+ *
+ * 为每个缓存名称创建独立的Caffeine一级缓存（W-TinyLFU准入与淘汰），以Redis缓存为二级缓存
+ * 本节点的写入和删除通过Redis发布订阅广播，其他节点收到后清除各自的一级缓存条目
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+public class MultiLevelCacheManager implements CacheManager, MessageListener {
+
+    /**
+     * 广播消息：清除单个键
+     */
+    private static final String OP_EVICT = "E";
+
+    /**
+     * 广播消息：清空整个缓存
+     */
+    private static final String OP_CLEAR = "C";
+
+    private static final String SEPARATOR = ":";
+
+    private final RedisCacheManager redisCacheManager;
+
+    private final AdminCacheProperties properties;
+
+    private final RedisCache redisCache;
+
+    private final SingleFlightLoader singleFlightLoader;
+
+    private final CacheMetrics cacheMetrics;
+
+    /**
+     * 本节点标识，忽略自己发出的广播
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    private final ConcurrentMap<String, MultiLevelCache> caches = new ConcurrentHashMap<>();
+
+    public MultiLevelCacheManager(RedisCacheManager redisCacheManager, AdminCacheProperties properties,
+                                  RedisCache redisCache, SingleFlightLoader singleFlightLoader,
+                                  CacheMetrics cacheMetrics) {
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.redisCache = redisCache;
+        this.singleFlightLoader = singleFlightLoader;
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        MultiLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(redisCacheManager.getCacheNames());
+        names.addAll(caches.keySet());
+        return Collections.unmodifiableSet(names);
+    }
+
+    private MultiLevelCache createCache(String name) {
+        Cache remoteCache = redisCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(properties.resolveLocalMaxSize(name))
+                .expireAfterWrite(properties.resolveLocalTtl(name))
+                .recordStats()
+                .build();
+        // 本地缓存的容量淘汰、条目数等由Caffeine统计提供，用于评估本地容量配置
+        CaffeineCacheMetrics.monitor(cacheMetrics.getMeterRegistry(), localCache, name, "level", "local");
+        log.info("创建多级缓存: {}, 本地容量: {}, 本地过期: {}, Redis过期: {}", name,
+                properties.resolveLocalMaxSize(name), properties.resolveLocalTtl(name),
+                properties.resolveRedisTtl(name));
+        return new MultiLevelCache(name, localCache, remoteCache, this);
+    }
+
+    /**
+     * 获取单飞加载器
+     */
+    SingleFlightLoader getSingleFlightLoader() {
+        return singleFlightLoader;
+    }
+
+    /**
+     * 获取缓存指标
+     */
+    CacheMetrics getCacheMetrics() {
+        return cacheMetrics;
+    }
+
+    /**
+     * 获取缓存配置
+     */
+    AdminCacheProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * 广播单个键失效
+     */
+    void publishEvict(String cacheName, String localKey) {
+        publish(OP_EVICT + SEPARATOR + cacheName + SEPARATOR + localKey);
+    }
+
+    /**
+     * 广播整个缓存失效
+     */
+    void publishClear(String cacheName) {
+        publish(OP_CLEAR + SEPARATOR + cacheName);
+    }
+
+    private void publish(String message) {
+        try {
+            redisCache.publish(RedisKeyConstants.CACHE_EVICT_CHANNEL, nodeId + SEPARATOR + message);
+        } catch (Exception e) {
+            log.error("广播缓存失效消息失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 接收其他节点广播的失效消息，格式：节点ID:操作:缓存名称[:键]
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+            if (parts.length < 3 || nodeId.equals(parts[0])) {
+                return;
+            }
+            MultiLevelCache cache = caches.get(parts[2]);
+            if (cache == null) {
+                return;
+            }
+            if (OP_CLEAR.equals(parts[1])) {
+                cache.clearLocal();
+            } else if (OP_EVICT.equals(parts[1]) && parts.length == 4) {
+                cache.evictLocal(parts[3]);
+            }
+        } catch (Exception e) {
+            log.error("处理缓存失效广播失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.admin.framework.redis.cache;
+
+import com.admin.framework.redis.config.AdminCacheProperties;
+import com.admin.framework.redis.constant.RedisKeyConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 缓存单飞加载器
+ *
+ * 缓存未命中时，同一进程内相同键只有一个线程回源，其余线程等待其结果；
+ * 跨节点通过短租约的Redisson分布式锁互斥，拿到锁后先复查缓存，已被其他节点加载则直接返回
+ * 获取锁失败或Redis不可用时降级为直接加载，保证可用性优先
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SingleFlightLoader {
+
+    private final RedissonClient redissonClient;
+    private final AdminCacheProperties cacheProperties;
+
+    /**
+     * 本进程正在加载的键
+     */
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存未命中时加载
+     *
+     * @param key 缓存键
+     * @param cacheLookup 复查缓存，未命中返回null
+     * @param loader 回源加载并写入缓存
+     * @return 缓存值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> cacheLookup, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return (T) await(key, existing, loader);
+        }
+        try {
+            T value = loadWithLease(key, cacheLookup, loader);
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 提前刷新即将过期的缓存，已有线程或节点在刷新时直接返回当前值
+     *
+     * @param key 缓存键
+     * @param current 当前缓存值
+     * @param loader 回源加载并写入缓存
+     * @return 刷新后的值，未刷新或刷新失败时返回当前值
+     */
+    public <T> T refresh(String key, T current, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, future) != null) {
+            return current;
+        }
+        T value = current;
+        try {
+            RLock lock = redissonClient.getLock(RedisKeyConstants.CACHE_LOAD_LOCK_PREFIX + key);
+            if (lock.tryLock(0, cacheProperties.getLoadLockLease().toMillis(), TimeUnit.MILLISECONDS)) {
+                try {
+                    value = loader.get();
+                } finally {
+                    unlock(lock);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("提前刷新缓存失败，键: {}, 错误: {}", key, e.getMessage());
+        } finally {
+            future.complete(value);
+            inFlight.remove(key, future);
+        }
+        return value;
+    }
+
+    private <T> T loadWithLease(String key, Supplier<T> cacheLookup, Supplier<T> loader) {
+        RLock lock;
+        boolean locked;
+        try {
+            lock = redissonClient.getLock(RedisKeyConstants.CACHE_LOAD_LOCK_PREFIX + key);
+            locked = lock.tryLock(cacheProperties.getLoadLockWait().toMillis(),
+                    cacheProperties.getLoadLockLease().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        } catch (Exception e) {
+            log.error("获取缓存加载锁失败，直接加载，键: {}, 错误: {}", key, e.getMessage());
+            return loader.get();
+        }
+
+        try {
+            // 等锁期间其他节点可能已完成加载
+            T cached = cacheLookup.get();
+            return cached != null ? cached : loader.get();
+        } finally {
+            if (locked) {
+                unlock(lock);
+            }
+        }
+    }
+
+    private Object await(String key, CompletableFuture<Object> future, Supplier<?> loader) {
+        try {
+            return future.get(cacheProperties.getLoadLockLease().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("等待缓存加载超时，直接加载，键: {}", key);
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        }
+    }
+
+    private void unlock(RLock lock) {
+        try {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        } catch (Exception e) {
+            log.warn("释放缓存加载锁失败: {}", e.getMessage());
+        }
+    }
+}
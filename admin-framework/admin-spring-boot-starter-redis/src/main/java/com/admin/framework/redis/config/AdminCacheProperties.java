@@ -0,0 +1,140 @@
+package com.admin.framework.redis.config;
+
+import com.admin.framework.redis.serializer.CompactRedisSerializer;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 多级缓存配置属性
+ *
+ * L1为进程内Caffeine缓存，L2为Redis缓存，未单独配置的缓存使用默认值
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Data
+@ConfigurationProperties(prefix = "admin.cache")
+public class AdminCacheProperties {
+
+    /**
+     * 是否启用本地一级缓存，关闭后退化为纯Redis缓存
+     */
+    private Boolean localEnabled = true;
+
+    /**
+     * 默认本地缓存最大条目数，超出后按W-TinyLFU策略淘汰
+     */
+    private Long localMaxSize = 1000L;
+
+    /**
+     * 默认本地缓存过期时间，应不大于Redis过期时间
+     */
+    private Duration localTtl = Duration.ofMinutes(5);
+
+    /**
+     * 默认Redis缓存过期时间
+     */
+    private Duration redisTtl = Duration.ofMinutes(30);
+
+    /**
+     * XFetch提前刷新系数，越大越早刷新，0表示关闭
+     */
+    private Double earlyRefreshBeta = 1.0;
+
+    /**
+     * 缓存回源时等待分布式加载锁的最长时间，超时后复查缓存或直接加载
+     */
+    private Duration loadLockWait = Duration.ofSeconds(3);
+
+    /**
+     * 分布式加载锁租约时间，应大于一次回源加载的耗时
+     */
+    private Duration loadLockLease = Duration.ofSeconds(10);
+
+    /**
+     * 按缓存名称的个性化配置，未配置的项继承默认配置
+     */
+    private Map<String, CacheSpec> caches = new HashMap<>();
+
+    /**
+     * Redis值序列化配置
+     */
+    private Codec codec = new Codec();
+
+    /**
+     * 获取指定缓存的本地缓存最大条目数
+     */
+    public long resolveLocalMaxSize(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec != null && spec.getLocalMaxSize() != null ? spec.getLocalMaxSize() : localMaxSize;
+    }
+
+    /**
+     * 获取指定缓存的本地缓存过期时间
+     */
+    public Duration resolveLocalTtl(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec != null && spec.getLocalTtl() != null ? spec.getLocalTtl() : localTtl;
+    }
+
+    /**
+     * 获取指定缓存的Redis过期时间
+     */
+    public Duration resolveRedisTtl(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec != null && spec.getRedisTtl() != null ? spec.getRedisTtl() : redisTtl;
+    }
+
+    /**
+     * Redis值序列化配置，读取时始终兼容原JSON格式
+     */
+    @Data
+    public static class Codec {
+
+        /**
+         * 写入格式：json、smile、cbor，默认json
+         * 切换到smile/cbor需在全部节点都已部署能识别紧凑格式的版本之后单独进行，否则旧节点读不出新写入的值
+         */
+        private CompactRedisSerializer.Format type = CompactRedisSerializer.Format.JSON;
+
+        /**
+         * 压缩阈值，序列化后达到该大小的值使用Deflate压缩，0表示不压缩
+         */
+        private DataSize compressThreshold = DataSize.ofKilobytes(4);
+
+        /**
+         * 类型别名（别名 -> 全类名），紧凑格式中以别名代替全类名写入类型信息
+         * 别名一经使用不可再指向其他类型，否则已缓存的数据无法正确读取
+         */
+        private Map<String, String> typeAliases = new LinkedHashMap<>();
+    }
+
+    /**
+     * 单个缓存的配置，为空的项使用默认值
+     */
+    @Data
+    public static class CacheSpec {
+
+        /**
+         * 本地缓存最大条目数
+         */
+        private Long localMaxSize;
+
+        /**
+         * 本地缓存过期时间
+         */
+        private Duration localTtl;
+
+        /**
+         * Redis缓存过期时间
+         */
+        private Duration redisTtl;
+    }
+}
@@ -1,22 +1,42 @@
 package com.admin.framework.redis.config;
 
+import com.admin.framework.redis.cache.CacheEntry;
+import com.admin.framework.redis.cache.CacheMetrics;
+import com.admin.framework.redis.cache.MultiLevelCacheManager;
+import com.admin.framework.redis.cache.SingleFlightLoader;
+import com.admin.framework.redis.constant.RedisKeyConstants;
+import com.admin.framework.redis.core.RedisCache;
+import com.admin.framework.redis.serializer.CompactRedisSerializer;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Redis自动配置类
@@ -29,13 +49,36 @@ import java.time.Duration;
 @ConditionalOnClass(RedisTemplate.class)
 @ComponentScan(basePackages = "com.admin.framework.redis")
 @EnableCaching
+@EnableConfigurationProperties(AdminCacheProperties.class)
 public class AdminRedisAutoConfiguration {
 
+    /**
+     * Redis值序列化器，RedisTemplate与Spring Cache共用
+     * 可自行声明同名Bean替换为其他实现
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "redisValueSerializer")
+    public RedisSerializer<Object> redisValueSerializer(AdminCacheProperties cacheProperties) {
+        AdminCacheProperties.Codec codec = cacheProperties.getCodec();
+        Map<String, Class<?>> typeAliases = new HashMap<>();
+        typeAliases.put("CacheEntry", CacheEntry.class);
+        codec.getTypeAliases().forEach((alias, className) -> {
+            try {
+                typeAliases.put(alias, ClassUtils.forName(className, getClass().getClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("缓存类型别名对应的类不存在: " + alias + " -> " + className, e);
+            }
+        });
+        return new CompactRedisSerializer(codec.getType(),
+                (int) Math.min(codec.getCompressThreshold().toBytes(), Integer.MAX_VALUE), typeAliases);
+    }
+
     /**
      * Redis模板配置
      */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       RedisSerializer<Object> redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
@@ -44,9 +87,8 @@ public class AdminRedisAutoConfiguration {
         template.setHashKeySerializer(new StringRedisSerializer());
 
         // 设置value序列化器
-        GenericJackson2JsonRedisSerializer jsonRedisSerializer = new GenericJackson2JsonRedisSerializer();
-        template.setValueSerializer(jsonRedisSerializer);
-        template.setHashValueSerializer(jsonRedisSerializer);
+        template.setValueSerializer(redisValueSerializer);
+        template.setHashValueSerializer(redisValueSerializer);
 
         template.afterPropertiesSet();
         return template;
@@ -62,24 +104,89 @@ public class AdminRedisAutoConfiguration {
         return template;
     }
 
+    /**
+     * Redis消息监听容器，供各组件订阅发布订阅频道
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * Redisson客户端，供缓存单飞加载的分布式锁使用
+     * 应用排除了Redisson自动配置以保留Lettuce连接工厂，这里按spring.data.redis配置单独创建客户端
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public RedissonClient redissonClient(RedisProperties redisProperties) {
+        Config config = new Config();
+        String scheme = redisProperties.getSsl().isEnabled() ? "rediss://" : "redis://";
+        int timeout = redisProperties.getTimeout() != null ? (int) redisProperties.getTimeout().toMillis() : 3000;
+        if (redisProperties.getCluster() != null && !CollectionUtils.isEmpty(redisProperties.getCluster().getNodes())) {
+            config.useClusterServers()
+                    .addNodeAddress(redisProperties.getCluster().getNodes().stream()
+                            .map(node -> scheme + node)
+                            .toArray(String[]::new))
+                    .setUsername(redisProperties.getUsername())
+                    .setPassword(redisProperties.getPassword())
+                    .setTimeout(timeout);
+        } else {
+            config.useSingleServer()
+                    .setAddress(scheme + redisProperties.getHost() + ":" + redisProperties.getPort())
+                    .setDatabase(redisProperties.getDatabase())
+                    .setUsername(redisProperties.getUsername())
+                    .setPassword(redisProperties.getPassword())
+                    .setTimeout(timeout);
+        }
+        return Redisson.create(config);
+    }
+
     /**
      * Spring Cache管理器配置
+     * 默认为Caffeine本地缓存 + Redis的多级缓存，关闭本地缓存时退化为纯Redis缓存
      */
     @Bean
     @Primary
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        // 配置序列化
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     AdminCacheProperties cacheProperties,
+                                     RedisCache redisCache,
+                                     SingleFlightLoader singleFlightLoader,
+                                     CacheMetrics cacheMetrics,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     RedisSerializer<Object> redisValueSerializer) {
         
         // 缓存配置
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30)) // 默认缓存30分钟
+                .entryTtl(cacheProperties.getRedisTtl()) // 默认过期时间
                 .serializeKeysWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair.fromSerializer(serializer))
+                .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair.fromSerializer(redisValueSerializer))
                 .disableCachingNullValues(); // 不缓存null值
         
-        return RedisCacheManager.builder(connectionFactory)
+        // 按缓存名称配置Redis过期时间
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        cacheProperties.getCaches().keySet().forEach(cacheName ->
+                cacheConfigurations.put(cacheName, config.entryTtl(cacheProperties.resolveRedisTtl(cacheName))));
+        
+        // 整体清空缓存（allEntries）时使用SCAN分批删除，避免KEYS阻塞Redis
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                connectionFactory, BatchStrategies.scan(1000));
+        
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
-                .build();
+                .withInitialCacheConfigurations(cacheConfigurations);
+        if (!Boolean.TRUE.equals(cacheProperties.getLocalEnabled())) {
+            // 纯Redis缓存开启统计，由Actuator按缓存名称绑定 cache.gets 等指标
+            return builder.enableStatistics().build();
+        }
+        RedisCacheManager redisCacheManager = builder.build();
+        
+        redisCacheManager.afterPropertiesSet();
+        MultiLevelCacheManager cacheManager = new MultiLevelCacheManager(redisCacheManager, cacheProperties,
+                redisCache, singleFlightLoader, cacheMetrics);
+        listenerContainer.addMessageListener(cacheManager, new ChannelTopic(RedisKeyConstants.CACHE_EVICT_CHANNEL));
+        return cacheManager;
     }
-}
\ No newline at end of file
+}
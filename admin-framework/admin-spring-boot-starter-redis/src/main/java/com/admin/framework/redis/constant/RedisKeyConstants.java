@@ -22,15 +22,50 @@ public class RedisKeyConstants {
     public static final String JWT_BLACKLIST_PREFIX = GLOBAL_PREFIX + "auth:blacklist:";
 
     /**
-     * 用户登录失败次数前缀
+     * JWT令牌黑名单索引（ZSet，成员为JTI，分数为令牌过期时间）
      */
-    public static final String LOGIN_FAIL_COUNT_PREFIX = GLOBAL_PREFIX + "auth:fail_count:";
+    public static final String JWT_BLACKLIST_INDEX = GLOBAL_PREFIX + "auth:blacklist_index";
 
     /**
-     * 用户登录锁定前缀
+     * 用户令牌吊销时间点（Hash，字段为用户ID，值为毫秒时间戳）
+     */
+    public static final String JWT_REVOKED_BEFORE = GLOBAL_PREFIX + "auth:revoked_before";
+
+    /**
+     * JWT令牌吊销广播频道
+     */
+    public static final String JWT_REVOCATION_CHANNEL = GLOBAL_PREFIX + "auth:revocation";
+
+    /**
+     * 权限索引失效广播频道
+     */
+    public static final String PERMISSION_INDEX_CHANNEL = GLOBAL_PREFIX + "auth:permission_index";
+
+    /**
+     * 用户登录尝试滑动窗口前缀（ZSet，成员为尝试ID，分数为尝试时间）
+     */
+    public static final String LOGIN_FAIL_WINDOW_PREFIX = GLOBAL_PREFIX + "auth:fail_window:";
+
+    /**
+     * 用户登录锁定前缀（Hash，记录锁定时间、原因和失败次数）
      */
     public static final String LOGIN_LOCK_PREFIX = GLOBAL_PREFIX + "auth:lock:";
 
+    /**
+     * IP登录尝试滑动窗口前缀
+     */
+    public static final String LOGIN_IP_FAIL_WINDOW_PREFIX = GLOBAL_PREFIX + "auth:ip_fail_window:";
+
+    /**
+     * IP登录锁定前缀
+     */
+    public static final String LOGIN_IP_LOCK_PREFIX = GLOBAL_PREFIX + "auth:ip_lock:";
+
+    /**
+     * 登录锁定解除广播频道
+     */
+    public static final String LOGIN_UNLOCK_CHANNEL = GLOBAL_PREFIX + "auth:login_unlock";
+
     /**
      * 用户在线信息前缀
      */
@@ -75,6 +110,26 @@ public class RedisKeyConstants {
      */
     public static final String MENU_PREFIX = GLOBAL_PREFIX + "menu:";
 
+    /**
+     * 多级缓存失效广播频道
+     */
+    public static final String CACHE_EVICT_CHANNEL = GLOBAL_PREFIX + "cache:evict";
+
+    /**
+     * 缓存实体版本号（Hash，字段为"命名空间:实体ID"，值为版本号）
+     */
+    public static final String CACHE_VERSIONS = GLOBAL_PREFIX + "cache:versions";
+
+    /**
+     * 缓存实体版本号变更广播频道
+     */
+    public static final String CACHE_VERSION_CHANNEL = GLOBAL_PREFIX + "cache:version";
+
+    /**
+     * 缓存回源加载锁前缀
+     */
+    public static final String CACHE_LOAD_LOCK_PREFIX = GLOBAL_PREFIX + "cache:load_lock:";
+
     // =============================业务缓存=============================
     
     /**
@@ -102,10 +157,10 @@ public class RedisKeyConstants {
     }
 
     /**
-     * 构建登录失败次数键
+     * 构建登录尝试滑动窗口键
      */
-    public static String buildLoginFailCountKey(String username) {
-        return LOGIN_FAIL_COUNT_PREFIX + username;
+    public static String buildLoginFailWindowKey(String username) {
+        return LOGIN_FAIL_WINDOW_PREFIX + username;
     }
 
     /**
@@ -115,6 +170,20 @@ public class RedisKeyConstants {
         return LOGIN_LOCK_PREFIX + username;
     }
 
+    /**
+     * 构建IP登录尝试滑动窗口键
+     */
+    public static String buildLoginIpFailWindowKey(String ip) {
+        return LOGIN_IP_FAIL_WINDOW_PREFIX + ip;
+    }
+
+    /**
+     * 构建IP登录锁定键
+     */
+    public static String buildLoginIpLockKey(String ip) {
+        return LOGIN_IP_LOCK_PREFIX + ip;
+    }
+
     /**
      * 构建用户在线信息键
      */
@@ -53,4 +53,42 @@ public interface CacheConstants {
      * 日志统计缓存
      */
     String LOG_STATISTICS_CACHE = "log_statistics";
+
+    // =============================版本命名空间=============================
+    // 缓存键通过 @cacheVersionService.key('命名空间', 实体ID) 嵌入实体版本号，SpEL中使用同名字面量
+
+    /**
+     * 用户版本：用户信息、用户角色、用户权限
+     */
+    String VERSION_USER = "user";
+
+    /**
+     * 用户名版本：按用户名查询的用户信息
+     */
+    String VERSION_USERNAME = "username";
+
+    /**
+     * 角色版本：角色信息、角色菜单、角色用户
+     */
+    String VERSION_ROLE = "role";
+
+    /**
+     * 角色编码版本：按角色编码查询的角色信息
+     */
+    String VERSION_ROLE_CODE = "role_code";
+
+    /**
+     * 菜单版本：菜单信息、菜单角色
+     */
+    String VERSION_MENU = "menu";
+
+    /**
+     * 字典类型版本：按字典类型查询的字典数据
+     */
+    String VERSION_DICT_TYPE = "dict_type";
+
+    /**
+     * 字典数据版本：按ID查询的字典数据
+     */
+    String VERSION_DICT_DATA = "dict_data";
 }
\ No newline at end of file
@@ -1,15 +1,32 @@
 package com.admin.framework.redis.core;
 
+import com.admin.framework.redis.cache.CacheEntry;
+import com.admin.framework.redis.cache.CacheMetrics;
+import com.admin.framework.redis.cache.SingleFlightLoader;
+import com.admin.framework.redis.config.AdminCacheProperties;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Redis缓存工具类
@@ -22,13 +39,32 @@ import java.util.concurrent.TimeUnit;
 @Component
 public class RedisCache {
 
+    /**
+     * 默认SCAN批次大小
+     */
+    private static final int DEFAULT_SCAN_BATCH_SIZE = 500;
+
+    /**
+     * 空值占位符，用于缓存"数据不存在"以防止缓存穿透，读取命中时计为空值命中
+     */
+    public static final String NULL_VALUE = "NULL";
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final StringRedisTemplate stringRedisTemplate;
+    private final SingleFlightLoader singleFlightLoader;
+    private final AdminCacheProperties cacheProperties;
+    private final CacheMetrics cacheMetrics;
     
     public RedisCache(RedisTemplate<String, Object> redisTemplate,
-                      StringRedisTemplate stringRedisTemplate) {
+                      StringRedisTemplate stringRedisTemplate,
+                      SingleFlightLoader singleFlightLoader,
+                      AdminCacheProperties cacheProperties,
+                      CacheMetrics cacheMetrics) {
         this.redisTemplate = redisTemplate;
         this.stringRedisTemplate = stringRedisTemplate;
+        this.singleFlightLoader = singleFlightLoader;
+        this.cacheProperties = cacheProperties;
+        this.cacheMetrics = cacheMetrics;
     }
 
     // =============================常用操作=============================
@@ -38,6 +74,7 @@ public class RedisCache {
      */
     public void set(String key, Object value) {
         redisTemplate.opsForValue().set(key, value);
+        cacheMetrics.recordPayload(cacheMetrics.resolveKeyPrefix(key));
     }
 
     /**
@@ -45,6 +82,7 @@ public class RedisCache {
      */
     public void set(String key, Object value, Duration timeout) {
         redisTemplate.opsForValue().set(key, value, timeout);
+        cacheMetrics.recordPayload(cacheMetrics.resolveKeyPrefix(key));
     }
 
     /**
@@ -52,6 +90,7 @@ public class RedisCache {
      */
     public void set(String key, Object value, long timeout, TimeUnit unit) {
         redisTemplate.opsForValue().set(key, value, timeout, unit);
+        cacheMetrics.recordPayload(cacheMetrics.resolveKeyPrefix(key));
     }
 
     /**
@@ -59,7 +98,9 @@ public class RedisCache {
      */
     @SuppressWarnings("unchecked")
     public <T> T get(String key) {
-        return (T) redisTemplate.opsForValue().get(key);
+        Object value = redisTemplate.opsForValue().get(key);
+        recordGet(key, value);
+        return (T) value;
     }
 
     /**
@@ -68,21 +109,45 @@ public class RedisCache {
     @SuppressWarnings("unchecked")
     public <T> T get(String key, T defaultValue) {
         T value = (T) redisTemplate.opsForValue().get(key);
+        recordGet(key, value);
         return value != null ? value : defaultValue;
     }
 
+    /**
+     * 批量获取缓存，结果与键一一对应，不存在的键对应null
+     */
+    public List<Object> multiGet(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            values = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            recordGet(keys.get(i), values.get(i));
+        }
+        return values;
+    }
+
     /**
      * 删除缓存
      */
     public Boolean delete(String key) {
-        return redisTemplate.delete(key);
+        Boolean deleted = redisTemplate.delete(key);
+        if (Boolean.TRUE.equals(deleted)) {
+            cacheMetrics.recordEviction(cacheMetrics.resolveKeyPrefix(key), 1);
+        }
+        return deleted;
     }
 
     /**
      * 批量删除缓存
      */
     public Long delete(Collection<String> keys) {
-        return redisTemplate.delete(keys);
+        Long deleted = redisTemplate.delete(keys);
+        recordEvictions(keys, deleted);
+        return deleted;
     }
 
     /**
@@ -188,6 +253,13 @@ public class RedisCache {
         return redisTemplate.opsForHash().entries(key);
     }
 
+    /**
+     * Hash值递增
+     */
+    public Long hIncrement(String key, String hashKey, long delta) {
+        return redisTemplate.opsForHash().increment(key, hashKey, delta);
+    }
+
     /**
      * 删除Hash值
      */
@@ -232,6 +304,50 @@ public class RedisCache {
         return redisTemplate.opsForSet().remove(key, values);
     }
 
+    // =============================ZSet操作=============================
+
+    /**
+     * 添加ZSet元素
+     */
+    public Boolean zAdd(String key, Object value, double score) {
+        return redisTemplate.opsForZSet().add(key, value, score);
+    }
+
+    /**
+     * 按分数区间获取ZSet元素
+     */
+    public Set<Object> zRangeByScore(String key, double min, double max) {
+        return redisTemplate.opsForZSet().rangeByScore(key, min, max);
+    }
+
+    /**
+     * 移除ZSet元素
+     */
+    public Long zRemove(String key, Object... values) {
+        return redisTemplate.opsForZSet().remove(key, values);
+    }
+
+    /**
+     * 按分数区间移除ZSet元素
+     */
+    public Long zRemoveRangeByScore(String key, double min, double max) {
+        return redisTemplate.opsForZSet().removeRangeByScore(key, min, max);
+    }
+
+    /**
+     * 统计分数区间内的ZSet元素数量
+     */
+    public Long zCount(String key, double min, double max) {
+        return redisTemplate.opsForZSet().count(key, min, max);
+    }
+
+    /**
+     * 获取ZSet元素数量
+     */
+    public Long zCard(String key) {
+        return redisTemplate.opsForZSet().zCard(key);
+    }
+
     // =============================List操作=============================
 
     /**
@@ -269,13 +385,182 @@ public class RedisCache {
         return redisTemplate.opsForList().size(key);
     }
 
+    // =============================回源加载=============================
+
+    /**
+     * 读取缓存，未命中时经单飞加载回源并写入，临近过期时按XFetch概率提前刷新
+     * 写入的值以CacheEntry包装，直接用get读取时需经CacheEntry.unwrap取值
+     *
+     * @param key 缓存键
+     * @param ttl 过期时间
+     * @param loader 回源加载，返回null时不缓存
+     * @return 缓存值
+     */
+    public <T> T getOrLoad(String key, Duration ttl, Supplier<T> loader) {
+        return getOrLoad(key, loader, value -> ttl);
+    }
+
+    /**
+     * 读取缓存，未命中时经单飞加载回源并写入，过期时间按加载结果决定
+     *
+     * @param key 缓存键
+     * @param loader 回源加载，返回null时不缓存
+     * @param ttlFunction 按加载结果计算过期时间
+     * @return 缓存值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String key, Supplier<T> loader, Function<T, Duration> ttlFunction) {
+        Object cached = redisTemplate.opsForValue().get(key);
+        recordGet(key, cached);
+        if (cached instanceof CacheEntry entry && entry.getValue() != null) {
+            T value = (T) entry.getValue();
+            if (entry.shouldRefreshEarly(cacheProperties.getEarlyRefreshBeta())) {
+                return singleFlightLoader.refresh(key, value, () -> loadAndSet(key, loader, ttlFunction));
+            }
+            return value;
+        }
+        if (cached != null) {
+            return (T) cached;
+        }
+        return singleFlightLoader.load(key,
+                () -> (T) CacheEntry.unwrap(redisTemplate.opsForValue().get(key)),
+                () -> loadAndSet(key, loader, ttlFunction));
+    }
+
+    private <T> T loadAndSet(String key, Supplier<T> loader, Function<T, Duration> ttlFunction) {
+        String prefix = cacheMetrics.resolveKeyPrefix(key);
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            cacheMetrics.recordLoad(prefix, System.nanoTime() - start, false);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        cacheMetrics.recordLoad(prefix, elapsed, true);
+        if (value != null) {
+            Duration ttl = ttlFunction.apply(value);
+            CacheEntry entry = CacheEntry.of(value, TimeUnit.NANOSECONDS.toMillis(elapsed), ttl);
+            redisTemplate.opsForValue().set(key, entry, ttl);
+            cacheMetrics.recordPayload(prefix);
+        }
+        return value;
+    }
+
+    // =============================发布订阅=============================
+
+    /**
+     * 向频道发布消息
+     */
+    public void publish(String channel, String message) {
+        stringRedisTemplate.convertAndSend(channel, message);
+    }
+
+    // =============================脚本=============================
+
+    /**
+     * 执行Lua脚本，键与参数均按字符串传递，脚本在Redis端原子执行
+     */
+    public <T> T execute(RedisScript<T> script, List<String> keys, String... args) {
+        return stringRedisTemplate.execute(script, keys, (Object[]) args);
+    }
+
+    // =============================键扫描=============================
+
+    /**
+     * 以SCAN游标增量遍历匹配的键，每凑满一批回调一次
+     * 与KEYS不同，遍历分多次完成，不会阻塞Redis服务端
+     *
+     * @param pattern 匹配模式
+     * @param batchSize 每批数量，同时作为SCAN的COUNT提示
+     * @param consumer 批次回调
+     * @return 遍历到的键数量（SCAN可能重复返回同一个键，仅为近似值）
+     */
+    public long scan(String pattern, int batchSize, Consumer<List<String>> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        long total = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= batchSize) {
+                    consumer.accept(batch);
+                    total += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+            total += batch.size();
+        }
+        return total;
+    }
+
+    /**
+     * 以默认批次大小遍历匹配的键
+     */
+    public long scan(String pattern, Consumer<List<String>> consumer) {
+        return scan(pattern, DEFAULT_SCAN_BATCH_SIZE, consumer);
+    }
+
+    /**
+     * 统计匹配的键数量（近似值）
+     */
+    public long scanCount(String pattern) {
+        return scan(pattern, DEFAULT_SCAN_BATCH_SIZE, batch -> {
+        });
+    }
+
+    /**
+     * 删除所有匹配的键，边扫描边按批流水线删除
+     *
+     * @param pattern 匹配模式
+     * @return 删除数量
+     */
+    public long deleteByPattern(String pattern) {
+        AtomicLong deleted = new AtomicLong();
+        scan(pattern, DEFAULT_SCAN_BATCH_SIZE, batch -> deleted.addAndGet(unlink(batch)));
+        cacheMetrics.recordEviction(cacheMetrics.resolveKeyPrefix(pattern), deleted.get());
+        return deleted.get();
+    }
+
+    /**
+     * 流水线批量删除
+     * 逐键UNLINK在一次往返内提交，内存由Redis后台线程回收，集群模式下也不受跨槽限制
+     *
+     * @param keys 键集合
+     * @return 删除数量
+     */
+    public long unlink(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.keyCommands().unlink(key.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        long deleted = 0;
+        for (Object result : results) {
+            if (result instanceof Number number) {
+                deleted += number.longValue();
+            }
+        }
+        return deleted;
+    }
+
     // =============================工具方法=============================
 
     /**
-     * 获取匹配的键
+     * 获取匹配的键，基于SCAN实现，数据量大时优先使用 {@link #scan(String, Consumer)} 流式处理
      */
     public Set<String> keys(String pattern) {
-        return redisTemplate.keys(pattern);
+        Set<String> keys = new HashSet<>();
+        scan(pattern, DEFAULT_SCAN_BATCH_SIZE, keys::addAll);
+        return keys;
     }
 
     /**
@@ -291,4 +576,30 @@ public class RedisCache {
     public String info() {
         return redisTemplate.getConnectionFactory().getConnection().info().toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * 按键前缀记录读取结果
+     */
+    private void recordGet(String key, Object cached) {
+        Object value = CacheEntry.unwrap(cached);
+        String result = value == null ? CacheMetrics.RESULT_MISS
+                : NULL_VALUE.equals(value) ? CacheMetrics.RESULT_NULL_HIT : CacheMetrics.RESULT_REMOTE_HIT;
+        cacheMetrics.recordGet(cacheMetrics.resolveKeyPrefix(key), result);
+    }
+
+    /**
+     * 批量删除只返回总数，按键的顺序依次计入各自前缀
+     */
+    private void recordEvictions(Collection<String> keys, Long deleted) {
+        long remaining = deleted != null ? deleted : 0;
+        if (remaining <= 0 || keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            if (remaining-- <= 0) {
+                break;
+            }
+            cacheMetrics.recordEviction(cacheMetrics.resolveKeyPrefix(key), 1);
+        }
+    }
+}
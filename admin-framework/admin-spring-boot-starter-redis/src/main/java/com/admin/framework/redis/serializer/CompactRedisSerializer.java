@@ -0,0 +1,384 @@
+package com.admin.framework.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.core.KotlinDetector;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 紧凑Redis值序列化器
+ *
+ * 以Smile或CBOR二进制格式写入，类型信息与JSON格式一致地写在"@class"属性中，
+ * 登记了别名的类型只写短别名；序列化后超过阈值的值使用Deflate压缩
+ * 二进制数据以1字节魔数 + 1字节标志开头，读取时按头部自动识别格式，
+ * 无头部的数据按原JSON格式读取，因此旧数据和INCR等命令写入的数字始终可读
+ *
+ * 迁移步骤：默认以json格式写入，先部署全部节点使其具备双读能力；
+ * 第二阶段再单独把 admin.cache.codec.type 切换为smile或cbor写入
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 数据头魔数，JSON文本与数字均不会以该字节开头
+     */
+    static final byte MAGIC = (byte) 0xFE;
+
+    private static final int FLAG_COMPRESSED = 0x10;
+
+    private static final int FORMAT_MASK = 0x0F;
+
+    /**
+     * 头部长度：魔数 + 标志
+     */
+    private static final int HEADER_SIZE = 2;
+
+    /**
+     * 压缩数据在头部后记录原始长度
+     */
+    private static final int LENGTH_SIZE = 4;
+
+    private static final String TYPE_PROPERTY = "@class";
+
+    private static final byte[] EMPTY_ARRAY = new byte[0];
+
+    /**
+     * 当前线程最近一次序列化结果的字节数，-1表示没有可取的值
+     * 缓存指标写入后直接读取，不必为统计大小再序列化一次
+     */
+    private static final ThreadLocal<int[]> LAST_SERIALIZED_SIZE = ThreadLocal.withInitial(() -> new int[]{-1});
+
+    /**
+     * 序列化格式
+     */
+    public enum Format {
+        /**
+         * 原JSON格式，未压缩时不加头部，未升级的节点也能读取
+         */
+        JSON(0),
+        SMILE(1),
+        CBOR(2);
+
+        private final int code;
+
+        Format(int code) {
+            this.code = code;
+        }
+
+        static Format of(int code) {
+            for (Format format : values()) {
+                if (format.code == code) {
+                    return format;
+                }
+            }
+            throw new SerializationException("未知的缓存数据格式: " + code);
+        }
+    }
+
+    private final Format format;
+
+    private final int compressThreshold;
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    private final ObjectMapper smileMapper;
+
+    private final ObjectMapper cborMapper;
+
+    /**
+     * @param format 写入格式
+     * @param compressThreshold 压缩阈值（字节），不大于0表示不压缩
+     * @param typeAliases 类型别名，别名不能包含"."以免与全类名混淆
+     */
+    public CompactRedisSerializer(Format format, int compressThreshold, Map<String, Class<?>> typeAliases) {
+        this.format = format;
+        this.compressThreshold = compressThreshold;
+        Map<String, Class<?>> aliases = new HashMap<>(typeAliases);
+        aliases.keySet().forEach(alias -> {
+            if (alias.isEmpty() || alias.contains(".")) {
+                throw new IllegalArgumentException("缓存类型别名不能为空或包含'.': " + alias);
+            }
+        });
+        this.smileMapper = createMapper(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build(), aliases);
+        this.cborMapper = createMapper(new CBORFactory(), aliases);
+    }
+
+    /**
+     * 取出当前线程最近一次序列化结果的字节数，取出后清除
+     *
+     * @return 字节数，最近没有序列化非空值时为-1
+     */
+    public static int takeLastSerializedSize() {
+        int[] holder = LAST_SERIALIZED_SIZE.get();
+        int size = holder[0];
+        holder[0] = -1;
+        return size;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        LAST_SERIALIZED_SIZE.get()[0] = -1;
+        if (value == null) {
+            return EMPTY_ARRAY;
+        }
+        byte[] result = encode(value);
+        LAST_SERIALIZED_SIZE.get()[0] = result.length;
+        return result;
+    }
+
+    private byte[] encode(Object value) {
+        byte[] payload = format == Format.JSON ? jsonSerializer.serialize(value) : write(mapper(format), value);
+        if (compressThreshold > 0 && payload.length >= compressThreshold) {
+            byte[] compressed = deflate(payload);
+            if (compressed.length + LENGTH_SIZE < payload.length) {
+                byte[] result = new byte[HEADER_SIZE + LENGTH_SIZE + compressed.length];
+                writeHeader(result, format.code | FLAG_COMPRESSED);
+                writeInt(result, HEADER_SIZE, payload.length);
+                System.arraycopy(compressed, 0, result, HEADER_SIZE + LENGTH_SIZE, compressed.length);
+                return result;
+            }
+        }
+        if (format == Format.JSON) {
+            return payload;
+        }
+        byte[] result = new byte[HEADER_SIZE + payload.length];
+        writeHeader(result, format.code);
+        System.arraycopy(payload, 0, result, HEADER_SIZE, payload.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC || bytes.length < HEADER_SIZE) {
+            // 旧的JSON数据，以及INCR/HINCRBY写入的数字文本
+            return jsonSerializer.deserialize(bytes);
+        }
+        int flags = bytes[1];
+        Format dataFormat = Format.of(flags & FORMAT_MASK);
+        byte[] payload = bytes;
+        int offset = HEADER_SIZE;
+        int length = bytes.length - HEADER_SIZE;
+        if ((flags & FLAG_COMPRESSED) != 0) {
+            payload = inflate(bytes, HEADER_SIZE + LENGTH_SIZE, readInt(bytes, HEADER_SIZE));
+            offset = 0;
+            length = payload.length;
+        }
+        if (dataFormat == Format.JSON) {
+            return jsonSerializer.deserialize(offset == 0 && length == payload.length
+                    ? payload : Arrays.copyOfRange(payload, offset, offset + length));
+        }
+        try {
+            return mapper(dataFormat).readValue(payload, offset, length, Object.class);
+        } catch (IOException e) {
+            throw new SerializationException("反序列化缓存数据失败: " + e.getMessage(), e);
+        }
+    }
+
+    private ObjectMapper mapper(Format dataFormat) {
+        return dataFormat == Format.CBOR ? cborMapper : smileMapper;
+    }
+
+    private static byte[] write(ObjectMapper mapper, Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("序列化缓存数据失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static ObjectMapper createMapper(JsonFactory factory, Map<String, Class<?>> aliases) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.registerModule(new JavaTimeModule());
+        // 滚动发布期间新旧版本的类字段可能不一致
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.setDefaultTyping(new AliasTypeResolverBuilder(mapper.getPolymorphicTypeValidator(), aliases)
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY)
+                .typeProperty(TYPE_PROPERTY));
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, TYPE_PROPERTY);
+        return mapper;
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2);
+            byte[] buffer = new byte[Math.min(payload.length, 8192)];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int originalLength) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] result = new byte[originalLength];
+            int read = 0;
+            while (read < originalLength && !inflater.finished()) {
+                int n = inflater.inflate(result, read, originalLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != originalLength) {
+                throw new SerializationException("缓存数据解压长度不符，期望: " + originalLength + ", 实际: " + read);
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new SerializationException("缓存数据解压失败: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeHeader(byte[] target, int flags) {
+        target[0] = MAGIC;
+        target[1] = (byte) flags;
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] source, int offset) {
+        return ((source[offset] & 0xFF) << 24) | ((source[offset + 1] & 0xFF) << 16)
+                | ((source[offset + 2] & 0xFF) << 8) | (source[offset + 3] & 0xFF);
+    }
+
+    /**
+     * 类型信息的写入范围与GenericJackson2JsonRedisSerializer一致，类型ID支持别名
+     */
+    private static final class AliasTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Map<String, Class<?>> aliases;
+
+        AliasTypeResolverBuilder(PolymorphicTypeValidator validator, Map<String, Class<?>> aliases) {
+            super(ObjectMapper.DefaultTyping.EVERYTHING, validator);
+            this.aliases = aliases;
+        }
+
+        @Override
+        public boolean useForType(JavaType type) {
+            if (type.isJavaLangObject()) {
+                return true;
+            }
+            type = resolveArrayOrWrapper(type);
+            if (type.isEnumType() || ClassUtils.isPrimitiveOrWrapper(type.getRawClass())) {
+                return false;
+            }
+            if (type.isFinal() && !KotlinDetector.isKotlinType(type.getRawClass())
+                    && type.getRawClass().getPackageName().startsWith("java")) {
+                return false;
+            }
+            return !TreeNode.class.isAssignableFrom(type.getRawClass());
+        }
+
+        @Override
+        protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType,
+                                            PolymorphicTypeValidator subtypeValidator,
+                                            Collection<NamedType> subtypes, boolean forSer, boolean forDeser) {
+            return new AliasTypeIdResolver(baseType, config.getTypeFactory(), subtypeValidator, aliases);
+        }
+
+        private static JavaType resolveArrayOrWrapper(JavaType type) {
+            while (type.isArrayType()) {
+                type = type.getContentType();
+                if (type.isReferenceType()) {
+                    type = resolveArrayOrWrapper(type);
+                }
+            }
+            while (type.isReferenceType()) {
+                type = type.getReferencedType();
+                if (type.isArrayType()) {
+                    type = resolveArrayOrWrapper(type);
+                }
+            }
+            return type;
+        }
+    }
+
+    /**
+     * 已登记别名的类型写别名，其余写全类名
+     */
+    private static final class AliasTypeIdResolver extends ClassNameIdResolver {
+
+        private final Map<String, Class<?>> aliasToType;
+
+        private final Map<Class<?>, String> typeToAlias = new HashMap<>();
+
+        AliasTypeIdResolver(JavaType baseType, TypeFactory typeFactory, PolymorphicTypeValidator validator,
+                            Map<String, Class<?>> aliases) {
+            super(baseType, typeFactory, validator);
+            this.aliasToType = aliases;
+            aliases.forEach((alias, type) -> typeToAlias.put(type, alias));
+        }
+
+        @Override
+        public String idFromValue(Object value) {
+            String alias = typeToAlias.get(value.getClass());
+            return alias != null ? alias : super.idFromValue(value);
+        }
+
+        @Override
+        public String idFromValueAndType(Object value, Class<?> type) {
+            String alias = typeToAlias.get(type);
+            return alias != null ? alias : super.idFromValueAndType(value, type);
+        }
+
+        @Override
+        public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+            Class<?> type = aliasToType.get(id);
+            return type != null ? context.constructSpecializedType(_baseType, type) : super.typeFromId(context, id);
+        }
+    }
+}
@@ -224,12 +224,12 @@ public class UserCacheService {
     public Set<String> getOnlineUserIds() {
         try {
             String pattern = RedisKeyConstants.USER_ONLINE_PREFIX + "*";
-            Set<String> keys = redisCache.keys(pattern);
+            Set<String> userIds = new java.util.HashSet<>();
             
-            // 提取用户ID
-            return keys.stream()
-                    .map(key -> key.substring(RedisKeyConstants.USER_ONLINE_PREFIX.length()))
-                    .collect(java.util.stream.Collectors.toSet());
+            // 分批扫描并提取用户ID
+            redisCache.scan(pattern, keys -> keys.forEach(
+                    key -> userIds.add(key.substring(RedisKeyConstants.USER_ONLINE_PREFIX.length()))));
+            return userIds;
         } catch (Exception e) {
             log.error("获取在线用户列表失败，错误: {}", e.getMessage());
             return Set.of();
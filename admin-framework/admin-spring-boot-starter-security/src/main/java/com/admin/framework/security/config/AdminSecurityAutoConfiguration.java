@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -37,6 +38,7 @@ import java.util.Arrays;
 @AutoConfiguration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableScheduling
 @ComponentScan(basePackages = "com.admin.framework.security")
 @RequiredArgsConstructor
 public class AdminSecurityAutoConfiguration {
@@ -102,6 +104,8 @@ public class AdminSecurityAutoConfiguration {
                     // 公开的接口，无需认证
                     .requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/doc.html", "/webjars/**", "/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                    // 最慢接口排行暴露了接口路径和耗时分布，需登录后访问
+                    .requestMatchers("/actuator/slowendpoints/**").authenticated()
                     .requestMatchers("/actuator/**").permitAll()
                     .requestMatchers("/druid/**").permitAll()
                     .requestMatchers("/favicon.ico").permitAll()
@@ -0,0 +1,127 @@
+package com.admin.framework.security.core;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 已验签的JWT声明
+ *
+ * 令牌只在首次出现时验签并解析一次，结果以不可变对象的形式在过滤器和缓存之间共享
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Getter
+public final class JwtClaims {
+
+    /**
+     * 令牌唯一标识符，旧令牌无jti声明时使用令牌摘要
+     */
+    private final String jti;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 原始权限字符串，用逗号分隔
+     */
+    private final String authoritiesStr;
+
+    /**
+     * 已解析的权限列表
+     */
+    private final List<SimpleGrantedAuthority> authorities;
+
+    /**
+     * 令牌类型：access / refresh
+     */
+    private final String tokenType;
+
+    /**
+     * 签发时间（毫秒时间戳）
+     */
+    private final long issuedAt;
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    private final long expiration;
+
+    private JwtClaims(String jti, String username, Long userId, String authoritiesStr, String tokenType,
+                      long issuedAt, long expiration) {
+        this.jti = jti;
+        this.username = username;
+        this.userId = userId;
+        this.authoritiesStr = authoritiesStr;
+        this.authorities = parseAuthorities(authoritiesStr);
+        this.tokenType = tokenType;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+    }
+
+    /**
+     * 从jjwt声明构建
+     *
+     * @param claims 已验签的声明
+     * @param tokenDigest 令牌摘要，令牌无jti声明时作为唯一标识符
+     * @return 不可变声明对象
+     */
+    public static JwtClaims from(Claims claims, String tokenDigest) {
+        return new JwtClaims(
+                StringUtils.hasText(claims.getId()) ? claims.getId() : tokenDigest,
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("authorities", String.class),
+                claims.get("tokenType", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+    }
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired() {
+        return expiration <= System.currentTimeMillis();
+    }
+
+    /**
+     * 是否为刷新令牌
+     */
+    public boolean isRefreshToken() {
+        return "refresh".equals(tokenType);
+    }
+
+    /**
+     * 剩余有效时间（毫秒）
+     */
+    public long getRemainingTime() {
+        return expiration - System.currentTimeMillis();
+    }
+
+    /**
+     * 解析权限字符串为权限列表
+     */
+    private static List<SimpleGrantedAuthority> parseAuthorities(String authoritiesStr) {
+        if (!StringUtils.hasText(authoritiesStr)) {
+            return List.of();
+        }
+        return Arrays.stream(authoritiesStr.split(","))
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+}
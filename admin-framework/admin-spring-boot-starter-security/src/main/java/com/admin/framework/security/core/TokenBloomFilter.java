@@ -0,0 +1,77 @@
+package com.admin.framework.security.core;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 令牌ID布隆过滤器
+ *
+ * 基于AtomicLongArray的线程安全实现，无锁写入与查询
+ * 用于在本地快速判定令牌“一定未被吊销”，只有命中时才需要回源Redis确认
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class TokenBloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitSize;
+
+    private final int hashFunctions;
+
+    /**
+     * @param expectedInsertions 预期元素数量
+     * @param fpp 期望误判率
+     */
+    public TokenBloomFilter(long expectedInsertions, double fpp) {
+        long n = Math.max(expectedInsertions, 1L);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bitSize = Math.max(((m + 63) / 64) * 64, 64L);
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (bitSize / 64));
+    }
+
+    /**
+     * 添加元素
+     */
+    public void put(String value) {
+        long[] hash = MurmurHash.hash128(value.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = bitIndex(hash, i);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * 判断元素是否可能存在
+     *
+     * @return false表示一定不存在，true表示可能存在
+     */
+    public boolean mightContain(String value) {
+        long[] hash = MurmurHash.hash128(value.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = bitIndex(hash, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long bitIndex(long[] hash, int i) {
+        long combined = hash[0] + i * hash[1];
+        return (combined & Long.MAX_VALUE) % bitSize;
+    }
+}
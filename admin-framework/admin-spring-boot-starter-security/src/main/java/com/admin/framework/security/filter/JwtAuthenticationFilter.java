@@ -1,6 +1,7 @@
 package com.admin.framework.security.filter;
 
 import com.admin.framework.security.utils.JwtTokenUtil;
+import com.admin.framework.security.core.JwtClaims;
 import com.admin.framework.security.core.LoginUser;
 import com.admin.framework.security.service.JwtBlacklistService;
 import jakarta.servlet.FilterChain;
@@ -17,9 +18,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * JWT认证过滤器
@@ -47,22 +46,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 如果令牌存在且当前无认证信息，则进行认证
         if (StringUtils.hasText(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                // 验证令牌格式和有效性
-                if (jwtTokenUtil.validateToken(token)) {
+                // 验证令牌格式和有效性（单次验签，结果可被缓存复用）
+                JwtClaims claims = jwtTokenUtil.parseTokenQuietly(token);
+                if (claims != null) {
                     // 检查令牌是否在黑名单中
-                    if (jwtBlacklistService.isBlacklisted(token)) {
+                    if (jwtBlacklistService.isRevoked(claims)) {
                         log.debug("令牌在黑名单中，拒绝认证");
                         SecurityContextHolder.clearContext();
                         filterChain.doFilter(request, response);
                         return;
                     }
                     // 获取用户信息
-                    String username = jwtTokenUtil.getUsernameFromToken(token);
-                    Long userId = jwtTokenUtil.getUserIdFromToken(token);
-                    String authoritiesStr = jwtTokenUtil.getAuthoritiesFromToken(token);
-                    
-                    // 解析权限
-                    List<SimpleGrantedAuthority> authorities = parseAuthorities(authoritiesStr);
+                    String username = claims.getUsername();
+                    Long userId = claims.getUserId();
+                    List<SimpleGrantedAuthority> authorities = claims.getAuthorities();
                     
                     // 创建登录用户对象
                     LoginUser loginUser = new LoginUser(userId, username, authorities);
@@ -99,22 +96,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader(JwtTokenUtil.TOKEN_HEADER);
         return jwtTokenUtil.getTokenFromAuthHeader(authHeader);
     }
-
-    /**
-     * 解析权限字符串为权限列表
-     * 
-     * @param authoritiesStr 权限字符串，用逗号分隔
-     * @return 权限列表
-     */
-    private List<SimpleGrantedAuthority> parseAuthorities(String authoritiesStr) {
-        if (!StringUtils.hasText(authoritiesStr)) {
-            return List.of();
-        }
-        
-        return Arrays.stream(authoritiesStr.split(","))
-                .filter(StringUtils::hasText)
-                .map(String::trim)
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-    }
 }
\ No newline at end of file
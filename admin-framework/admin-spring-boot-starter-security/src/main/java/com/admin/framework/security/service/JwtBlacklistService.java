@@ -2,18 +2,38 @@ package com.admin.framework.security.service;
 
 import com.admin.framework.redis.constant.RedisKeyConstants;
 import com.admin.framework.redis.core.RedisCache;
+import com.admin.framework.security.core.JwtClaims;
+import com.admin.framework.security.core.TokenBloomFilter;
 import com.admin.framework.security.utils.JwtTokenUtil;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.annotation.PostConstruct;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.UUID;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JWT令牌黑名单服务
- * 
+ *
+ * Redis保存权威数据，本地维护一份吊销视图：
+ * 1. 已吊销JTI的布隆过滤器，未命中即可判定“未吊销”，无需访问Redis
+ * 2. 按用户的“吊销时间点”，签发时间早于该时间点的令牌全部失效
+ * 各节点通过Redis发布订阅同步增量，并定期全量重建，弥补订阅断线期间丢失的消息
+ *
  * @author admin
  * @version 1.0
  * @since 2024-01-15
@@ -21,30 +41,89 @@ import java.util.UUID;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class JwtBlacklistService {
+public class JwtBlacklistService implements MessageListener {
+
+    /**
+     * 广播消息：单个令牌吊销
+     */
+    private static final String MESSAGE_TOKEN = "T:";
+
+    /**
+     * 广播消息：用户全部令牌吊销
+     */
+    private static final String MESSAGE_USER = "U:";
+
+    /**
+     * 广播消息：清空黑名单
+     */
+    private static final String MESSAGE_CLEAR = "C";
 
     private final RedisCache redisCache;
     private final JwtTokenUtil jwtTokenUtil;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 布隆过滤器预期容量
+     */
+    @Value("${admin.jwt.blacklist.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    /**
+     * 布隆过滤器误判率
+     */
+    @Value("${admin.jwt.blacklist.fpp:0.001}")
+    private double fpp;
+
+    /**
+     * 已吊销JTI的本地布隆过滤器
+     */
+    private volatile TokenBloomFilter bloomFilter;
+
+    /**
+     * 用户ID -> 吊销时间点（毫秒）
+     */
+    private final Map<Long, Long> userRevokedBefore = new ConcurrentHashMap<>();
+
+    /**
+     * 全量重建期间收到的增量JTI，重建完成后补入新过滤器
+     */
+    private final List<String> pendingDuringResync = new ArrayList<>();
+
+    private final Object viewLock = new Object();
+
+    private boolean resyncing;
+
+    /**
+     * 本地视图是否已完成首次同步，未完成前回源Redis判定
+     */
+    private volatile boolean localViewReady;
+
+    @PostConstruct
+    public void init() {
+        this.bloomFilter = new TokenBloomFilter(expectedInsertions, fpp);
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.JWT_REVOCATION_CHANNEL));
+        resync();
+    }
 
     /**
      * 将令牌加入黑名单
-     * 
+     *
      * @param token JWT令牌
      * @param reason 加入黑名单的原因
      */
     public void addToBlacklist(String token, String reason) {
         try {
             // 验证令牌格式
-            if (!jwtTokenUtil.validateToken(token)) {
+            JwtClaims claims = jwtTokenUtil.parseTokenQuietly(token);
+            if (claims == null) {
                 log.warn("令牌格式无效，无需加入黑名单");
                 return;
             }
 
-            // 生成唯一标识符（如果令牌中没有jti，使用token的hash）
-            String jti = generateJti(token);
-            
+            String jti = claims.getJti();
+
             // 计算剩余有效时间
-            Long remainingTime = jwtTokenUtil.getRemainingTime(token);
+            long remainingTime = claims.getRemainingTime();
             if (remainingTime <= 0) {
                 log.debug("令牌已过期，无需加入黑名单");
                 return;
@@ -52,68 +131,111 @@ public class JwtBlacklistService {
 
             // 构建黑名单缓存键
             String blacklistKey = RedisKeyConstants.buildJwtBlacklistKey(jti);
-            
-            // 创建黑名单信息
+
+            // 创建黑名单信息（不保存令牌原文）
             JwtBlacklistInfo blacklistInfo = JwtBlacklistInfo.builder()
                     .jti(jti)
-                    .token(token)
+                    .userId(claims.getUserId())
                     .reason(reason)
                     .blacklistTime(new Date())
-                    .expireTime(new Date(System.currentTimeMillis() + remainingTime))
+                    .expireTime(new Date(claims.getExpiration()))
                     .build();
 
             // 将令牌加入黑名单，设置过期时间为令牌剩余时间
             redisCache.set(blacklistKey, blacklistInfo, Duration.ofMillis(remainingTime));
-            
+            redisCache.zAdd(RedisKeyConstants.JWT_BLACKLIST_INDEX, jti, claims.getExpiration());
+
+            // 本地立即生效，再广播给其他节点
+            applyTokenRevocation(jti);
+            redisCache.publish(RedisKeyConstants.JWT_REVOCATION_CHANNEL, MESSAGE_TOKEN + jti);
+
             log.info("令牌已加入黑名单，JTI: {}, 原因: {}, 剩余时间: {}ms", jti, reason, remainingTime);
-            
+
         } catch (Exception e) {
             log.error("将令牌加入黑名单失败: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * 吊销用户在当前时间点之前签发的全部令牌
+     *
+     * @param userId 用户ID
+     * @param reason 吊销原因
+     */
+    public void revokeUserTokens(Long userId, String reason) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            // 令牌签发时间只精确到秒，吊销时间点同样取整到秒，吊销后同一秒内重新签发的令牌不会被误判
+            long revokedBefore = truncateToSeconds(System.currentTimeMillis());
+            redisCache.hSet(RedisKeyConstants.JWT_REVOKED_BEFORE, String.valueOf(userId), revokedBefore);
+
+            applyUserRevocation(userId, revokedBefore);
+            redisCache.publish(RedisKeyConstants.JWT_REVOCATION_CHANNEL, MESSAGE_USER + userId + ":" + revokedBefore);
+
+            log.info("用户令牌已全部吊销，用户ID: {}, 原因: {}", userId, reason);
+        } catch (Exception e) {
+            log.error("吊销用户令牌失败，用户ID: {}, 错误: {}", userId, e.getMessage(), e);
+        }
+    }
+
     /**
      * 检查令牌是否在黑名单中
-     * 
+     *
      * @param token JWT令牌
      * @return true-在黑名单中，false-不在黑名单中
      */
     public boolean isBlacklisted(String token) {
-        try {
-            String jti = generateJti(token);
-            String blacklistKey = RedisKeyConstants.buildJwtBlacklistKey(jti);
-            
-            JwtBlacklistInfo blacklistInfo = redisCache.get(blacklistKey);
-            boolean isBlacklisted = blacklistInfo != null;
-            
-            if (isBlacklisted) {
-                log.debug("令牌在黑名单中，JTI: {}, 原因: {}", jti, blacklistInfo.getReason());
-            }
-            
-            return isBlacklisted;
-            
-        } catch (Exception e) {
-            log.error("检查令牌黑名单状态失败: {}", e.getMessage());
-            // 出现异常时，为了安全考虑，认为令牌在黑名单中
+        JwtClaims claims = jwtTokenUtil.parseTokenQuietly(token);
+        return claims != null && isRevoked(claims);
+    }
+
+    /**
+     * 检查已验签的令牌是否被吊销
+     * 常见的“未吊销”情况完全在本地判定，仅布隆过滤器命中时回源Redis确认
+     *
+     * @param claims 已验签的声明
+     * @return true-已吊销，false-未吊销
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        if (!localViewReady) {
+            return isRevokedRemote(claims);
+        }
+
+        Long revokedBefore = claims.getUserId() != null ? userRevokedBefore.get(claims.getUserId()) : null;
+        if (revokedBefore != null && issuedBefore(claims, revokedBefore)) {
+            log.debug("令牌签发时间早于用户吊销时间点，用户ID: {}", claims.getUserId());
             return true;
         }
+
+        if (!bloomFilter.mightContain(claims.getJti())) {
+            return false;
+        }
+        return isTokenBlacklistedRemote(claims.getJti());
     }
 
     /**
      * 从黑名单中移除令牌（通常不需要，因为会自动过期）
-     * 
+     * 布隆过滤器无法删除元素，命中后由Redis确认，下一次全量重建时自然剔除
+     *
      * @param token JWT令牌
      */
     public void removeFromBlacklist(String token) {
         try {
-            String jti = generateJti(token);
+            JwtClaims claims = jwtTokenUtil.parseTokenQuietly(token);
+            if (claims == null) {
+                return;
+            }
+            String jti = claims.getJti();
             String blacklistKey = RedisKeyConstants.buildJwtBlacklistKey(jti);
-            
+
             boolean removed = Boolean.TRUE.equals(redisCache.delete(blacklistKey));
+            redisCache.zRemove(RedisKeyConstants.JWT_BLACKLIST_INDEX, jti);
             if (removed) {
                 log.info("令牌已从黑名单中移除，JTI: {}", jti);
             }
-            
+
         } catch (Exception e) {
             log.error("从黑名单中移除令牌失败: {}", e.getMessage(), e);
         }
@@ -125,13 +247,14 @@ public class JwtBlacklistService {
     public void clearAllBlacklist() {
         try {
             String pattern = RedisKeyConstants.JWT_BLACKLIST_PREFIX + "*";
-            var keys = redisCache.keys(pattern);
-            
-            if (keys != null && !keys.isEmpty()) {
-                Long deletedCount = redisCache.delete(keys);
-                log.info("已清空JWT黑名单，删除数量: {}", deletedCount);
-            }
-            
+            long deletedCount = redisCache.deleteByPattern(pattern);
+            log.info("已清空JWT黑名单，删除数量: {}", deletedCount);
+            redisCache.delete(RedisKeyConstants.JWT_BLACKLIST_INDEX);
+            redisCache.delete(RedisKeyConstants.JWT_REVOKED_BEFORE);
+
+            applyClear();
+            redisCache.publish(RedisKeyConstants.JWT_REVOCATION_CHANNEL, MESSAGE_CLEAR);
+
         } catch (Exception e) {
             log.error("清空JWT黑名单失败: {}", e.getMessage(), e);
         }
@@ -142,16 +265,16 @@ public class JwtBlacklistService {
      */
     public JwtBlacklistStats getBlacklistStats() {
         try {
-            String pattern = RedisKeyConstants.JWT_BLACKLIST_PREFIX + "*";
-            var keys = redisCache.keys(pattern);
-            
-            int totalCount = keys != null ? keys.size() : 0;
-            
+            redisCache.zRemoveRangeByScore(RedisKeyConstants.JWT_BLACKLIST_INDEX, 0, System.currentTimeMillis());
+            Long totalCount = redisCache.zCard(RedisKeyConstants.JWT_BLACKLIST_INDEX);
+
             return JwtBlacklistStats.builder()
-                    .totalCount(totalCount)
-                    .pattern(pattern)
+                    .totalCount(totalCount != null ? totalCount.intValue() : 0)
+                    .pattern(RedisKeyConstants.JWT_BLACKLIST_INDEX)
+                    .revokedUserCount(userRevokedBefore.size())
+                    .localViewReady(localViewReady)
                     .build();
-                    
+
         } catch (Exception e) {
             log.error("获取黑名单统计信息失败: {}", e.getMessage());
             return JwtBlacklistStats.builder().totalCount(0).build();
@@ -159,24 +282,146 @@ public class JwtBlacklistService {
     }
 
     /**
-     * 生成令牌的唯一标识符
-     * 如果令牌中包含jti声明则使用jti，否则使用token的hash值
+     * 定期从Redis全量重建本地吊销视图
+     */
+    @Scheduled(fixedDelayString = "${admin.jwt.blacklist.resync-interval:60000}",
+               initialDelayString = "${admin.jwt.blacklist.resync-interval:60000}")
+    public void resync() {
+        synchronized (viewLock) {
+            resyncing = true;
+            pendingDuringResync.clear();
+        }
+        try {
+            long now = System.currentTimeMillis();
+
+            // 剔除已过期的黑名单索引，加载仍有效的JTI
+            redisCache.zRemoveRangeByScore(RedisKeyConstants.JWT_BLACKLIST_INDEX, 0, now);
+            Set<Object> jtis = redisCache.zRangeByScore(RedisKeyConstants.JWT_BLACKLIST_INDEX, now, Double.MAX_VALUE);
+            int size = jtis != null ? jtis.size() : 0;
+            TokenBloomFilter fresh = new TokenBloomFilter(Math.max(expectedInsertions, size * 2L), fpp);
+            if (jtis != null) {
+                jtis.forEach(jti -> fresh.put(String.valueOf(jti)));
+            }
+
+            // 加载用户吊销时间点，超过令牌最长有效期的记录已无意义
+            long staleBefore = now - jwtTokenUtil.getMaxTokenLifetime();
+            Map<Object, Object> revoked = redisCache.hGetAll(RedisKeyConstants.JWT_REVOKED_BEFORE);
+            if (revoked != null) {
+                revoked.forEach((field, value) -> {
+                    long revokedBefore = ((Number) value).longValue();
+                    if (revokedBefore < staleBefore) {
+                        redisCache.hDelete(RedisKeyConstants.JWT_REVOKED_BEFORE, field);
+                    } else {
+                        applyUserRevocation(Long.valueOf(String.valueOf(field)), revokedBefore);
+                    }
+                });
+            }
+            userRevokedBefore.values().removeIf(revokedBefore -> revokedBefore < staleBefore);
+
+            synchronized (viewLock) {
+                pendingDuringResync.forEach(fresh::put);
+                bloomFilter = fresh;
+            }
+            localViewReady = true;
+            log.debug("JWT吊销视图同步完成，黑名单数量: {}, 吊销用户数量: {}", size, userRevokedBefore.size());
+        } catch (Exception e) {
+            log.error("JWT吊销视图同步失败: {}", e.getMessage());
+        } finally {
+            synchronized (viewLock) {
+                resyncing = false;
+                pendingDuringResync.clear();
+            }
+        }
+    }
+
+    /**
+     * 接收其他节点广播的吊销消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            if (body.startsWith(MESSAGE_TOKEN)) {
+                applyTokenRevocation(body.substring(MESSAGE_TOKEN.length()));
+            } else if (body.startsWith(MESSAGE_USER)) {
+                String[] parts = body.substring(MESSAGE_USER.length()).split(":");
+                applyUserRevocation(Long.valueOf(parts[0]), Long.parseLong(parts[1]));
+            } else if (MESSAGE_CLEAR.equals(body)) {
+                applyClear();
+            }
+        } catch (Exception e) {
+            log.error("处理JWT吊销广播失败: {}", e.getMessage());
+        }
+    }
+
+    private void applyTokenRevocation(String jti) {
+        synchronized (viewLock) {
+            bloomFilter.put(jti);
+            if (resyncing) {
+                pendingDuringResync.add(jti);
+            }
+        }
+    }
+
+    private void applyUserRevocation(Long userId, long revokedBefore) {
+        userRevokedBefore.merge(userId, revokedBefore, Math::max);
+    }
+
+    private void applyClear() {
+        synchronized (viewLock) {
+            bloomFilter = new TokenBloomFilter(expectedInsertions, fpp);
+            pendingDuringResync.clear();
+        }
+        userRevokedBefore.clear();
+    }
+
+    /**
+     * 令牌是否签发于吊销时间点之前，两者都按整秒比较
+     */
+    private static boolean issuedBefore(JwtClaims claims, long revokedBefore) {
+        return claims.getIssuedAt() < truncateToSeconds(revokedBefore);
+    }
+
+    private static long truncateToSeconds(long epochMillis) {
+        return epochMillis - Math.floorMod(epochMillis, 1000L);
+    }
+
+    /**
+     * 本地视图未就绪时回源Redis判定
      */
-    private String generateJti(String token) {
+    private boolean isRevokedRemote(JwtClaims claims) {
+        try {
+            if (claims.getUserId() != null) {
+                Object revokedBefore = redisCache.hGet(RedisKeyConstants.JWT_REVOKED_BEFORE, String.valueOf(claims.getUserId()));
+                if (revokedBefore != null && issuedBefore(claims, ((Number) revokedBefore).longValue())) {
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            log.error("检查用户令牌吊销状态失败: {}", e.getMessage());
+            // 出现异常时，为了安全考虑，认为令牌已吊销
+            return true;
+        }
+        return isTokenBlacklistedRemote(claims.getJti());
+    }
+
+    private boolean isTokenBlacklistedRemote(String jti) {
         try {
-            // 尝试从令牌中获取JTI
-            // TODO: 如果需要JTI支持，需要在JwtTokenUtil中添加getJtiFromToken方法
-            // String jti = jwtTokenUtil.getJtiFromToken(token);
-            // if (StringUtils.hasText(jti)) {
-            //     return jti;
-            // }
-            
-            // 使用token的hash值作为唯一标识符
-            return UUID.nameUUIDFromBytes(token.getBytes()).toString();
-            
+            String blacklistKey = RedisKeyConstants.buildJwtBlacklistKey(jti);
+
+            JwtBlacklistInfo blacklistInfo = redisCache.get(blacklistKey);
+            boolean isBlacklisted = blacklistInfo != null;
+
+            if (isBlacklisted) {
+                log.debug("令牌在黑名单中，JTI: {}, 原因: {}", jti, blacklistInfo.getReason());
+            }
+
+            return isBlacklisted;
+
         } catch (Exception e) {
-            // 如果token解析失败，使用简单的hash
-            return String.valueOf(token.hashCode());
+            log.error("检查令牌黑名单状态失败: {}", e.getMessage());
+            // 出现异常时，为了安全考虑，认为令牌在黑名单中
+            return true;
         }
     }
 
@@ -187,27 +432,28 @@ public class JwtBlacklistService {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class JwtBlacklistInfo {
         /**
          * 令牌唯一标识符
          */
         private String jti;
-        
+
         /**
-         * 原始令牌（可选，用于调试）
+         * 令牌所属用户ID
          */
-        private String token;
-        
+        private Long userId;
+
         /**
          * 加入黑名单的原因
          */
         private String reason;
-        
+
         /**
          * 加入黑名单的时间
          */
         private Date blacklistTime;
-        
+
         /**
          * 令牌过期时间
          */
@@ -226,10 +472,20 @@ public class JwtBlacklistService {
          * 黑名单令牌总数
          */
         private int totalCount;
-        
+
         /**
          * 查询模式
          */
         private String pattern;
+
+        /**
+         * 存在吊销时间点的用户数量
+         */
+        private int revokedUserCount;
+
+        /**
+         * 本地吊销视图是否已就绪
+         */
+        private boolean localViewReady;
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,35 @@
 package com.admin.framework.security.service;
 
+import cn.hutool.core.util.IdUtil;
 import com.admin.framework.redis.constant.RedisKeyConstants;
 import com.admin.framework.redis.core.RedisCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Date;
+import java.util.List;
 
 /**
  * 登录限制和防暴力破解服务
- * 
+ *
+ * 按用户名和IP分别维护滑动窗口，每次登录尝试由一个Lua脚本原子地完成
+ * “检查锁定 - 记录尝试 - 超限锁定 - 返回剩余锁定时间”，只需一次Redis往返
+ * 已知处于锁定状态的用户名和IP在本地短路拒绝，撞库期间不再访问Redis
+ *
  * @author admin
  * @version 1.0
  * @since 2024-01-15
@@ -18,66 +37,279 @@ import java.time.Duration;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class LoginLimitService {
+public class LoginLimitService implements MessageListener {
 
     private final RedisCache redisCache;
+    private final RedisMessageListenerContainer listenerContainer;
 
     /**
      * 最大失败次数
      */
     private static final int MAX_FAIL_COUNT = 5;
-    
+
+    /**
+     * 单个IP最大失败次数
+     */
+    private static final int MAX_IP_FAIL_COUNT = 50;
+
     /**
-     * 失败次数重置时间（15分钟）
+     * 需要验证码的失败次数
      */
-    private static final Duration FAIL_COUNT_EXPIRE = Duration.ofMinutes(15);
-    
+    private static final int CAPTCHA_FAIL_COUNT = 3;
+
+    /**
+     * 失败次数统计窗口（15分钟）
+     */
+    private static final Duration FAIL_WINDOW = Duration.ofMinutes(15);
+
     /**
      * 账户锁定时间（30分钟）
      */
     private static final Duration LOCK_EXPIRE = Duration.ofMinutes(30);
 
     /**
-     * 记录登录失败
-     * 
+     * IP锁定时间（15分钟）
+     */
+    private static final Duration IP_LOCK_EXPIRE = Duration.ofMinutes(15);
+
+    /**
+     * 锁定原因
+     */
+    private static final String LOCK_REASON = "登录失败次数过多";
+
+    /**
+     * 本地锁定缓存键前缀：用户名
+     */
+    private static final String LOCAL_USER = "U:";
+
+    /**
+     * 本地锁定缓存键前缀：IP
+     */
+    private static final String LOCAL_IP = "I:";
+
+    /**
+     * 登录尝试脚本
+     * KEYS: 用户窗口, 用户锁定, IP窗口, IP锁定
+     * ARGV: 当前时间, 窗口长度, 用户上限, IP上限(<=0不限制), 用户锁定时长, IP锁定时长, 尝试ID, 锁定原因, 用户名, IP
+     * 返回: {是否放行, 用户剩余锁定毫秒, IP剩余锁定毫秒, 窗口内用户尝试次数}
+     */
+    private static final RedisScript<List> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local userTtl = redis.call('PTTL', KEYS[2])
+            local ipTtl = redis.call('PTTL', KEYS[4])
+            if userTtl > 0 or ipTtl > 0 then
+                return {0, userTtl, ipTtl, redis.call('ZCOUNT', KEYS[1], now - window, '+inf')}
+            end
+            local function hit(windowKey, lockKey, max, lockMs, subject)
+                redis.call('ZREMRANGEBYSCORE', windowKey, '-inf', now - window)
+                redis.call('ZADD', windowKey, now, ARGV[7])
+                redis.call('PEXPIRE', windowKey, window)
+                local count = redis.call('ZCARD', windowKey)
+                if count > max then
+                    redis.call('DEL', lockKey)
+                    redis.call('HSET', lockKey, 'subject', subject, 'lockTime', ARGV[1],
+                            'lockReason', ARGV[8], 'failCount', count - 1)
+                    redis.call('PEXPIRE', lockKey, lockMs)
+                    return count, lockMs
+                end
+                return count, -1
+            end
+            local userCount, userLock = hit(KEYS[1], KEYS[2], tonumber(ARGV[3]), tonumber(ARGV[5]), ARGV[9])
+            local ipLock = -1
+            if tonumber(ARGV[4]) > 0 then
+                local ipCount
+                ipCount, ipLock = hit(KEYS[3], KEYS[4], tonumber(ARGV[4]), tonumber(ARGV[6]), ARGV[10])
+            end
+            if userLock > 0 or ipLock > 0 then
+                return {0, userLock, ipLock, userCount}
+            end
+            return {1, -1, -1, userCount}
+            """, List.class);
+
+    /**
+     * 登录成功脚本：清空用户窗口，并从IP窗口中移除本次尝试
+     * KEYS: 用户窗口, IP窗口
+     * ARGV: 尝试ID
+     */
+    private static final RedisScript<Long> SUCCESS_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            return redis.call('ZREM', KEYS[2], ARGV[1])
+            """, Long.class);
+
+    /**
+     * 登录状态脚本
+     * KEYS: 用户窗口, 用户锁定
+     * ARGV: 当前时间, 窗口长度
+     * 返回: {剩余锁定毫秒, 窗口内尝试次数, 锁定时间, 锁定原因, 锁定时失败次数}
+     */
+    private static final RedisScript<List> STATUS_SCRIPT = new DefaultRedisScript<>("""
+            local ttl = redis.call('PTTL', KEYS[2])
+            local count = redis.call('ZCOUNT', KEYS[1], tonumber(ARGV[1]) - tonumber(ARGV[2]), '+inf')
+            if ttl > 0 and redis.call('TYPE', KEYS[2]).ok == 'hash' then
+                local info = redis.call('HMGET', KEYS[2], 'lockTime', 'lockReason', 'failCount')
+                return {ttl, count, info[1], info[2], info[3]}
+            end
+            return {ttl, count, false, false, false}
+            """, List.class);
+
+    /**
+     * 手动锁定脚本
+     * KEYS: 用户窗口, 用户锁定
+     * ARGV: 当前时间, 窗口长度, 锁定时长, 锁定原因, 用户名
+     */
+    private static final RedisScript<Long> LOCK_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local count = redis.call('ZCOUNT', KEYS[1], now - tonumber(ARGV[2]), '+inf')
+            redis.call('DEL', KEYS[2])
+            redis.call('HSET', KEYS[2], 'subject', ARGV[5], 'lockTime', ARGV[1], 'lockReason', ARGV[4], 'failCount', count)
+            redis.call('PEXPIRE', KEYS[2], ARGV[3])
+            return count
+            """, Long.class);
+
+    /**
+     * 已知锁定的用户名/IP -> 锁定截止时间（毫秒），条目随锁定到期自动移除
+     */
+    private final Cache<String, Long> localLocks = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfter(new Expiry<String, Long>() {
+                @Override
+                public long expireAfterCreate(String key, Long lockedUntil, long currentTime) {
+                    return Math.max(0L, lockedUntil - System.currentTimeMillis()) * 1_000_000L;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Long lockedUntil, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, lockedUntil, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Long lockedUntil, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.LOGIN_UNLOCK_CHANNEL));
+    }
+
+    /**
+     * 登录尝试前调用：检查锁定并计入一次尝试，超过上限时锁定
+     * 认证失败无需再次调用，认证成功后调用 {@link #recordLoginSuccess(LoginAttempt)}
+     *
      * @param username 用户名
-     * @return 当前失败次数
+     * @param ip 客户端IP，为空时只按用户名限制
+     * @return 尝试结果
      */
-    public int recordLoginFail(String username) {
+    public LoginAttempt tryAcquire(String username, String ip) {
+        boolean limitIp = StringUtils.hasText(ip);
+
+        // 本地短路：已知锁定的账户或IP直接拒绝
+        long now = System.currentTimeMillis();
+        long localLockedUntil = Math.max(localLockedUntil(LOCAL_USER + username),
+                limitIp ? localLockedUntil(LOCAL_IP + ip) : 0L);
+        if (localLockedUntil > now) {
+            return LoginAttempt.builder()
+                    .username(username)
+                    .ip(ip)
+                    .allowed(false)
+                    .remainingLockTime((localLockedUntil - now) / 1000)
+                    .build();
+        }
+
+        String attemptId = IdUtil.fastSimpleUUID();
         try {
-            String key = RedisKeyConstants.buildLoginFailCountKey(username);
-            
-            // 获取当前失败次数
-            Integer currentCount = redisCache.get(key, 0);
-            int newCount = currentCount + 1;
-            
-            // 更新失败次数，设置过期时间
-            redisCache.set(key, newCount, FAIL_COUNT_EXPIRE);
-            
-            log.warn("记录用户登录失败，用户: {}, 失败次数: {}", username, newCount);
-            
-            // 如果达到最大失败次数，锁定账户
-            if (newCount >= MAX_FAIL_COUNT) {
-                lockAccount(username);
-                log.warn("用户登录失败次数达到上限，账户已锁定，用户: {}", username);
+            List<?> result = redisCache.execute(ACQUIRE_SCRIPT,
+                    List.of(RedisKeyConstants.buildLoginFailWindowKey(username),
+                            RedisKeyConstants.buildLoginLockKey(username),
+                            RedisKeyConstants.buildLoginIpFailWindowKey(limitIp ? ip : ""),
+                            RedisKeyConstants.buildLoginIpLockKey(limitIp ? ip : "")),
+                    String.valueOf(now),
+                    String.valueOf(FAIL_WINDOW.toMillis()),
+                    String.valueOf(MAX_FAIL_COUNT),
+                    String.valueOf(limitIp ? MAX_IP_FAIL_COUNT : 0),
+                    String.valueOf(LOCK_EXPIRE.toMillis()),
+                    String.valueOf(IP_LOCK_EXPIRE.toMillis()),
+                    attemptId,
+                    LOCK_REASON,
+                    username,
+                    limitIp ? ip : "");
+
+            boolean allowed = toLong(result.get(0)) == 1L;
+            long userLockMillis = toLong(result.get(1));
+            long ipLockMillis = toLong(result.get(2));
+            int failCount = (int) toLong(result.get(3));
+
+            if (allowed) {
+                return LoginAttempt.builder()
+                        .username(username)
+                        .ip(ip)
+                        .attemptId(attemptId)
+                        .allowed(true)
+                        .failCount(failCount)
+                        .remainingLockTime(-1)
+                        .build();
+            }
+
+            if (userLockMillis > 0) {
+                localLocks.put(LOCAL_USER + username, now + userLockMillis);
+                log.warn("账户处于锁定状态，用户: {}, 剩余锁定时间: {} 秒", username, userLockMillis / 1000);
             }
-            
-            return newCount;
-            
+            if (ipLockMillis > 0) {
+                localLocks.put(LOCAL_IP + ip, now + ipLockMillis);
+                log.warn("IP处于锁定状态，IP: {}, 剩余锁定时间: {} 秒", ip, ipLockMillis / 1000);
+            }
+            return LoginAttempt.builder()
+                    .username(username)
+                    .ip(ip)
+                    .allowed(false)
+                    .failCount(failCount)
+                    .remainingLockTime(Math.max(userLockMillis, ipLockMillis) / 1000)
+                    .build();
+
         } catch (Exception e) {
-            log.error("记录登录失败信息异常，用户: {}, 错误: {}", username, e.getMessage());
-            return 0;
+            log.error("登录尝试检查异常，用户: {}, 错误: {}", username, e.getMessage());
+            // 异常情况下，为了安全考虑，认为账户未锁定（避免影响正常用户）
+            return LoginAttempt.builder()
+                    .username(username)
+                    .ip(ip)
+                    .allowed(true)
+                    .remainingLockTime(-1)
+                    .build();
+        }
+    }
+
+    /**
+     * 登录成功：清除用户失败记录，并从IP窗口中撤回本次尝试
+     *
+     * @param attempt {@link #tryAcquire(String, String)} 返回的尝试结果
+     */
+    public void recordLoginSuccess(LoginAttempt attempt) {
+        if (attempt == null || attempt.getAttemptId() == null) {
+            return;
+        }
+        try {
+            String ip = StringUtils.hasText(attempt.getIp()) ? attempt.getIp() : "";
+            redisCache.execute(SUCCESS_SCRIPT,
+                    List.of(RedisKeyConstants.buildLoginFailWindowKey(attempt.getUsername()),
+                            RedisKeyConstants.buildLoginIpFailWindowKey(ip)),
+                    attempt.getAttemptId());
+            log.debug("清除用户登录失败记录，用户: {}", attempt.getUsername());
+        } catch (Exception e) {
+            log.error("清除登录失败记录异常，用户: {}, 错误: {}", attempt.getUsername(), e.getMessage());
         }
     }
 
     /**
      * 清除登录失败记录
-     * 
+     *
      * @param username 用户名
      */
     public void clearLoginFailCount(String username) {
         try {
-            String key = RedisKeyConstants.buildLoginFailCountKey(username);
+            String key = RedisKeyConstants.buildLoginFailWindowKey(username);
             redisCache.delete(key);
             log.debug("清除用户登录失败记录，用户: {}", username);
         } catch (Exception e) {
@@ -86,15 +318,17 @@ public class LoginLimitService {
     }
 
     /**
-     * 获取登录失败次数
-     * 
+     * 获取登录失败次数（统计窗口内）
+     *
      * @param username 用户名
      * @return 失败次数
      */
     public int getLoginFailCount(String username) {
         try {
-            String key = RedisKeyConstants.buildLoginFailCountKey(username);
-            return redisCache.get(key, 0);
+            String key = RedisKeyConstants.buildLoginFailWindowKey(username);
+            Long count = redisCache.zCount(key, System.currentTimeMillis() - FAIL_WINDOW.toMillis(),
+                    Double.POSITIVE_INFINITY);
+            return count != null ? count.intValue() : 0;
         } catch (Exception e) {
             log.error("获取登录失败次数异常，用户: {}, 错误: {}", username, e.getMessage());
             return 0;
@@ -103,23 +337,23 @@ public class LoginLimitService {
 
     /**
      * 锁定账户
-     * 
+     *
      * @param username 用户名
      */
     public void lockAccount(String username) {
         try {
-            String lockKey = RedisKeyConstants.buildLoginLockKey(username);
-            
-            AccountLockInfo lockInfo = AccountLockInfo.builder()
-                    .username(username)
-                    .lockTime(new java.util.Date())
-                    .lockReason("登录失败次数过多")
-                    .failCount(getLoginFailCount(username))
-                    .build();
-            
-            redisCache.set(lockKey, lockInfo, LOCK_EXPIRE);
+            long now = System.currentTimeMillis();
+            redisCache.execute(LOCK_SCRIPT,
+                    List.of(RedisKeyConstants.buildLoginFailWindowKey(username),
+                            RedisKeyConstants.buildLoginLockKey(username)),
+                    String.valueOf(now),
+                    String.valueOf(FAIL_WINDOW.toMillis()),
+                    String.valueOf(LOCK_EXPIRE.toMillis()),
+                    LOCK_REASON,
+                    username);
+            localLocks.put(LOCAL_USER + username, now + LOCK_EXPIRE.toMillis());
             log.warn("账户已锁定，用户: {}, 锁定时间: {} 分钟", username, LOCK_EXPIRE.toMinutes());
-            
+
         } catch (Exception e) {
             log.error("锁定账户异常，用户: {}, 错误: {}", username, e.getMessage());
         }
@@ -127,19 +361,23 @@ public class LoginLimitService {
 
     /**
      * 解锁账户
-     * 
+     *
      * @param username 用户名
      */
     public void unlockAccount(String username) {
         try {
             String lockKey = RedisKeyConstants.buildLoginLockKey(username);
             redisCache.delete(lockKey);
-            
+
             // 同时清除失败次数记录
             clearLoginFailCount(username);
-            
+
+            // 清除本节点及其他节点的本地锁定状态
+            localLocks.invalidate(LOCAL_USER + username);
+            redisCache.publish(RedisKeyConstants.LOGIN_UNLOCK_CHANNEL, LOCAL_USER + username);
+
             log.info("账户已解锁，用户: {}", username);
-            
+
         } catch (Exception e) {
             log.error("解锁账户异常，用户: {}, 错误: {}", username, e.getMessage());
         }
@@ -147,22 +385,17 @@ public class LoginLimitService {
 
     /**
      * 检查账户是否被锁定
-     * 
+     *
      * @param username 用户名
      * @return true-已锁定，false-未锁定
      */
     public boolean isAccountLocked(String username) {
+        if (localLockedUntil(LOCAL_USER + username) > System.currentTimeMillis()) {
+            return true;
+        }
         try {
             String lockKey = RedisKeyConstants.buildLoginLockKey(username);
-            AccountLockInfo lockInfo = redisCache.get(lockKey);
-            
-            boolean isLocked = lockInfo != null;
-            if (isLocked) {
-                log.debug("账户处于锁定状态，用户: {}, 锁定原因: {}", username, lockInfo.getLockReason());
-            }
-            
-            return isLocked;
-            
+            return Boolean.TRUE.equals(redisCache.hasKey(lockKey));
         } catch (Exception e) {
             log.error("检查账户锁定状态异常，用户: {}, 错误: {}", username, e.getMessage());
             // 异常情况下，为了安全考虑，认为账户未锁定（避免影响正常用户）
@@ -172,36 +405,76 @@ public class LoginLimitService {
 
     /**
      * 获取账户锁定信息
-     * 
+     *
      * @param username 用户名
-     * @return 锁定信息
+     * @return 锁定信息，未锁定时返回null
      */
     public AccountLockInfo getAccountLockInfo(String username) {
+        LoginLimitStatus status = getLoginStatus(username);
+        return status.isLocked() ? status.getLockInfo() : null;
+    }
+
+    /**
+     * 一次往返获取账户的锁定状态、锁定信息和失败次数
+     *
+     * @param username 用户名
+     * @return 登录限制状态
+     */
+    public LoginLimitStatus getLoginStatus(String username) {
         try {
-            String lockKey = RedisKeyConstants.buildLoginLockKey(username);
-            return redisCache.get(lockKey);
+            List<?> result = redisCache.execute(STATUS_SCRIPT,
+                    List.of(RedisKeyConstants.buildLoginFailWindowKey(username),
+                            RedisKeyConstants.buildLoginLockKey(username)),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(FAIL_WINDOW.toMillis()));
+
+            long lockMillis = toLong(result.get(0));
+            int failCount = (int) toLong(result.get(1));
+            boolean locked = lockMillis > 0;
+
+            AccountLockInfo lockInfo = null;
+            if (locked) {
+                Object lockTime = result.size() > 2 ? result.get(2) : null;
+                Object lockReason = result.size() > 3 ? result.get(3) : null;
+                Object lockFailCount = result.size() > 4 ? result.get(4) : null;
+                lockInfo = AccountLockInfo.builder()
+                        .username(username)
+                        .lockTime(lockTime != null ? new Date(toLong(lockTime)) : null)
+                        .lockReason(lockReason != null ? lockReason.toString() : LOCK_REASON)
+                        .failCount(lockFailCount != null ? (int) toLong(lockFailCount) : failCount)
+                        .build();
+            }
+
+            return LoginLimitStatus.builder()
+                    .locked(locked)
+                    .lockInfo(lockInfo)
+                    .remainingLockTime(locked ? lockMillis / 1000 : -1)
+                    .failCount(failCount)
+                    .needCaptcha(failCount >= CAPTCHA_FAIL_COUNT)
+                    .build();
+
         } catch (Exception e) {
-            log.error("获取账户锁定信息异常，用户: {}, 错误: {}", username, e.getMessage());
-            return null;
+            log.error("获取登录状态异常，用户: {}, 错误: {}", username, e.getMessage());
+            return LoginLimitStatus.builder().remainingLockTime(-1).build();
         }
     }
 
     /**
      * 检查是否需要验证码
      * 当失败次数达到一定阈值时，要求输入验证码
-     * 
+     *
      * @param username 用户名
      * @return true-需要验证码，false-不需要验证码
      */
     public boolean needCaptcha(String username) {
         int failCount = getLoginFailCount(username);
         // 失败3次后需要验证码
-        return failCount >= 3;
+        return failCount >= CAPTCHA_FAIL_COUNT;
     }
 
     /**
      * 获取剩余锁定时间（秒）
-     * 
+     *
      * @param username 用户名
      * @return 剩余锁定时间，-1表示未锁定
      */
@@ -222,28 +495,126 @@ public class LoginLimitService {
     public LoginLimitStats getLoginLimitStats() {
         try {
             // 统计失败次数记录
-            String failPattern = RedisKeyConstants.LOGIN_FAIL_COUNT_PREFIX + "*";
-            var failKeys = redisCache.keys(failPattern);
-            int failCount = failKeys != null ? failKeys.size() : 0;
-            
+            int failCount = (int) redisCache.scanCount(RedisKeyConstants.LOGIN_FAIL_WINDOW_PREFIX + "*");
+
             // 统计锁定账户数量
-            String lockPattern = RedisKeyConstants.LOGIN_LOCK_PREFIX + "*";
-            var lockKeys = redisCache.keys(lockPattern);
-            int lockCount = lockKeys != null ? lockKeys.size() : 0;
-            
+            int lockCount = (int) redisCache.scanCount(RedisKeyConstants.LOGIN_LOCK_PREFIX + "*");
+
+            // 统计锁定IP数量
+            int ipLockCount = (int) redisCache.scanCount(RedisKeyConstants.LOGIN_IP_LOCK_PREFIX + "*");
+
             return LoginLimitStats.builder()
                     .totalFailRecords(failCount)
                     .totalLockedAccounts(lockCount)
+                    .totalLockedIps(ipLockCount)
                     .maxFailCount(MAX_FAIL_COUNT)
+                    .maxIpFailCount(MAX_IP_FAIL_COUNT)
                     .lockDurationMinutes((int) LOCK_EXPIRE.toMinutes())
                     .build();
-                    
+
         } catch (Exception e) {
             log.error("获取登录限制统计信息失败: {}", e.getMessage());
             return LoginLimitStats.builder().build();
         }
     }
 
+    /**
+     * 接收其他节点广播的解锁消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            localLocks.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.error("处理登录解锁广播失败: {}", e.getMessage());
+        }
+    }
+
+    private long localLockedUntil(String key) {
+        Long lockedUntil = localLocks.getIfPresent(key);
+        return lockedUntil != null ? lockedUntil : 0L;
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+
+    /**
+     * 登录尝试结果
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LoginAttempt {
+        /**
+         * 用户名
+         */
+        private String username;
+
+        /**
+         * 客户端IP
+         */
+        private String ip;
+
+        /**
+         * 尝试ID，登录成功时用于从IP窗口撤回本次尝试
+         */
+        private String attemptId;
+
+        /**
+         * 是否允许继续认证
+         */
+        private boolean allowed;
+
+        /**
+         * 窗口内的尝试次数（含本次）
+         */
+        private int failCount;
+
+        /**
+         * 剩余锁定时间（秒），-1表示未锁定
+         */
+        private long remainingLockTime;
+    }
+
+    /**
+     * 登录限制状态
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LoginLimitStatus {
+        /**
+         * 是否锁定
+         */
+        private boolean locked;
+
+        /**
+         * 锁定信息
+         */
+        private AccountLockInfo lockInfo;
+
+        /**
+         * 剩余锁定时间（秒），-1表示未锁定
+         */
+        private long remainingLockTime;
+
+        /**
+         * 失败次数
+         */
+        private int failCount;
+
+        /**
+         * 是否需要验证码
+         */
+        private boolean needCaptcha;
+    }
+
     /**
      * 账户锁定信息
      */
@@ -256,17 +627,17 @@ public class LoginLimitService {
          * 用户名
          */
         private String username;
-        
+
         /**
          * 锁定时间
          */
-        private java.util.Date lockTime;
-        
+        private Date lockTime;
+
         /**
          * 锁定原因
          */
         private String lockReason;
-        
+
         /**
          * 失败次数
          */
@@ -285,20 +656,30 @@ public class LoginLimitService {
          * 失败记录总数
          */
         private int totalFailRecords;
-        
+
         /**
          * 锁定账户总数
          */
         private int totalLockedAccounts;
-        
+
+        /**
+         * 锁定IP总数
+         */
+        private int totalLockedIps;
+
         /**
          * 最大失败次数
          */
         private int maxFailCount;
-        
+
+        /**
+         * 单个IP最大失败次数
+         */
+        private int maxIpFailCount;
+
         /**
          * 锁定时长（分钟）
          */
         private int lockDurationMinutes;
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,24 @@
 package com.admin.framework.security.utils;
 
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.admin.framework.security.core.JwtClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -41,6 +50,27 @@ public class JwtTokenUtil {
     @Value("${admin.jwt.refresh-expiration:2592000000}")
     private Long refreshExpiration;
 
+    /**
+     * 已验签声明缓存的最大条目数
+     */
+    @Value("${admin.jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    /**
+     * 签名密钥，启动时构建一次
+     */
+    private SecretKey signingKey;
+
+    /**
+     * JWT解析器，线程安全，可复用
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * 已验签声明缓存，键为令牌SHA-256摘要，条目在令牌过期时失效
+     */
+    private Cache<String, JwtClaims> claimsCache;
+
     /**
      * 令牌前缀
      */
@@ -51,12 +81,87 @@ public class JwtTokenUtil {
      */
     public static final String TOKEN_HEADER = "Authorization";
 
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtClaims value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(value.getRemainingTime(), 0L));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtClaims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtClaims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     /**
      * 获取密钥
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
+    }
+
+    /**
+     * 解析并验证令牌，每个令牌只验签一次
+     * 命中缓存时跳过HMAC验签和JSON解码
+     *
+     * @param token JWT令牌
+     * @return 已验签的声明
+     * @throws JwtException 令牌无效或已过期
+     */
+    public JwtClaims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT令牌为空");
+        }
+        String digest = DigestUtil.sha256Hex(token);
+        JwtClaims cached = claimsCache.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        JwtClaims claims = JwtClaims.from(getAllClaimsFromToken(token), digest);
+        if (!claims.isExpired()) {
+            claimsCache.put(digest, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * 解析并验证令牌，无效时返回null
+     *
+     * @param token JWT令牌
+     * @return 已验签的声明，无效时返回null
+     */
+    public JwtClaims parseTokenQuietly(String token) {
+        try {
+            JwtClaims claims = parseToken(token);
+            return claims.isExpired() ? null : claims;
+        } catch (MalformedJwtException e) {
+            log.error("JWT令牌格式错误: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            log.error("JWT令牌已过期: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            log.error("不支持的JWT令牌: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.error("JWT令牌参数为空: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("JWT令牌验证失败: {}", e.getMessage());
+        }
+        return null;
     }
 
     /**
@@ -66,7 +171,7 @@ public class JwtTokenUtil {
      * @return 用户名
      */
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return parseToken(token).getUsername();
     }
 
     /**
@@ -76,7 +181,7 @@ public class JwtTokenUtil {
      * @return 过期时间
      */
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        return new Date(parseToken(token).getExpiration());
     }
 
     /**
@@ -98,11 +203,7 @@ public class JwtTokenUtil {
      * @return 所有声明
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -112,8 +213,7 @@ public class JwtTokenUtil {
      * @return true-已过期，false-未过期
      */
     private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return parseToken(token).isExpired();
     }
 
     /**
@@ -160,6 +260,7 @@ public class JwtTokenUtil {
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(IdUtil.fastSimpleUUID())
                 .setSubject(subject)
                 .setIssuedAt(createdDate)
                 .setExpiration(expirationDate)
@@ -191,24 +292,7 @@ public class JwtTokenUtil {
      * @return true-有效，false-无效
      */
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (MalformedJwtException e) {
-            log.error("JWT令牌格式错误: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT令牌已过期: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("不支持的JWT令牌: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT令牌参数为空: {}", e.getMessage());
-        } catch (Exception e) {
-            log.error("JWT令牌验证失败: {}", e.getMessage());
-        }
-        return false;
+        return parseTokenQuietly(token) != null;
     }
 
     /**
@@ -218,8 +302,7 @@ public class JwtTokenUtil {
      * @return 用户ID
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return parseToken(token).getUserId();
     }
 
     /**
@@ -229,8 +312,7 @@ public class JwtTokenUtil {
      * @return 权限字符串
      */
     public String getAuthoritiesFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("authorities", String.class);
+        return parseToken(token).getAuthoritiesStr();
     }
 
     /**
@@ -241,9 +323,7 @@ public class JwtTokenUtil {
      */
     public Boolean isRefreshToken(String token) {
         try {
-            Claims claims = getAllClaimsFromToken(token);
-            String tokenType = claims.get("tokenType", String.class);
-            return "refresh".equals(tokenType);
+            return parseToken(token).isRefreshToken();
         } catch (Exception e) {
             log.error("检查令牌类型失败: {}", e.getMessage());
             return false;
@@ -258,15 +338,22 @@ public class JwtTokenUtil {
      */
     public Long getRemainingTime(String token) {
         try {
-            final Date expiration = getExpirationDateFromToken(token);
-            final Date now = new Date();
-            return expiration.getTime() - now.getTime();
+            return parseToken(token).getRemainingTime();
         } catch (Exception e) {
             log.error("获取令牌剩余时间失败: {}", e.getMessage());
             return 0L;
         }
     }
 
+    /**
+     * 获取令牌最长有效期（毫秒），取访问令牌与刷新令牌中的较大值
+     *
+     * @return 最长有效期
+     */
+    public long getMaxTokenLifetime() {
+        return Math.max(expiration, refreshExpiration);
+    }
+
     /**
      * 从请求头中获取令牌
      * 
@@ -0,0 +1,131 @@
+package com.admin.framework.web.aspect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 限长JSON序列化器
+ *
+ * 序列化输出达到上限后立即中止，只保留前maxLength个字符并追加"..."，
+ * 大对象不会被完整序列化后再截断，开销与上限成正比而与对象大小无关
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class BoundedJsonSerializer {
+
+    private static final String ELLIPSIS = "...";
+
+    private final ObjectWriter writer;
+
+    public BoundedJsonSerializer(ObjectMapper objectMapper) {
+        this.writer = objectMapper.copy()
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .disable(SerializationFeature.FAIL_ON_SELF_REFERENCES)
+                .writer();
+    }
+
+    /**
+     * 序列化为不超过maxLength个字符的JSON（截断时另加"..."）
+     *
+     * @param value 对象
+     * @param maxLength 最大长度
+     * @return JSON字符串
+     * @throws IOException 序列化失败
+     */
+    public String serialize(Object value, int maxLength) throws IOException {
+        LimitedWriter out = new LimitedWriter(maxLength);
+        try {
+            writer.writeValue(out, value);
+        } catch (LimitReachedException e) {
+            return out.toString() + ELLIPSIS;
+        } catch (IOException e) {
+            // Jackson可能把写出异常包装为JsonMappingException
+            if (e.getCause() instanceof LimitReachedException || out.isFull()) {
+                return out.toString() + ELLIPSIS;
+            }
+            throw e;
+        }
+        return out.toString();
+    }
+
+    /**
+     * 达到上限后抛出异常中止序列化的Writer
+     */
+    private static final class LimitedWriter extends Writer {
+
+        private final StringBuilder buffer;
+
+        private final int limit;
+
+        private boolean full;
+
+        LimitedWriter(int limit) {
+            this.limit = limit;
+            this.buffer = new StringBuilder(Math.min(limit, 256));
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int remaining = limit - buffer.length();
+            if (length > remaining) {
+                buffer.append(chars, offset, remaining);
+                full = true;
+                throw LimitReachedException.INSTANCE;
+            }
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String str, int offset, int length) throws IOException {
+            int remaining = limit - buffer.length();
+            if (length > remaining) {
+                buffer.append(str, offset, offset + remaining);
+                full = true;
+                throw LimitReachedException.INSTANCE;
+            }
+            buffer.append(str, offset, offset + length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        boolean isFull() {
+            return full;
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+
+    /**
+     * 达到长度上限的信号，不记录堆栈
+     */
+    private static final class LimitReachedException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        static final LimitReachedException INSTANCE = new LimitReachedException();
+
+        private LimitReachedException() {
+            super("序列化输出已达到长度上限", null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -1,32 +1,29 @@
 package com.admin.framework.web.aspect;
 
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.http.useragent.UserAgent;
-import cn.hutool.http.useragent.UserAgentUtil;
-import cn.hutool.json.JSONUtil;
 import com.admin.common.annotation.LoginLog;
 import com.admin.common.annotation.OperationLog;
 import com.admin.common.trace.TraceContext;
 import com.admin.common.utils.ServletUtils;
 import com.admin.framework.security.utils.SecurityAuthUtils;
+import com.admin.framework.web.aspect.MethodMetadataRegistry.MethodMetadata;
+import com.admin.framework.web.aspect.MethodMetadataRegistry.ParamFilter;
 import com.admin.framework.web.config.LogAspectProperties;
 import com.admin.framework.web.service.AsyncLogProcessor;
 import com.admin.module.log.api.dto.LoginLogCreateDTO;
 import com.admin.module.log.api.dto.OperationLogCreateDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Map;
@@ -35,6 +32,7 @@ import java.util.Map;
  * 统一日志切面
  * 
  * 统一处理操作日志和登录日志的记录，支持异步处理和异常隔离
+ * 请求线程只采集原始值并做限长序列化，User-Agent解析和IP归属地由日志写入管道补全
  * 
  * @author admin
  * @version 2.0
@@ -44,11 +42,21 @@ import java.util.Map;
 @Component
 @Order(1)
 @Slf4j
-@RequiredArgsConstructor
 public class LogAspect {
 
     private final AsyncLogProcessor asyncLogProcessor;
     private final LogAspectProperties logProperties;
+    private final BoundedJsonSerializer jsonSerializer;
+    private final MethodMetadataRegistry metadataRegistry;
+    private final ResultSampler resultSampler = new ResultSampler();
+
+    public LogAspect(AsyncLogProcessor asyncLogProcessor, LogAspectProperties logProperties,
+                     ObjectMapper objectMapper, MethodMetadataRegistry metadataRegistry) {
+        this.asyncLogProcessor = asyncLogProcessor;
+        this.logProperties = logProperties;
+        this.metadataRegistry = metadataRegistry;
+        this.jsonSerializer = new BoundedJsonSerializer(objectMapper);
+    }
 
     /**
      * 操作日志切入点
@@ -151,7 +159,7 @@ public class LogAspect {
     private void handleLoginSuccess(JoinPoint joinPoint, Object result) {
         Object[] args = joinPoint.getArgs();
         if (args.length > 0) {
-            LoginLogCreateDTO loginLog = buildLoginLogContext(args[0], true, "登录成功");
+            LoginLogCreateDTO loginLog = buildLoginLogContext(metadataRegistry.get(joinPoint), args[0], true, "登录成功");
             asyncLogProcessor.processLoginLog(loginLog);
         }
     }
@@ -166,7 +174,7 @@ public class LogAspect {
             if (StrUtil.isBlank(errorMsg)) {
                 errorMsg = "登录失败";
             }
-            LoginLogCreateDTO loginLog = buildLoginLogContext(args[0], false, errorMsg);
+            LoginLogCreateDTO loginLog = buildLoginLogContext(metadataRegistry.get(joinPoint), args[0], false, errorMsg);
             asyncLogProcessor.processLoginLog(loginLog);
         }
     }
@@ -186,15 +194,8 @@ public class LogAspect {
             HttpServletRequest request = ServletUtils.getRequest();
             if (request != null) {
                 loginLog.setIpaddr(getClientIpAddress(request));
-                loginLog.setLoginLocation(getIpLocation(loginLog.getIpaddr()));
-                
-                // 浏览器和操作系统信息
-                String userAgent = request.getHeader("User-Agent");
-                if (StrUtil.isNotBlank(userAgent)) {
-                    UserAgent ua = UserAgentUtil.parse(userAgent);
-                    loginLog.setBrowser(ua.getBrowser().getName() + " " + ua.getVersion());
-                    loginLog.setOs(ua.getOs().getName());
-                }
+                // 浏览器、操作系统和归属地由日志写入管道解析
+                loginLog.setUserAgent(request.getHeader("User-Agent"));
             }
             
             asyncLogProcessor.processLoginLog(loginLog);
@@ -206,9 +207,8 @@ public class LogAspect {
      */
     private OperationLogCreateDTO buildOperationLogContext(JoinPoint joinPoint, Object result, 
                                                           Exception exception, Long startTime) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        OperationLog operationLog = method.getAnnotation(OperationLog.class);
+        MethodMetadata metadata = metadataRegistry.get(joinPoint);
+        OperationLog operationLog = metadata.getOperationLog();
         
         if (operationLog == null) {
             return null;
@@ -219,7 +219,7 @@ public class LogAspect {
         // 基本信息
         logDTO.setTitle(operationLog.title());
         logDTO.setBusinessType(operationLog.businessType().getCode());
-        logDTO.setMethod(joinPoint.getTarget().getClass().getName() + "." + method.getName() + "()");
+        logDTO.setMethod(metadata.getQualifiedName());
         logDTO.setOperTime(LocalDateTime.now());
         
         // 操作人员信息
@@ -233,19 +233,16 @@ public class LogAspect {
         if (request != null) {
             logDTO.setRequestMethod(request.getMethod());
             logDTO.setOperUrl(request.getRequestURI());
+            // 归属地由日志写入管道补全
             logDTO.setOperIp(getClientIpAddress(request));
-            logDTO.setOperLocation(getIpLocation(logDTO.getOperIp()));
-            
-            // 用户代理信息（可以在后续版本中添加 browser 和 os 字段到 DTO）
-            // String userAgent = request.getHeader("User-Agent");
-            // 当前版本的 OperationLogCreateDTO 不包含 browser 和 os 字段
         }
         
         // 参数和结果
         if (operationLog.recordRequestParam()) {
-            logDTO.setOperParam(getRequestParam(joinPoint));
+            logDTO.setOperParam(getRequestParam(metadata, joinPoint.getArgs()));
         }
-        if (operationLog.recordResponseResult() && result != null) {
+        if (operationLog.recordResponseResult() && result != null
+                && resultSampler.tryAcquire(metadata.getMethod(), logProperties.getResultSamplePerSecond())) {
             logDTO.setJsonResult(formatJsonResult(result));
         }
         
@@ -269,11 +266,12 @@ public class LogAspect {
     /**
      * 构建登录日志上下文
      */
-    private LoginLogCreateDTO buildLoginLogContext(Object loginParam, boolean success, String message) {
+    private LoginLogCreateDTO buildLoginLogContext(MethodMetadata metadata, Object loginParam,
+                                                   boolean success, String message) {
         LoginLogCreateDTO loginLog = new LoginLogCreateDTO();
         
         // 提取用户名
-        String username = extractUsername(loginParam);
+        String username = extractUsername(metadata, loginParam);
         loginLog.setUserName(username);  // 注意：这里使用的是 userName 而不是 username
         loginLog.setLoginTime(LocalDateTime.now());
         loginLog.setStatus(success ? 1 : 0);
@@ -283,15 +281,8 @@ public class LogAspect {
         HttpServletRequest request = ServletUtils.getRequest();
         if (request != null) {
             loginLog.setIpaddr(getClientIpAddress(request));
-            loginLog.setLoginLocation(getIpLocation(loginLog.getIpaddr()));
-            
-            // 浏览器和操作系统信息
-            String userAgent = request.getHeader("User-Agent");
-            if (StrUtil.isNotBlank(userAgent)) {
-                UserAgent ua = UserAgentUtil.parse(userAgent);
-                loginLog.setBrowser(ua.getBrowser().getName() + " " + ua.getVersion());
-                loginLog.setOs(ua.getOs().getName());
-            }
+            // 浏览器、操作系统和归属地由日志写入管道解析
+            loginLog.setUserAgent(request.getHeader("User-Agent"));
         }
         
         return loginLog;
@@ -300,18 +291,16 @@ public class LogAspect {
     /**
      * 提取用户名
      */
-    private String extractUsername(Object loginParam) {
+    private String extractUsername(MethodMetadata metadata, Object loginParam) {
         if (loginParam == null) {
             return "unknown";
         }
         
         try {
-            // 通过反射获取username字段
-            java.lang.reflect.Field usernameField = loginParam.getClass().getDeclaredField("username");
-            usernameField.setAccessible(true);
-            Object username = usernameField.get(loginParam);
+            // 通过缓存的字段句柄读取username
+            Object username = metadataRegistry.readUsername(metadata, loginParam);
             return username != null ? username.toString() : "unknown";
-        } catch (Exception e) {
+        } catch (Throwable e) {
             log.warn("提取用户名失败: {}", e.getMessage());
             return "unknown";
         }
@@ -320,21 +309,26 @@ public class LogAspect {
     /**
      * 获取请求参数
      */
-    private String getRequestParam(JoinPoint joinPoint) {
+    private String getRequestParam(MethodMetadata metadata, Object[] args) {
         try {
-            Object[] args = joinPoint.getArgs();
             if (args == null || args.length == 0) {
                 return "";
             }
 
             StringBuilder params = new StringBuilder();
-            for (Object arg : args) {
-                if (arg != null && !isFilterObject(arg)) {
-                    String jsonStr = JSONUtil.toJsonStr(arg);
-                    if (jsonStr.length() > logProperties.getMaxParamLength()) {
-                        jsonStr = jsonStr.substring(0, logProperties.getMaxParamLength()) + "...";
+            for (int i = 0; i < args.length; i++) {
+                Object arg = args[i];
+                if (arg == null) {
+                    continue;
+                }
+                ParamFilter filter = metadata.getParamFilter(i);
+                if (filter == ParamFilter.INCLUDE || filter == ParamFilter.CHECK && !isFilterObject(arg)) {
+                    int remaining = logProperties.getMaxParamLength() - params.length();
+                    if (remaining <= 0) {
+                        params.append("...");
+                        break;
                     }
-                    params.append(jsonStr).append(" ");
+                    params.append(jsonSerializer.serialize(arg, remaining)).append(" ");
                 }
             }
             return params.toString().trim();
@@ -349,11 +343,7 @@ public class LogAspect {
      */
     private String formatJsonResult(Object jsonResult) {
         try {
-            String result = JSONUtil.toJsonStr(jsonResult);
-            if (result.length() > logProperties.getMaxResultLength()) {
-                result = result.substring(0, logProperties.getMaxResultLength()) + "...";
-            }
-            return result;
+            return jsonSerializer.serialize(jsonResult, logProperties.getMaxResultLength());
         } catch (Exception e) {
             log.warn("格式化响应结果异常: {}", e.getMessage());
             return "格式化结果异常";
@@ -426,19 +416,4 @@ public class LogAspect {
         
         return request.getRemoteAddr();
     }
-
-    /**
-     * 获取IP地址归属地
-     */
-    private String getIpLocation(String ip) {
-        try {
-            if (StrUtil.isBlank(ip) || "127.0.0.1".equals(ip) || "localhost".equals(ip)) {
-                return "内网IP";
-            }
-            return "未知位置";
-        } catch (Exception e) {
-            log.warn("获取IP归属地异常: {}", e.getMessage());
-            return "未知位置";
-        }
-    }
 }
\ No newline at end of file
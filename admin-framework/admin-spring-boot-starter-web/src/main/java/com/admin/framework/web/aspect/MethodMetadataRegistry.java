@@ -0,0 +1,228 @@
+package com.admin.framework.web.aspect;
+
+import com.admin.common.annotation.LoginLog;
+import com.admin.common.annotation.OperationLog;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 切面方法元数据注册表
+ *
+ * 按目标方法缓存日志切面和性能监控切面需要的反射信息（注解、方法名、参数名、参数过滤掩码、
+ * 用户名字段读取句柄），首次调用时解析，之后每次调用只需一次哈希查找
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+public class MethodMetadataRegistry {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private static final String MODULE_PACKAGE_PREFIX = "com.admin.module.";
+
+    private final Map<MethodClassKey, MethodMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    /**
+     * 按运行时参数类型缓存的username字段读取句柄，没有该字段时为null
+     */
+    private final ClassValue<MethodHandle> usernameGetters = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return resolveUsernameGetter(type);
+        }
+    };
+
+    /**
+     * 获取切点方法的元数据
+     *
+     * @param joinPoint 切点
+     * @return 方法元数据
+     */
+    public MethodMetadata get(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object target = joinPoint.getTarget();
+        Class<?> targetClass = target != null ? target.getClass() : method.getDeclaringClass();
+        return metadataCache.computeIfAbsent(new MethodClassKey(method, targetClass),
+                key -> new MethodMetadata(method, targetClass));
+    }
+
+    /**
+     * 读取登录参数的username字段
+     *
+     * @param metadata 方法元数据
+     * @param loginParam 登录参数
+     * @return 用户名，无法读取时返回null
+     * @throws Throwable 字段读取失败
+     */
+    public Object readUsername(MethodMetadata metadata, Object loginParam) throws Throwable {
+        MethodHandle getter = metadata.getUsernameGetter();
+        if (getter == null) {
+            getter = usernameGetters.get(loginParam.getClass());
+        }
+        return getter != null ? (Object) getter.invokeExact(loginParam) : null;
+    }
+
+    /**
+     * 已缓存的方法数量
+     */
+    public int size() {
+        return metadataCache.size();
+    }
+
+    /**
+     * 解析类型上username字段的读取句柄
+     */
+    private static MethodHandle resolveUsernameGetter(Class<?> type) {
+        if (type == Object.class || type.isInterface() || type.isArray() || type.isPrimitive()) {
+            return null;
+        }
+        try {
+            Field field = type.getDeclaredField("username");
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (NoSuchFieldException e) {
+            return null;
+        } catch (Exception e) {
+            log.warn("解析{}的username字段失败: {}", type.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 参数过滤方式
+     */
+    public enum ParamFilter {
+        /** 声明类型即可确定需要记录 */
+        INCLUDE,
+        /** 声明类型即可确定需要过滤（文件、请求、响应、校验结果） */
+        EXCLUDE,
+        /** 声明类型不足以判断，需要检查运行时对象 */
+        CHECK
+    }
+
+    /**
+     * 单个方法的元数据，创建后不可变
+     */
+    @Getter
+    public static final class MethodMetadata {
+
+        private final Method method;
+
+        private final OperationLog operationLog;
+
+        private final LoginLog loginLog;
+
+        /**
+         * 全限定方法名，如 com.admin.Xxx.list()
+         */
+        private final String qualifiedName;
+
+        /**
+         * 简短方法名，如 XxxController.list
+         */
+        private final String shortName;
+
+        /**
+         * 所属业务模块，如 system，非业务模块为 other
+         */
+        private final String module;
+
+        /**
+         * 目标类简单类名
+         */
+        private final String className;
+
+        private final String[] parameterNames;
+
+        private final ParamFilter[] paramFilters;
+
+        /**
+         * 第一个参数声明类型上的username字段读取句柄，用于登录日志
+         */
+        private final MethodHandle usernameGetter;
+
+        MethodMetadata(Method method, Class<?> targetClass) {
+            Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+            this.method = method;
+            this.operationLog = method.getAnnotation(OperationLog.class);
+            this.loginLog = method.getAnnotation(LoginLog.class);
+            this.qualifiedName = targetClass.getName() + "." + method.getName() + "()";
+            this.shortName = targetClass.getSimpleName() + "." + method.getName();
+            this.module = resolveModule(targetClass.getName());
+            this.className = targetClass.getSimpleName();
+            String[] names = PARAMETER_NAME_DISCOVERER.getParameterNames(specificMethod);
+            this.parameterNames = names != null ? names : new String[0];
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            this.paramFilters = new ParamFilter[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                paramFilters[i] = resolveParamFilter(parameterTypes[i]);
+            }
+            this.usernameGetter = parameterTypes.length > 0 ? resolveUsernameGetter(parameterTypes[0]) : null;
+        }
+
+        /**
+         * 获取参数过滤方式，下标越界时按运行时检查处理
+         */
+        public ParamFilter getParamFilter(int index) {
+            return index < paramFilters.length ? paramFilters[index] : ParamFilter.CHECK;
+        }
+
+        /**
+         * 从包名 com.admin.module.{module}.biz 中解析模块名
+         */
+        private static String resolveModule(String className) {
+            if (!className.startsWith(MODULE_PACKAGE_PREFIX)) {
+                return "other";
+            }
+            int end = className.indexOf('.', MODULE_PACKAGE_PREFIX.length());
+            return end > 0 ? className.substring(MODULE_PACKAGE_PREFIX.length(), end) : "other";
+        }
+
+        private static ParamFilter resolveParamFilter(Class<?> type) {
+            if (MultipartFile.class.isAssignableFrom(type)
+                    || HttpServletRequest.class.isAssignableFrom(type)
+                    || HttpServletResponse.class.isAssignableFrom(type)
+                    || BindingResult.class.isAssignableFrom(type)) {
+                return ParamFilter.EXCLUDE;
+            }
+            if (type.isArray()) {
+                Class<?> componentType = type.getComponentType();
+                if (MultipartFile.class.isAssignableFrom(componentType)) {
+                    return ParamFilter.EXCLUDE;
+                }
+                return componentType.isAssignableFrom(MultipartFile.class) ? ParamFilter.CHECK : ParamFilter.INCLUDE;
+            }
+            // Object、接口、集合类型的实际对象可能是文件或集合中包含文件
+            if (type == Object.class || type.isInterface() || Collection.class.isAssignableFrom(type)
+                    || Map.class.isAssignableFrom(type)) {
+                return ParamFilter.CHECK;
+            }
+            return ParamFilter.INCLUDE;
+        }
+    }
+}
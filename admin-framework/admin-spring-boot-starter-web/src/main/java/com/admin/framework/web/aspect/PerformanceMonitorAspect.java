@@ -2,11 +2,13 @@ package com.admin.framework.web.aspect;
 
 import com.admin.common.log.StructuredLogger;
 import com.admin.common.trace.TraceContext;
+import com.admin.framework.web.aspect.MethodMetadataRegistry.MethodMetadata;
+import com.admin.framework.web.monitor.LatencyRecorder;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -14,13 +16,13 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 性能监控切面
  * 
  * 监控接口执行时间，记录慢接口日志
- * 提供性能分析数据支持
+ * 以纳秒精度计时，所有Controller调用写入带百分位直方图的Timer，Service调用按采样率写入
  *
  * @author admin
  * @version 1.0
@@ -30,8 +32,12 @@ import java.lang.reflect.Method;
 @Component
 @Order(0) // 最高优先级，确保能准确测量时间
 @Slf4j
+@RequiredArgsConstructor
 public class PerformanceMonitorAspect {
 
+    private final MethodMetadataRegistry metadataRegistry;
+    private final LatencyRecorder latencyRecorder;
+
     /**
      * 慢接口阈值（毫秒），默认2秒
      */
@@ -59,8 +65,9 @@ public class PerformanceMonitorAspect {
             return joinPoint.proceed();
         }
 
-        long startTime = System.currentTimeMillis();
-        String methodName = getMethodName(joinPoint);
+        long startTime = System.nanoTime();
+        MethodMetadata metadata = metadataRegistry.get(joinPoint);
+        String methodName = metadata.getShortName();
         String traceId = TraceContext.getTraceId();
         
         try {
@@ -68,19 +75,21 @@ public class PerformanceMonitorAspect {
             Object result = joinPoint.proceed();
             
             // 计算执行时间
-            long costTime = System.currentTimeMillis() - startTime;
+            long costNanos = System.nanoTime() - startTime;
+            latencyRecorder.recordApi(metadata, costNanos, true);
             
             // 记录性能日志
-            recordPerformanceLog(joinPoint, methodName, costTime, null, traceId);
+            recordPerformanceLog(joinPoint, methodName, toMillis(costNanos), null, traceId);
             
             return result;
             
         } catch (Throwable throwable) {
             // 计算执行时间（包含异常处理时间）
-            long costTime = System.currentTimeMillis() - startTime;
+            long costNanos = System.nanoTime() - startTime;
+            latencyRecorder.recordApi(metadata, costNanos, false);
             
             // 记录性能日志（包含异常信息）
-            recordPerformanceLog(joinPoint, methodName, costTime, throwable, traceId);
+            recordPerformanceLog(joinPoint, methodName, toMillis(costNanos), throwable, traceId);
             
             throw throwable;
         }
@@ -95,17 +104,21 @@ public class PerformanceMonitorAspect {
             return joinPoint.proceed();
         }
 
-        long startTime = System.currentTimeMillis();
-        String methodName = getMethodName(joinPoint);
+        long startTime = System.nanoTime();
+        boolean sampled = latencyRecorder.sampleService();
         
         try {
             Object result = joinPoint.proceed();
-            long costTime = System.currentTimeMillis() - startTime;
+            long costNanos = System.nanoTime() - startTime;
+            if (sampled) {
+                latencyRecorder.recordService(metadataRegistry.get(joinPoint), costNanos, true);
+            }
             
             // 只记录超过阈值的Service方法
+            long costTime = toMillis(costNanos);
             if (costTime > slowApiThreshold) {
                 StructuredLogger.logPerformance(
-                    "Service方法: " + methodName,
+                    "Service方法: " + getMethodName(joinPoint),
                     costTime,
                     "执行完成"
                 );
@@ -114,11 +127,14 @@ public class PerformanceMonitorAspect {
             return result;
             
         } catch (Throwable throwable) {
-            long costTime = System.currentTimeMillis() - startTime;
+            long costNanos = System.nanoTime() - startTime;
+            if (sampled) {
+                latencyRecorder.recordService(metadataRegistry.get(joinPoint), costNanos, false);
+            }
             
             StructuredLogger.logPerformance(
-                "Service方法: " + methodName,
-                costTime,
+                "Service方法: " + getMethodName(joinPoint),
+                toMillis(costNanos),
                 "执行异常: " + throwable.getMessage()
             );
             
@@ -184,10 +200,14 @@ public class PerformanceMonitorAspect {
      * @return 方法全名
      */
     private String getMethodName(ProceedingJoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        return className + "." + method.getName();
+        return metadataRegistry.get(joinPoint).getShortName();
+    }
+
+    /**
+     * 纳秒转毫秒
+     */
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
     }
 
     /**
@@ -0,0 +1,71 @@
+package com.admin.framework.web.aspect;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 响应结果采样器
+ *
+ * 按接口方法统计每秒已记录的响应结果条数，超过预算后当秒内不再序列化响应结果，
+ * 低频接口不受影响，高频接口的结果序列化开销被限制在固定上限内
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class ResultSampler {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final Map<Method, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * 判断本次调用是否记录响应结果
+     *
+     * @param method 接口方法
+     * @param permitsPerSecond 每秒允许记录的条数，小于等于0表示不限制
+     * @return 是否记录
+     */
+    public boolean tryAcquire(Method method, int permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            return true;
+        }
+        return windows.computeIfAbsent(method, key -> new Window()).tryAcquire(permitsPerSecond);
+    }
+
+    /**
+     * 单个接口的秒级计数窗口
+     */
+    private static final class Window {
+
+        /**
+         * 高位存窗口序号，低20位存窗口内计数
+         */
+        private static final int COUNT_BITS = 20;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLong state = new AtomicLong();
+
+        boolean tryAcquire(int permits) {
+            long window = (System.nanoTime() / WINDOW_NANOS) & (-1L >>> COUNT_BITS);
+            for (;;) {
+                long current = state.get();
+                long currentWindow = current >>> COUNT_BITS;
+                long count = current & COUNT_MASK;
+                long next;
+                if (currentWindow != window) {
+                    next = (window << COUNT_BITS) | 1;
+                } else if (count < permits && count < COUNT_MASK) {
+                    next = current + 1;
+                } else {
+                    return false;
+                }
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
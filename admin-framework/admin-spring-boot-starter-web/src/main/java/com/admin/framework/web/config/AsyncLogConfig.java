@@ -1,15 +1,23 @@
 package com.admin.framework.web.config;
 
+import com.admin.common.concurrent.VirtualThreadTaskExecutor;
 import com.admin.common.trace.TraceContext;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import jakarta.annotation.PreDestroy;
+
 import java.lang.reflect.Method;
-import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -18,6 +26,7 @@ import java.util.concurrent.ThreadPoolExecutor;
  * 
  * 配置异步任务执行器，支持链路追踪信息的传递
  * 确保异步日志记录时能够保持完整的追踪链路
+ * 开启 spring.threads.virtual.enabled 时改用虚拟线程执行器，线程池大小转为信号量并发上限
  *
  * @author admin
  * @version 1.0
@@ -26,14 +35,22 @@ import java.util.concurrent.ThreadPoolExecutor;
 @Slf4j
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 public class AsyncLogConfig {
 
+    private final Environment environment;
+
     /**
      * 异步日志任务执行器
      */
     @Bean("asyncLogExecutor")
     public Executor asyncLogExecutor(LogAspectProperties properties) {
         LogAspectProperties.AsyncConfig asyncConfig = properties.getAsync();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // 最大线程数作为同时执行上限，队列容量作为等待上限
+            return new VirtualThreadTaskExecutor(asyncConfig.getThreadNamePrefix(), asyncConfig.getMaxPoolSize(),
+                    asyncConfig.getQueueCapacity(), 30_000L);
+        }
         ThreadPoolTaskExecutor executor = new TraceableThreadPoolTaskExecutor();
         executor.setCorePoolSize(asyncConfig.getCorePoolSize());
         executor.setMaxPoolSize(asyncConfig.getMaxPoolSize());
@@ -73,54 +90,59 @@ public class AsyncLogConfig {
         return new AsyncLogExceptionHandler();
     }
 
+    /**
+     * 虚拟线程模式下未指定执行器的 @Async 方法使用的执行器
+     *
+     * 未开启虚拟线程时保持 Spring 默认行为
+     */
+    @Configuration
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public static class VirtualThreadAsyncConfig implements AsyncConfigurer {
+
+        private final VirtualThreadTaskExecutor executor;
+
+        public VirtualThreadAsyncConfig(@Value("${admin.async.max-concurrency:200}") int maxConcurrency,
+                                        @Value("${admin.async.queue-capacity:1000}") int queueCapacity) {
+            this.executor = new VirtualThreadTaskExecutor("async-", maxConcurrency, queueCapacity, 30_000L);
+        }
+
+        @Override
+        public Executor getAsyncExecutor() {
+            return executor;
+        }
+
+        @Override
+        public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+            return new AsyncLogExceptionHandler();
+        }
+
+        @PreDestroy
+        public void destroy() {
+            executor.close();
+        }
+    }
+
     /**
      * 支持链路追踪的线程池任务执行器
+     *
+     * 提交时捕获当前链路载体，执行结束后恢复工作线程原有的链路，
+     * 调用者运行策略下也不会清掉调用线程的上下文
      */
     public static class TraceableThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
-        
+
         @Override
         public void execute(Runnable task) {
-            // 复制当前线程的MDC上下文
-            Map<String, String> contextMap = TraceContext.copyContext();
-            
-            super.execute(() -> {
-                try {
-                    // 在新线程中设置MDC上下文
-                    TraceContext.setContext(contextMap);
-                    task.run();
-                } finally {
-                    // 清理MDC上下文
-                    TraceContext.clear();
-                }
-            });
+            super.execute(TraceContext.wrap(task));
         }
-        
+
         @Override
         public java.util.concurrent.Future<?> submit(Runnable task) {
-            Map<String, String> contextMap = TraceContext.copyContext();
-            
-            return super.submit(() -> {
-                try {
-                    TraceContext.setContext(contextMap);
-                    task.run();
-                } finally {
-                    TraceContext.clear();
-                }
-            });
+            return super.submit(TraceContext.wrap(task));
         }
-        
+
         @Override
         public <T> java.util.concurrent.Future<T> submit(java.util.concurrent.Callable<T> task) {
-            Map<String, String> contextMap = TraceContext.copyContext();
-            
-            return super.submit(() -> {
-                try {
-                    TraceContext.setContext(contextMap);
-                    return task.call();
-                } finally {
-                    TraceContext.clear();
-                }
-            });
+            return super.submit(TraceContext.wrap(task));
         }
     }
 
@@ -0,0 +1,33 @@
+package com.admin.framework.web.config;
+
+import com.admin.common.utils.ip.IpLocationResolver;
+import com.admin.framework.web.properties.IpLocationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * IP归属地配置
+ *
+ * 加载离线IP库并注册为 IpUtils 使用的全局解析器
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Configuration
+@EnableConfigurationProperties(IpLocationProperties.class)
+@ConditionalOnProperty(prefix = "admin.ip-location", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IpLocationConfig {
+
+    @Bean
+    public IpLocationResolver ipLocationResolver(IpLocationProperties properties) {
+        IpLocationResolver resolver = new IpLocationResolver(Paths.get(properties.getDataFile()),
+                properties.getRefreshInterval().toMillis(), properties.getCacheSize());
+        IpLocationResolver.setDefault(resolver);
+        return resolver;
+    }
+}
@@ -0,0 +1,26 @@
+package com.admin.framework.web.config;
+
+import com.admin.framework.web.monitor.LatencyRecorder;
+import com.admin.framework.web.monitor.SlowestEndpointsEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 接口耗时监控配置
+ *
+ * 存在Actuator时注册最慢接口排行端点
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+public class LatencyMonitorConfig {
+
+    @Bean
+    public SlowestEndpointsEndpoint slowestEndpointsEndpoint(LatencyRecorder latencyRecorder) {
+        return new SlowestEndpointsEndpoint(latencyRecorder);
+    }
+}
@@ -1,8 +1,10 @@
 package com.admin.framework.web.config;
 
 import com.admin.framework.web.aspect.LogAspect;
+import com.admin.framework.web.aspect.MethodMetadataRegistry;
 import com.admin.framework.web.service.AsyncLogProcessor;
 import com.admin.module.log.api.service.LogRecordService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -32,9 +34,10 @@ public class LogAspectAutoConfiguration {
      */
     @Bean
     @ConditionalOnProperty(prefix = "admin.log.aspect", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public LogAspect logAspect(AsyncLogProcessor asyncLogProcessor, LogAspectProperties properties) {
+    public LogAspect logAspect(AsyncLogProcessor asyncLogProcessor, LogAspectProperties properties,
+                               ObjectMapper objectMapper, MethodMetadataRegistry metadataRegistry) {
         log.info("初始化日志切面，配置: {}", properties);
-        return new LogAspect(asyncLogProcessor, properties);
+        return new LogAspect(asyncLogProcessor, properties, objectMapper, metadataRegistry);
     }
 
     /**
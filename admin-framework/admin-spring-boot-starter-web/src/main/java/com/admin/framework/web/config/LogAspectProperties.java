@@ -56,6 +56,12 @@ public class LogAspectProperties {
     @Max(2000)
     private Integer maxErrorLength = 1000;
 
+    /**
+     * 每个接口每秒最多记录的响应结果条数，超出部分不序列化响应结果，0表示不限制
+     */
+    @Min(0)
+    private Integer resultSamplePerSecond = 20;
+
     /**
      * 排除路径模式
      */
@@ -0,0 +1,45 @@
+package com.admin.framework.web.config;
+
+import com.admin.common.utils.ua.UserAgentParser;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * User-Agent解析器配置
+ *
+ * 按配置的缓存容量创建全局解析器，并注册缓存命中率指标
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Configuration
+public class UserAgentParserConfig {
+
+    @Bean
+    public UserAgentParser userAgentParser(@Value("${admin.user-agent.cache-size:1024}") int cacheSize,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        UserAgentParser parser = new UserAgentParser(cacheSize);
+        UserAgentParser.setDefault(parser);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        FunctionCounter.builder("admin.useragent.cache.requests", parser, UserAgentParser::getHitCount)
+                .tag("result", "hit")
+                .description("User-Agent解析缓存命中次数")
+                .register(registry);
+        FunctionCounter.builder("admin.useragent.cache.requests", parser, UserAgentParser::getMissCount)
+                .tag("result", "miss")
+                .description("User-Agent解析缓存未命中次数")
+                .register(registry);
+        Gauge.builder("admin.useragent.cache.size", parser, UserAgentParser::getCacheSize)
+                .description("User-Agent解析缓存条数")
+                .register(registry);
+        return parser;
+    }
+}
@@ -1,5 +1,6 @@
 package com.admin.framework.web.filter;
 
+import com.admin.common.trace.TraceCarrier;
 import com.admin.common.trace.TraceContext;
 import com.admin.framework.security.utils.SecurityAuthUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -61,7 +62,7 @@ public class TraceFilter implements Filter {
             chain.doFilter(request, response);
             
         } finally {
-            // 清理MDC上下文
+            // 清理链路上下文
             TraceContext.clear();
         }
     }
@@ -81,22 +82,21 @@ public class TraceFilter implements Filter {
         String traceId = request.getHeader(TRACE_ID_HEADER);
         String spanId = request.getHeader(SPAN_ID_HEADER);
         
+        TraceCarrier carrier;
         if (StringUtils.hasText(traceId)) {
             // 使用已存在的TraceId
-            TraceContext.setTraceId(traceId);
-            if (StringUtils.hasText(spanId)) {
-                TraceContext.setSpanId(spanId);
-            } else {
-                TraceContext.setSpanId(TraceContext.generateSpanId());
-            }
-            log.debug("继续链路追踪: traceId={}, spanId={}", traceId, TraceContext.getSpanId());
+            carrier = TraceCarrier.of(traceId, StringUtils.hasText(spanId) ? spanId : null);
+            TraceContext.attach(carrier);
+            log.debug("继续链路追踪: traceId={}, spanId={}", traceId, carrier.getSpanId());
         } else {
             // 生成新的TraceId
-            traceId = TraceContext.initTrace();
-            log.debug("开始新的链路追踪: traceId={}, spanId={}", traceId, TraceContext.getSpanId());
+            carrier = TraceCarrier.newTrace();
+            traceId = carrier.getTraceId();
+            TraceContext.attach(carrier);
+            log.debug("开始新的链路追踪: traceId={}, spanId={}", traceId, carrier.getSpanId());
         }
         
-        // 尝试设置用户信息到MDC
+        // 尝试设置用户信息到链路上下文
         try {
             Long userId = SecurityAuthUtils.getCurrentUserId();
             String username = SecurityAuthUtils.getCurrentUsername();
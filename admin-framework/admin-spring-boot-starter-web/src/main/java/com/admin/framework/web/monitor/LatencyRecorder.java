@@ -0,0 +1,242 @@
+package com.admin.framework.web.monitor;
+
+import com.admin.framework.web.aspect.MethodMetadataRegistry.MethodMetadata;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 接口耗时记录器
+ *
+ * 为每个Controller方法注册带百分位直方图的Micrometer Timer（admin.api.latency），
+ * 同时在进程内维护HdrHistogram用于“最慢接口”排行；Service方法按采样率记录到
+ * admin.service.latency，默认不发布直方图以降低开销
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+public class LatencyRecorder {
+
+    public static final String API_TIMER = "admin.api.latency";
+    public static final String SERVICE_TIMER = "admin.service.latency";
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_ERROR = "error";
+
+    /**
+     * HdrHistogram有效数字位数，2位即1%精度
+     */
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<MethodMetadata, LatencyStats> apiStats = new ConcurrentHashMap<>();
+
+    private final Map<MethodMetadata, LatencyStats> serviceStats = new ConcurrentHashMap<>();
+
+    /**
+     * Controller耗时是否发布百分位直方图
+     */
+    @Value("${admin.logging.performance.histogram-enabled:true}")
+    private boolean histogramEnabled;
+
+    /**
+     * Service耗时采样率，0~1
+     */
+    @Value("${admin.logging.performance.service-sample-rate:0.1}")
+    private double serviceSampleRate;
+
+    public LatencyRecorder(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    /**
+     * 记录Controller方法耗时
+     *
+     * @param metadata 方法元数据
+     * @param nanos 耗时（纳秒）
+     * @param success 是否成功
+     */
+    public void recordApi(MethodMetadata metadata, long nanos, boolean success) {
+        apiStats.computeIfAbsent(metadata, key -> new LatencyStats(key, API_TIMER, "controller", histogramEnabled))
+                .record(nanos, success);
+    }
+
+    /**
+     * 判断本次Service调用是否采样
+     */
+    public boolean sampleService() {
+        return serviceSampleRate >= 1.0
+                || serviceSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < serviceSampleRate;
+    }
+
+    /**
+     * 记录Service方法耗时，调用方需先通过{@link #sampleService()}采样
+     *
+     * @param metadata 方法元数据
+     * @param nanos 耗时（纳秒）
+     * @param success 是否成功
+     */
+    public void recordService(MethodMetadata metadata, long nanos, boolean success) {
+        serviceStats.computeIfAbsent(metadata, key -> new LatencyStats(key, SERVICE_TIMER, "service", false))
+                .record(nanos, success);
+    }
+
+    /**
+     * 获取最慢的接口排行
+     *
+     * @param limit 返回条数
+     * @param sortBy 排序指标：p50、p90、p99、max、mean
+     * @return 接口耗时统计，按指标降序
+     */
+    public List<EndpointLatency> getSlowest(int limit, String sortBy) {
+        Comparator<EndpointLatency> comparator = switch (sortBy == null ? "p99" : sortBy) {
+            case "p50" -> Comparator.comparingDouble(EndpointLatency::getP50Ms);
+            case "p90" -> Comparator.comparingDouble(EndpointLatency::getP90Ms);
+            case "max" -> Comparator.comparingDouble(EndpointLatency::getMaxMs);
+            case "mean" -> Comparator.comparingDouble(EndpointLatency::getMeanMs);
+            default -> Comparator.comparingDouble(EndpointLatency::getP99Ms);
+        };
+        return apiStats.values().stream()
+                .map(LatencyStats::snapshot)
+                .filter(latency -> latency.getCount() > 0)
+                .sorted(comparator.reversed())
+                .limit(Math.max(limit, 1))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 清空进程内直方图，Micrometer指标不受影响
+     */
+    public void reset() {
+        apiStats.values().forEach(LatencyStats::reset);
+        log.info("已重置接口耗时直方图，接口数: {}", apiStats.size());
+    }
+
+    /**
+     * 单个方法的耗时统计
+     */
+    private final class LatencyStats {
+
+        private final String module;
+        private final String component;
+        private final String method;
+
+        private final Timer successTimer;
+        private final Timer errorTimer;
+
+        /**
+         * 写入端无锁的区间直方图，单位微秒
+         */
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS, true);
+
+        /**
+         * 自启动或上次重置以来的累计直方图，读取时合并区间数据
+         */
+        private final Histogram accumulated = new PackedHistogram(SIGNIFICANT_DIGITS);
+
+        private Histogram interval;
+
+        LatencyStats(MethodMetadata metadata, String timerName, String componentTag, boolean percentileHistogram) {
+            this.module = metadata.getModule();
+            this.component = metadata.getClassName();
+            this.method = metadata.getMethod().getName();
+            this.successTimer = buildTimer(timerName, componentTag, OUTCOME_SUCCESS, percentileHistogram);
+            this.errorTimer = buildTimer(timerName, componentTag, OUTCOME_ERROR, percentileHistogram);
+        }
+
+        private Timer buildTimer(String timerName, String componentTag, String outcome, boolean percentileHistogram) {
+            return Timer.builder(timerName)
+                    .tag("module", module)
+                    .tag(componentTag, component)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram(percentileHistogram)
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+
+        void record(long nanos, boolean success) {
+            (success ? successTimer : errorTimer).record(nanos, TimeUnit.NANOSECONDS);
+            recorder.recordValue(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1));
+        }
+
+        synchronized EndpointLatency snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            accumulated.add(interval);
+            return EndpointLatency.builder()
+                    .module(module)
+                    .controller(component)
+                    .method(method)
+                    .count(accumulated.getTotalCount())
+                    .errors((long) errorTimer.count())
+                    .meanMs(accumulated.getMean() / 1000.0)
+                    .p50Ms(accumulated.getValueAtPercentile(50) / 1000.0)
+                    .p90Ms(accumulated.getValueAtPercentile(90) / 1000.0)
+                    .p99Ms(accumulated.getValueAtPercentile(99) / 1000.0)
+                    .maxMs(accumulated.getMaxValue() / 1000.0)
+                    .build();
+        }
+
+        synchronized void reset() {
+            interval = recorder.getIntervalHistogram(interval);
+            accumulated.reset();
+        }
+    }
+
+    /**
+     * 接口耗时统计
+     */
+    @Data
+    @Builder
+    public static class EndpointLatency {
+
+        private String module;
+
+        private String controller;
+
+        private String method;
+
+        /**
+         * 统计窗口内的调用次数
+         */
+        private long count;
+
+        /**
+         * 自启动以来的异常次数
+         */
+        private long errors;
+
+        private double meanMs;
+
+        private double p50Ms;
+
+        private double p90Ms;
+
+        private double p99Ms;
+
+        private double maxMs;
+    }
+}
@@ -0,0 +1,32 @@
+package com.admin.framework.web.monitor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * 最慢接口排行端点
+ *
+ * GET /actuator/slowendpoints?limit=20&amp;sortBy=p99 查询排行，只读
+ * 默认不在 management.endpoints.web.exposure.include 中暴露，需要时显式开启
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Endpoint(id = "slowendpoints")
+@RequiredArgsConstructor
+public class SlowestEndpointsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final LatencyRecorder latencyRecorder;
+
+    @ReadOperation
+    public List<LatencyRecorder.EndpointLatency> slowest(@Nullable Integer limit, @Nullable String sortBy) {
+        return latencyRecorder.getSlowest(limit != null ? limit : DEFAULT_LIMIT, sortBy);
+    }
+}
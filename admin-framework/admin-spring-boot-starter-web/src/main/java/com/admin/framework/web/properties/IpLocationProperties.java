@@ -0,0 +1,38 @@
+package com.admin.framework.web.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * IP归属地配置属性
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Data
+@ConfigurationProperties(prefix = "admin.ip-location")
+public class IpLocationProperties {
+
+    /**
+     * 是否启用离线IP归属地查询
+     */
+    private Boolean enabled = true;
+
+    /**
+     * IP段数据文件路径，格式见 IpRangeIndex
+     */
+    private String dataFile = "./data/ip-ranges.txt";
+
+    /**
+     * 检查数据文件变化的间隔，0表示不热加载
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * 重复IP的LRU缓存容量
+     */
+    private Integer cacheSize = 4096;
+}
@@ -7,13 +7,13 @@ import com.admin.module.log.api.service.LogRecordService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 /**
  * 异步日志处理器
  * 
  * 负责异步处理操作日志和登录日志的记录
+ * 日志交给LogRecordService的异步接口入队，由日志模块的写入管道批量入库，调用线程不等待写入
  * 支持失败降级策略和异常隔离
  * 
  * @author admin
@@ -33,7 +33,6 @@ public class AsyncLogProcessor {
      * 
      * @param logDTO 操作日志DTO
      */
-    @Async("asyncLogExecutor")
     public void processOperationLog(OperationLogCreateDTO logDTO) {
         if (logDTO == null) {
             return;
@@ -67,7 +66,6 @@ public class AsyncLogProcessor {
      * 
      * @param logDTO 登录日志DTO
      */
-    @Async("asyncLogExecutor")
     public void processLoginLog(LoginLogCreateDTO logDTO) {
         if (logDTO == null) {
             return;
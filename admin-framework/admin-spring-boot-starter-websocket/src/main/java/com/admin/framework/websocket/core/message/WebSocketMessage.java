@@ -1,5 +1,6 @@
 package com.admin.framework.websocket.core.message;
 
+import com.admin.common.trace.TraceContext;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -87,6 +88,11 @@ public class WebSocketMessage {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createTime;
 
+    /**
+     * 触发推送的请求链路ID，便于前后端日志关联
+     */
+    private String traceId;
+
     /**
      * 消息类型常量
      */
@@ -153,6 +159,7 @@ public class WebSocketMessage {
         private Boolean needAck;
         private Map<String, Object> extra;
         private LocalDateTime createTime;
+        private String traceId;
 
         public WebSocketMessageBuilder messageId(String messageId) {
             this.messageId = messageId;
@@ -214,6 +221,11 @@ public class WebSocketMessage {
             return this;
         }
 
+        public WebSocketMessageBuilder traceId(String traceId) {
+            this.traceId = traceId;
+            return this;
+        }
+
         public WebSocketMessage build() {
             WebSocketMessage message = new WebSocketMessage();
             message.messageId = this.messageId != null ? this.messageId : UUID.randomUUID().toString();
@@ -228,6 +240,7 @@ public class WebSocketMessage {
             message.needAck = this.needAck != null ? this.needAck : false;
             message.extra = this.extra;
             message.createTime = this.createTime != null ? this.createTime : LocalDateTime.now();
+            message.traceId = this.traceId != null ? this.traceId : TraceContext.getTraceId();
             return message;
         }
     }
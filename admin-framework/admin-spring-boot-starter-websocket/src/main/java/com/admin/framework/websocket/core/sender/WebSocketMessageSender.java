@@ -1,5 +1,6 @@
 package com.admin.framework.websocket.core.sender;
 
+import com.admin.common.trace.TraceContext;
 import com.admin.framework.websocket.core.message.WebSocketMessage;
 import com.admin.framework.websocket.core.session.WebSocketSessionManager;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,6 +16,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
 
 /**
  * WebSocket 消息发送服务
@@ -271,14 +273,16 @@ public class WebSocketMessageSender {
             return;
         }
 
+        Lock lock = sessionManager.getSendLock(session);
+        lock.lock();
         try {
-            synchronized (session) {
-                session.sendMessage(message);
-            }
+            session.sendMessage(message);
         } catch (IOException e) {
             log.error("发送WebSocket消息失败，会话ID: {}", session.getId(), e);
             // 移除无效会话
             sessionManager.removeSession(session);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -297,6 +301,9 @@ public class WebSocketMessageSender {
         if (message.getPriority() == null) {
             message.setPriority(WebSocketMessage.Priority.MEDIUM);
         }
+        if (message.getTraceId() == null) {
+            message.setTraceId(TraceContext.getTraceId());
+        }
     }
 
     /**
@@ -318,6 +325,7 @@ public class WebSocketMessageSender {
                 .needAck(message.getNeedAck())
                 .extra(message.getExtra())
                 .createTime(LocalDateTime.now())
+                .traceId(message.getTraceId())
                 .build();
     }
 
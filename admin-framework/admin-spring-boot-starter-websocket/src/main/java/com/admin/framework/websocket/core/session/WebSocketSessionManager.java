@@ -7,6 +7,8 @@ import org.springframework.web.socket.WebSocketSession;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * WebSocket 会话管理器
@@ -32,6 +34,12 @@ public class WebSocketSessionManager {
      */
     private final Set<WebSocketSession> allSessions = new CopyOnWriteArraySet<>();
 
+    /**
+     * 会话ID -> 发送锁，同一会话的消息需串行发送；
+     * 使用 ReentrantLock 而不是 synchronized，避免发送阻塞时钉住虚拟线程的载体线程
+     */
+    private final Map<String, Lock> sendLocks = new ConcurrentHashMap<>();
+
     /**
      * 添加会话
      *
@@ -48,6 +56,7 @@ public class WebSocketSessionManager {
         
         // 添加到会话用户映射
         sessionUsers.put(session.getId(), userId);
+        sendLocks.putIfAbsent(session.getId(), new ReentrantLock());
         
         // 添加到所有会话集合
         allSessions.add(session);
@@ -67,6 +76,7 @@ public class WebSocketSessionManager {
 
         String sessionId = session.getId();
         Long userId = sessionUsers.remove(sessionId);
+        sendLocks.remove(sessionId);
         
         if (userId != null) {
             Set<WebSocketSession> sessions = userSessions.get(userId);
@@ -84,6 +94,17 @@ public class WebSocketSessionManager {
         log.debug("会话 {} 已移除，用户: {}，当前在线用户数: {}", sessionId, userId, userSessions.size());
     }
 
+    /**
+     * 获取会话的发送锁，已移除的会话不再登记新锁
+     *
+     * @param session WebSocket会话
+     * @return 发送锁
+     */
+    public Lock getSendLock(WebSocketSession session) {
+        Lock lock = sendLocks.get(session.getId());
+        return lock != null ? lock : new ReentrantLock();
+    }
+
     /**
      * 获取用户的所有会话
      *
@@ -2,6 +2,8 @@ package com.admin.module.ai.biz.service.impl;
 
 import com.admin.common.core.domain.PageResult;
 import com.admin.common.exception.ServiceException;
+import com.admin.common.trace.TraceCarrier;
+import com.admin.common.trace.TraceContext;
 import com.admin.common.utils.PageUtils;
 import com.admin.module.ai.api.dto.chat.ChatMessageSendDTO;
 import com.admin.module.ai.api.dto.chat.ChatSessionCreateDTO;
@@ -206,16 +208,17 @@ public class AiChatServiceImpl implements AiChatService {
                 requestSpec = requestSpec.advisors(questionAnswerAdvisor);
             }
             
-            // 流式调用AI模型
+            // 流式调用AI模型，回调运行在Reactor线程上，需要带上发起请求时的链路
+            TraceCarrier carrier = TraceContext.current();
             return requestSpec.stream().content()
-                .doOnComplete(() -> {
+                .doOnComplete(() -> TraceContext.runWith(carrier, () -> {
                     // 流式响应完成后的处理
                     log.debug("流式响应完成: {}", sendDTO.getSessionId());
                     updateSessionStats(sendDTO.getSessionId());
-                })
-                .doOnError(error -> {
+                }))
+                .doOnError(error -> TraceContext.runWith(carrier, () -> {
                     log.error("流式响应错误", error);
-                });
+                }));
             
         } catch (Exception e) {
             log.error("发送流式消息失败", e);
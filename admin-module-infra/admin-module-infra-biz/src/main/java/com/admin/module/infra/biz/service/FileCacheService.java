@@ -1,16 +1,19 @@
 package com.admin.module.infra.biz.service;
 
 import cn.hutool.core.util.StrUtil;
+import com.admin.framework.redis.cache.CacheEntry;
+import com.admin.framework.redis.cache.CacheMetrics;
+import com.admin.framework.redis.core.RedisCache;
 import com.admin.module.infra.api.vo.FileInfoVO;
 import com.admin.module.infra.biz.convert.FileConvert;
 import com.admin.module.infra.biz.dal.dataobject.FileInfoDO;
 import com.admin.module.infra.biz.dal.mapper.FileInfoMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -32,10 +35,16 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class FileCacheService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisCache redisCache;
+    private final CacheMetrics cacheMetrics;
     private final FileInfoMapper fileInfoMapper;
     private final ObjectMapper objectMapper;
 
+    /**
+     * 空值缓存标记
+     */
+    private static final String NULL_VALUE = RedisCache.NULL_VALUE;
+
     /**
      * 文件信息缓存Key前缀
      */
@@ -74,6 +83,17 @@ public class FileCacheService {
     @Value("${admin.cache.file.null-value-ttl-minutes:5}")
     private Integer nullValueTtlMinutes;
 
+    /**
+     * 登记文件缓存键前缀，按前缀统计命中率与加载耗时
+     */
+    @PostConstruct
+    public void registerMetricPrefixes() {
+        cacheMetrics.registerKeyPrefix(FILE_CACHE_PREFIX);
+        cacheMetrics.registerKeyPrefix(FILE_HASH_CACHE_PREFIX);
+        cacheMetrics.registerKeyPrefix(USER_FILES_CACHE_PREFIX);
+        cacheMetrics.registerKeyPrefix(BUSINESS_FILES_CACHE_PREFIX);
+    }
+
     /**
      * 获取文件信息（带缓存）
      * 
@@ -88,35 +108,17 @@ public class FileCacheService {
         String cacheKey = FILE_CACHE_PREFIX + fileId;
         
         try {
-            // 1. 先从缓存获取
-            Object cached = redisTemplate.opsForValue().get(cacheKey);
-            if (cached != null) {
-                if ("NULL".equals(cached)) {
-                    // 空值缓存，直接返回null
-                    return null;
-                }
-                
-                // 反序列化为FileInfoVO对象
-                if (cached instanceof LinkedHashMap) {
-                    return objectMapper.convertValue(cached, FileInfoVO.class);
-                } else if (cached instanceof FileInfoVO) {
-                    return (FileInfoVO) cached;
+            // 缓存未命中时单飞回源，同一文件的并发请求只查询一次数据库；不存在的文件缓存空值，防止缓存穿透
+            Object cached = redisCache.<Object>getOrLoad(cacheKey, () -> {
+                FileInfoDO fileInfo = fileInfoMapper.selectById(fileId);
+                if (fileInfo == null || fileInfo.getDeleted() == 1) {
+                    return NULL_VALUE;
                 }
-            }
-
-            // 2. 从数据库查询
-            FileInfoDO fileInfo = fileInfoMapper.selectById(fileId);
-            if (fileInfo == null || fileInfo.getDeleted() == 1) {
-                // 缓存空值，防止缓存穿透
-                cacheNullValue(cacheKey);
-                return null;
-            }
-
-            // 3. 转换为VO并写入缓存
-            FileInfoVO fileInfoVO = FileConvert.INSTANCE.convert(fileInfo);
-            cacheFileInfo(fileId, fileInfoVO);
-            
-            return fileInfoVO;
+                FileInfoVO fileInfoVO = FileConvert.INSTANCE.convert(fileInfo);
+                cacheHashMapping(fileInfoVO, resolveCacheTtl(fileInfoVO));
+                return fileInfoVO;
+            }, this::resolveCacheTtl);
+            return toFileInfoVO(cached);
 
         } catch (Exception e) {
             log.error("获取文件缓存失败: fileId={}", fileId, e);
@@ -146,26 +148,25 @@ public class FileCacheService {
                     .map(id -> FILE_CACHE_PREFIX + id)
                     .toList();
 
-            List<Object> cachedValues = redisTemplate.opsForValue().multiGet(cacheKeys);
+            List<Object> cachedValues = redisCache.multiGet(cacheKeys);
             
             for (int i = 0; i < fileIds.size(); i++) {
                 Long fileId = fileIds.get(i);
-                Object cached = cachedValues.get(i);
+                Object cached = CacheEntry.unwrap(cachedValues.get(i));
                 
                 if (cached == null) {
                     // 缓存未命中
                     missedIds.add(fileId);
-                } else if ("NULL".equals(cached)) {
+                } else if (NULL_VALUE.equals(cached)) {
                     // 空值缓存，不加入结果
                     continue;
                 } else {
-                    // 缓存命中，反序列化
+                    // 缓存命中，序列化器已按类型信息还原为FileInfoVO
                     try {
-                        FileInfoVO fileInfo;
-                        if (cached instanceof LinkedHashMap) {
-                            fileInfo = objectMapper.convertValue(cached, FileInfoVO.class);
-                        } else {
-                            fileInfo = (FileInfoVO) cached;
+                        FileInfoVO fileInfo = toFileInfoVO(cached);
+                        if (fileInfo == null) {
+                            missedIds.add(fileId);
+                            continue;
                         }
                         result.put(fileId, fileInfo);
                     } catch (Exception e) {
@@ -226,32 +227,12 @@ public class FileCacheService {
         String cacheKey = FILE_HASH_CACHE_PREFIX + fileHash + ":" + uploadStatus;
 
         try {
-            // 1. 先从缓存获取
-            Object cached = redisTemplate.opsForValue().get(cacheKey);
-            if (cached != null) {
-                if ("NULL".equals(cached)) {
-                    return null;
-                }
-                
-                if (cached instanceof LinkedHashMap) {
-                    return objectMapper.convertValue(cached, FileInfoVO.class);
-                } else if (cached instanceof FileInfoVO) {
-                    return (FileInfoVO) cached;
-                }
-            }
-
-            // 2. 从数据库查询
-            FileInfoDO fileInfo = fileInfoMapper.selectByFileHash(fileHash, uploadStatus);
-            if (fileInfo == null) {
-                cacheNullValue(cacheKey);
-                return null;
-            }
-
-            // 3. 转换并缓存
-            FileInfoVO fileInfoVO = FileConvert.INSTANCE.convert(fileInfo);
-            cacheValue(cacheKey, fileInfoVO, Duration.ofHours(defaultCacheTtlHours));
-            
-            return fileInfoVO;
+            Object cached = redisCache.<Object>getOrLoad(cacheKey, () -> {
+                FileInfoDO fileInfo = fileInfoMapper.selectByFileHash(fileHash, uploadStatus);
+                return fileInfo != null ? FileConvert.INSTANCE.convert(fileInfo) : NULL_VALUE;
+            }, value -> NULL_VALUE.equals(value) ?
+                    Duration.ofMinutes(nullValueTtlMinutes) : Duration.ofHours(defaultCacheTtlHours));
+            return toFileInfoVO(cached);
 
         } catch (Exception e) {
             log.error("根据哈希值获取文件缓存失败: fileHash={}", fileHash, e);
@@ -280,10 +261,7 @@ public class FileCacheService {
             cacheValue(cacheKey, fileInfo, ttl);
             
             // 如果有哈希值，也缓存哈希映射
-            if (StrUtil.isNotBlank(fileInfo.getFileHash())) {
-                String hashKey = FILE_HASH_CACHE_PREFIX + fileInfo.getFileHash() + ":" + fileInfo.getUploadStatus();
-                cacheValue(hashKey, fileInfo, ttl);
-            }
+            cacheHashMapping(fileInfo, ttl);
             
         } catch (Exception e) {
             log.error("缓存文件信息失败: fileId={}", fileId, e);
@@ -314,13 +292,13 @@ public class FileCacheService {
         try {
             // 1. 删除文件信息缓存
             String cacheKey = FILE_CACHE_PREFIX + fileId;
-            redisTemplate.delete(cacheKey);
+            redisCache.delete(cacheKey);
 
             // 2. 如果能获取到文件信息，同时删除哈希缓存
             FileInfoVO fileInfo = getFileInfoFromDb(fileId);
             if (fileInfo != null && StrUtil.isNotBlank(fileInfo.getFileHash())) {
                 String hashKey = FILE_HASH_CACHE_PREFIX + fileInfo.getFileHash() + ":" + fileInfo.getUploadStatus();
-                redisTemplate.delete(hashKey);
+                redisCache.delete(hashKey);
             }
 
         } catch (Exception e) {
@@ -345,7 +323,7 @@ public class FileCacheService {
                     .toList();
 
             // 批量删除
-            redisTemplate.delete(cacheKeys);
+            redisCache.delete(cacheKeys);
             
             log.info("批量删除文件缓存成功: 数量={}", fileIds.size());
 
@@ -384,10 +362,10 @@ public class FileCacheService {
      */
     public void cleanupExpiredCache() {
         try {
-            Set<String> keys = redisTemplate.keys(FILE_CACHE_PREFIX + "*");
-            if (keys != null && !keys.isEmpty()) {
-                // Redis的过期策略会自动清理，这里不需要主动删除
-                log.info("发现文件缓存Key数量: {}", keys.size());
+            // Redis的过期策略会自动清理，这里不需要主动删除，只做增量扫描统计
+            long keyCount = redisCache.scanCount(FILE_CACHE_PREFIX + "*");
+            if (keyCount > 0) {
+                log.info("发现文件缓存Key数量: {}", keyCount);
             }
         } catch (Exception e) {
             log.error("清理过期文件缓存失败", e);
@@ -396,13 +374,48 @@ public class FileCacheService {
 
     // =============== 私有辅助方法 ===============
 
+    /**
+     * 缓存文件哈希到文件信息的映射
+     */
+    private void cacheHashMapping(FileInfoVO fileInfo, Duration ttl) {
+        if (StrUtil.isNotBlank(fileInfo.getFileHash())) {
+            String hashKey = FILE_HASH_CACHE_PREFIX + fileInfo.getFileHash() + ":" + fileInfo.getUploadStatus();
+            cacheValue(hashKey, fileInfo, ttl);
+        }
+    }
+
+    /**
+     * 按缓存内容决定过期时间：空值较短，热点文件较长
+     */
+    private Duration resolveCacheTtl(Object cached) {
+        if (NULL_VALUE.equals(cached)) {
+            return Duration.ofMinutes(nullValueTtlMinutes);
+        }
+        return cached instanceof FileInfoVO fileInfo && isHotFile(fileInfo) ?
+                Duration.ofHours(hotFileCacheTtlHours) :
+                Duration.ofHours(defaultCacheTtlHours);
+    }
+
+    /**
+     * 将缓存内容转换为文件信息，空值缓存返回null
+     * 缓存值带有类型信息，反序列化后即为FileInfoVO；LinkedHashMap仅出现在无类型信息的旧数据中
+     */
+    private FileInfoVO toFileInfoVO(Object cached) {
+        if (cached instanceof FileInfoVO fileInfo) {
+            return fileInfo;
+        }
+        if (cached instanceof LinkedHashMap) {
+            return objectMapper.convertValue(cached, FileInfoVO.class);
+        }
+        return null;
+    }
+
     /**
      * 缓存空值，防止缓存穿透
      */
     private void cacheNullValue(String cacheKey) {
         try {
-            redisTemplate.opsForValue().set(cacheKey, "NULL", 
-                    Duration.ofMinutes(nullValueTtlMinutes));
+            redisCache.set(cacheKey, NULL_VALUE, Duration.ofMinutes(nullValueTtlMinutes));
         } catch (Exception e) {
             log.warn("缓存空值失败: key={}", cacheKey, e);
         }
@@ -419,7 +432,7 @@ public class FileCacheService {
      * 缓存值
      */
     private void cacheValue(String key, Object value, Duration ttl) {
-        redisTemplate.opsForValue().set(key, value, ttl);
+        redisCache.set(key, value, ttl);
     }
 
     /**
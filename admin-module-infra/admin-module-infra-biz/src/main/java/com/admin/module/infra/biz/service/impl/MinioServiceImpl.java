@@ -141,6 +141,36 @@ public class MinioServiceImpl implements MinioService {
         }
     }
 
+    @Override
+    public UploadResult uploadStream(String bucketName, String objectName, InputStream inputStream,
+                                     long partSize, String contentType) {
+        try {
+            if (!bucketExists(bucketName)) {
+                createBucket(bucketName);
+            }
+
+            // 长度未知时客户端走分片上传，每次只缓冲一个分片
+            PutObjectArgs.Builder builder = PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(inputStream, -1, partSize);
+
+            if (StrUtil.isNotBlank(contentType)) {
+                builder.contentType(contentType);
+            }
+
+            ObjectWriteResponse response = minioClient.putObject(builder.build());
+
+            log.info("文件流上传成功: bucketName={}, objectName={}, etag={}",
+                    bucketName, objectName, response.etag());
+
+            return UploadResult.success(bucketName, objectName, response.etag(), null, contentType);
+        } catch (Exception e) {
+            log.error("文件流上传失败: bucketName={}, objectName={}", bucketName, objectName, e);
+            return UploadResult.failure("文件上传失败: " + e.getMessage());
+        }
+    }
+
     @Override
     public InputStream downloadFile(String bucketName, String objectName) {
         try {
@@ -51,4 +51,7 @@ public class LoginLogCreateDTO {
 
     @Schema(description = "登录时间")
     private LocalDateTime loginTime;
+
+    @Schema(description = "原始User-Agent，由日志写入管道解析为浏览器和操作系统", hidden = true)
+    private String userAgent;
 }
\ No newline at end of file
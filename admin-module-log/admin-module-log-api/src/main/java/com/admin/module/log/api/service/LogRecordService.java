@@ -29,14 +29,14 @@ public interface LogRecordService {
     void recordLoginLog(LoginLogCreateDTO logDTO);
 
     /**
-     * 异步记录操作日志
+     * 异步记录操作日志，只入队不等待写入，不阻塞调用线程
      * 
      * @param logDTO 操作日志信息
      */
     void recordOperationLogAsync(OperationLogCreateDTO logDTO);
 
     /**
-     * 异步记录登录日志
+     * 异步记录登录日志，只入队不等待写入，不阻塞调用线程
      * 
      * @param logDTO 登录日志信息
      */
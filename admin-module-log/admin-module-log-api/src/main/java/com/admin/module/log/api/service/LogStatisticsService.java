@@ -1,5 +1,6 @@
 package com.admin.module.log.api.service;
 
+import com.admin.module.log.api.vo.LiveMetricsVO;
 import com.admin.module.log.api.vo.LogStatisticsVO;
 
 import java.time.LocalDate;
@@ -55,4 +56,11 @@ public interface LogStatisticsService {
      * @return 性能统计信息
      */
     LogStatisticsVO.SystemOverview getSystemPerformanceStats(Integer days);
+
+    /**
+     * 获取最近时间窗口的实时指标
+     *
+     * @return 实时指标，不访问数据库
+     */
+    LiveMetricsVO getLiveMetrics();
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.admin.module.log.api.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 实时日志指标VO
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Schema(description = "实时日志指标（最近时间窗口）")
+@Data
+public class LiveMetricsVO {
+
+    @Schema(description = "窗口时长（秒）")
+    private Integer windowSeconds;
+
+    @Schema(description = "操作数")
+    private Long totalCount;
+
+    @Schema(description = "异常操作数")
+    private Long errorCount;
+
+    @Schema(description = "异常率（%）")
+    private Double errorRate;
+
+    @Schema(description = "每秒操作数")
+    private Double throughput;
+
+    @Schema(description = "操作最多的人员（估算值）")
+    private List<RankItem> topOperators;
+
+    @Schema(description = "按模块统计")
+    private List<ModuleStats> modules;
+
+    @Schema(description = "最慢的接口（按P95耗时）")
+    private List<EndpointStats> slowestEndpoints;
+
+    @Data
+    @Schema(description = "排行项")
+    public static class RankItem {
+
+        @Schema(description = "名称")
+        private String name;
+
+        @Schema(description = "数量")
+        private Long count;
+    }
+
+    @Data
+    @Schema(description = "模块统计")
+    public static class ModuleStats {
+
+        @Schema(description = "模块")
+        private String module;
+
+        @Schema(description = "操作数")
+        private Long count;
+
+        @Schema(description = "异常操作数")
+        private Long errorCount;
+
+        @Schema(description = "异常率（%）")
+        private Double errorRate;
+    }
+
+    @Data
+    @Schema(description = "接口耗时统计")
+    public static class EndpointStats {
+
+        @Schema(description = "接口（请求方式 + URL）")
+        private String endpoint;
+
+        @Schema(description = "请求数")
+        private Long count;
+
+        @Schema(description = "平均耗时（毫秒）")
+        private Double avgCostTime;
+
+        @Schema(description = "P95耗时（毫秒）")
+        private Long p95CostTime;
+
+        @Schema(description = "P99耗时（毫秒）")
+        private Long p99CostTime;
+    }
+}
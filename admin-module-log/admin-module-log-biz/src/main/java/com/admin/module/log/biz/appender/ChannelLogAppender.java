@@ -0,0 +1,358 @@
+package com.admin.module.log.biz.appender;
+
+import com.admin.module.log.biz.config.LogProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 基于FileChannel的追加写日志文件
+ *
+ * 每个日志文件只打开一个长期存活的FileChannel，写入方式为组提交：调用方把记录放入待写队列后竞争写锁，
+ * 拿到锁的线程把队列中所有记录拷贝到复用的直接缓冲区并一次写出，其余线程醒来时发现自己的记录已被写出即直接返回。
+ * 文件按日期和大小滚动，滚动出的文件由后台线程压缩为gzip
+ *
+ * 文件命名：{dir}/{prefix}_{yyyy-MM-dd}.log，按大小滚动的分段为 {prefix}_{yyyy-MM-dd}.{n}.log.gz
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+public class ChannelLogAppender implements AutoCloseable {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final String LOG_SUFFIX = ".log";
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final Path directory;
+    private final String prefix;
+    private final LogProperties.FileConfig config;
+    private final Executor compressExecutor;
+
+    private final Queue<PendingRecord> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * 组提交缓冲区，只在持有写锁时使用
+     */
+    private final ByteBuffer buffer;
+
+    private FileChannel channel;
+    private Path activeFile;
+    private LocalDate activeDate;
+    private long activeSize;
+    private long lastForceAt;
+    /**
+     * 上次落盘后是否写入过数据
+     */
+    private boolean dirty;
+    private boolean closed;
+
+    public ChannelLogAppender(Path directory, String prefix, LogProperties.FileConfig config,
+                              Executor compressExecutor) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.config = config;
+        this.compressExecutor = compressExecutor;
+        this.buffer = ByteBuffer.allocateDirect((int) config.getBufferSize().toBytes());
+    }
+
+    /**
+     * 追加一条记录，返回时记录已写入操作系统（按fsync策略决定是否已落盘）
+     *
+     * @param record 已编码的记录，须自带换行
+     * @throws IOException 写入失败
+     */
+    public void append(byte[] record) throws IOException {
+        PendingRecord pendingRecord = new PendingRecord(record);
+        pending.add(pendingRecord);
+        writeLock.lock();
+        try {
+            if (!pendingRecord.written) {
+                if (closed) {
+                    pending.remove(pendingRecord);
+                    throw new IOException("日志文件已关闭: " + prefix);
+                }
+                commit();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (pendingRecord.failure != null) {
+            throw pendingRecord.failure;
+        }
+    }
+
+    /**
+     * INTERVAL策略下由定时任务调用：距上次落盘超过间隔且有未落盘的数据时落盘，
+     * 写入停止后最后一批数据不会一直停留在页缓存中。正在组提交时跳过，由提交线程自行判断
+     */
+    public void forceIfDirty() {
+        if (!writeLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            if (closed || !dirty || channel == null || now - lastForceAt < config.getFsyncInterval().toMillis()) {
+                return;
+            }
+            force(now);
+        } catch (IOException e) {
+            log.error("日志文件落盘失败: {}, {}", activeFile, e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            commit();
+            closed = true;
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 写出队列中的全部记录，调用方须持有写锁
+     */
+    private void commit() {
+        List<PendingRecord> batch = new ArrayList<>();
+        PendingRecord record;
+        while ((record = pending.poll()) != null) {
+            batch.add(record);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        IOException failure = null;
+        try {
+            rollIfNeeded();
+            buffer.clear();
+            for (PendingRecord item : batch) {
+                byte[] bytes = item.bytes;
+                if (bytes.length > buffer.remaining()) {
+                    drainBuffer();
+                }
+                if (bytes.length > buffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(bytes));
+                } else {
+                    buffer.put(bytes);
+                }
+            }
+            drainBuffer();
+            forceIfNeeded();
+        } catch (IOException e) {
+            failure = e;
+            log.error("写入日志文件失败: {}, {}", activeFile, e.getMessage());
+            closeChannelQuietly();
+        }
+        for (PendingRecord item : batch) {
+            item.failure = failure;
+            item.written = true;
+        }
+    }
+
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            activeSize += channel.write(source);
+            dirty = true;
+        }
+    }
+
+    private void forceIfNeeded() throws IOException {
+        switch (config.getFsyncPolicy()) {
+            case ALWAYS -> force(System.currentTimeMillis());
+            case INTERVAL -> {
+                long now = System.currentTimeMillis();
+                if (now - lastForceAt >= config.getFsyncInterval().toMillis()) {
+                    force(now);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void force(long now) throws IOException {
+        channel.force(false);
+        lastForceAt = now;
+        dirty = false;
+    }
+
+    /**
+     * 日期变化或文件超过大小上限时滚动
+     */
+    private void rollIfNeeded() throws IOException {
+        LocalDate today = LocalDate.now();
+        if (channel == null || !channel.isOpen()) {
+            open(today);
+            return;
+        }
+        if (!today.equals(activeDate)) {
+            Path previous = activeFile;
+            closeChannel();
+            scheduleCompress(previous, previous.resolveSibling(previous.getFileName() + GZIP_SUFFIX));
+            open(today);
+            purgeExpired();
+        } else if (config.isRotationEnabled() && activeSize >= config.getMaxFileSize().toBytes()) {
+            Path previous = activeFile;
+            closeChannel();
+            Path segment = nextSegment(activeDate);
+            Files.move(previous, segment, StandardCopyOption.ATOMIC_MOVE);
+            scheduleCompress(segment, segment.resolveSibling(segment.getFileName() + GZIP_SUFFIX));
+            open(today);
+        }
+    }
+
+    private void open(LocalDate date) throws IOException {
+        Files.createDirectories(directory);
+        activeDate = date;
+        activeFile = directory.resolve(prefix + "_" + date.format(DATE_FORMATTER) + LOG_SUFFIX);
+        channel = FileChannel.open(activeFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        activeSize = channel.size();
+        lastForceAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 下一个按大小滚动的分段文件名
+     */
+    private Path nextSegment(LocalDate date) {
+        String base = prefix + "_" + date.format(DATE_FORMATTER) + ".";
+        for (int index = 1; ; index++) {
+            Path segment = directory.resolve(base + index + LOG_SUFFIX);
+            if (!Files.exists(segment) && !Files.exists(segment.resolveSibling(segment.getFileName() + GZIP_SUFFIX))) {
+                return segment;
+            }
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        channel.force(false);
+        channel.close();
+        channel = null;
+        dirty = false;
+    }
+
+    private void closeChannelQuietly() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("关闭日志文件失败: {}", e.getMessage());
+        }
+        channel = null;
+    }
+
+    private void scheduleCompress(Path source, Path target) {
+        if (!config.isCompressRotated()) {
+            return;
+        }
+        compressExecutor.execute(() -> compress(source, target));
+    }
+
+    /**
+     * gzip压缩滚动出的文件，成功后删除原文件
+     */
+    private static void compress(Path source, Path target) {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            log.error("压缩日志文件失败: {}, {}", source, e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 临时文件下次压缩时覆盖
+            }
+            return;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(source);
+        } catch (IOException e) {
+            log.error("替换压缩日志文件失败: {}, {}", source, e.getMessage());
+        }
+    }
+
+    /**
+     * 删除超过保留天数的历史文件
+     */
+    private void purgeExpired() {
+        if (config.getRetentionDays() <= 0) {
+            return;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(config.getRetentionDays(), ChronoUnit.DAYS));
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "_*")) {
+            for (Path file : stream) {
+                if (!file.equals(activeFile) && Files.getLastModifiedTime(file).compareTo(cutoff) < 0) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理过期日志文件失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 待写记录
+     */
+    private static final class PendingRecord {
+
+        private final byte[] bytes;
+
+        /**
+         * 以下字段由写锁持有者设置，等待方在获取同一把锁后读取
+         */
+        private boolean written;
+
+        private IOException failure;
+
+        PendingRecord(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
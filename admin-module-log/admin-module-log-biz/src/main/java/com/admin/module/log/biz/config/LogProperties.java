@@ -4,6 +4,9 @@ import com.admin.module.log.api.enums.LogStorageTypeEnum;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 /**
  * 日志配置属性
@@ -32,6 +35,36 @@ public class LogProperties {
      */
     private FileConfig file = new FileConfig();
 
+    /**
+     * 异步写入管道配置
+     */
+    private SinkConfig sink = new SinkConfig();
+
+    /**
+     * 统计汇总配置
+     */
+    private RollupConfig rollup = new RollupConfig();
+
+    /**
+     * 全文检索配置
+     */
+    private SearchConfig search = new SearchConfig();
+
+    /**
+     * 日志表分区维护配置
+     */
+    private PartitionConfig partition = new PartitionConfig();
+
+    /**
+     * 日志导出配置
+     */
+    private ExportConfig export = new ExportConfig();
+
+    /**
+     * 实时指标配置
+     */
+    private LiveConfig live = new LiveConfig();
+
     @Data
     public static class FileConfig {
         /**
@@ -48,5 +81,258 @@ public class LogProperties {
          * 文件保留天数
          */
         private int retentionDays = 30;
+
+        /**
+         * 单个文件大小上限，超过后滚动为新分段
+         */
+        private DataSize maxFileSize = DataSize.ofMegabytes(100);
+
+        /**
+         * 组提交缓冲区大小
+         */
+        private DataSize bufferSize = DataSize.ofKilobytes(256);
+
+        /**
+         * 落盘策略
+         */
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+
+        /**
+         * INTERVAL策略下两次落盘的最小间隔
+         */
+        private Duration fsyncInterval = Duration.ofSeconds(1);
+
+        /**
+         * 是否gzip压缩滚动出的文件
+         */
+        private boolean compressRotated = true;
+    }
+
+    @Data
+    public static class SinkConfig {
+        /**
+         * 环形队列容量，向上取整为2的幂
+         */
+        private int capacity = 8192;
+
+        /**
+         * 单次多行INSERT的最大条数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 未凑满一批时的最长等待时间
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /**
+         * 队列已满时的处理策略
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        /**
+         * 溢写策略下等待消费线程写入溢写文件的最大条数，超出后丢弃
+         */
+        private int spillQueueCapacity = 1024;
+
+        /**
+         * 溢写文件目录
+         */
+        private String spillPath = "./logs/spill";
+
+        /**
+         * 溢写文件重放间隔
+         */
+        private Duration replayInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class RollupConfig {
+        /**
+         * 是否启用汇总表，关闭后统计接口直接对原始表做 GROUP BY
+         */
+        private boolean enabled = true;
+
+        /**
+         * 汇总任务执行间隔
+         */
+        private Duration interval = Duration.ofMinutes(5);
+
+        /**
+         * 每次汇总回看的时长，覆盖异步写入延迟到达的日志
+         */
+        private Duration lookback = Duration.ofHours(2);
+
+        /**
+         * 首次启动时最多回填的天数
+         */
+        private int maxBackfillDays = 90;
+    }
+
+    @Data
+    public static class SearchConfig {
+        /**
+         * 是否启用内存倒排索引，关闭后文本条件直接使用 LIKE 匹配
+         */
+        private boolean enabled = true;
+
+        /**
+         * 索引保留时长，也是未指定时间范围的文本查询默认回看的时长
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        /**
+         * 单次查询最多交给数据库校验的候选数量，超过时改用 LIKE 匹配
+         */
+        private int maxCandidates = 5000;
+
+        /**
+         * 重建索引时每批读取的行数
+         */
+        private int rebuildBatchSize = 2000;
+
+        /**
+         * 从表中追平其它节点写入日志的间隔
+         */
+        private Duration catchUpInterval = Duration.ofSeconds(10);
+
+        /**
+         * 事务提交延迟余量，ID游标只推进到该时长之前读到的位置，之后的行每次追平都重新读取
+         */
+        private Duration catchUpMargin = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class PartitionConfig {
+        /**
+         * 是否启用分区维护，日志表未分区时维护任务自动跳过
+         */
+        private boolean enabled = true;
+
+        /**
+         * 分区粒度
+         */
+        private PartitionUnit unit = PartitionUnit.MONTH;
+
+        /**
+         * 日志保留时长，上界早于该时长的分区整体删除
+         */
+        private Duration retention = Duration.ofDays(180);
+
+        /**
+         * 预先创建的未来分区数
+         */
+        private int preCreate = 3;
+
+        /**
+         * 维护任务执行时间
+         */
+        private String cron = "0 30 1 * * ?";
+    }
+
+    @Data
+    public static class ExportConfig {
+        /**
+         * 导出文件格式
+         */
+        private ExportFormat format = ExportFormat.XLSX;
+
+        /**
+         * 同时读取的分片数
+         */
+        private int parallelism = 4;
+
+        /**
+         * 单个分片覆盖的时长
+         */
+        private Duration shardDuration = Duration.ofDays(1);
+
+        /**
+         * 每次游标读取的行数
+         */
+        private int batchSize = 1000;
+    }
+
+    @Data
+    public static class LiveConfig {
+        /**
+         * 是否启用实时指标
+         */
+        private boolean enabled = true;
+
+        /**
+         * 滑动窗口时长，按秒分桶
+         */
+        private Duration window = Duration.ofMinutes(5);
+
+        /**
+         * 排行返回的条数
+         */
+        private int topK = 10;
+
+        /**
+         * 模块、接口各自的键数上限，超出后归入"其它"
+         */
+        private int maxKeys = 1000;
+    }
+
+    /**
+     * 日志文件落盘策略
+     */
+    public enum FsyncPolicy {
+        /**
+         * 只写入操作系统缓存，由操作系统决定落盘时机
+         */
+        NEVER,
+        /**
+         * 按固定间隔落盘
+         */
+        INTERVAL,
+        /**
+         * 每次组提交后落盘
+         */
+        ALWAYS
+    }
+
+    /**
+     * 日志队列溢出策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃并计数
+         */
+        DROP,
+        /**
+         * 追加到本地溢写文件，稍后重放入库
+         */
+        SPILL
+    }
+
+    /**
+     * 日志表分区粒度
+     */
+    public enum PartitionUnit {
+        /**
+         * 按天分区
+         */
+        DAY,
+        /**
+         * 按月分区
+         */
+        MONTH
+    }
+
+    /**
+     * 日志导出文件格式
+     */
+    public enum ExportFormat {
+        /**
+         * Excel文件
+         */
+        XLSX,
+        /**
+         * gzip压缩的CSV文件
+         */
+        CSV_GZIP
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,8 @@ import com.admin.common.annotation.OperationLog;
 import com.admin.common.core.domain.R;
 import com.admin.module.log.biz.config.LogProperties;
 import com.admin.module.log.biz.service.LogCleanupService;
+import com.admin.module.log.biz.service.LogPartitionService;
+import com.admin.module.log.biz.service.LogSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -38,6 +40,8 @@ public class LogConfigController {
 
     private final LogProperties logProperties;
     private final LogCleanupService logCleanupService;
+    private final LogSearchService logSearchService;
+    private final LogPartitionService logPartitionService;
     private final LoggingSystem loggingSystem;
 
     @GetMapping("/config")
@@ -74,6 +78,30 @@ public class LogConfigController {
         }
     }
 
+    @PostMapping("/search/rebuild")
+    @Operation(summary = "重建日志全文索引")
+    @OperationLog(title = "日志管理", description = "重建日志全文索引", businessType = OperationLog.BusinessType.OTHER)
+    @PreAuthorize("@ss.hasPermission('system:log:config')")
+    public R<String> rebuildSearchIndex() {
+        if (!logProperties.getSearch().isEnabled()) {
+            return R.error("日志全文索引未启用");
+        }
+        logSearchService.rebuildAsync();
+        return R.ok("已开始重建日志全文索引");
+    }
+
+    @PostMapping("/partition/maintain")
+    @Operation(summary = "维护日志表分区")
+    @OperationLog(title = "日志管理", description = "维护日志表分区", businessType = OperationLog.BusinessType.OTHER)
+    @PreAuthorize("@ss.hasPermission('system:log:config')")
+    public R<String> maintainPartitions() {
+        if (!logPartitionService.isEnabled()) {
+            return R.error("日志表分区维护未启用");
+        }
+        logPartitionService.maintain();
+        return R.ok("日志表分区维护完成");
+    }
+
     @PostMapping("/test-log")
     @Operation(summary = "测试日志记录")
     @OperationLog(title = "日志管理", description = "测试日志记录功能", businessType = OperationLog.BusinessType.OTHER)
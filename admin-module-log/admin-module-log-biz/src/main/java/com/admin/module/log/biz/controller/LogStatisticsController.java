@@ -2,6 +2,7 @@ package com.admin.module.log.biz.controller;
 
 import com.admin.common.core.domain.R;
 import com.admin.module.log.api.service.LogStatisticsService;
+import com.admin.module.log.api.vo.LiveMetricsVO;
 import com.admin.module.log.api.vo.LogStatisticsVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -78,6 +79,13 @@ public class LogStatisticsController {
         return R.ok(performance);
     }
 
+    @GetMapping("/live")
+    @Operation(summary = "获取实时指标（最近时间窗口）")
+    @PreAuthorize("@ss.hasPermission('system:log:statistics')")
+    public R<LiveMetricsVO> getLiveMetrics() {
+        return R.ok(logStatisticsService.getLiveMetrics());
+    }
+
     @GetMapping("/dashboard")
     @Operation(summary = "获取仪表盘数据")
     @PreAuthorize("@ss.hasPermission('system:log:statistics')")
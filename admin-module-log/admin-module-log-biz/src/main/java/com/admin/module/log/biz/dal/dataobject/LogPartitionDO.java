@@ -0,0 +1,30 @@
+package com.admin.module.log.biz.dal.dataobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 日志表分区DO
+ *
+ * 对应 information_schema.PARTITIONS 的一行，也用于描述待创建的分区
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogPartitionDO {
+
+    /**
+     * 分区名称
+     */
+    private String partitionName;
+
+    /**
+     * 分区上界，RANGE COLUMNS 分区为带引号的时间字面量或 MAXVALUE
+     */
+    private String partitionDescription;
+}
@@ -0,0 +1,58 @@
+package com.admin.module.log.biz.dal.dataobject;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 日志统计汇总DO
+ *
+ * 对应小时汇总表与日汇总表的一行，日汇总的统计时间为当天零点
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Data
+public class LogRollupDO {
+
+    /**
+     * 统计时间
+     */
+    private LocalDateTime statTime;
+
+    /**
+     * 日志类型：1-操作日志，2-登录日志
+     */
+    private Integer logType;
+
+    /**
+     * 统计维度
+     */
+    private String dimType;
+
+    /**
+     * 维度取值，整体维度为空串
+     */
+    private String dimValue;
+
+    /**
+     * 记录数
+     */
+    private Long totalCount;
+
+    /**
+     * 异常或失败数
+     */
+    private Long errorCount;
+
+    /**
+     * 耗时合计（毫秒）
+     */
+    private Long costSum;
+
+    /**
+     * 有耗时的记录数
+     */
+    private Long costCount;
+}
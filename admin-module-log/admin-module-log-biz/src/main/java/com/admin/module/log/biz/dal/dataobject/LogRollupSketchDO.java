@@ -0,0 +1,31 @@
+package com.admin.module.log.biz.dal.dataobject;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 日志去重用户基数草图DO
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Data
+public class LogRollupSketchDO {
+
+    /**
+     * 统计日期
+     */
+    private LocalDate statDate;
+
+    /**
+     * 指标
+     */
+    private String metric;
+
+    /**
+     * HyperLogLog寄存器
+     */
+    private byte[] registers;
+}
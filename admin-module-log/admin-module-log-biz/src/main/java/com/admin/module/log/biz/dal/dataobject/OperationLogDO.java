@@ -1,7 +1,9 @@
 package com.admin.module.log.biz.dal.dataobject;
 
 import com.admin.common.core.domain.BaseEntity;
+import com.admin.module.log.biz.dal.typehandler.CompressedTextTypeHandler;
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
@@ -73,13 +75,15 @@ public class OperationLogDO extends BaseEntity {
     private String operLocation;
 
     /**
-     * 请求参数
+     * 请求参数，压缩存储；通用查询不加载，仅详情及导出查询读取
      */
+    @TableField(typeHandler = CompressedTextTypeHandler.class, select = false)
     private String operParam;
 
     /**
-     * 返回参数
+     * 返回参数，压缩存储；通用查询不加载，仅详情及导出查询读取
      */
+    @TableField(typeHandler = CompressedTextTypeHandler.class, select = false)
     private String jsonResult;
 
     /**
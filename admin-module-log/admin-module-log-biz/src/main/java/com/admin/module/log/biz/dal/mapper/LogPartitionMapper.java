@@ -0,0 +1,46 @@
+package com.admin.module.log.biz.dal.mapper;
+
+import com.admin.module.log.biz.dal.dataobject.LogPartitionDO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 日志表分区维护Mapper
+ *
+ * 表名和分区定义只能拼接进DDL，调用方只传入内部常量和生成的分区
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Mapper
+public interface LogPartitionMapper {
+
+    /**
+     * 查询表的分区，按分区顺序排列；未分区的表返回空列表
+     */
+    List<LogPartitionDO> selectPartitions(@Param("table") String table);
+
+    /**
+     * 在末尾追加分区，要求表中没有 MAXVALUE 分区
+     */
+    int addPartitions(@Param("table") String table, @Param("partitions") List<LogPartitionDO> partitions);
+
+    /**
+     * 把分区拆分为多个分区
+     */
+    int reorganizePartition(@Param("table") String table, @Param("source") String source,
+                            @Param("partitions") List<LogPartitionDO> partitions);
+
+    /**
+     * 删除分区及其中的数据
+     */
+    int dropPartitions(@Param("table") String table, @Param("names") List<String> names);
+
+    /**
+     * 截断整表，保留分区定义
+     */
+    int truncateTable(@Param("table") String table);
+}
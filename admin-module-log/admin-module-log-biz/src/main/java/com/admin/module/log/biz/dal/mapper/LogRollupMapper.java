@@ -0,0 +1,133 @@
+package com.admin.module.log.biz.dal.mapper;
+
+import com.admin.module.log.biz.dal.dataobject.LogRollupDO;
+import com.admin.module.log.biz.dal.dataobject.LogRollupSketchDO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 日志统计汇总Mapper
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Mapper
+public interface LogRollupMapper {
+
+    /**
+     * 从操作日志原始表按小时聚合，dimType为空时聚合全部维度
+     */
+    List<LogRollupDO> aggregateOperation(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                         @Param("dimType") String dimType);
+
+    /**
+     * 从登录日志原始表按小时聚合，dimType为空时聚合全部维度
+     */
+    List<LogRollupDO> aggregateLogin(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                     @Param("dimType") String dimType);
+
+    /**
+     * 删除时间范围内的小时汇总
+     */
+    int deleteHourly(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 批量写入小时汇总
+     */
+    int insertHourlyBatch(@Param("list") List<LogRollupDO> list);
+
+    /**
+     * 删除指定日期的日汇总
+     */
+    int deleteDaily(@Param("statDate") LocalDate statDate);
+
+    /**
+     * 由小时汇总重算指定日期的日汇总
+     */
+    int rollupDaily(@Param("statDate") LocalDate statDate);
+
+    /**
+     * 查询小时汇总，时间左闭右开
+     */
+    List<LogRollupDO> selectHourly(@Param("logType") int logType, @Param("dimType") String dimType,
+                                   @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 查询日汇总，日期左闭右开
+     */
+    List<LogRollupDO> selectDaily(@Param("logType") int logType, @Param("dimType") String dimType,
+                                  @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 最近一个已汇总的小时
+     */
+    LocalDateTime selectLatestHour();
+
+    /**
+     * 最早一个已汇总的小时
+     */
+    LocalDateTime selectEarliestHour();
+
+    /**
+     * 原始日志中最早的记录时间
+     */
+    LocalDateTime selectEarliestLogTime();
+
+    /**
+     * 查询时间范围内登录过的用户名
+     */
+    List<String> selectDistinctLoginUsers(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                          @Param("successOnly") boolean successOnly);
+
+    /**
+     * 精确统计时间范围内登录过的用户数，start为空表示不限开始时间
+     */
+    Long countDistinctLoginUsers(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                 @Param("successOnly") boolean successOnly);
+
+    /**
+     * 写入或覆盖基数草图
+     */
+    int upsertSketch(LogRollupSketchDO sketch);
+
+    /**
+     * 查询日期范围内的基数草图，日期左闭右开
+     */
+    List<LogRollupSketchDO> selectSketches(@Param("metric") String metric, @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+
+    /**
+     * 删除指定日志类型的全部小时汇总
+     */
+    int deleteHourlyByLogType(@Param("logType") int logType);
+
+    /**
+     * 删除指定日志类型的全部日汇总
+     */
+    int deleteDailyByLogType(@Param("logType") int logType);
+
+    /**
+     * 删除全部基数草图
+     */
+    int deleteSketches();
+
+    /**
+     * 读取汇总状态时间
+     */
+    LocalDateTime selectStateTime(@Param("stateKey") String stateKey);
+
+    /**
+     * 写入汇总状态时间，已有记录时保留两者中较早的时间
+     */
+    int lowerStateTime(@Param("stateKey") String stateKey, @Param("stateTime") LocalDateTime stateTime);
+
+    /**
+     * 状态时间仍为给定值时删除该状态
+     */
+    int deleteStateTime(@Param("stateKey") String stateKey, @Param("stateTime") LocalDateTime stateTime);
+}
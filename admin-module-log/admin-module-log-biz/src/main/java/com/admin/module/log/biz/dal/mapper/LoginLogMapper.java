@@ -8,6 +8,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -34,4 +35,32 @@ public interface LoginLogMapper extends BaseMapper<LoginLogDO> {
      * 查询登录日志列表
      */
     List<LoginLogDO> selectListByQuery(@Param("query") LoginLogQueryDTO query);
-}
\ No newline at end of file
+
+    /**
+     * 按ID游标从新到旧读取时间分片内的登录日志，start、end为空表示不限，end不含
+     */
+    List<LoginLogDO> selectExportBatch(@Param("query") LoginLogQueryDTO query, @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end, @Param("beforeId") long beforeId,
+                                       @Param("limit") int limit);
+
+    /**
+     * 查询符合条件的最早登录时间
+     */
+    LocalDateTime selectMinTimeByQuery(@Param("query") LoginLogQueryDTO query);
+
+    /**
+     * 多行INSERT批量写入登录日志
+     */
+    int insertBatch(@Param("list") List<LoginLogDO> list);
+
+    /**
+     * 按ID游标读取重建全文索引所需的字段
+     */
+    List<LoginLogDO> selectSearchBatch(@Param("afterId") long afterId, @Param("since") LocalDateTime since,
+                                       @Param("limit") int limit);
+
+    /**
+     * 表中当前最大的ID（含已逻辑删除的行），表为空时返回null
+     */
+    Long selectMaxId();
+}
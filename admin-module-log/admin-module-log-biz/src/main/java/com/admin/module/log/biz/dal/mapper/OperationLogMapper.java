@@ -9,6 +9,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -35,4 +36,37 @@ public interface OperationLogMapper extends BaseMapper<OperationLogDO> {
      * 查询操作日志列表
      */
     List<OperationLogDO> selectListByQuery(@Param("query") OperationLogQueryDTO query);
-}
\ No newline at end of file
+
+    /**
+     * 查询操作日志详情，包含解压后的请求参数与返回参数
+     */
+    OperationLogDO selectDetailById(@Param("id") Long id);
+
+    /**
+     * 按ID游标从新到旧读取时间分片内的操作日志，start、end为空表示不限，end不含
+     */
+    List<OperationLogDO> selectExportBatch(@Param("query") OperationLogQueryDTO query, @Param("start") LocalDateTime start,
+                                           @Param("end") LocalDateTime end, @Param("beforeId") long beforeId,
+                                           @Param("limit") int limit);
+
+    /**
+     * 查询符合条件的最早操作时间
+     */
+    LocalDateTime selectMinTimeByQuery(@Param("query") OperationLogQueryDTO query);
+
+    /**
+     * 多行INSERT批量写入操作日志
+     */
+    int insertBatch(@Param("list") List<OperationLogDO> list);
+
+    /**
+     * 按ID游标读取重建全文索引所需的字段
+     */
+    List<OperationLogDO> selectSearchBatch(@Param("afterId") long afterId, @Param("since") LocalDateTime since,
+                                           @Param("limit") int limit);
+
+    /**
+     * 表中当前最大的ID（含已逻辑删除的行），表为空时返回null
+     */
+    Long selectMaxId();
+}
@@ -0,0 +1,47 @@
+package com.admin.module.log.biz.dal.typehandler;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 压缩文本类型处理器
+ *
+ * 字符串与二进制列之间按 {@link PayloadCodec} 编解码，只在结果集实际包含该列时才解压。
+ * 不做全局注册，仅在载荷字段上显式指定
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class CompressedTextTypeHandler extends BaseTypeHandler<String> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType)
+            throws SQLException {
+        ps.setBytes(i, PayloadCodec.encode(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return decode(rs.getBytes(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return decode(rs.getBytes(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return decode(cs.getBytes(columnIndex));
+    }
+
+    private static String decode(byte[] bytes) {
+        return bytes == null ? null : PayloadCodec.decode(bytes);
+    }
+}
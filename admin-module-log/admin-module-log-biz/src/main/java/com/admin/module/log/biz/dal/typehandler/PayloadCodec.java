@@ -0,0 +1,113 @@
+package com.admin.module.log.biz.dal.typehandler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 日志载荷编解码
+ *
+ * 请求参数、返回参数按UTF-8存入二进制列：不超过阈值的原样存储；超过阈值的用预置字典做deflate压缩，
+ * 并加两字节头（0x00 + 格式版本）。UTF-8文本不会以0x00开头，因此改造前的明文数据无需迁移即可读取。
+ * 预置字典收录接口出入参中反复出现的JSON片段，发布后不可修改，调整时需新增格式版本
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public final class PayloadCodec {
+
+    /**
+     * 压缩阈值（字节），短载荷压缩收益抵不过头部与字典开销
+     */
+    public static final int COMPRESS_THRESHOLD = 256;
+
+    private static final byte MAGIC = 0x00;
+
+    /**
+     * 格式版本1：deflate + DICTIONARY_V1
+     */
+    private static final byte FORMAT_DEFLATE_V1 = 0x01;
+
+    private static final int HEADER_SIZE = 2;
+
+    /**
+     * 预置字典，deflate优先匹配靠近末尾的内容，出现频率最高的片段放在最后
+     */
+    private static final byte[] DICTIONARY_V1 = ("\"pageNum\":1,\"pageSize\":10,\"orderBy\":\"isAsc\":\"keyword\":"
+            + "\"remark\":null,\"deleted\":0,\"delFlag\":\"0\",\"version\":\"sort\":\"parentId\":\"children\":[]"
+            + "\"deptId\":\"deptName\":\"roleId\":\"roleIds\":[\"menuId\":\"userId\":\"userName\":\"nickName\":"
+            + "\"username\":\"password\":\"email\":\"phone\":\"mobile\":\"avatar\":\"sex\":\"type\":\"name\":"
+            + "\"createBy\":\"admin\",\"createTime\":\"updateBy\":\"updateTime\":\"startTime\":\"endTime\":"
+            + "\"records\":[{\"id\":\"total\":\"size\":10,\"current\":1,\"pages\":\"status\":0,\"status\":1,"
+            + "\"code\":500,\"message\":\"操作失败\",\"data\":null,\"success\":false}"
+            + "{\"code\":200,\"message\":\"操作成功\",\"data\":{\"success\":true}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private PayloadCodec() {
+    }
+
+    /**
+     * 编码载荷
+     */
+    public static byte[] encode(String value) {
+        byte[] raw = value.getBytes(StandardCharsets.UTF_8);
+        if (raw.length <= COMPRESS_THRESHOLD) {
+            return raw;
+        }
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + HEADER_SIZE);
+            out.write(MAGIC);
+            out.write(FORMAT_DEFLATE_V1);
+            byte[] buffer = new byte[Math.min(raw.length, 8192)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+                // 压缩后不比原文小时直接存原文
+                if (out.size() >= raw.length) {
+                    return raw;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 解码载荷，兼容未压缩及改造前的明文数据
+     */
+    public static String decode(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE || bytes[0] != MAGIC) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (bytes[1] != FORMAT_DEFLATE_V1) {
+            throw new IllegalStateException("不支持的日志载荷格式: " + bytes[1]);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && inflater.needsDictionary()) {
+                    inflater.setDictionary(DICTIONARY_V1);
+                } else if (n == 0 && !inflater.finished()) {
+                    throw new IllegalStateException("日志载荷数据不完整");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("日志载荷解压失败: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.admin.module.log.biz.export;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Excel导出行写入器
+ *
+ * EasyExcel底层使用SXSSF，已写入的行会刷到临时文件，堆内只保留窗口内的行；
+ * 单个工作表达到行数上限后自动续写到新工作表
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class ExcelExportRowWriter<T> implements ExportRowWriter<T> {
+
+    /**
+     * 单个工作表的数据行上限，xlsx最多1048576行
+     */
+    private static final int MAX_ROWS_PER_SHEET = 1_000_000;
+
+    private final ExcelWriter excelWriter;
+
+    private final String sheetName;
+
+    private WriteSheet writeSheet;
+
+    private int sheetNo;
+
+    private int sheetRows;
+
+    public ExcelExportRowWriter(OutputStream outputStream, Class<T> clazz, String sheetName) {
+        this.excelWriter = EasyExcel.write(outputStream, clazz).build();
+        this.sheetName = sheetName;
+        this.writeSheet = EasyExcel.writerSheet(0, sheetName).build();
+    }
+
+    @Override
+    public void write(List<T> rows) {
+        int offset = 0;
+        while (offset < rows.size()) {
+            if (sheetRows == MAX_ROWS_PER_SHEET) {
+                sheetNo++;
+                sheetRows = 0;
+                writeSheet = EasyExcel.writerSheet(sheetNo, sheetName + "-" + (sheetNo + 1)).build();
+            }
+            int count = Math.min(rows.size() - offset, MAX_ROWS_PER_SHEET - sheetRows);
+            excelWriter.write(rows.subList(offset, offset + count), writeSheet);
+            sheetRows += count;
+            offset += count;
+        }
+    }
+
+    @Override
+    public void close() {
+        excelWriter.finish();
+    }
+}
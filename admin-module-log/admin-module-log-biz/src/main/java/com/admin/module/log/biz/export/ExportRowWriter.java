@@ -0,0 +1,27 @@
+package com.admin.module.log.biz.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 导出行写入器
+ *
+ * 按批追加写入行，关闭时补齐文件结尾；实现不缓存已写入的行
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public interface ExportRowWriter<T> extends AutoCloseable {
+
+    /**
+     * 追加一批行
+     */
+    void write(List<T> rows) throws IOException;
+
+    /**
+     * 完成文件
+     */
+    @Override
+    void close() throws IOException;
+}
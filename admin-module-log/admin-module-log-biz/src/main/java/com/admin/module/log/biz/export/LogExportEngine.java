@@ -0,0 +1,317 @@
+package com.admin.module.log.biz.export;
+
+import com.admin.common.exception.ServiceException;
+import com.admin.common.trace.TraceContext;
+import com.admin.framework.excel.service.ImportExportFileService;
+import com.admin.framework.excel.service.ImportExportTaskService;
+import com.admin.module.log.biz.config.LogProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 日志导出引擎
+ *
+ * 把导出时间范围切成若干分片，每个分片提交到导入导出执行器按ID游标从新到旧分批读取并转换，
+ * 同时读取的分片数受并发度限制；写入线程从最新的分片开始依次消费，逐批写入Excel或gzip CSV，
+ * 导出文件与列表查询一样按时间倒序排列；
+ * 输出直接经分片上传写入对象存储。每个分片只缓冲少量批次，内存占用与导出总量无关。
+ * 执行器繁忙、轮到消费时分片仍未开始读取的，由写入线程自行读取
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+public class LogExportEngine {
+
+    /**
+     * 每个分片读取线程最多领先写入线程的批次数
+     */
+    private static final int SHARD_QUEUE_CAPACITY = 2;
+
+    private static final long OFFER_TIMEOUT_SECONDS = 1L;
+
+    private final ImportExportFileService fileService;
+    private final ImportExportTaskService taskService;
+    private final LogProperties logProperties;
+    private final Executor taskExecutor;
+
+    public LogExportEngine(ImportExportFileService fileService, ImportExportTaskService taskService,
+                           LogProperties logProperties,
+                           @Qualifier("importExportTaskExecutor") Executor taskExecutor) {
+        this.fileService = fileService;
+        this.taskService = taskService;
+        this.logProperties = logProperties;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * 当前配置的导出文件扩展名
+     */
+    public String getFileExtension() {
+        return logProperties.getExport().getFormat() == LogProperties.ExportFormat.CSV_GZIP ? ".csv.gz" : ".xlsx";
+    }
+
+    /**
+     * 执行导出
+     *
+     * @param taskId     导出任务ID
+     * @param title      文件名及工作表名
+     * @param voClass    导出VO类型
+     * @param start      数据最早时间，为空表示不分片
+     * @param end        查询条件的结束时间，为空表示不限
+     * @param totalCount 预估总行数，用于进度展示
+     * @param reader     分片读取方法
+     * @param idGetter   取行ID，作为下一批的游标
+     * @param converter  数据对象转导出VO
+     * @return 导出文件路径
+     */
+    public <D, V> String export(Long taskId, String title, Class<V> voClass, LocalDateTime start,
+                                LocalDateTime end, long totalCount, ShardReader<D> reader,
+                                ToLongFunction<D> idGetter, Function<List<D>, List<V>> converter) {
+        LogProperties.ExportConfig config = logProperties.getExport();
+        LocalDateTime now = LocalDateTime.now();
+        List<LocalDateTime[]> shards = planShards(start, end != null && end.isBefore(now) ? end : now, config);
+        String fileName = taskId + "_" + title + getFileExtension();
+        log.info("日志导出任务{}开始，分片数: {}, 并发度: {}, 格式: {}", taskId, shards.size(),
+                config.getParallelism(), config.getFormat());
+
+        return fileService.saveExportFile(fileName, taskId, outputStream -> {
+            List<ShardTask<D, V>> tasks = new ArrayList<>(shards.size());
+            for (LocalDateTime[] shard : shards) {
+                tasks.add(new ShardTask<>(shard[0], shard[1], config.getBatchSize(), reader, idGetter, converter,
+                        Thread.currentThread()));
+            }
+            try (ExportRowWriter<V> rowWriter = createRowWriter(outputStream, voClass, title)) {
+                int started = 0;
+                int processed = 0;
+                for (int i = 0; i < tasks.size(); i++) {
+                    // 滑动窗口：消费第i个分片时，保证其后最多 parallelism - 1 个分片在预读
+                    while (started < tasks.size() && started < i + config.getParallelism()) {
+                        taskExecutor.execute(TraceContext.wrap(tasks.get(started)));
+                        started++;
+                    }
+                    ShardTask<D, V> task = tasks.get(i);
+                    List<V> rows;
+                    while ((rows = task.take()) != null) {
+                        rowWriter.write(rows);
+                        processed += rows.size();
+                        taskService.updateTaskProgress(taskId, processed, (int) Math.max(totalCount, processed));
+                    }
+                    taskService.updateShardProgress(taskId, i + 1, tasks.size());
+                }
+                log.info("日志导出任务{}数据写入完成，共{}条", taskId, processed);
+            } finally {
+                tasks.forEach(ShardTask::cancel);
+            }
+        });
+    }
+
+    /**
+     * 按分片时长切分 [start, upper)，从新到旧排列；upper 取查询结束时间与当前时间中较早的一个。
+     * 最新的分片不设上界，覆盖之后到达的数据，查询条件自身的结束时间仍由查询条件限定
+     */
+    private static List<LocalDateTime[]> planShards(LocalDateTime start, LocalDateTime upper,
+                                                    LogProperties.ExportConfig config) {
+        List<LocalDateTime[]> shards = new ArrayList<>();
+        if (start == null) {
+            shards.add(new LocalDateTime[]{null, null});
+            return shards;
+        }
+        LocalDateTime cursor = start;
+        LocalDateTime next = cursor.plus(config.getShardDuration());
+        while (next.isBefore(upper)) {
+            shards.add(new LocalDateTime[]{cursor, next});
+            cursor = next;
+            next = cursor.plus(config.getShardDuration());
+        }
+        shards.add(new LocalDateTime[]{cursor, null});
+        Collections.reverse(shards);
+        return shards;
+    }
+
+    private <V> ExportRowWriter<V> createRowWriter(OutputStream outputStream, Class<V> voClass, String title)
+            throws Exception {
+        if (logProperties.getExport().getFormat() == LogProperties.ExportFormat.CSV_GZIP) {
+            return new CsvGzipExportRowWriter<>(outputStream, voClass);
+        }
+        return new ExcelExportRowWriter<>(outputStream, voClass, title);
+    }
+
+    /**
+     * 分片读取方法
+     */
+    @FunctionalInterface
+    public interface ShardReader<D> {
+
+        /**
+         * 读取分片内ID小于游标的下一批数据，按ID降序
+         *
+         * @param start    分片开始时间（含），为空表示不限
+         * @param end      分片结束时间（不含），为空表示不限
+         * @param beforeId ID游标，首批为 Long.MAX_VALUE
+         * @param limit    批大小
+         */
+        List<D> read(LocalDateTime start, LocalDateTime end, long beforeId, int limit);
+    }
+
+    /**
+     * 分片读取任务
+     *
+     * 读取结果经有界队列交给写入线程，读取结束或失败时放入结束标记；
+     * 写入线程退出时取消任务，阻塞中的读取线程随即退出。
+     * 轮到消费时任务仍未开始执行（执行器排队，或积压已满交回写入线程执行）的，由写入线程收回后自行读取
+     */
+    private static final class ShardTask<D, V> implements Runnable {
+
+        private static final List<Object> END = new ArrayList<>(0);
+
+        private static final int STATE_NEW = 0;
+
+        private static final int STATE_RUNNING = 1;
+
+        private static final int STATE_INLINE = 2;
+
+        private final LocalDateTime start;
+
+        private final LocalDateTime end;
+
+        private final int batchSize;
+
+        private final ShardReader<D> reader;
+
+        private final ToLongFunction<D> idGetter;
+
+        private final Function<List<D>, List<V>> converter;
+
+        private final BlockingQueue<List<?>> queue = new ArrayBlockingQueue<>(SHARD_QUEUE_CAPACITY);
+
+        private volatile boolean cancelled;
+
+        private volatile Throwable error;
+
+        private final AtomicInteger state = new AtomicInteger(STATE_NEW);
+
+        /**
+         * 写入线程，执行器在该线程上直接执行任务时不能在此阻塞读取
+         */
+        private final Thread consumer;
+
+        /**
+         * 写入线程自行读取时的ID游标
+         */
+        private long inlineBeforeId = Long.MAX_VALUE;
+
+        private boolean inlineDone;
+
+        ShardTask(LocalDateTime start, LocalDateTime end, int batchSize, ShardReader<D> reader,
+                  ToLongFunction<D> idGetter, Function<List<D>, List<V>> converter, Thread consumer) {
+            this.start = start;
+            this.end = end;
+            this.batchSize = batchSize;
+            this.reader = reader;
+            this.idGetter = idGetter;
+            this.converter = converter;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run() {
+            if (Thread.currentThread() == consumer || !state.compareAndSet(STATE_NEW, STATE_RUNNING)) {
+                return;
+            }
+            try {
+                long beforeId = Long.MAX_VALUE;
+                List<D> batch;
+                do {
+                    batch = reader.read(start, end, beforeId, batchSize);
+                    if (!batch.isEmpty()) {
+                        beforeId = idGetter.applyAsLong(batch.get(batch.size() - 1));
+                        put(converter.apply(batch));
+                    }
+                } while (batch.size() == batchSize && !cancelled);
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                put(END);
+            }
+        }
+
+        /**
+         * 取下一批数据
+         *
+         * @return 分片读取完毕返回null
+         */
+        @SuppressWarnings("unchecked")
+        List<V> take() throws InterruptedIOException {
+            List<?> rows = queue.poll();
+            if (rows == null) {
+                if (state.get() == STATE_INLINE || state.compareAndSet(STATE_NEW, STATE_INLINE)) {
+                    return readInline();
+                }
+                try {
+                    rows = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("等待导出分片数据被中断");
+                }
+            }
+            if (rows == END) {
+                if (error != null) {
+                    throw new ServiceException("读取导出分片失败: " + error.getMessage(), error);
+                }
+                return null;
+            }
+            return (List<V>) rows;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * 写入线程直接读取下一批
+         */
+        private List<V> readInline() {
+            if (inlineDone) {
+                return null;
+            }
+            List<D> batch = reader.read(start, end, inlineBeforeId, batchSize);
+            inlineDone = batch.size() < batchSize;
+            if (batch.isEmpty()) {
+                return null;
+            }
+            inlineBeforeId = idGetter.applyAsLong(batch.get(batch.size() - 1));
+            return converter.apply(batch);
+        }
+
+        private void put(List<?> rows) {
+            try {
+                while (!cancelled) {
+                    if (queue.offer(rows, OFFER_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+            }
+        }
+    }
+}
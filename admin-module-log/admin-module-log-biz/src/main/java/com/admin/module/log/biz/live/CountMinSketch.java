@@ -0,0 +1,70 @@
+package com.admin.module.log.biz.live;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min 频次草图
+ *
+ * 每行用一个哈希函数把键映射到计数器，估计值取各行最小值，只会高估不会低估。
+ * 计数按位置线性累加，相同尺寸的草图可以相加或相减，滑动窗口据此在秒桶过期时扣除其贡献
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+
+    private final int mask;
+
+    private final int[] counters;
+
+    /**
+     * @param depth 哈希行数
+     * @param width 每行计数器个数，须为2的幂
+     */
+    public CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width必须为2的幂: " + width);
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new int[depth * width];
+    }
+
+    public void add(String key, int count) {
+        long hash = MurmurHash.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters[row * (mask + 1) + ((h1 + row * h2) & mask)] += count;
+        }
+    }
+
+    public long estimate(String key) {
+        long hash = MurmurHash.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * (mask + 1) + ((h1 + row * h2) & mask)]);
+        }
+        return min;
+    }
+
+    /**
+     * 扣除另一个同尺寸草图的计数
+     */
+    public void subtract(CountMinSketch other) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+    }
+}
@@ -0,0 +1,90 @@
+package com.admin.module.log.biz.live;
+
+/**
+ * 耗时分布草图
+ *
+ * 耗时按1.2倍等比分桶，1毫秒以内落在第0桶，约100秒以上落在最后一桶，
+ * 分位数取所在桶的上界，相对误差不超过20%；桶计数可相加减，用于滑动窗口
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public final class LatencySketch {
+
+    private static final int BUCKET_COUNT = 64;
+
+    private static final double GROWTH = 1.2;
+
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+
+    private long count;
+
+    private long sum;
+
+    public void add(long costMillis) {
+        long value = Math.max(costMillis, 0);
+        buckets[indexOf(value)]++;
+        count++;
+        sum += value;
+    }
+
+    public void add(LatencySketch other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        count += other.count;
+        sum += other.sum;
+    }
+
+    public void subtract(LatencySketch other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] -= other.buckets[i];
+        }
+        count -= other.count;
+        sum -= other.sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * 分位数估计
+     *
+     * @param quantile 0到1之间
+     * @return 毫秒，没有数据时为0
+     */
+    public long quantile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKET_COUNT - 1);
+    }
+
+    private static int indexOf(long value) {
+        if (value <= 1) {
+            return 0;
+        }
+        int index = (int) Math.ceil(Math.log(value) / LOG_GROWTH);
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    private static long upperBound(int index) {
+        return (long) Math.floor(Math.pow(GROWTH, index));
+    }
+}
@@ -0,0 +1,337 @@
+package com.admin.module.log.biz.live;
+
+import com.admin.module.log.api.vo.LiveMetricsVO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 操作日志滑动窗口聚合器
+ *
+ * 环形数组按秒保存分桶，每个秒桶记录该秒的模块计数、接口耗时分布和操作人员频次草图；
+ * 同时维护整个窗口的累计值，写入时同步累加，秒桶被复用前从累计值中扣除。
+ * 查询只读取窗口累计值，不需要逐秒合并。
+ * 操作人员基数不受控，用Count-Min草图计数，并保留有限个候选键求Top-K；
+ * 模块和接口超过键数上限后归入"其它"，内存占用只由窗口秒数和键数上限决定
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class SlidingWindowAggregator {
+
+    /**
+     * 超过键数上限后的归并键
+     */
+    public static final String OTHER_KEY = "其它";
+
+    private static final int SKETCH_DEPTH = 4;
+
+    private static final int SKETCH_WIDTH = 512;
+
+    /**
+     * 每个Top-K名额保留的候选键数
+     */
+    private static final int CANDIDATES_PER_SLOT = 8;
+
+    private final int windowSeconds;
+
+    private final int maxKeys;
+
+    private final int candidateCapacity;
+
+    private final Bucket[] ring;
+
+    private final Map<String, long[]> windowModules = new HashMap<>();
+
+    private final Map<String, LatencySketch> windowEndpoints = new HashMap<>();
+
+    private final CountMinSketch windowOperators = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+
+    /**
+     * 操作人员候选键及写入时的估计值
+     */
+    private final Map<String, Long> operatorCandidates = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long totalCount;
+
+    private long errorCount;
+
+    /**
+     * 已推进到的最新秒
+     */
+    private long currentSecond = Long.MIN_VALUE;
+
+    /**
+     * @param windowSeconds 窗口秒数
+     * @param maxKeys       模块、接口各自的键数上限
+     * @param topK          操作人员排行名额
+     */
+    public SlidingWindowAggregator(int windowSeconds, int maxKeys, int topK) {
+        this.windowSeconds = windowSeconds;
+        this.maxKeys = maxKeys;
+        this.candidateCapacity = Math.max(topK, 1) * CANDIDATES_PER_SLOT;
+        this.ring = new Bucket[windowSeconds];
+        for (int i = 0; i < windowSeconds; i++) {
+            ring[i] = new Bucket();
+        }
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    /**
+     * 记录一条操作日志
+     *
+     * @param epochSecond 日志时间，早于窗口的忽略
+     * @param operator    操作人员，可为空
+     * @param module      模块，可为空
+     * @param endpoint    接口，可为空
+     * @param error       是否异常
+     * @param costMillis  耗时，可为空
+     */
+    public void record(long epochSecond, String operator, String module, String endpoint, boolean error,
+                       Long costMillis) {
+        lock.lock();
+        try {
+            if (epochSecond > currentSecond) {
+                advance(epochSecond);
+            } else if (epochSecond <= currentSecond - windowSeconds) {
+                return;
+            }
+            Bucket bucket = ring[slotOf(epochSecond)];
+            bucket.count++;
+            totalCount++;
+            if (error) {
+                bucket.errors++;
+                errorCount++;
+            }
+            if (module != null) {
+                String key = resolveKey(windowModules, module);
+                long[] stats = bucket.modules.computeIfAbsent(key, k -> new long[2]);
+                long[] window = windowModules.computeIfAbsent(key, k -> new long[2]);
+                stats[0]++;
+                window[0]++;
+                if (error) {
+                    stats[1]++;
+                    window[1]++;
+                }
+            }
+            if (endpoint != null && costMillis != null) {
+                String key = resolveKey(windowEndpoints, endpoint);
+                bucket.endpoints.computeIfAbsent(key, k -> new LatencySketch()).add(costMillis);
+                windowEndpoints.computeIfAbsent(key, k -> new LatencySketch()).add(costMillis);
+            }
+            if (operator != null) {
+                bucket.operators().add(operator, 1);
+                windowOperators.add(operator, 1);
+                trackCandidate(operator, windowOperators.estimate(operator));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 生成当前窗口的快照
+     *
+     * @param nowSecond 当前时间，窗口截止到该秒
+     * @param topK      各排行返回的条数
+     */
+    public LiveMetricsVO snapshot(long nowSecond, int topK) {
+        lock.lock();
+        try {
+            if (nowSecond > currentSecond) {
+                advance(nowSecond);
+            }
+            LiveMetricsVO vo = new LiveMetricsVO();
+            vo.setWindowSeconds(windowSeconds);
+            vo.setTotalCount(totalCount);
+            vo.setErrorCount(errorCount);
+            vo.setErrorRate(rate(errorCount, totalCount));
+            vo.setThroughput((double) totalCount / windowSeconds);
+            vo.setTopOperators(topOperators(topK));
+            vo.setModules(modules());
+            vo.setSlowestEndpoints(slowestEndpoints(topK));
+            return vo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<LiveMetricsVO.RankItem> topOperators(int topK) {
+        List<LiveMetricsVO.RankItem> items = new ArrayList<>(operatorCandidates.size());
+        Iterator<Map.Entry<String, Long>> iterator = operatorCandidates.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            long estimate = windowOperators.estimate(entry.getKey());
+            if (estimate <= 0) {
+                iterator.remove();
+                continue;
+            }
+            entry.setValue(estimate);
+            LiveMetricsVO.RankItem item = new LiveMetricsVO.RankItem();
+            item.setName(entry.getKey());
+            item.setCount(estimate);
+            items.add(item);
+        }
+        items.sort(Comparator.comparingLong(LiveMetricsVO.RankItem::getCount).reversed());
+        return items.size() > topK ? new ArrayList<>(items.subList(0, topK)) : items;
+    }
+
+    private List<LiveMetricsVO.ModuleStats> modules() {
+        List<LiveMetricsVO.ModuleStats> modules = new ArrayList<>(windowModules.size());
+        for (Map.Entry<String, long[]> entry : windowModules.entrySet()) {
+            LiveMetricsVO.ModuleStats stats = new LiveMetricsVO.ModuleStats();
+            stats.setModule(entry.getKey());
+            stats.setCount(entry.getValue()[0]);
+            stats.setErrorCount(entry.getValue()[1]);
+            stats.setErrorRate(rate(entry.getValue()[1], entry.getValue()[0]));
+            modules.add(stats);
+        }
+        modules.sort(Comparator.comparingLong(LiveMetricsVO.ModuleStats::getCount).reversed());
+        return modules;
+    }
+
+    private List<LiveMetricsVO.EndpointStats> slowestEndpoints(int topK) {
+        List<LiveMetricsVO.EndpointStats> endpoints = new ArrayList<>(windowEndpoints.size());
+        for (Map.Entry<String, LatencySketch> entry : windowEndpoints.entrySet()) {
+            LatencySketch sketch = entry.getValue();
+            LiveMetricsVO.EndpointStats stats = new LiveMetricsVO.EndpointStats();
+            stats.setEndpoint(entry.getKey());
+            stats.setCount(sketch.getCount());
+            stats.setAvgCostTime(Math.round(sketch.getAverage() * 100) / 100.0);
+            stats.setP95CostTime(sketch.quantile(0.95));
+            stats.setP99CostTime(sketch.quantile(0.99));
+            endpoints.add(stats);
+        }
+        endpoints.sort(Comparator.comparingLong(LiveMetricsVO.EndpointStats::getP95CostTime).reversed());
+        return endpoints.size() > topK ? new ArrayList<>(endpoints.subList(0, topK)) : endpoints;
+    }
+
+    /**
+     * 推进到指定秒，复用的秒桶先从窗口累计值中扣除
+     */
+    private void advance(long toSecond) {
+        long from = currentSecond == Long.MIN_VALUE ? toSecond - windowSeconds + 1
+                : Math.max(currentSecond + 1, toSecond - windowSeconds + 1);
+        for (long second = from; second <= toSecond; second++) {
+            Bucket bucket = ring[slotOf(second)];
+            if (bucket.second != second) {
+                expire(bucket);
+                bucket.reset(second);
+            }
+        }
+        currentSecond = toSecond;
+    }
+
+    private void expire(Bucket bucket) {
+        totalCount -= bucket.count;
+        errorCount -= bucket.errors;
+        for (Map.Entry<String, long[]> entry : bucket.modules.entrySet()) {
+            long[] window = windowModules.get(entry.getKey());
+            if (window == null) {
+                continue;
+            }
+            window[0] -= entry.getValue()[0];
+            window[1] -= entry.getValue()[1];
+            if (window[0] <= 0) {
+                windowModules.remove(entry.getKey());
+            }
+        }
+        for (Map.Entry<String, LatencySketch> entry : bucket.endpoints.entrySet()) {
+            LatencySketch window = windowEndpoints.get(entry.getKey());
+            if (window == null) {
+                continue;
+            }
+            window.subtract(entry.getValue());
+            if (window.getCount() <= 0) {
+                windowEndpoints.remove(entry.getKey());
+            }
+        }
+        if (bucket.operators != null) {
+            windowOperators.subtract(bucket.operators);
+        }
+    }
+
+    /**
+     * 候选键未满时直接加入，已满时替换估计值最小且更小的候选
+     */
+    private void trackCandidate(String operator, long estimate) {
+        if (operatorCandidates.containsKey(operator) || operatorCandidates.size() < candidateCapacity) {
+            operatorCandidates.put(operator, estimate);
+            return;
+        }
+        String minKey = null;
+        long minValue = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> entry : operatorCandidates.entrySet()) {
+            if (entry.getValue() < minValue) {
+                minKey = entry.getKey();
+                minValue = entry.getValue();
+            }
+        }
+        if (estimate > minValue) {
+            operatorCandidates.remove(minKey);
+            operatorCandidates.put(operator, estimate);
+        }
+    }
+
+    private String resolveKey(Map<String, ?> window, String key) {
+        return window.containsKey(key) || window.size() < maxKeys ? key : OTHER_KEY;
+    }
+
+    private int slotOf(long second) {
+        return (int) Math.floorMod(second, (long) windowSeconds);
+    }
+
+    private static double rate(long part, long total) {
+        return total == 0 ? 0.0 : Math.round(part * 10000.0 / total) / 100.0;
+    }
+
+    /**
+     * 秒桶
+     */
+    private static final class Bucket {
+
+        private long second = Long.MIN_VALUE;
+
+        private final Map<String, long[]> modules = new HashMap<>();
+
+        private final Map<String, LatencySketch> endpoints = new HashMap<>();
+
+        private long count;
+
+        private long errors;
+
+        /**
+         * 首次有操作人员写入时才分配
+         */
+        private CountMinSketch operators;
+
+        CountMinSketch operators() {
+            if (operators == null) {
+                operators = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+            }
+            return operators;
+        }
+
+        void reset(long second) {
+            this.second = second;
+            modules.clear();
+            endpoints.clear();
+            count = 0;
+            errors = 0;
+            if (operators != null) {
+                operators.clear();
+            }
+        }
+    }
+}
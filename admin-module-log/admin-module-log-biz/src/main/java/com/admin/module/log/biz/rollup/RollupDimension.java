@@ -0,0 +1,65 @@
+package com.admin.module.log.biz.rollup;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 日志统计汇总维度
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RollupDimension {
+
+    /**
+     * 操作日志整体
+     */
+    OPERATION_ALL(RollupDimension.OPERATION, "ALL"),
+
+    /**
+     * 操作日志按业务类型
+     */
+    BUSINESS_TYPE(RollupDimension.OPERATION, "BUSINESS_TYPE"),
+
+    /**
+     * 操作日志按模块标题
+     */
+    TITLE(RollupDimension.OPERATION, "TITLE"),
+
+    /**
+     * 操作日志按操作人员
+     */
+    OPER_NAME(RollupDimension.OPERATION, "OPER_NAME"),
+
+    /**
+     * 登录日志整体
+     */
+    LOGIN_ALL(RollupDimension.LOGIN, "ALL"),
+
+    /**
+     * 登录日志按登录类型
+     */
+    LOGIN_TYPE(RollupDimension.LOGIN, "LOGIN_TYPE"),
+
+    /**
+     * 登录日志按浏览器
+     */
+    BROWSER(RollupDimension.LOGIN, "BROWSER");
+
+    /**
+     * 操作日志类型
+     */
+    public static final int OPERATION = 1;
+
+    /**
+     * 登录日志类型
+     */
+    public static final int LOGIN = 2;
+
+    private final int logType;
+
+    private final String dimType;
+}
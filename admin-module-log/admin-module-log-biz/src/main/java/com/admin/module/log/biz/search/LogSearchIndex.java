@@ -0,0 +1,197 @@
+package com.admin.module.log.biz.search;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 日志n-gram倒排索引
+ *
+ * 字段值转小写后切成二元组，按"时间桶 -> 字段+二元组 -> 有序ID"组织倒排表。
+ * 查询只访问时间范围覆盖的桶，在桶内从最短的倒排表开始求交集；
+ * 所有二元组都出现不代表子串一定出现，结果只是候选集合，需要数据库按原条件校验。
+ * 时间按桶整体淘汰，内存占用由保留时长决定
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+public class LogSearchIndex {
+
+    /**
+     * n-gram长度，短于该长度的关键字无法使用索引
+     */
+    public static final int GRAM_SIZE = 2;
+
+    private static final long BUCKET_SECONDS = 3600L;
+
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * 索引字段数量，字段按下标区分
+     */
+    private final int fieldCount;
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+
+    public LogSearchIndex(int fieldCount) {
+        this.fieldCount = fieldCount;
+    }
+
+    /**
+     * 关键字能否走索引：长度不足或包含LIKE通配符时只能由数据库匹配
+     */
+    public static boolean isSearchable(String term) {
+        return term != null && term.length() >= GRAM_SIZE && term.indexOf('%') < 0 && term.indexOf('_') < 0;
+    }
+
+    /**
+     * 索引一条日志
+     *
+     * @param id     日志ID
+     * @param time   日志时间，决定所在时间桶
+     * @param values 各字段取值，下标与字段对应，可为空
+     */
+    public void add(long id, LocalDateTime time, String... values) {
+        Bucket bucket = buckets.computeIfAbsent(bucketOf(time), key -> new Bucket());
+        bucket.lock.writeLock().lock();
+        try {
+            for (int field = 0; field < fieldCount && field < values.length; field++) {
+                for (String gram : grams(values[field])) {
+                    bucket.postings.computeIfAbsent(key(field, gram), k -> new PostingList()).add(id);
+                }
+            }
+        } finally {
+            bucket.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询候选日志ID
+     *
+     * @param terms         各字段的关键字，下标与字段对应，为空表示不限；非空关键字须满足 {@link #isSearchable}
+     * @param start         开始时间
+     * @param end           结束时间，为空表示不限
+     * @param maxCandidates 候选数量上限
+     * @return 升序的候选ID，没有可用关键字或超过上限时返回null，由调用方改用数据库匹配
+     */
+    public long[] search(String[] terms, LocalDateTime start, LocalDateTime end, int maxCandidates) {
+        List<String> keys = new ArrayList<>();
+        for (int field = 0; field < terms.length; field++) {
+            if (terms[field] != null) {
+                for (String gram : grams(terms[field])) {
+                    keys.add(key(field, gram));
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            return null;
+        }
+
+        NavigableMap<Long, Bucket> range = end == null
+                ? buckets.tailMap(bucketOf(start), true)
+                : buckets.subMap(bucketOf(start), true, bucketOf(end), true);
+        long[] result = EMPTY;
+        for (Bucket bucket : range.values()) {
+            long[] matched = bucket.match(keys);
+            if (matched.length == 0) {
+                continue;
+            }
+            if (result.length + matched.length > maxCandidates) {
+                return null;
+            }
+            // 桶按时间升序，ID随时间递增但跨桶可能交错，合并后统一排序
+            long[] merged = Arrays.copyOf(result, result.length + matched.length);
+            System.arraycopy(matched, 0, merged, result.length, matched.length);
+            result = merged;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * 淘汰早于指定时间的整桶
+     */
+    public void evictBefore(LocalDateTime time) {
+        buckets.headMap(bucketOf(time)).clear();
+    }
+
+    public void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * 已索引的最早时间，没有数据时为null
+     */
+    public LocalDateTime getEarliestTime() {
+        Map.Entry<Long, Bucket> first = buckets.firstEntry();
+        return first == null ? null : LocalDateTime.ofEpochSecond(first.getKey() * BUCKET_SECONDS, 0, ZoneOffset.UTC);
+    }
+
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * 时间按UTC换算成秒只用于分桶，写入与查询使用同一换算即可
+     */
+    private static long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), BUCKET_SECONDS);
+    }
+
+    private static String key(int field, String gram) {
+        return (char) field + gram;
+    }
+
+    private static Set<String> grams(String value) {
+        if (value == null || value.length() < GRAM_SIZE) {
+            return Set.of();
+        }
+        String text = value.toLowerCase(Locale.ROOT);
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static final class Bucket {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Map<String, PostingList> postings = new HashMap<>();
+
+        long[] match(List<String> keys) {
+            lock.readLock().lock();
+            try {
+                List<PostingList> lists = new ArrayList<>(keys.size());
+                for (String key : keys) {
+                    PostingList list = postings.get(key);
+                    if (list == null) {
+                        return EMPTY;
+                    }
+                    lists.add(list);
+                }
+                lists.sort(Comparator.comparingInt(PostingList::size));
+                long[] candidates = lists.get(0).toArray();
+                for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+                    candidates = lists.get(i).retainAll(candidates);
+                }
+                return candidates;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.admin.module.log.biz.search;
+
+import java.util.Arrays;
+
+/**
+ * 倒排表
+ *
+ * 按升序保存日志ID，日志ID自增，正常写入只会追加到末尾；
+ * 重建与实时写入交错时可能乱序到达，此时按位置插入并去重。
+ * 非线程安全，由所在时间桶的锁保护
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    void add(long id) {
+        if (size == 0 || id > ids[size - 1]) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * 保留候选ID中同样出现在本倒排表里的部分，候选ID需升序
+     *
+     * 候选集合由最短的倒排表开始逐步缩小，逐个二分查找比归并更省
+     */
+    long[] retainAll(long[] candidates) {
+        long[] kept = new long[candidates.length];
+        int count = 0;
+        for (long id : candidates) {
+            if (Arrays.binarySearch(ids, 0, size, id) >= 0) {
+                kept[count++] = id;
+            }
+        }
+        return count == kept.length ? kept : Arrays.copyOf(kept, count);
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.admin.module.log.biz.service;
+
+import com.admin.module.log.biz.config.LogProperties;
+import com.admin.module.log.biz.dal.dataobject.LogPartitionDO;
+import com.admin.module.log.biz.dal.mapper.LogPartitionMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 日志表分区维护服务
+ *
+ * 操作日志和登录日志按时间做 RANGE COLUMNS 分区，末尾保留一个 MAXVALUE 兜底分区。
+ * 维护任务从兜底分区中拆出未来若干个周期的分区，并整体删除超过保留时长的分区；
+ * 兜底分区在维护及时的情况下为空，拆分不需要搬移数据。日志表未分区时任务跳过
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogPartitionService {
+
+    public static final String OPERATION_TABLE = "sys_operation_log";
+
+    public static final String LOGIN_TABLE = "sys_login_log";
+
+    private static final String MAXVALUE = "MAXVALUE";
+
+    private static final DateTimeFormatter BOUND_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final DateTimeFormatter DAY_NAME_FORMATTER = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private static final DateTimeFormatter MONTH_NAME_FORMATTER = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final LogPartitionMapper partitionMapper;
+    private final LogProperties logProperties;
+
+    private final ReentrantLock maintainLock = new ReentrantLock();
+
+    public boolean isEnabled() {
+        return logProperties.getPartition().isEnabled();
+    }
+
+    /**
+     * 定时维护日志表分区
+     */
+    @Scheduled(cron = "#{@logProperties.partition.cron}")
+    public void maintain() {
+        if (!isEnabled() || !maintainLock.tryLock()) {
+            return;
+        }
+        try {
+            maintain(OPERATION_TABLE);
+            maintain(LOGIN_TABLE);
+        } finally {
+            maintainLock.unlock();
+        }
+    }
+
+    /**
+     * 截断日志表，替代清空日志时的整表 DELETE
+     */
+    public void truncate(String table) {
+        partitionMapper.truncateTable(table);
+        log.info("日志表已截断: {}", table);
+    }
+
+    private void maintain(String table) {
+        try {
+            List<LogPartitionDO> partitions = partitionMapper.selectPartitions(table);
+            if (partitions.isEmpty()) {
+                log.warn("日志表未分区，跳过分区维护: {}", table);
+                return;
+            }
+
+            LogProperties.PartitionConfig config = logProperties.getPartition();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime cutoff = now.minus(config.getRetention());
+            LocalDateTime maxBound = null;
+            String catchAll = null;
+            List<String> expired = new ArrayList<>();
+            for (LogPartitionDO partition : partitions) {
+                String description = partition.getPartitionDescription();
+                if (MAXVALUE.equalsIgnoreCase(description)) {
+                    catchAll = partition.getPartitionName();
+                    continue;
+                }
+                LocalDateTime bound = parseBound(description);
+                if (maxBound == null || bound.isAfter(maxBound)) {
+                    maxBound = bound;
+                }
+                // 上界不晚于截止时间的分区只包含过期数据
+                if (!bound.isAfter(cutoff)) {
+                    expired.add(partition.getPartitionName());
+                }
+            }
+
+            List<LogPartitionDO> created = planPartitions(config.getUnit(), maxBound, now, config.getPreCreate());
+            if (!created.isEmpty()) {
+                if (catchAll != null) {
+                    created.add(new LogPartitionDO(catchAll, MAXVALUE));
+                    partitionMapper.reorganizePartition(table, catchAll, created);
+                } else {
+                    partitionMapper.addPartitions(table, created);
+                }
+                log.info("日志表分区已创建: {}, 数量: {}", table, catchAll != null ? created.size() - 1 : created.size());
+            }
+            if (!expired.isEmpty()) {
+                partitionMapper.dropPartitions(table, expired);
+                log.info("日志表过期分区已删除: {}, 分区: {}", table, expired);
+            }
+        } catch (Exception e) {
+            log.error("日志表分区维护失败: {}, {}", table, e.getMessage());
+        }
+    }
+
+    /**
+     * 计算需要新建的分区：从现有最大上界开始，直到覆盖当前周期之后的 preCreate 个周期；
+     * 还没有普通分区时从当前周期开始，之前的数据都落在第一个分区里
+     */
+    private List<LogPartitionDO> planPartitions(LogProperties.PartitionUnit unit, LocalDateTime maxBound,
+                                                LocalDateTime now, int preCreate) {
+        LocalDateTime target = periodStart(unit, now);
+        for (int i = 0; i <= preCreate; i++) {
+            target = nextPeriod(unit, target);
+        }
+        LocalDateTime bound = nextPeriod(unit, periodStart(unit, maxBound != null ? maxBound : now));
+        List<LogPartitionDO> partitions = new ArrayList<>();
+        while (!bound.isAfter(target)) {
+            LocalDateTime lower = previousPeriod(unit, bound);
+            String name = (unit == LogProperties.PartitionUnit.DAY ? DAY_NAME_FORMATTER : MONTH_NAME_FORMATTER)
+                    .format(lower);
+            partitions.add(new LogPartitionDO(name, "'" + BOUND_FORMATTER.format(bound) + "'"));
+            bound = nextPeriod(unit, bound);
+        }
+        return partitions;
+    }
+
+    private static LocalDateTime periodStart(LogProperties.PartitionUnit unit, LocalDateTime time) {
+        LocalDate date = time.toLocalDate();
+        return unit == LogProperties.PartitionUnit.DAY ? date.atStartOfDay() : date.withDayOfMonth(1).atStartOfDay();
+    }
+
+    private static LocalDateTime nextPeriod(LogProperties.PartitionUnit unit, LocalDateTime periodStart) {
+        return unit == LogProperties.PartitionUnit.DAY ? periodStart.plusDays(1) : periodStart.plusMonths(1);
+    }
+
+    private static LocalDateTime previousPeriod(LogProperties.PartitionUnit unit, LocalDateTime periodStart) {
+        return unit == LogProperties.PartitionUnit.DAY ? periodStart.minusDays(1) : periodStart.minusMonths(1);
+    }
+
+    /**
+     * 解析分区上界，兼容 '2024-02-01 00:00:00' 与 '2024-02-01' 两种写法
+     */
+    private static LocalDateTime parseBound(String description) {
+        String value = description.replace("'", "").trim();
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value, BOUND_FORMATTER);
+    }
+}
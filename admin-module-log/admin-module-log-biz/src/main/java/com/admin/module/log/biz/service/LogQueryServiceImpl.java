@@ -13,7 +13,9 @@ import com.admin.module.log.biz.dal.dataobject.LoginLogDO;
 import com.admin.module.log.biz.dal.dataobject.OperationLogDO;
 import com.admin.module.log.biz.dal.mapper.LoginLogMapper;
 import com.admin.module.log.biz.dal.mapper.OperationLogMapper;
+import com.admin.module.log.biz.rollup.RollupDimension;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -34,9 +36,13 @@ public class LogQueryServiceImpl implements LogQueryService {
 
     private final OperationLogMapper operationLogMapper;
     private final LoginLogMapper loginLogMapper;
+    private final LogSearchService logSearchService;
+    private final LogPartitionService logPartitionService;
+    private final LogRollupService logRollupService;
 
     @Override
     public PageResult<OperationLogVO> getOperationLogPage(OperationLogQueryDTO queryDTO) {
+        LogSearchService.SearchPlan plan = logSearchService.planOperationQuery(queryDTO);
         LambdaQueryWrapper<OperationLogDO> wrapper = new LambdaQueryWrapper<OperationLogDO>()
                 .like(queryDTO.getTitle() != null, OperationLogDO::getTitle, queryDTO.getTitle())
                 .eq(queryDTO.getBusinessType() != null, OperationLogDO::getBusinessType, queryDTO.getBusinessType())
@@ -47,9 +53,13 @@ public class LogQueryServiceImpl implements LogQueryService {
                 .like(queryDTO.getOperLocation() != null, OperationLogDO::getOperLocation, queryDTO.getOperLocation())
                 .ge(queryDTO.getMinCostTime() != null, OperationLogDO::getCostTime, queryDTO.getMinCostTime())
                 .le(queryDTO.getMaxCostTime() != null, OperationLogDO::getCostTime, queryDTO.getMaxCostTime())
-                .between(queryDTO.getStartTime() != null && queryDTO.getEndTime() != null,
-                        OperationLogDO::getOperTime, queryDTO.getStartTime(), queryDTO.getEndTime())
+                .ge(plan == null && queryDTO.getStartTime() != null, OperationLogDO::getOperTime, queryDTO.getStartTime())
+                .le(plan == null && queryDTO.getEndTime() != null, OperationLogDO::getOperTime, queryDTO.getEndTime())
                 .orderByDesc(OperationLogDO::getId);
+        if (plan != null) {
+            // 文本检索限定时间范围，索引给出候选ID时再由上面的 LIKE 条件校验
+            applySearchPlan(wrapper, plan, OperationLogDO::getOperTime, OperationLogDO::getId);
+        }
 
         Page<OperationLogDO> page = operationLogMapper.selectPage(new Page<>(queryDTO.getPageNum(), queryDTO.getPageSize()), wrapper);
         List<OperationLogVO> voList = OperationLogConvert.INSTANCE.convertList(page.getRecords());
@@ -58,6 +68,7 @@ public class LogQueryServiceImpl implements LogQueryService {
 
     @Override
     public PageResult<LoginLogVO> getLoginLogPage(LoginLogQueryDTO queryDTO) {
+        LogSearchService.SearchPlan plan = logSearchService.planLoginQuery(queryDTO);
         LambdaQueryWrapper<LoginLogDO> wrapper = new LambdaQueryWrapper<LoginLogDO>()
                 .like(queryDTO.getUserName() != null, LoginLogDO::getUserName, queryDTO.getUserName())
                 .eq(queryDTO.getLoginType() != null, LoginLogDO::getLoginType, queryDTO.getLoginType())
@@ -65,18 +76,42 @@ public class LogQueryServiceImpl implements LogQueryService {
                 .eq(queryDTO.getStatus() != null, LoginLogDO::getStatus, queryDTO.getStatus())
                 .like(queryDTO.getBrowser() != null, LoginLogDO::getBrowser, queryDTO.getBrowser())
                 .like(queryDTO.getOs() != null, LoginLogDO::getOs, queryDTO.getOs())
-                .between(queryDTO.getStartTime() != null && queryDTO.getEndTime() != null,
-                        LoginLogDO::getLoginTime, queryDTO.getStartTime(), queryDTO.getEndTime())
+                .ge(plan == null && queryDTO.getStartTime() != null, LoginLogDO::getLoginTime, queryDTO.getStartTime())
+                .le(plan == null && queryDTO.getEndTime() != null, LoginLogDO::getLoginTime, queryDTO.getEndTime())
                 .orderByDesc(LoginLogDO::getId);
+        if (plan != null) {
+            applySearchPlan(wrapper, plan, LoginLogDO::getLoginTime, LoginLogDO::getId);
+        }
 
         Page<LoginLogDO> page = loginLogMapper.selectPage(new Page<>(queryDTO.getPageNum(), queryDTO.getPageSize()), wrapper);
         List<LoginLogVO> voList = LoginLogConvert.INSTANCE.convertList(page.getRecords());
         return new PageResult<>(voList, page.getTotal());
     }
 
+    /**
+     * 按检索计划追加时间范围和候选ID条件
+     *
+     * 索引只覆盖已追平的ID，候选之外还要放行游标之后的行；候选为空时只剩游标之后的行需要 LIKE 匹配
+     */
+    private static <T> void applySearchPlan(LambdaQueryWrapper<T> wrapper, LogSearchService.SearchPlan plan,
+                                            SFunction<T, ?> timeColumn, SFunction<T, ?> idColumn) {
+        wrapper.ge(timeColumn, plan.getStart())
+                .le(plan.getEnd() != null, timeColumn, plan.getEnd());
+        List<Long> candidateIds = plan.getCandidateIds();
+        if (candidateIds == null) {
+            return;
+        }
+        if (candidateIds.isEmpty()) {
+            wrapper.gt(idColumn, plan.getIndexedUpTo());
+        } else {
+            wrapper.and(w -> w.in(idColumn, candidateIds).or().gt(idColumn, plan.getIndexedUpTo()));
+        }
+    }
+
     @Override
     public OperationLogVO getOperationLogById(Long id) {
-        OperationLogDO operationLog = operationLogMapper.selectById(id);
+        // 分页查询不加载载荷列，详情单独查询并解压
+        OperationLogDO operationLog = operationLogMapper.selectDetailById(id);
         return OperationLogConvert.INSTANCE.convert(operationLog);
     }
 
@@ -98,11 +133,24 @@ public class LogQueryServiceImpl implements LogQueryService {
 
     @Override
     public void clearOperationLogs() {
-        operationLogMapper.delete(new LambdaQueryWrapper<>());
+        if (logPartitionService.isEnabled()) {
+            // 截断代替整表DELETE，不产生大量行锁和undo日志
+            logPartitionService.truncate(LogPartitionService.OPERATION_TABLE);
+        } else {
+            operationLogMapper.delete(new LambdaQueryWrapper<>());
+        }
+        logSearchService.clearOperationIndex();
+        logRollupService.clear(RollupDimension.OPERATION);
     }
 
     @Override
     public void clearLoginLogs() {
-        loginLogMapper.delete(new LambdaQueryWrapper<>());
+        if (logPartitionService.isEnabled()) {
+            logPartitionService.truncate(LogPartitionService.LOGIN_TABLE);
+        } else {
+            loginLogMapper.delete(new LambdaQueryWrapper<>());
+        }
+        logSearchService.clearLoginIndex();
+        logRollupService.clear(RollupDimension.LOGIN);
     }
 }
\ No newline at end of file
@@ -9,11 +9,14 @@ import com.admin.module.log.biz.dal.dataobject.LoginLogDO;
 import com.admin.module.log.biz.dal.dataobject.OperationLogDO;
 import com.admin.module.log.biz.dal.mapper.LoginLogMapper;
 import com.admin.module.log.biz.dal.mapper.OperationLogMapper;
+import com.admin.module.log.biz.sink.LogEnricher;
+import com.admin.module.log.biz.sink.LogWriteBehindSink;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * 日志记录服务实现
  *
@@ -28,12 +31,19 @@ public class LogRecordServiceImpl implements LogRecordService {
 
     private final OperationLogMapper operationLogMapper;
     private final LoginLogMapper loginLogMapper;
+    private final LogWriteBehindSink logWriteBehindSink;
+    private final LogEnricher logEnricher;
+    private final LogSearchService logSearchService;
+    private final LogLiveMetricsService logLiveMetricsService;
 
     @Override
     public void recordOperationLog(OperationLogCreateDTO logDTO) {
         try {
+            logEnricher.enrich(logDTO);
             OperationLogDO logDO = OperationLogConvert.INSTANCE.convert(logDTO);
             operationLogMapper.insert(logDO);
+            logSearchService.indexOperationLogs(List.of(logDO));
+            logLiveMetricsService.recordOperationLogs(List.of(logDO));
         } catch (Exception e) {
             log.error("记录操作日志失败", e);
         }
@@ -42,22 +52,22 @@ public class LogRecordServiceImpl implements LogRecordService {
     @Override
     public void recordLoginLog(LoginLogCreateDTO logDTO) {
         try {
+            logEnricher.enrich(logDTO);
             LoginLogDO logDO = LoginLogConvert.INSTANCE.convert(logDTO);
             loginLogMapper.insert(logDO);
+            logSearchService.indexLoginLogs(List.of(logDO));
         } catch (Exception e) {
             log.error("记录登录日志失败", e);
         }
     }
 
     @Override
-    @Async("asyncLogExecutor")
     public void recordOperationLogAsync(OperationLogCreateDTO logDTO) {
-        recordOperationLog(logDTO);
+        logWriteBehindSink.offer(logDTO);
     }
 
     @Override
-    @Async("asyncLogExecutor")
     public void recordLoginLogAsync(LoginLogCreateDTO logDTO) {
-        recordLoginLog(logDTO);
+        logWriteBehindSink.offer(logDTO);
     }
 }
\ No newline at end of file
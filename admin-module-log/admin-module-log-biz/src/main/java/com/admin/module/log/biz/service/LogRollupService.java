@@ -0,0 +1,335 @@
+package com.admin.module.log.biz.service;
+
+import com.admin.module.log.biz.config.LogProperties;
+import com.admin.module.log.biz.dal.dataobject.LogRollupDO;
+import com.admin.module.log.biz.dal.dataobject.LogRollupSketchDO;
+import com.admin.module.log.biz.dal.mapper.LogRollupMapper;
+import com.admin.module.log.biz.rollup.HyperLogLog;
+import com.admin.module.log.biz.rollup.RollupDimension;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 日志统计汇总服务
+ *
+ * 后台任务按小时把原始日志聚合进小时汇总表，再由小时汇总重算日汇总和当天的去重用户草图；
+ * 每次重算都是先删后写，多次或多节点执行结果一致。
+ * 汇总覆盖的起点持久化在状态表中，查询时覆盖起点到水位线之间的整天读日汇总、零散小时读小时汇总，
+ * 覆盖起点之前（超出回填天数的历史）和水位线之后尚未汇总的部分直接对原始表 GROUP BY。
+ * 晚于回看窗口才落库的日志（如长时间故障后重放的溢写文件）由写入方登记待重算起点，下次汇总时从该处重算
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogRollupService {
+
+    /**
+     * 登录过的用户
+     */
+    public static final String METRIC_LOGIN_USER = "LOGIN_USER";
+
+    /**
+     * 登录成功的用户
+     */
+    public static final String METRIC_ACTIVE_USER = "ACTIVE_USER";
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * 状态键：汇总覆盖的最早小时
+     */
+    private static final String STATE_COVERED_SINCE = "COVERED_SINCE";
+
+    /**
+     * 状态键：需要重算的最早小时
+     */
+    private static final String STATE_DIRTY_SINCE = "DIRTY_SINCE";
+
+    private final LogRollupMapper rollupMapper;
+    private final LogProperties logProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock compactLock = new ReentrantLock();
+
+    /**
+     * 已汇总到的时间点（不含），之前的完整小时都已写入汇总表
+     */
+    private volatile LocalDateTime watermark;
+
+    /**
+     * 汇总覆盖的起始时间（含），之前的时间段汇总表中没有数据
+     */
+    private volatile LocalDateTime coveredSince;
+
+    /**
+     * 定时汇总最近的日志
+     */
+    @Scheduled(fixedDelayString = "#{@logProperties.rollup.interval.toMillis()}",
+               initialDelayString = "#{@logProperties.rollup.interval.toMillis()}")
+    public void compact() {
+        if (!logProperties.getRollup().isEnabled() || !compactLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime cursor = resolveStart(currentHour);
+            LocalDateTime dirtySince = rollupMapper.selectStateTime(STATE_DIRTY_SINCE);
+            if (dirtySince != null && dirtySince.isBefore(cursor)) {
+                log.info("重算延迟到达的日志统计汇总，起始时间: {}", dirtySince);
+                cursor = dirtySince;
+            }
+            LocalDateTime from = cursor;
+            while (cursor.isBefore(currentHour)) {
+                // 每个事务只处理同一天内的小时，便于同时重算当天的日汇总
+                LocalDateTime nextDay = cursor.toLocalDate().plusDays(1).atStartOfDay();
+                LocalDateTime chunkEnd = nextDay.isBefore(currentHour) ? nextDay : currentHour;
+                refresh(cursor, chunkEnd);
+                cursor = chunkEnd;
+            }
+            updateCoveredSince(from);
+            if (dirtySince != null) {
+                // 汇总期间再次登记了更早的起点时保留，下次继续重算
+                rollupMapper.deleteStateTime(STATE_DIRTY_SINCE, dirtySince);
+            }
+            watermark = currentHour;
+        } catch (Exception e) {
+            log.error("日志统计汇总失败: {}", e.getMessage());
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    /**
+     * 统计时间范围内指定维度的汇总行，时间左闭右开
+     *
+     * 日汇总行的统计时间为当天零点，其余为所在小时
+     */
+    public List<LogRollupDO> query(RollupDimension dimension, LocalDateTime start, LocalDateTime end) {
+        List<LogRollupDO> rows = new ArrayList<>();
+        LocalDateTime rolledEnd = currentWatermark();
+        LocalDateTime cursor = start;
+        if (rolledEnd != null && cursor.isBefore(coveredSince)) {
+            // 汇总覆盖起点之前的历史没有汇总数据
+            cursor = coveredSince.isBefore(end) ? coveredSince : end;
+            rows.addAll(aggregateRaw(dimension, start, cursor));
+        }
+        if (rolledEnd != null && !cursor.truncatedTo(ChronoUnit.HOURS).equals(cursor)) {
+            // 开始时间不在整点，不足一小时的部分无法使用汇总
+            LocalDateTime nextHour = cursor.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            LocalDateTime headEnd = nextHour.isBefore(end) ? nextHour : end;
+            rows.addAll(aggregateRaw(dimension, cursor, headEnd));
+            cursor = headEnd;
+        }
+        if (rolledEnd != null && cursor.isBefore(rolledEnd)) {
+            if (end.isBefore(rolledEnd)) {
+                rolledEnd = end;
+            }
+            LocalDate firstDay = cursor.toLocalDate().atStartOfDay().equals(cursor)
+                    ? cursor.toLocalDate() : cursor.toLocalDate().plusDays(1);
+            LocalDate endDay = rolledEnd.toLocalDate();
+            if (firstDay.isBefore(endDay)) {
+                if (cursor.isBefore(firstDay.atStartOfDay())) {
+                    rows.addAll(rollupMapper.selectHourly(dimension.getLogType(), dimension.getDimType(),
+                            cursor, firstDay.atStartOfDay()));
+                }
+                rows.addAll(rollupMapper.selectDaily(dimension.getLogType(), dimension.getDimType(),
+                        firstDay, endDay));
+                cursor = endDay.atStartOfDay();
+            }
+            if (cursor.isBefore(rolledEnd)) {
+                rows.addAll(rollupMapper.selectHourly(dimension.getLogType(), dimension.getDimType(),
+                        cursor, rolledEnd));
+                cursor = rolledEnd;
+            }
+        }
+        if (cursor.isBefore(end)) {
+            rows.addAll(aggregateRaw(dimension, cursor, end));
+        }
+        return rows;
+    }
+
+    /**
+     * 统计时间范围内的去重登录用户数
+     *
+     * 整天部分合并按天保存的HyperLogLog草图，其余部分读取原始用户名补入草图；
+     * 未启用汇总、不限开始时间或开始时间早于汇总覆盖起点时对原始表精确统计
+     *
+     * @param metric 指标
+     * @param start  开始时间，为空表示不限
+     * @param end    结束时间（不含）
+     */
+    public long countDistinctUsers(String metric, LocalDateTime start, LocalDateTime end) {
+        boolean successOnly = METRIC_ACTIVE_USER.equals(metric);
+        LocalDateTime rolledEnd = currentWatermark();
+        if (rolledEnd == null || start == null || start.isBefore(coveredSince)) {
+            Long count = rollupMapper.countDistinctLoginUsers(start, end, successOnly);
+            return count != null ? count : 0L;
+        }
+        if (end.isBefore(rolledEnd)) {
+            rolledEnd = end;
+        }
+
+        HyperLogLog sketch = new HyperLogLog();
+        LocalDate firstDay = start.toLocalDate().atStartOfDay().equals(start) ? start.toLocalDate()
+                : start.toLocalDate().plusDays(1);
+        LocalDate endDay = rolledEnd.toLocalDate();
+        LocalDateTime tailStart = start;
+        if (firstDay.isBefore(endDay)) {
+            if (start.isBefore(firstDay.atStartOfDay())) {
+                rollupMapper.selectDistinctLoginUsers(start, firstDay.atStartOfDay(), successOnly).forEach(sketch::add);
+            }
+            for (LogRollupSketchDO day : rollupMapper.selectSketches(metric, firstDay, endDay)) {
+                sketch.merge(HyperLogLog.fromBytes(day.getRegisters()));
+            }
+            tailStart = endDay.atStartOfDay();
+        }
+        if (tailStart.isBefore(end)) {
+            rollupMapper.selectDistinctLoginUsers(tailStart, end, successOnly).forEach(sketch::add);
+        }
+        return sketch.cardinality();
+    }
+
+    /**
+     * 原始日志表被清空后删除对应的汇总数据，登录日志同时删除去重用户草图
+     *
+     * 等待进行中的汇总结束后再删除，避免其写回清空前的数据；水位线随之重置，
+     * 下次汇总前查询直接读取原始表
+     *
+     * @param logType 日志类型，见 {@link RollupDimension#OPERATION}、{@link RollupDimension#LOGIN}
+     */
+    public void clear(int logType) {
+        compactLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rollupMapper.deleteHourlyByLogType(logType);
+                rollupMapper.deleteDailyByLogType(logType);
+                if (logType == RollupDimension.LOGIN) {
+                    rollupMapper.deleteSketches();
+                }
+            });
+            watermark = null;
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    /**
+     * 登记晚于回看窗口落库的日志，下次汇总从其所在小时重算
+     *
+     * @param earliest 本批日志中最早的记录时间
+     */
+    public void markLateArrival(LocalDateTime earliest) {
+        LogProperties.RollupConfig config = logProperties.getRollup();
+        if (!config.isEnabled() || earliest == null
+                || !earliest.isBefore(LocalDateTime.now().minus(config.getLookback()))) {
+            return;
+        }
+        try {
+            rollupMapper.lowerStateTime(STATE_DIRTY_SINCE, earliest.truncatedTo(ChronoUnit.HOURS));
+        } catch (Exception e) {
+            log.error("登记日志统计待重算起点失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 当前可用的汇总水位线，未启用或尚未完成首次汇总时为null
+     */
+    private LocalDateTime currentWatermark() {
+        return logProperties.getRollup().isEnabled() && coveredSince != null ? watermark : null;
+    }
+
+    /**
+     * 把本次汇总的起点并入持久化的覆盖起点；状态缺失时以汇总表中最早的小时为准
+     */
+    private void updateCoveredSince(LocalDateTime from) {
+        LocalDateTime covered = rollupMapper.selectStateTime(STATE_COVERED_SINCE);
+        if (covered == null) {
+            covered = rollupMapper.selectEarliestHour();
+        }
+        if (covered == null || from.isBefore(covered)) {
+            covered = from;
+        }
+        rollupMapper.lowerStateTime(STATE_COVERED_SINCE, covered);
+        coveredSince = covered;
+    }
+
+    /**
+     * 确定本次汇总的起点：在上次水位线和回看窗口中取较早者，首次运行时从汇总表或原始日志推断
+     */
+    private LocalDateTime resolveStart(LocalDateTime currentHour) {
+        LogProperties.RollupConfig config = logProperties.getRollup();
+        LocalDateTime lookbackStart = currentHour.minus(config.getLookback()).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime from = watermark;
+        if (from == null) {
+            LocalDateTime latest = rollupMapper.selectLatestHour();
+            if (latest != null) {
+                from = latest.plusHours(1);
+            } else {
+                LocalDateTime earliest = rollupMapper.selectEarliestLogTime();
+                LocalDateTime backfillLimit = currentHour.toLocalDate().minusDays(config.getMaxBackfillDays()).atStartOfDay();
+                from = earliest == null ? lookbackStart : earliest.truncatedTo(ChronoUnit.HOURS);
+                if (from.isBefore(backfillLimit)) {
+                    from = backfillLimit;
+                }
+                log.info("开始回填日志统计汇总，起始时间: {}", from);
+            }
+        }
+        return from.isBefore(lookbackStart) ? from : lookbackStart;
+    }
+
+    /**
+     * 重算同一天内[start, end)的小时汇总，以及当天的日汇总和去重用户草图
+     */
+    private void refresh(LocalDateTime start, LocalDateTime end) {
+        List<LogRollupDO> rows = new ArrayList<>(rollupMapper.aggregateOperation(start, end, null));
+        rows.addAll(rollupMapper.aggregateLogin(start, end, null));
+
+        LocalDate statDate = start.toLocalDate();
+        LocalDateTime dayStart = statDate.atStartOfDay();
+        LogRollupSketchDO loginUsers = buildSketch(statDate, METRIC_LOGIN_USER, dayStart, end, false);
+        LogRollupSketchDO activeUsers = buildSketch(statDate, METRIC_ACTIVE_USER, dayStart, end, true);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupMapper.deleteHourly(start, end);
+            for (int i = 0; i < rows.size(); i += INSERT_BATCH_SIZE) {
+                rollupMapper.insertHourlyBatch(rows.subList(i, Math.min(i + INSERT_BATCH_SIZE, rows.size())));
+            }
+            rollupMapper.deleteDaily(statDate);
+            rollupMapper.rollupDaily(statDate);
+            rollupMapper.upsertSketch(loginUsers);
+            rollupMapper.upsertSketch(activeUsers);
+        });
+        log.debug("日志统计汇总完成: [{}, {}), 汇总行数: {}", start, end, rows.size());
+    }
+
+    private LogRollupSketchDO buildSketch(LocalDate statDate, String metric, LocalDateTime start, LocalDateTime end,
+                                          boolean successOnly) {
+        HyperLogLog sketch = new HyperLogLog();
+        rollupMapper.selectDistinctLoginUsers(start, end, successOnly).forEach(sketch::add);
+        LogRollupSketchDO sketchDO = new LogRollupSketchDO();
+        sketchDO.setStatDate(statDate);
+        sketchDO.setMetric(metric);
+        sketchDO.setRegisters(sketch.toBytes());
+        return sketchDO;
+    }
+
+    private List<LogRollupDO> aggregateRaw(RollupDimension dimension, LocalDateTime start, LocalDateTime end) {
+        return dimension.getLogType() == RollupDimension.OPERATION
+                ? rollupMapper.aggregateOperation(start, end, dimension.getDimType())
+                : rollupMapper.aggregateLogin(start, end, dimension.getDimType());
+    }
+}
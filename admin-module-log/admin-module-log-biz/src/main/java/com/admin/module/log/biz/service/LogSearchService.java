@@ -0,0 +1,415 @@
+package com.admin.module.log.biz.service;
+
+import com.admin.module.log.api.dto.LoginLogQueryDTO;
+import com.admin.module.log.api.dto.OperationLogQueryDTO;
+import com.admin.module.log.biz.config.LogProperties;
+import com.admin.module.log.biz.dal.dataobject.LoginLogDO;
+import com.admin.module.log.biz.dal.dataobject.OperationLogDO;
+import com.admin.module.log.biz.dal.mapper.LoginLogMapper;
+import com.admin.module.log.biz.dal.mapper.OperationLogMapper;
+import com.admin.module.log.biz.search.LogSearchIndex;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 日志全文检索服务
+ *
+ * 在进程内为操作日志和登录日志的文本字段维护n-gram倒排索引：写入管道落库后同步更新，
+ * 启动时按保留时长从表中重建，之后定时按ID游标从表中追平其它节点写入的日志。
+ * 带文本条件的分页查询总是限定时间范围，先用索引求出候选ID，再交给数据库按原条件校验；
+ * 游标之后可能尚未追平的行仍由 LIKE 条件匹配。索引无法回答时整体退回 LIKE 匹配
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogSearchService {
+
+    private final OperationLogMapper operationLogMapper;
+    private final LoginLogMapper loginLogMapper;
+    private final LogProperties logProperties;
+
+    /**
+     * 操作日志索引字段：标题、操作人员、操作地点
+     */
+    private final LogSearchIndex operationIndex = new LogSearchIndex(3);
+
+    /**
+     * 登录日志索引字段：用户账号、登录IP、浏览器、操作系统
+     */
+    private final LogSearchIndex loginIndex = new LogSearchIndex(4);
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * 索引完整覆盖的起始时间，为空表示尚未完成重建
+     */
+    private volatile LocalDateTime operationCoveredSince;
+
+    private volatile LocalDateTime loginCoveredSince;
+
+    /**
+     * 索引的ID游标，之后的行可能由其它节点写入、尚未进入本节点索引
+     */
+    private final IdCursor operationCursor = new IdCursor();
+
+    private final IdCursor loginCursor = new IdCursor();
+
+    // =============== 写入 ===============
+
+    /**
+     * 索引已落库的操作日志，需已回填ID
+     */
+    public void indexOperationLogs(List<OperationLogDO> rows) {
+        if (!logProperties.getSearch().isEnabled()) {
+            return;
+        }
+        for (OperationLogDO row : rows) {
+            if (row.getId() != null) {
+                operationIndex.add(row.getId(), timeOf(row.getOperTime()),
+                        row.getTitle(), row.getOperName(), row.getOperLocation());
+            }
+        }
+    }
+
+    /**
+     * 索引已落库的登录日志，需已回填ID
+     */
+    public void indexLoginLogs(List<LoginLogDO> rows) {
+        if (!logProperties.getSearch().isEnabled()) {
+            return;
+        }
+        for (LoginLogDO row : rows) {
+            if (row.getId() != null) {
+                loginIndex.add(row.getId(), timeOf(row.getLoginTime()),
+                        row.getUserName(), row.getIpaddr(), row.getBrowser(), row.getOs());
+            }
+        }
+    }
+
+    /**
+     * 日志表被清空，索引同步清空并把ID游标归零：截断表会重置自增ID，新行的ID从头开始。
+     * 覆盖范围保持不变，空表仍被索引完整覆盖
+     */
+    public void clearOperationIndex() {
+        rebuildLock.lock();
+        try {
+            operationIndex.clear();
+            operationCursor.reset(0);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void clearLoginIndex() {
+        rebuildLock.lock();
+        try {
+            loginIndex.clear();
+            loginCursor.reset(0);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // =============== 查询 ===============
+
+    /**
+     * 规划操作日志查询
+     *
+     * @return 没有文本条件或未启用索引时返回null，按原条件查询
+     */
+    public SearchPlan planOperationQuery(OperationLogQueryDTO queryDTO) {
+        return plan(operationIndex, operationCoveredSince, operationCursor.getIndexedUpTo(),
+                queryDTO.getStartTime(), queryDTO.getEndTime(), queryDTO.getTitle(), queryDTO.getOperName(), queryDTO.getOperLocation());
+    }
+
+    /**
+     * 规划登录日志查询
+     *
+     * @return 没有文本条件或未启用索引时返回null，按原条件查询
+     */
+    public SearchPlan planLoginQuery(LoginLogQueryDTO queryDTO) {
+        return plan(loginIndex, loginCoveredSince, loginCursor.getIndexedUpTo(), queryDTO.getStartTime(),
+                queryDTO.getEndTime(), queryDTO.getUserName(), queryDTO.getIpaddr(), queryDTO.getBrowser(), queryDTO.getOs());
+    }
+
+    private SearchPlan plan(LogSearchIndex index, LocalDateTime coveredSince, long indexedUpTo,
+                            LocalDateTime startTime, LocalDateTime endTime, String... terms) {
+        LogProperties.SearchConfig config = logProperties.getSearch();
+        if (!config.isEnabled() || Arrays.stream(terms).allMatch(term -> term == null || term.isEmpty())) {
+            return null;
+        }
+        LocalDateTime start = startTime != null ? startTime : LocalDateTime.now().minus(config.getRetention());
+        if (coveredSince == null || start.isBefore(coveredSince)) {
+            return new SearchPlan(start, endTime, null, indexedUpTo);
+        }
+
+        // 过短或带通配符的关键字不参与索引，仍由数据库的 LIKE 条件过滤
+        String[] indexTerms = Arrays.stream(terms)
+                .map(term -> LogSearchIndex.isSearchable(term) ? term : null)
+                .toArray(String[]::new);
+        long[] ids = index.search(indexTerms, start, endTime, config.getMaxCandidates());
+        if (ids == null) {
+            return new SearchPlan(start, endTime, null, indexedUpTo);
+        }
+        return new SearchPlan(start, endTime, Arrays.stream(ids).boxed().collect(Collectors.toList()), indexedUpTo);
+    }
+
+    // =============== 重建与淘汰 ===============
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Async
+    public void rebuildAsync() {
+        rebuild();
+    }
+
+    /**
+     * 从日志表重建索引
+     *
+     * 重建期间索引不参与查询，写入管道照常更新；倒排表按ID去重，重建读到的行与实时写入重叠也无妨。
+     * 重建完成后游标从开始读取前表中已有的最大ID起算，读取期间新增的行留给追平再次确认
+     */
+    public void rebuild() {
+        LogProperties.SearchConfig config = logProperties.getSearch();
+        if (!config.isEnabled() || !rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDateTime since = LocalDateTime.now().minus(config.getRetention()).truncatedTo(ChronoUnit.HOURS);
+            long start = System.currentTimeMillis();
+
+            long margin = config.getCatchUpMargin().toMillis();
+
+            operationCoveredSince = null;
+            operationIndex.clear();
+            long operationMaxId = valueOf(operationLogMapper.selectMaxId());
+            operationCursor.reset(operationMaxId);
+            operationCursor.advance(loadOperationLogs(0, since, config.getRebuildBatchSize()), margin);
+            operationCoveredSince = since;
+
+            loginCoveredSince = null;
+            loginIndex.clear();
+            long loginMaxId = valueOf(loginLogMapper.selectMaxId());
+            loginCursor.reset(loginMaxId);
+            loginCursor.advance(loadLoginLogs(0, since, config.getRebuildBatchSize()), margin);
+            loginCoveredSince = since;
+
+            log.info("日志全文索引重建完成，操作日志索引至ID: {}, 登录日志索引至ID: {}, 耗时: {}ms",
+                    operationCursor.readUpTo(), loginCursor.readUpTo(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("日志全文索引重建失败: {}", e.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 定时从表中追平ID游标之后的日志，包括其它节点写入的行
+     *
+     * 游标之后的行每次都重新读取，以收录ID较小但提交较晚的行；倒排表按ID去重，重复读取与
+     * 本节点写入管道已索引的行都无妨。
+     * 表中最大ID小于已读到的ID说明表已被其它节点清空（截断后自增ID重新开始），清空索引后从头读取
+     */
+    @Scheduled(fixedDelayString = "#{@logProperties.search.catchUpInterval.toMillis()}",
+               initialDelayString = "#{@logProperties.search.catchUpInterval.toMillis()}")
+    public void catchUp() {
+        LogProperties.SearchConfig config = logProperties.getSearch();
+        if (!config.isEnabled() || !rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            long margin = config.getCatchUpMargin().toMillis();
+            LocalDateTime operationSince = operationCoveredSince;
+            if (operationSince != null) {
+                if (valueOf(operationLogMapper.selectMaxId()) < operationCursor.readUpTo()) {
+                    log.info("操作日志表已被清空，重建全文索引");
+                    operationIndex.clear();
+                    operationCursor.reset(0);
+                }
+                operationCursor.advance(loadOperationLogs(operationCursor.getIndexedUpTo(), operationSince,
+                        config.getRebuildBatchSize()), margin);
+            }
+            LocalDateTime loginSince = loginCoveredSince;
+            if (loginSince != null) {
+                if (valueOf(loginLogMapper.selectMaxId()) < loginCursor.readUpTo()) {
+                    log.info("登录日志表已被清空，重建全文索引");
+                    loginIndex.clear();
+                    loginCursor.reset(0);
+                }
+                loginCursor.advance(loadLoginLogs(loginCursor.getIndexedUpTo(), loginSince,
+                        config.getRebuildBatchSize()), margin);
+            }
+        } catch (Exception e) {
+            log.error("日志全文索引追平失败: {}", e.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 按ID游标分批读取并索引操作日志
+     *
+     * @return 读取到的最大ID，没有新行时原样返回游标
+     */
+    private long loadOperationLogs(long afterId, LocalDateTime since, int batchSize) {
+        List<OperationLogDO> rows;
+        do {
+            rows = operationLogMapper.selectSearchBatch(afterId, since, batchSize);
+            indexOperationLogs(rows);
+            if (!rows.isEmpty()) {
+                afterId = rows.get(rows.size() - 1).getId();
+            }
+        } while (rows.size() == batchSize);
+        return afterId;
+    }
+
+    /**
+     * 按ID游标分批读取并索引登录日志
+     *
+     * @return 读取到的最大ID，没有新行时原样返回游标
+     */
+    private long loadLoginLogs(long afterId, LocalDateTime since, int batchSize) {
+        List<LoginLogDO> rows;
+        do {
+            rows = loginLogMapper.selectSearchBatch(afterId, since, batchSize);
+            indexLoginLogs(rows);
+            if (!rows.isEmpty()) {
+                afterId = rows.get(rows.size() - 1).getId();
+            }
+        } while (rows.size() == batchSize);
+        return afterId;
+    }
+
+    /**
+     * 每小时淘汰超过保留时长的时间桶
+     */
+    @Scheduled(cron = "0 5 * * * ?")
+    public void evictExpired() {
+        if (!logProperties.getSearch().isEnabled()) {
+            return;
+        }
+        LocalDateTime expireBefore = LocalDateTime.now().minus(logProperties.getSearch().getRetention())
+                .truncatedTo(ChronoUnit.HOURS);
+        operationIndex.evictBefore(expireBefore);
+        loginIndex.evictBefore(expireBefore);
+        if (operationCoveredSince != null && operationCoveredSince.isBefore(expireBefore)) {
+            operationCoveredSince = expireBefore;
+        }
+        if (loginCoveredSince != null && loginCoveredSince.isBefore(expireBefore)) {
+            loginCoveredSince = expireBefore;
+        }
+    }
+
+    private static long valueOf(Long id) {
+        return id != null ? id : 0L;
+    }
+
+    private static LocalDateTime timeOf(LocalDateTime time) {
+        return time != null ? time : LocalDateTime.now();
+    }
+
+    /**
+     * 索引的ID游标
+     *
+     * 自增ID在分配时确定而非提交时，较小的ID可能晚于较大的ID才可见。每次从表中读取都记下当时读到的最大ID，
+     * 游标只推进到至少一个提交延迟余量之前读到的位置：不大于它的ID在那时都已分配，此后仍未提交的事务已超过余量。
+     * 只在加锁的重建、追平和清空中修改，查询无锁读取游标
+     */
+    private static class IdCursor {
+
+        /**
+         * 尚未超过余量的读取记录：{读取时间毫秒, 读到的最大ID}
+         */
+        private final Deque<long[]> checkpoints = new ArrayDeque<>();
+
+        /**
+         * 不大于它的行都已确认进入索引，大于它的行由 LIKE 条件兜底，并在每次追平时重新读取
+         */
+        @Getter
+        private volatile long indexedUpTo;
+
+        void reset(long indexedUpTo) {
+            checkpoints.clear();
+            this.indexedUpTo = indexedUpTo;
+        }
+
+        /**
+         * 已从表中读到的最大ID
+         */
+        long readUpTo() {
+            return checkpoints.isEmpty() ? indexedUpTo : checkpoints.peekLast()[1];
+        }
+
+        /**
+         * 记录一次读取，并把游标推进到余量之前最近一次读到的位置
+         */
+        void advance(long readUpTo, long marginMillis) {
+            long now = System.currentTimeMillis();
+            checkpoints.addLast(new long[]{now, Math.max(readUpTo, readUpTo())});
+            long[] confirmed = null;
+            while (!checkpoints.isEmpty() && checkpoints.peekFirst()[0] <= now - marginMillis) {
+                confirmed = checkpoints.pollFirst();
+            }
+            if (confirmed != null && confirmed[1] > indexedUpTo) {
+                indexedUpTo = confirmed[1];
+            }
+        }
+    }
+
+    /**
+     * 查询计划
+     */
+    @Getter
+    public static class SearchPlan {
+
+        /**
+         * 查询开始时间，未指定时为默认回看窗口的起点
+         */
+        private final LocalDateTime start;
+
+        /**
+         * 查询结束时间，为空表示不限
+         */
+        private final LocalDateTime end;
+
+        /**
+         * 索引给出的候选ID，为空表示索引无法回答，由 LIKE 条件匹配
+         */
+        private final List<Long> candidateIds;
+
+        /**
+         * 索引已确认追平到的ID，大于它的行可能不在候选中，需与候选一并交给 LIKE 条件匹配
+         */
+        private final long indexedUpTo;
+
+        SearchPlan(LocalDateTime start, LocalDateTime end, List<Long> candidateIds, long indexedUpTo) {
+            this.start = start;
+            this.end = end;
+            this.candidateIds = candidateIds;
+            this.indexedUpTo = indexedUpTo;
+        }
+    }
+}
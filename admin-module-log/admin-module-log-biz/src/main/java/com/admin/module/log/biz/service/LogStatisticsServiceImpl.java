@@ -1,11 +1,14 @@
 package com.admin.module.log.biz.service;
 
 import com.admin.module.log.api.service.LogStatisticsService;
+import com.admin.module.log.api.vo.LiveMetricsVO;
 import com.admin.module.log.api.vo.LogStatisticsVO;
+import com.admin.module.log.biz.dal.dataobject.LogRollupDO;
 import com.admin.module.log.biz.dal.dataobject.LoginLogDO;
 import com.admin.module.log.biz.dal.dataobject.OperationLogDO;
 import com.admin.module.log.biz.dal.mapper.LoginLogMapper;
 import com.admin.module.log.biz.dal.mapper.OperationLogMapper;
+import com.admin.module.log.biz.rollup.RollupDimension;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,13 +16,15 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * 日志统计服务实现
  *
+ * 分组统计读取 {@link LogRollupService} 维护的汇总表，未汇总的时间段由原始表 GROUP BY 补齐；
+ * 最近几分钟的实时指标由 {@link LogLiveMetricsService} 在内存中维护
+ *
  * @author admin
  * @version 1.0
  * @since 2024-01-15
@@ -31,6 +36,8 @@ public class LogStatisticsServiceImpl implements LogStatisticsService {
 
     private final OperationLogMapper operationLogMapper;
     private final LoginLogMapper loginLogMapper;
+    private final LogRollupService rollupService;
+    private final LogLiveMetricsService liveMetricsService;
 
     @Override
     public LogStatisticsVO getLogStatistics() {
@@ -54,57 +61,21 @@ public class LogStatisticsServiceImpl implements LogStatisticsService {
         
         LocalDateTime startTime = LocalDate.now().minusDays(days).atStartOfDay();
         
-        LambdaQueryWrapper<OperationLogDO> wrapper = new LambdaQueryWrapper<OperationLogDO>()
-                .ge(OperationLogDO::getOperTime, startTime)
-                .select(OperationLogDO::getBusinessType);
-                
-        List<OperationLogDO> logs = operationLogMapper.selectList(wrapper);
-        
-        return logs.stream()
-                .collect(Collectors.groupingBy(
-                    log -> getBusinessTypeName(log.getBusinessType()),
-                    Collectors.counting()
-                ));
+        Map<String, Long> counts = countByDimension(RollupDimension.BUSINESS_TYPE, startTime, LocalDateTime.now());
+        Map<String, Long> result = new HashMap<>();
+        counts.forEach((businessType, count) ->
+                result.merge(getBusinessTypeName(parseCode(businessType)), count, Long::sum));
+        return result;
     }
 
     @Override
     public List<LogStatisticsVO.DailyStats> getLoginLogTrend(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startTime = startDate.atStartOfDay();
-        LocalDateTime endTime = endDate.atTime(LocalTime.MAX);
-        
-        LambdaQueryWrapper<LoginLogDO> wrapper = new LambdaQueryWrapper<LoginLogDO>()
-                .between(LoginLogDO::getLoginTime, startTime, endTime)
-                .select(LoginLogDO::getLoginTime);
-                
-        List<LoginLogDO> logs = loginLogMapper.selectList(wrapper);
-        
-        Map<LocalDate, Long> dailyCount = logs.stream()
-                .collect(Collectors.groupingBy(
-                    log -> log.getLoginTime().toLocalDate(),
-                    Collectors.counting()
-                ));
-        
-        return buildDailyStatsList(startDate, endDate, dailyCount);
+        return buildDailyStatsList(startDate, endDate, countByDay(RollupDimension.LOGIN_ALL, startDate, endDate));
     }
 
     @Override
     public List<LogStatisticsVO.DailyStats> getOperationLogTrend(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startTime = startDate.atStartOfDay();
-        LocalDateTime endTime = endDate.atTime(LocalTime.MAX);
-        
-        LambdaQueryWrapper<OperationLogDO> wrapper = new LambdaQueryWrapper<OperationLogDO>()
-                .between(OperationLogDO::getOperTime, startTime, endTime)
-                .select(OperationLogDO::getOperTime);
-                
-        List<OperationLogDO> logs = operationLogMapper.selectList(wrapper);
-        
-        Map<LocalDate, Long> dailyCount = logs.stream()
-                .collect(Collectors.groupingBy(
-                    log -> log.getOperTime().toLocalDate(),
-                    Collectors.counting()
-                ));
-        
-        return buildDailyStatsList(startDate, endDate, dailyCount);
+        return buildDailyStatsList(startDate, endDate, countByDay(RollupDimension.OPERATION_ALL, startDate, endDate));
     }
 
     @Override
@@ -112,69 +83,38 @@ public class LogStatisticsServiceImpl implements LogStatisticsService {
         if (days == null) days = 7;
         
         LogStatisticsVO.SystemOverview overview = new LogStatisticsVO.SystemOverview();
+        LocalDateTime now = LocalDateTime.now();
         LocalDateTime startTime = LocalDate.now().minusDays(days).atStartOfDay();
         
-        // 活跃用户数（最近30天）
+        // 活跃用户数（最近30天登录成功的去重用户）
         LocalDateTime monthAgo = LocalDate.now().minusDays(30).atStartOfDay();
-        Long activeUserCount = loginLogMapper.selectCount(
-                new LambdaQueryWrapper<LoginLogDO>()
-                        .ge(LoginLogDO::getLoginTime, monthAgo)
-                        .eq(LoginLogDO::getStatus, 0)
-        );
-        overview.setActiveUserCount(activeUserCount);
-        
-        // 平均响应时间
-        LambdaQueryWrapper<OperationLogDO> timeWrapper = new LambdaQueryWrapper<OperationLogDO>()
-                .ge(OperationLogDO::getOperTime, startTime)
-                .isNotNull(OperationLogDO::getCostTime)
-                .select(OperationLogDO::getCostTime);
-                
-        List<OperationLogDO> timeLogs = operationLogMapper.selectList(timeWrapper);
-        Double avgResponseTime = timeLogs.stream()
-                .mapToLong(OperationLogDO::getCostTime)
-                .average()
-                .orElse(0.0);
-        overview.setAvgResponseTime(avgResponseTime);
-        
-        // 异常率
-        Long totalCount = operationLogMapper.selectCount(
-                new LambdaQueryWrapper<OperationLogDO>()
-                        .ge(OperationLogDO::getOperTime, startTime)
-        );
-        Long errorCount = operationLogMapper.selectCount(
-                new LambdaQueryWrapper<OperationLogDO>()
-                        .ge(OperationLogDO::getOperTime, startTime)
-                        .eq(OperationLogDO::getStatus, 1)
-        );
-        Double errorRate = totalCount > 0 ? (errorCount.doubleValue() / totalCount.doubleValue() * 100) : 0.0;
-        overview.setErrorRate(errorRate);
+        overview.setActiveUserCount(rollupService.countDistinctUsers(LogRollupService.METRIC_ACTIVE_USER, monthAgo, now));
+        
+        // 平均响应时间、异常率
+        long totalCount = 0;
+        long errorCount = 0;
+        long costSum = 0;
+        long costCount = 0;
+        for (LogRollupDO row : rollupService.query(RollupDimension.OPERATION_ALL, startTime, now)) {
+            totalCount += row.getTotalCount();
+            errorCount += row.getErrorCount();
+            costSum += row.getCostSum();
+            costCount += row.getCostCount();
+        }
+        overview.setAvgResponseTime(costCount > 0 ? (double) costSum / costCount : 0.0);
+        overview.setErrorRate(totalCount > 0 ? ((double) errorCount / totalCount * 100) : 0.0);
         
         // 最热门功能模块（Top5）
-        LambdaQueryWrapper<OperationLogDO> moduleWrapper = new LambdaQueryWrapper<OperationLogDO>()
-                .ge(OperationLogDO::getOperTime, startTime)
-                .isNotNull(OperationLogDO::getTitle)
-                .select(OperationLogDO::getTitle);
-                
-        List<OperationLogDO> moduleLogs = operationLogMapper.selectList(moduleWrapper);
-        Map<String, Long> topModules = moduleLogs.stream()
-                .collect(Collectors.groupingBy(
-                    OperationLogDO::getTitle,
-                    Collectors.counting()
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (e1, e2) -> e1,
-                    LinkedHashMap::new
-                ));
-        overview.setTopModules(topModules);
+        overview.setTopModules(topN(countByDimension(RollupDimension.TITLE, startTime, now), 5));
         
         return overview;
     }
 
+    @Override
+    public LiveMetricsVO getLiveMetrics() {
+        return liveMetricsService.getLiveMetrics();
+    }
+
     /**
      * 构建操作日志统计
      */
@@ -203,27 +143,7 @@ public class LogStatisticsServiceImpl implements LogStatisticsService {
         stats.setBusinessTypeStats(getOperationLogByBusinessType(30));
         
         // 按操作人员统计（Top10）
-        List<OperationLogDO> operatorLogs = operationLogMapper.selectList(
-                new LambdaQueryWrapper<OperationLogDO>()
-                        .ge(OperationLogDO::getOperTime, sevenDaysAgo)
-                        .isNotNull(OperationLogDO::getOperName)
-                        .select(OperationLogDO::getOperName)
-        );
-        Map<String, Long> operatorStats = operatorLogs.stream()
-                .collect(Collectors.groupingBy(
-                    OperationLogDO::getOperName,
-                    Collectors.counting()
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(10)
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (e1, e2) -> e1,
-                    LinkedHashMap::new
-                ));
-        stats.setOperatorStats(operatorStats);
+        stats.setOperatorStats(topN(countByDimension(RollupDimension.OPER_NAME, sevenDaysAgo, LocalDateTime.now()), 10));
         
         // 最近7天趋势
         LocalDate today = LocalDate.now();
@@ -239,6 +159,7 @@ public class LogStatisticsServiceImpl implements LogStatisticsService {
     private LogStatisticsVO.LoginLogStats buildLoginLogStats() {
         LogStatisticsVO.LoginLogStats stats = new LogStatisticsVO.LoginLogStats();
         
+        LocalDateTime now = LocalDateTime.now();
         LocalDateTime todayStart = LocalDate.now().atStartOfDay();
         LocalDateTime sevenDaysAgo = LocalDate.now().minusDays(7).atStartOfDay();
         
@@ -258,59 +179,65 @@ public class LogStatisticsServiceImpl implements LogStatisticsService {
         ));
         
         // 唯一用户数
-        List<LoginLogDO> userLogs = loginLogMapper.selectList(
-                new LambdaQueryWrapper<LoginLogDO>()
-                        .isNotNull(LoginLogDO::getUserName)
-                        .select(LoginLogDO::getUserName)
-        );
-        Long uniqueUserCount = userLogs.stream()
-                .map(LoginLogDO::getUserName)
-                .distinct()
-                .count();
-        stats.setUniqueUserCount(uniqueUserCount);
+        stats.setUniqueUserCount(rollupService.countDistinctUsers(LogRollupService.METRIC_LOGIN_USER, null, now));
         
         // 按登录类型统计
-        List<LoginLogDO> typeLogs = loginLogMapper.selectList(
-                new LambdaQueryWrapper<LoginLogDO>()
-                        .ge(LoginLogDO::getLoginTime, sevenDaysAgo)
-                        .select(LoginLogDO::getLoginType)
-        );
-        Map<String, Long> loginTypeStats = typeLogs.stream()
-                .collect(Collectors.groupingBy(
-                    log -> getLoginTypeName(log.getLoginType()),
-                    Collectors.counting()
-                ));
+        Map<String, Long> loginTypeStats = new HashMap<>();
+        countByDimension(RollupDimension.LOGIN_TYPE, sevenDaysAgo, now).forEach((loginType, count) ->
+                loginTypeStats.merge(getLoginTypeName(parseCode(loginType)), count, Long::sum));
         stats.setLoginTypeStats(loginTypeStats);
         
         // 按浏览器统计（Top10）
-        List<LoginLogDO> browserLogs = loginLogMapper.selectList(
-                new LambdaQueryWrapper<LoginLogDO>()
-                        .ge(LoginLogDO::getLoginTime, sevenDaysAgo)
-                        .isNotNull(LoginLogDO::getBrowser)
-                        .select(LoginLogDO::getBrowser)
-        );
-        Map<String, Long> browserStats = browserLogs.stream()
+        stats.setBrowserStats(topN(countByDimension(RollupDimension.BROWSER, sevenDaysAgo, now), 10));
+        
+        // 最近7天趋势
+        LocalDate today = LocalDate.now();
+        LocalDate sevenDaysAgoDate = today.minusDays(6);
+        stats.setDailyTrend(getLoginLogTrend(sevenDaysAgoDate, today));
+        
+        return stats;
+    }
+
+    /**
+     * 按维度取值汇总记录数
+     */
+    private Map<String, Long> countByDimension(RollupDimension dimension, LocalDateTime start, LocalDateTime end) {
+        return rollupService.query(dimension, start, end).stream()
+                .collect(Collectors.groupingBy(LogRollupDO::getDimValue, Collectors.summingLong(LogRollupDO::getTotalCount)));
+    }
+
+    /**
+     * 按日期汇总记录数，日期均为闭区间
+     */
+    private Map<LocalDate, Long> countByDay(RollupDimension dimension, LocalDate startDate, LocalDate endDate) {
+        return rollupService.query(dimension, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()).stream()
                 .collect(Collectors.groupingBy(
-                    LoginLogDO::getBrowser,
-                    Collectors.counting()
-                ))
-                .entrySet().stream()
+                    row -> row.getStatTime().toLocalDate(),
+                    Collectors.summingLong(LogRollupDO::getTotalCount)
+                ));
+    }
+
+    /**
+     * 按数量倒序取前N项
+     */
+    private Map<String, Long> topN(Map<String, Long> counts, int limit) {
+        return counts.entrySet().stream()
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(10)
+                .limit(limit)
                 .collect(Collectors.toMap(
                     Map.Entry::getKey,
                     Map.Entry::getValue,
                     (e1, e2) -> e1,
                     LinkedHashMap::new
                 ));
-        stats.setBrowserStats(browserStats);
-        
-        // 最近7天趋势
-        LocalDate today = LocalDate.now();
-        LocalDate sevenDaysAgoDate = today.minusDays(6);
-        stats.setDailyTrend(getLoginLogTrend(sevenDaysAgoDate, today));
-        
-        return stats;
+    }
+
+    private Integer parseCode(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     /**
@@ -1,9 +1,7 @@
 package com.admin.module.log.biz.service.impl;
 
-import cn.hutool.core.collection.CollectionUtil;
 import com.admin.common.exception.ServiceException;
 import com.admin.framework.excel.domain.ImportExportTask;
-import com.admin.framework.excel.service.ExcelExportService;
 import com.admin.framework.excel.service.ImportExportFileService;
 import com.admin.framework.excel.service.ImportExportTaskService;
 import com.admin.common.core.domain.PageResult;
@@ -19,15 +17,14 @@ import com.admin.module.log.biz.dal.dataobject.LoginLogDO;
 import com.admin.module.log.biz.dal.dataobject.OperationLogDO;
 import com.admin.module.log.biz.dal.mapper.LoginLogMapper;
 import com.admin.module.log.biz.dal.mapper.OperationLogMapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.admin.module.log.biz.export.LogExportEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import jakarta.servlet.http.HttpServletResponse;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -45,13 +42,12 @@ public class LogExportServiceImpl implements LogExportService {
 
     private static final String OPERATION_LOG_BUSINESS_TYPE = "OPERATION_LOG";
     private static final String LOGIN_LOG_BUSINESS_TYPE = "LOGIN_LOG";
-    private static final int BATCH_SIZE = 1000;
 
-    private final ExcelExportService excelExportService;
     private final ImportExportFileService fileService;
     private final ImportExportTaskService taskService;
     private final OperationLogMapper operationLogMapper;
     private final LoginLogMapper loginLogMapper;
+    private final LogExportEngine exportEngine;
 
     @Override
     @Async
@@ -66,7 +62,7 @@ public class LogExportServiceImpl implements LogExportService {
 
         // 创建任务
         Long taskId = taskService.createTask("操作日志导出", ImportExportTask.TaskType.EXPORT, 
-                                           OPERATION_LOG_BUSINESS_TYPE, "操作日志数据.xlsx");
+                                           OPERATION_LOG_BUSINESS_TYPE, "操作日志数据" + exportEngine.getFileExtension());
 
         // 异步执行导出
         taskService.executeExportTaskAsync(taskId, (id) -> processOperationLogExportTask(id, queryCondition));
@@ -86,7 +82,7 @@ public class LogExportServiceImpl implements LogExportService {
 
         // 创建任务
         Long taskId = taskService.createTask("登录日志导出", ImportExportTask.TaskType.EXPORT, 
-                                           LOGIN_LOG_BUSINESS_TYPE, "登录日志数据.xlsx");
+                                           LOGIN_LOG_BUSINESS_TYPE, "登录日志数据" + exportEngine.getFileExtension());
 
         // 异步执行导出
         taskService.executeExportTaskAsync(taskId, (id) -> processLoginLogExportTask(id, queryCondition));
@@ -105,48 +101,27 @@ public class LogExportServiceImpl implements LogExportService {
             long totalCount = operationLogMapper.selectCountByQuery(queryCondition);
             taskService.updateTaskStatistics(taskId, (int) totalCount, 0, 0);
 
-            // 分批查询并导出
-            List<OperationLogExportVO> allExportData = new ArrayList<>();
-            int pageSize = BATCH_SIZE;
-            long current = 1;
-            int processedCount = 0;
-
-            while (true) {
-                Page<OperationLogDO> page = new Page<>(current, pageSize);
-                IPage<OperationLogDO> pageResult = operationLogMapper.selectPageByQuery(page, queryCondition);
-                
-                if (CollectionUtil.isEmpty(pageResult.getRecords())) {
-                    break;
-                }
-
-                // 转换为导出VO
-                List<OperationLogExportVO> exportVOs = OperationLogConvert.INSTANCE.toExportVOList(pageResult.getRecords());
-                
-                // 设置额外字段
-                for (OperationLogExportVO exportVO : exportVOs) {
-                    exportVO.setBusinessTypeText(exportVO.getBusinessType());
-                    exportVO.setStatusText(exportVO.getStatus());
-                }
-                
-                allExportData.addAll(exportVOs);
-
-                processedCount += pageResult.getRecords().size();
-                taskService.updateTaskProgress(taskId, processedCount, (int) totalCount);
-
-                current++;
-                
-                // 如果当前页记录数小于页大小，说明是最后一页
-                if (pageResult.getRecords().size() < pageSize) {
-                    break;
-                }
-            }
-
-            // 生成Excel文件
-            String filePath = generateExportFile(taskId, allExportData, OperationLogExportVO.class, "操作日志导出");
+            // 按时间分片并行读取，流式写入对象存储
+            LocalDateTime start = queryCondition.getStartTime() != null
+                    ? queryCondition.getStartTime() : operationLogMapper.selectMinTimeByQuery(queryCondition);
+            String filePath = exportEngine.export(taskId, "操作日志导出", OperationLogExportVO.class, start,
+                    queryCondition.getEndTime(), totalCount,
+                    (shardStart, shardEnd, beforeId, limit) ->
+                            operationLogMapper.selectExportBatch(queryCondition, shardStart, shardEnd, beforeId, limit),
+                    OperationLogDO::getId,
+                    rows -> {
+                        List<OperationLogExportVO> exportVOs = OperationLogConvert.INSTANCE.toExportVOList(rows);
+                        // 设置额外字段
+                        for (OperationLogExportVO exportVO : exportVOs) {
+                            exportVO.setBusinessTypeText(exportVO.getBusinessType());
+                            exportVO.setStatusText(exportVO.getStatus());
+                        }
+                        return exportVOs;
+                    });
             taskService.setTaskFilePath(taskId, filePath);
             taskService.completeTask(taskId, true, "导出成功");
 
-            log.info("操作日志导出任务{}完成，导出数据: {}条", taskId, allExportData.size());
+            log.info("操作日志导出任务{}完成，导出数据: {}条", taskId, totalCount);
 
         } catch (Exception e) {
             log.error("操作日志导出任务{}执行失败", taskId, e);
@@ -166,48 +141,27 @@ public class LogExportServiceImpl implements LogExportService {
             long totalCount = loginLogMapper.selectCountByQuery(queryCondition);
             taskService.updateTaskStatistics(taskId, (int) totalCount, 0, 0);
 
-            // 分批查询并导出
-            List<LoginLogExportVO> allExportData = new ArrayList<>();
-            int pageSize = BATCH_SIZE;
-            long current = 1;
-            int processedCount = 0;
-
-            while (true) {
-                Page<LoginLogDO> page = new Page<>(current, pageSize);
-                IPage<LoginLogDO> pageResult = loginLogMapper.selectPageByQuery(page, queryCondition);
-                
-                if (CollectionUtil.isEmpty(pageResult.getRecords())) {
-                    break;
-                }
-
-                // 转换为导出VO
-                List<LoginLogExportVO> exportVOs = LoginLogConvert.INSTANCE.toExportVOList(pageResult.getRecords());
-                
-                // 设置额外字段
-                for (LoginLogExportVO exportVO : exportVOs) {
-                    exportVO.setLoginTypeText(exportVO.getLoginType());
-                    exportVO.setStatusText(exportVO.getStatus());
-                }
-                
-                allExportData.addAll(exportVOs);
-
-                processedCount += pageResult.getRecords().size();
-                taskService.updateTaskProgress(taskId, processedCount, (int) totalCount);
-
-                current++;
-                
-                // 如果当前页记录数小于页大小，说明是最后一页
-                if (pageResult.getRecords().size() < pageSize) {
-                    break;
-                }
-            }
-
-            // 生成Excel文件
-            String filePath = generateExportFile(taskId, allExportData, LoginLogExportVO.class, "登录日志导出");
+            // 按时间分片并行读取，流式写入对象存储
+            LocalDateTime start = queryCondition.getStartTime() != null
+                    ? queryCondition.getStartTime() : loginLogMapper.selectMinTimeByQuery(queryCondition);
+            String filePath = exportEngine.export(taskId, "登录日志导出", LoginLogExportVO.class, start,
+                    queryCondition.getEndTime(), totalCount,
+                    (shardStart, shardEnd, beforeId, limit) ->
+                            loginLogMapper.selectExportBatch(queryCondition, shardStart, shardEnd, beforeId, limit),
+                    LoginLogDO::getId,
+                    rows -> {
+                        List<LoginLogExportVO> exportVOs = LoginLogConvert.INSTANCE.toExportVOList(rows);
+                        // 设置额外字段
+                        for (LoginLogExportVO exportVO : exportVOs) {
+                            exportVO.setLoginTypeText(exportVO.getLoginType());
+                            exportVO.setStatusText(exportVO.getStatus());
+                        }
+                        return exportVOs;
+                    });
             taskService.setTaskFilePath(taskId, filePath);
             taskService.completeTask(taskId, true, "导出成功");
 
-            log.info("登录日志导出任务{}完成，导出数据: {}条", taskId, allExportData.size());
+            log.info("登录日志导出任务{}完成，导出数据: {}条", taskId, totalCount);
 
         } catch (Exception e) {
             log.error("登录日志导出任务{}执行失败", taskId, e);
@@ -215,24 +169,6 @@ public class LogExportServiceImpl implements LogExportService {
         }
     }
 
-    /**
-     * 生成导出文件
-     */
-    private <T> String generateExportFile(Long taskId, List<T> exportData, Class<T> clazz, String sheetName) {
-        try {
-            // 使用ByteArrayOutputStream生成Excel文件
-            java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
-            excelExportService.export(outputStream, sheetName, clazz, exportData);
-            byte[] fileData = outputStream.toByteArray();
-            
-            // 保存文件并返回路径
-            String fileName = taskId + "_" + sheetName + ".xlsx";
-            return fileService.saveExportFile(fileData, fileName, taskId);
-        } catch (Exception e) {
-            throw new ServiceException("生成导出文件失败: " + e.getMessage());
-        }
-    }
-
     @Override
     public ImportExportTask getTaskDetail(Long taskId) {
         return taskService.getTask(taskId);
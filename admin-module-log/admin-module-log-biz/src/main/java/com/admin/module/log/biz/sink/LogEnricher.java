@@ -0,0 +1,57 @@
+package com.admin.module.log.biz.sink;
+
+import cn.hutool.core.util.StrUtil;
+import com.admin.common.utils.IpUtils;
+import com.admin.common.utils.UserAgentUtils;
+import com.admin.common.utils.ua.UserAgentParser.UserAgentInfo;
+import com.admin.module.log.api.dto.LoginLogCreateDTO;
+import com.admin.module.log.api.dto.OperationLogCreateDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 日志补全
+ *
+ * 在写入管道的消费线程中解析User-Agent、查询离线IP库归属地，使请求线程只需采集原始值
+ * 已有值的字段不会被覆盖，重复调用无副作用
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+public class LogEnricher {
+
+    /**
+     * sys_login_log.browser / os 列长度
+     */
+    private static final int MAX_UA_FIELD_LENGTH = 50;
+
+    /**
+     * 补全操作日志
+     */
+    public void enrich(OperationLogCreateDTO logDTO) {
+        if (logDTO.getOperLocation() == null && logDTO.getOperIp() != null) {
+            logDTO.setOperLocation(IpUtils.getIpLocation(logDTO.getOperIp()));
+        }
+    }
+
+    /**
+     * 补全登录日志
+     */
+    public void enrich(LoginLogCreateDTO logDTO) {
+        if (logDTO.getLoginLocation() == null && logDTO.getIpaddr() != null) {
+            logDTO.setLoginLocation(IpUtils.getIpLocation(logDTO.getIpaddr()));
+        }
+        if (logDTO.getBrowser() == null && StrUtil.isNotBlank(logDTO.getUserAgent())) {
+            try {
+                UserAgentInfo ua = UserAgentUtils.parse(logDTO.getUserAgent());
+                logDTO.setBrowser(StrUtil.maxLength(ua.getBrowserWithVersion(), MAX_UA_FIELD_LENGTH - 3));
+                logDTO.setOs(StrUtil.maxLength(ua.getOs(), MAX_UA_FIELD_LENGTH - 3));
+            } catch (Exception e) {
+                log.warn("解析User-Agent失败: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,650 @@
+package com.admin.module.log.biz.sink;
+
+import com.admin.module.log.api.dto.LoginLogCreateDTO;
+import com.admin.module.log.api.dto.OperationLogCreateDTO;
+import com.admin.module.log.biz.config.LogProperties;
+import com.admin.module.log.biz.convert.LoginLogConvert;
+import com.admin.module.log.biz.convert.OperationLogConvert;
+import com.admin.module.log.biz.dal.dataobject.LoginLogDO;
+import com.admin.module.log.biz.dal.dataobject.OperationLogDO;
+import com.admin.module.log.biz.dal.mapper.LoginLogMapper;
+import com.admin.module.log.biz.dal.mapper.OperationLogMapper;
+import com.admin.module.log.biz.service.LogLiveMetricsService;
+import com.admin.module.log.biz.service.LogRollupService;
+import com.admin.module.log.biz.service.LogSearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 日志异步写入管道
+ *
+ * 请求线程只把日志放入有界环形队列，由单个消费线程按批量大小或时间间隔合并为多行INSERT写入数据库
+ * 队列已满时按溢出策略丢弃并计数，或放入有界的待溢写队列由消费线程追加到本地溢写文件；
+ * 请求线程不做任何文件IO，任何情况下都不阻塞
+ * 溢写文件在消费线程空闲时定期重放；整批写入失败视为数据库不可用，在溢写策略下转存等待重放，
+ * 部分行失败视为数据问题，丢弃并计数
+ *
+ * 指标：admin.log.sink.queue.depth、admin.log.sink.flush、admin.log.sink.written、
+ * admin.log.sink.dropped、admin.log.sink.spilled、admin.log.sink.failed
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+public class LogWriteBehindSink {
+
+    private static final String TYPE_OPERATION = "operation";
+    private static final String TYPE_LOGIN = "login";
+
+    private static final String SPILL_FILE = "log-spill.jsonl";
+    private static final String REPLAY_SUFFIX = ".replay";
+    private static final char SPILL_SEPARATOR = '\t';
+
+    /**
+     * 队列为空时消费线程的休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * 每丢弃多少条打印一次告警，避免过载时刷屏
+     */
+    private static final long DROP_WARN_INTERVAL = 1000;
+
+    private final OperationLogMapper operationLogMapper;
+    private final LoginLogMapper loginLogMapper;
+    private final ObjectMapper objectMapper;
+    private final LogEnricher logEnricher;
+    private final LogSearchService logSearchService;
+    private final LogLiveMetricsService logLiveMetricsService;
+    private final LogRollupService logRollupService;
+    private final LogProperties.SinkConfig config;
+    private final MpscRingBuffer<Object> buffer;
+
+    /**
+     * 环形队列已满时等待溢写的日志，由消费线程写入溢写文件
+     */
+    private final BlockingQueue<Object> spillQueue;
+
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+    private final Counter failedCounter;
+    private final Counter operationWrittenCounter;
+    private final Counter loginWrittenCounter;
+    private final Timer operationFlushTimer;
+    private final Timer loginFlushTimer;
+
+    private final AtomicLong droppedTotal = new AtomicLong();
+
+    /**
+     * 溢写文件锁，消费线程与关闭流程互斥使用
+     */
+    private final ReentrantLock spillLock = new ReentrantLock();
+
+    private BufferedWriter spillWriter;
+
+    private volatile boolean running;
+
+    /**
+     * 关闭超时后置位，消费线程不再写库，把剩余日志溢写后退出
+     */
+    private volatile boolean spillOnExit;
+
+    /**
+     * 消费线程正在重放溢写文件
+     */
+    private boolean replaying;
+
+    private Thread consumer;
+
+    private long lastReplayAt;
+
+    public LogWriteBehindSink(OperationLogMapper operationLogMapper, LoginLogMapper loginLogMapper,
+                              ObjectMapper objectMapper, LogEnricher logEnricher, LogSearchService logSearchService,
+                              LogLiveMetricsService logLiveMetricsService, LogRollupService logRollupService,
+                              LogProperties logProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.operationLogMapper = operationLogMapper;
+        this.loginLogMapper = loginLogMapper;
+        this.objectMapper = objectMapper;
+        this.logEnricher = logEnricher;
+        this.logSearchService = logSearchService;
+        this.logLiveMetricsService = logLiveMetricsService;
+        this.logRollupService = logRollupService;
+        this.config = logProperties.getSink();
+        this.buffer = new MpscRingBuffer<>(config.getCapacity());
+        this.spillQueue = new ArrayBlockingQueue<>(Math.max(config.getSpillQueueCapacity(), 1));
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("admin.log.sink.queue.depth", buffer, MpscRingBuffer::size)
+                .description("日志写入队列中等待的条数")
+                .register(registry);
+        this.droppedCounter = Counter.builder("admin.log.sink.dropped").register(registry);
+        this.spilledCounter = Counter.builder("admin.log.sink.spilled").register(registry);
+        this.failedCounter = Counter.builder("admin.log.sink.failed").register(registry);
+        this.operationWrittenCounter = Counter.builder("admin.log.sink.written").tag("type", TYPE_OPERATION).register(registry);
+        this.loginWrittenCounter = Counter.builder("admin.log.sink.written").tag("type", TYPE_LOGIN).register(registry);
+        this.operationFlushTimer = Timer.builder("admin.log.sink.flush").tag("type", TYPE_OPERATION).register(registry);
+        this.loginFlushTimer = Timer.builder("admin.log.sink.flush").tag("type", TYPE_LOGIN).register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        consumer = Thread.ofPlatform().name("log-sink").daemon().start(this::runLoop);
+        log.info("日志写入管道已启动，队列容量: {}, 批量大小: {}, 刷新间隔: {}, 溢出策略: {}",
+                buffer.capacity(), config.getBatchSize(), config.getFlushInterval(), config.getOverflowPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (consumer.isAlive()) {
+                // 环形队列只允许单个消费者，消费线程仍在写库时不能在当前线程消费；
+                // 通知其结束当前批次后把剩余日志溢写，不再等待数据库
+                spillOnExit = true;
+                log.warn("日志写入管道未能在超时内完成，剩余{}条将在当前批次结束后溢写", buffer.size() + spillQueue.size());
+                return;
+            }
+        }
+        // 消费线程已退出，其后到达的日志在当前线程写入
+        List<Object> remaining = new ArrayList<>();
+        buffer.drainTo(remaining, Integer.MAX_VALUE);
+        spillQueue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+        spillLock.lock();
+        try {
+            closeSpillWriter();
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * 放入日志，不阻塞调用线程
+     *
+     * @param logDTO 操作日志或登录日志
+     * @return 是否已进入写入队列或待溢写队列
+     */
+    public boolean offer(Object logDTO) {
+        if (logDTO == null) {
+            return false;
+        }
+        if (buffer.offer(logDTO)) {
+            return true;
+        }
+        if (config.getOverflowPolicy() == LogProperties.OverflowPolicy.SPILL && spillQueue.offer(logDTO)) {
+            return true;
+        }
+        droppedCounter.increment();
+        if (droppedTotal.incrementAndGet() % DROP_WARN_INTERVAL == 1) {
+            log.warn("日志写入队列已满，累计丢弃: {}", droppedTotal.get());
+        }
+        return false;
+    }
+
+    /**
+     * 当前队列中等待写入的条数
+     */
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    private void runLoop() {
+        int batchSize = config.getBatchSize();
+        long flushIntervalNanos = config.getFlushInterval().toNanos();
+        List<Object> pending = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (running || !buffer.isEmpty() || !pending.isEmpty() || !spillQueue.isEmpty()) {
+            if (spillOnExit) {
+                spillRemaining(pending);
+                break;
+            }
+            try {
+                spillOverflow();
+                boolean wasEmpty = pending.isEmpty();
+                int drained = buffer.drainTo(pending, batchSize - pending.size());
+                if (pending.isEmpty()) {
+                    replaySpilled();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                if (wasEmpty) {
+                    deadline = System.nanoTime() + flushIntervalNanos;
+                }
+                if (pending.size() >= batchSize || System.nanoTime() - deadline >= 0 || !running) {
+                    flush(pending);
+                    pending.clear();
+                } else if (drained == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (Throwable e) {
+                log.error("日志写入管道处理异常，丢弃当前批次: {}", e.getMessage(), e);
+                failedCounter.increment(pending.size());
+                pending.clear();
+            }
+        }
+        if (spillOnExit) {
+            spillLock.lock();
+            try {
+                closeSpillWriter();
+            } finally {
+                spillLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 关闭超时后由消费线程调用，把尚未写入的日志溢写，溢写策略之外的丢弃计数
+     */
+    private void spillRemaining(List<Object> pending) {
+        List<Object> remaining = new ArrayList<>(pending);
+        pending.clear();
+        buffer.drainTo(remaining, Integer.MAX_VALUE);
+        spillQueue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        if (config.getOverflowPolicy() == LogProperties.OverflowPolicy.SPILL) {
+            spillLock.lock();
+            try {
+                if (spill(remaining)) {
+                    spilledCounter.increment(remaining.size());
+                    log.info("关闭时剩余日志已溢写，数量: {}", remaining.size());
+                    return;
+                }
+            } finally {
+                spillLock.unlock();
+            }
+        }
+        droppedCounter.increment(remaining.size());
+        log.error("关闭时剩余日志未能写入已丢弃，数量: {}", remaining.size());
+    }
+
+    /**
+     * 按日志类型分组，补全解析字段后批量写入
+     */
+    private void flush(List<Object> records) {
+        List<OperationLogCreateDTO> operationLogs = new ArrayList<>();
+        List<LoginLogCreateDTO> loginLogs = new ArrayList<>();
+        for (Object record : records) {
+            if (record instanceof OperationLogCreateDTO operationLog) {
+                logEnricher.enrich(operationLog);
+                operationLogs.add(operationLog);
+            } else if (record instanceof LoginLogCreateDTO loginLog) {
+                logEnricher.enrich(loginLog);
+                loginLogs.add(loginLog);
+            }
+        }
+        write(TYPE_OPERATION, operationLogs, operationFlushTimer, operationWrittenCounter,
+                this::insertOperationLogs, this::afterOperationLogsWritten);
+        write(TYPE_LOGIN, loginLogs, loginFlushTimer, loginWrittenCounter,
+                this::insertLoginLogs, this::afterLoginLogsWritten);
+    }
+
+    /**
+     * 写入一组日志
+     *
+     * 数据库不可用（连接失败、超时等暂时性错误）时整批直接转存，不再逐条重试，避免每条都等一次连接超时；
+     * 其余错误视为个别行的数据问题，逐条重试找出失败的行。
+     * 写入回调只负责INSERT；索引等后续处理在写入成功后单独执行，失败不影响已落库的行，
+     * 否则批量INSERT已提交后后续处理抛错会触发逐条重试，整批重复写入
+     */
+    private <T, D> void write(String type, List<T> records, Timer timer, Counter writtenCounter,
+                              Function<List<T>, List<D>> insert, Consumer<List<D>> afterWrite) {
+        if (records.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<D> written = new ArrayList<>(records.size());
+        try {
+            written.addAll(insert.apply(records));
+        } catch (Exception e) {
+            if (isUnavailable(e)) {
+                log.error("批量写入{}日志失败，数据库不可用，数量: {}, 错误: {}", type, records.size(), e.getMessage());
+                handleFailed(type, records, List.of());
+            } else {
+                log.error("批量写入{}日志失败，逐条重试，数量: {}, 错误: {}", type, records.size(), e.getMessage());
+                List<T> unavailable = new ArrayList<>();
+                List<T> rejected = new ArrayList<>();
+                for (int i = 0; i < records.size(); i++) {
+                    try {
+                        written.addAll(insert.apply(List.of(records.get(i))));
+                    } catch (Exception ex) {
+                        if (isUnavailable(ex)) {
+                            // 重试过程中数据库不可用，剩余的行不再逐条等待超时
+                            unavailable.addAll(records.subList(i, records.size()));
+                            break;
+                        }
+                        rejected.add(records.get(i));
+                    }
+                }
+                handleFailed(type, unavailable, rejected);
+            }
+        } finally {
+            writtenCounter.increment(written.size());
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!written.isEmpty()) {
+            afterWrite.accept(written);
+        }
+    }
+
+    /**
+     * 写入失败的日志在溢写策略下全部转存等待重放，否则丢弃计数
+     *
+     * @param unavailable 因数据库不可用未写入的行
+     * @param rejected    被数据库拒绝的行；重放溢写文件时仍被拒绝的直接丢弃，再次转存只会反复失败
+     */
+    private <T> void handleFailed(String type, List<T> unavailable, List<T> rejected) {
+        List<T> spillable = new ArrayList<>(unavailable);
+        if (!replaying) {
+            spillable.addAll(rejected);
+        }
+        int dropped = unavailable.size() + rejected.size() - spillable.size();
+        if (!spillable.isEmpty()) {
+            boolean spilled = false;
+            if (config.getOverflowPolicy() == LogProperties.OverflowPolicy.SPILL) {
+                spillLock.lock();
+                try {
+                    spilled = spill(spillable);
+                } finally {
+                    spillLock.unlock();
+                }
+            }
+            if (spilled) {
+                spilledCounter.increment(spillable.size());
+                log.warn("{}日志写入数据库失败，已转存溢写文件等待重放，数量: {}", type, spillable.size());
+            } else {
+                dropped += spillable.size();
+            }
+        }
+        if (dropped > 0) {
+            failedCounter.increment(dropped);
+            log.error("{}日志写入失败已丢弃，数量: {}", type, dropped);
+        }
+    }
+
+    /**
+     * 是否为数据库不可用一类的暂时性错误
+     */
+    private static boolean isUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null && cause != cause.getCause(); cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<OperationLogDO> insertOperationLogs(List<OperationLogCreateDTO> records) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OperationLogDO> rows = records.stream()
+                .map(dto -> {
+                    OperationLogDO row = OperationLogConvert.INSTANCE.convert(dto);
+                    if (row.getOperTime() == null) {
+                        // 日志表按操作时间分区，分区键不能为空
+                        row.setOperTime(now);
+                    }
+                    row.setCreateTime(now);
+                    row.setUpdateTime(now);
+                    return row;
+                })
+                .collect(Collectors.toList());
+        operationLogMapper.insertBatch(rows);
+        return rows;
+    }
+
+    private List<LoginLogDO> insertLoginLogs(List<LoginLogCreateDTO> records) {
+        LocalDateTime now = LocalDateTime.now();
+        List<LoginLogDO> rows = records.stream()
+                .map(dto -> {
+                    LoginLogDO row = LoginLogConvert.INSTANCE.convert(dto);
+                    if (row.getLoginTime() == null) {
+                        row.setLoginTime(now);
+                    }
+                    row.setCreateTime(now);
+                    row.setUpdateTime(now);
+                    return row;
+                })
+                .collect(Collectors.toList());
+        loginLogMapper.insertBatch(rows);
+        return rows;
+    }
+
+    private void afterOperationLogsWritten(List<OperationLogDO> rows) {
+        try {
+            logSearchService.indexOperationLogs(rows);
+        } catch (Exception e) {
+            log.error("操作日志索引更新失败: {}", e.getMessage());
+        }
+        try {
+            logLiveMetricsService.recordOperationLogs(rows);
+        } catch (Exception e) {
+            log.error("操作日志实时指标更新失败: {}", e.getMessage());
+        }
+        logRollupService.markLateArrival(rows.stream().map(OperationLogDO::getOperTime)
+                .filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null));
+    }
+
+    private void afterLoginLogsWritten(List<LoginLogDO> rows) {
+        try {
+            logSearchService.indexLoginLogs(rows);
+        } catch (Exception e) {
+            log.error("登录日志索引更新失败: {}", e.getMessage());
+        }
+        logRollupService.markLateArrival(rows.stream().map(LoginLogDO::getLoginTime)
+                .filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null));
+    }
+
+    // =============== 溢写与重放 ===============
+
+    /**
+     * 把请求线程放入待溢写队列的日志写入溢写文件
+     */
+    private void spillOverflow() {
+        if (spillQueue.isEmpty()) {
+            return;
+        }
+        List<Object> records = new ArrayList<>(spillQueue.size());
+        spillQueue.drainTo(records);
+        spillLock.lock();
+        try {
+            if (spill(records)) {
+                spilledCounter.increment(records.size());
+                return;
+            }
+        } finally {
+            spillLock.unlock();
+        }
+        droppedCounter.increment(records.size());
+        log.error("日志溢写失败已丢弃，数量: {}", records.size());
+    }
+
+    /**
+     * 追加到溢写文件，调用方需持有spillLock
+     */
+    private boolean spill(Collection<?> records) {
+        try {
+            if (spillWriter == null) {
+                Path directory = Paths.get(config.getSpillPath());
+                Files.createDirectories(directory);
+                spillWriter = Files.newBufferedWriter(directory.resolve(SPILL_FILE), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (Object record : records) {
+                spillWriter.write(record instanceof LoginLogCreateDTO ? TYPE_LOGIN : TYPE_OPERATION);
+                spillWriter.write(SPILL_SEPARATOR);
+                spillWriter.write(objectMapper.writeValueAsString(record));
+                spillWriter.newLine();
+            }
+            spillWriter.flush();
+            return true;
+        } catch (IOException e) {
+            log.error("日志溢写本地文件失败: {}", e.getMessage());
+            closeSpillWriter();
+            return false;
+        }
+    }
+
+    /**
+     * 消费线程空闲时按间隔重放溢写文件
+     */
+    private void replaySpilled() {
+        long now = System.currentTimeMillis();
+        if (now - lastReplayAt < config.getReplayInterval().toMillis()) {
+            return;
+        }
+        lastReplayAt = now;
+        Path directory = Paths.get(config.getSpillPath());
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try {
+            // 切换当前溢写文件，之后的溢写写入新文件
+            spillLock.lock();
+            try {
+                closeSpillWriter();
+                Path active = directory.resolve(SPILL_FILE);
+                if (Files.exists(active) && Files.size(active) > 0) {
+                    Files.move(active, directory.resolve(SPILL_FILE + "." + now + REPLAY_SUFFIX));
+                }
+            } finally {
+                spillLock.unlock();
+            }
+
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(directory)) {
+                files = stream.filter(path -> path.getFileName().toString().endsWith(REPLAY_SUFFIX))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                if (!running) {
+                    return;
+                }
+                replayFile(file);
+            }
+        } catch (IOException e) {
+            log.error("重放日志溢写文件失败: {}", e.getMessage());
+        }
+    }
+
+    private void replayFile(Path file) throws IOException {
+        replaying = true;
+        try {
+            replayBatches(file);
+        } finally {
+            replaying = false;
+        }
+        Files.delete(file);
+    }
+
+    private void replayBatches(Path file) throws IOException {
+        int batchSize = config.getBatchSize();
+        List<Object> batch = new ArrayList<>(batchSize);
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Object record = parseSpillLine(line);
+                if (record == null) {
+                    continue;
+                }
+                batch.add(record);
+                count++;
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+        log.info("日志溢写文件重放完成: {}, 数量: {}", file.getFileName(), count);
+    }
+
+    private Object parseSpillLine(String line) {
+        int separator = line.indexOf(SPILL_SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            String json = line.substring(separator + 1);
+            return TYPE_LOGIN.equals(line.substring(0, separator))
+                    ? objectMapper.readValue(json, LoginLogCreateDTO.class)
+                    : objectMapper.readValue(json, OperationLogCreateDTO.class);
+        } catch (IOException e) {
+            log.warn("解析日志溢写记录失败，已跳过: {}", e.getMessage());
+            failedCounter.increment();
+            return null;
+        }
+    }
+
+    private void closeSpillWriter() {
+        if (spillWriter == null) {
+            return;
+        }
+        try {
+            spillWriter.close();
+        } catch (IOException e) {
+            log.warn("关闭日志溢写文件失败: {}", e.getMessage());
+        }
+        spillWriter = null;
+    }
+}
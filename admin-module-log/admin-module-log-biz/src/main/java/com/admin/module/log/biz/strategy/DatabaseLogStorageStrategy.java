@@ -8,10 +8,14 @@ import com.admin.module.log.biz.dal.dataobject.LoginLogDO;
 import com.admin.module.log.biz.dal.dataobject.OperationLogDO;
 import com.admin.module.log.biz.dal.mapper.LoginLogMapper;
 import com.admin.module.log.biz.dal.mapper.OperationLogMapper;
+import com.admin.module.log.biz.service.LogLiveMetricsService;
+import com.admin.module.log.biz.service.LogSearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * 数据库日志存储策略
  *
@@ -26,12 +30,16 @@ public class DatabaseLogStorageStrategy implements LogStorageStrategy {
 
     private final OperationLogMapper operationLogMapper;
     private final LoginLogMapper loginLogMapper;
+    private final LogSearchService logSearchService;
+    private final LogLiveMetricsService logLiveMetricsService;
 
     @Override
     public void storeOperationLog(OperationLogCreateDTO logDTO) {
         try {
             OperationLogDO logDO = OperationLogConvert.INSTANCE.convert(logDTO);
             operationLogMapper.insert(logDO);
+            logSearchService.indexOperationLogs(List.of(logDO));
+            logLiveMetricsService.recordOperationLogs(List.of(logDO));
             log.debug("操作日志已存储到数据库, ID: {}", logDO.getId());
         } catch (Exception e) {
             log.error("数据库存储操作日志失败", e);
@@ -44,6 +52,7 @@ public class DatabaseLogStorageStrategy implements LogStorageStrategy {
         try {
             LoginLogDO logDO = LoginLogConvert.INSTANCE.convert(logDTO);
             loginLogMapper.insert(logDO);
+            logSearchService.indexLoginLogs(List.of(logDO));
             log.debug("登录日志已存储到数据库, ID: {}", logDO.getId());
         } catch (Exception e) {
             log.error("数据库存储登录日志失败", e);
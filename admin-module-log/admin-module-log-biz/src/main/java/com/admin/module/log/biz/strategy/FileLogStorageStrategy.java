@@ -2,47 +2,63 @@ package com.admin.module.log.biz.strategy;
 
 import com.admin.module.log.api.dto.LoginLogCreateDTO;
 import com.admin.module.log.api.dto.OperationLogCreateDTO;
+import com.admin.module.log.biz.appender.ChannelLogAppender;
+import com.admin.module.log.biz.config.LogProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 文件日志存储策略
  *
+ * 操作日志和登录日志各自使用一个长期打开的{@link ChannelLogAppender}，按组提交追加写入
+ *
  * @author admin
  * @version 1.0
  * @since 2024-01-15
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class FileLogStorageStrategy implements LogStorageStrategy {
 
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
     private final ObjectMapper objectMapper;
 
-    @Value("${admin.log.file.base-path:./logs}")
-    private String basePath;
+    private final ExecutorService compressExecutor;
+
+    private final ChannelLogAppender operationAppender;
+
+    private final ChannelLogAppender loginAppender;
+
+    private final LogProperties.FileConfig config;
+
+    public FileLogStorageStrategy(ObjectMapper objectMapper, LogProperties logProperties) {
+        this.objectMapper = objectMapper;
+        this.config = logProperties.getFile();
+        this.compressExecutor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("log-file-compress").daemon().factory());
+        this.operationAppender = new ChannelLogAppender(Paths.get(config.getBasePath(), "operation"),
+                "operation", config, compressExecutor);
+        this.loginAppender = new ChannelLogAppender(Paths.get(config.getBasePath(), "login"),
+                "login", config, compressExecutor);
+    }
 
     @Override
     public void storeOperationLog(OperationLogCreateDTO logDTO) {
         try {
-            String fileName = "operation_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".log";
-            Path filePath = ensureDirectory(Paths.get(basePath, "operation", fileName));
-            
-            String logJson = objectMapper.writeValueAsString(logDTO);
-            appendToFile(filePath, logJson);
-            
-            log.debug("操作日志已存储到文件: {}", filePath);
+            operationAppender.append(encode(logDTO));
+            log.debug("操作日志已存储到文件");
         } catch (Exception e) {
             log.error("文件存储操作日志失败", e);
             throw new RuntimeException("文件存储操作日志失败", e);
@@ -52,13 +68,8 @@ public class FileLogStorageStrategy implements LogStorageStrategy {
     @Override
     public void storeLoginLog(LoginLogCreateDTO logDTO) {
         try {
-            String fileName = "login_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".log";
-            Path filePath = ensureDirectory(Paths.get(basePath, "login", fileName));
-            
-            String logJson = objectMapper.writeValueAsString(logDTO);
-            appendToFile(filePath, logJson);
-            
-            log.debug("登录日志已存储到文件: {}", filePath);
+            loginAppender.append(encode(logDTO));
+            log.debug("登录日志已存储到文件");
         } catch (Exception e) {
             log.error("文件存储登录日志失败", e);
             throw new RuntimeException("文件存储登录日志失败", e);
@@ -71,24 +82,47 @@ public class FileLogStorageStrategy implements LogStorageStrategy {
     }
 
     /**
-     * 确保目录存在
+     * INTERVAL落盘策略下定时落盘，写入停止后已写出的数据最迟约两个间隔内落盘
      */
-    private Path ensureDirectory(Path filePath) throws IOException {
-        Path directory = filePath.getParent();
-        if (directory != null && !Files.exists(directory)) {
-            Files.createDirectories(directory);
+    @Scheduled(fixedDelayString = "#{@logProperties.file.fsyncInterval.toMillis()}",
+               initialDelayString = "#{@logProperties.file.fsyncInterval.toMillis()}")
+    public void forceDirty() {
+        if (config.getFsyncPolicy() != LogProperties.FsyncPolicy.INTERVAL) {
+            return;
+        }
+        operationAppender.forceIfDirty();
+        loginAppender.forceIfDirty();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        closeQuietly(operationAppender);
+        closeQuietly(loginAppender);
+        compressExecutor.shutdown();
+        try {
+            if (!compressExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("日志文件压缩任务未在30秒内完成");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return filePath;
     }
 
     /**
-     * 追加内容到文件
+     * 编码为一行JSON
      */
-    private void appendToFile(Path filePath, String content) throws IOException {
-        try (FileWriter writer = new FileWriter(filePath.toFile(), true)) {
-            writer.write(content);
-            writer.write(System.lineSeparator());
-            writer.flush();
+    private byte[] encode(Object logDTO) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(logDTO);
+        byte[] line = Arrays.copyOf(json, json.length + LINE_SEPARATOR.length);
+        System.arraycopy(LINE_SEPARATOR, 0, line, json.length, LINE_SEPARATOR.length);
+        return line;
+    }
+
+    private void closeQuietly(ChannelLogAppender appender) {
+        try {
+            appender.close();
+        } catch (IOException e) {
+            log.error("关闭日志文件失败: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -141,25 +141,17 @@ public class AuthController {
     )
     public R<LoginStatusVO> checkLoginStatus(@RequestParam String username) {
         try {
-            LoginStatusVO statusVO = new LoginStatusVO();
-            
-            // 检查账户是否被锁定
-            boolean isLocked = loginLimitService.isAccountLocked(username);
-            statusVO.setLocked(isLocked);
+            // 锁定状态、锁定信息和失败次数一次获取
+            LoginLimitService.LoginLimitStatus status = loginLimitService.getLoginStatus(username);
             
-            if (isLocked) {
-                LoginLimitService.AccountLockInfo lockInfo = loginLimitService.getAccountLockInfo(username);
-                statusVO.setLockInfo(lockInfo);
-                statusVO.setRemainingLockTime(loginLimitService.getRemainingLockTime(username));
+            LoginStatusVO statusVO = new LoginStatusVO();
+            statusVO.setLocked(status.isLocked());
+            if (status.isLocked()) {
+                statusVO.setLockInfo(status.getLockInfo());
+                statusVO.setRemainingLockTime(status.getRemainingLockTime());
             }
-            
-            // 获取登录失败次数
-            int failCount = loginLimitService.getLoginFailCount(username);
-            statusVO.setFailCount(failCount);
-            
-            // 检查是否需要验证码
-            boolean needCaptcha = loginLimitService.needCaptcha(username);
-            statusVO.setNeedCaptcha(needCaptcha);
+            statusVO.setFailCount(status.getFailCount());
+            statusVO.setNeedCaptcha(status.isNeedCaptcha());
             
             return R.ok(statusVO);
             
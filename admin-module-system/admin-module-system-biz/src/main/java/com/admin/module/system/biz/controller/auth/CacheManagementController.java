@@ -2,6 +2,7 @@ package com.admin.module.system.biz.controller.auth;
 
 import com.admin.common.annotation.OperationLog;
 import com.admin.common.core.domain.R;
+import com.admin.framework.redis.cache.CacheMetrics;
 import com.admin.framework.redis.service.UserCacheService;
 import com.admin.framework.security.service.JwtBlacklistService;
 import com.admin.framework.security.service.LoginLimitService;
@@ -15,6 +16,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,6 +38,7 @@ public class CacheManagementController {
     private final UserCacheService userCacheService;
     private final JwtBlacklistService jwtBlacklistService;
     private final LoginLimitService loginLimitService;
+    private final CacheMetrics cacheMetrics;
 
     /**
      * 获取缓存统计信息
@@ -71,6 +74,21 @@ public class CacheManagementController {
         }
     }
 
+    /**
+     * 获取缓存命中率与加载耗时
+     */
+    @GetMapping("/metrics")
+    @Operation(summary = "获取缓存指标", description = "按缓存名称或键前缀汇总命中率、回源耗时、删除次数和写入大小")
+    @PreAuthorize("@ss.hasPermission('system:cache:query')")
+    public R<List<CacheMetrics.CacheStats>> getCacheMetrics() {
+        try {
+            return R.ok(cacheMetrics.getStats());
+        } catch (Exception e) {
+            log.error("获取缓存指标失败: {}", e.getMessage(), e);
+            return R.error("获取缓存指标失败");
+        }
+    }
+
     /**
      * 清除用户缓存
      */
@@ -4,6 +4,7 @@ import com.admin.common.enums.ErrorCode;
 import com.admin.common.exception.ServiceException;
 import com.admin.common.utils.AuthorityUtils;
 import com.admin.framework.redis.service.UserCacheService;
+import com.admin.framework.security.core.JwtClaims;
 import com.admin.framework.security.core.LoginUser;
 import com.admin.framework.security.service.JwtBlacklistService;
 import com.admin.framework.security.service.LoginLimitService;
@@ -60,17 +61,18 @@ public class AuthServiceImpl implements AuthService {
             // 1. 参数验证
             validateLoginParams(loginDTO);
             
-            // 2. 检查账户是否被锁定
-            if (loginLimitService.isAccountLocked(loginDTO.getUsername())) {
-                long remainingTime = loginLimitService.getRemainingLockTime(loginDTO.getUsername());
+            // 2. 检查账户和IP是否被锁定，同时计入本次尝试（失败时无需再次记录）
+            LoginLimitService.LoginAttempt attempt =
+                    loginLimitService.tryAcquire(loginDTO.getUsername(), getClientIpAddress());
+            if (!attempt.isAllowed()) {
+                log.warn("账户或IP已锁定，用户: {}, 剩余锁定时间: {} 秒",
+                        loginDTO.getUsername(), attempt.getRemainingLockTime());
                 throw new ServiceException(ErrorCode.ACCOUNT_LOCKED);
             }
             
             // 3. 查找用户（先从缓存查找）
             SysUserDO user = findUserByUsernameWithCache(loginDTO.getUsername());
             if (user == null) {
-                // 记录登录失败
-                loginLimitService.recordLoginFail(loginDTO.getUsername());
                 throw new ServiceException(ErrorCode.INVALID_CREDENTIALS);
             }
             
@@ -80,13 +82,11 @@ public class AuthServiceImpl implements AuthService {
             // 5. 验证密码
             if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
                 log.warn("用户密码验证失败，用户: {}", loginDTO.getUsername());
-                // 记录登录失败
-                loginLimitService.recordLoginFail(loginDTO.getUsername());
                 throw new ServiceException(ErrorCode.INVALID_CREDENTIALS);
             }
             
             // 6. 登录成功，清除失败记录
-            loginLimitService.clearLoginFailCount(loginDTO.getUsername());
+            loginLimitService.recordLoginSuccess(attempt);
             
             // 7. 生成JWT令牌
             String authorities = buildUserAuthoritiesWithCache(user);
@@ -158,13 +158,14 @@ public class AuthServiceImpl implements AuthService {
         String refreshToken = refreshTokenDTO.getRefreshToken();
         
         // 1. 验证刷新令牌
-        if (!jwtTokenUtil.validateToken(refreshToken) || !jwtTokenUtil.isRefreshToken(refreshToken)) {
+        JwtClaims claims = jwtTokenUtil.parseTokenQuietly(refreshToken);
+        if (claims == null || !claims.isRefreshToken() || jwtBlacklistService.isRevoked(claims)) {
             throw new ServiceException(ErrorCode.INVALID_REFRESH_TOKEN);
         }
         
         // 2. 获取用户信息
-        String username = jwtTokenUtil.getUsernameFromToken(refreshToken);
-        Long userId = jwtTokenUtil.getUserIdFromToken(refreshToken);
+        String username = claims.getUsername();
+        Long userId = claims.getUserId();
         
         SysUserDO user = userMapper.selectById(userId);
         if (user == null) {
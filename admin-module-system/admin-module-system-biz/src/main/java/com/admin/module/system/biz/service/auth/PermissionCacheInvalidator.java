@@ -0,0 +1,103 @@
+package com.admin.module.system.biz.service.auth;
+
+import com.admin.framework.redis.cache.CacheVersionService;
+import com.admin.framework.redis.constants.CacheConstants;
+import com.admin.module.system.biz.dal.mapper.SysRoleMenuMapper;
+import com.admin.module.system.biz.dal.mapper.SysUserRoleMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 权限相关缓存的定向失效
+ *
+ * 通过用户-角色、角色-菜单关联表作为反向索引，找出一次变更真正影响到的用户、角色和菜单，
+ * 只递增这些实体的缓存版本号，其余缓存条目不受影响
+ * 反向索引在调用时立即查询，因此必须在删除关联关系之前调用；版本号递增在事务提交后执行
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Component
+@RequiredArgsConstructor
+public class PermissionCacheInvalidator {
+
+    private final CacheVersionService cacheVersionService;
+    private final SysUserRoleMapper userRoleMapper;
+    private final SysRoleMenuMapper roleMenuMapper;
+    private final PermissionIndex permissionIndex;
+
+    /**
+     * 用户信息或用户的角色分配变更
+     *
+     * @param userIds 用户ID集合
+     */
+    public void onUsersChanged(Collection<Long> userIds) {
+        cacheVersionService.bump(CacheConstants.VERSION_USER, userIds);
+        permissionIndex.invalidateUsers(userIds);
+    }
+
+    /**
+     * 用户角色关联变更，同时使相关角色的用户列表失效
+     *
+     * @param userId 用户ID
+     * @param roleIds 变更前后涉及的角色ID集合
+     */
+    public void onUserRolesChanged(Long userId, Collection<Long> roleIds) {
+        cacheVersionService.bump(CacheConstants.VERSION_ROLE, roleIds);
+        onUsersChanged(List.of(userId));
+    }
+
+    /**
+     * 角色信息或状态变更，级联到拥有这些角色的用户
+     *
+     * @param roleIds 角色ID集合
+     */
+    public void onRolesChanged(Collection<Long> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Long roleId : roleIds) {
+            userIds.addAll(userRoleMapper.selectUserIdsByRoleId(roleId));
+        }
+        cacheVersionService.bump(CacheConstants.VERSION_ROLE, roleIds);
+        cacheVersionService.bump(CacheConstants.VERSION_USER, userIds);
+        // 角色位图在索引内共享，角色变更只能整体重建
+        permissionIndex.invalidateAll();
+    }
+
+    /**
+     * 角色菜单关联变更，同时使相关菜单的角色列表失效
+     *
+     * @param roleId 角色ID
+     * @param menuIds 变更前后涉及的菜单ID集合
+     */
+    public void onRoleMenusChanged(Long roleId, Collection<Long> menuIds) {
+        cacheVersionService.bump(CacheConstants.VERSION_MENU, menuIds);
+        onRolesChanged(List.of(roleId));
+    }
+
+    /**
+     * 菜单信息或状态变更，级联到引用这些菜单的角色及其用户
+     *
+     * @param menuIds 菜单ID集合
+     */
+    public void onMenusChanged(Collection<Long> menuIds) {
+        if (menuIds == null || menuIds.isEmpty()) {
+            return;
+        }
+        Set<Long> roleIds = new LinkedHashSet<>();
+        for (Long menuId : menuIds) {
+            roleIds.addAll(roleMenuMapper.selectRoleIdsByMenuId(menuId));
+        }
+        cacheVersionService.bump(CacheConstants.VERSION_MENU, menuIds);
+        // 未被任何角色引用的菜单不影响用户权限
+        onRolesChanged(roleIds);
+    }
+}
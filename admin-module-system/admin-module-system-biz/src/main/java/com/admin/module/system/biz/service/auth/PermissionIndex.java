@@ -0,0 +1,370 @@
+package com.admin.module.system.biz.service.auth;
+
+import com.admin.framework.redis.constant.RedisKeyConstants;
+import com.admin.framework.redis.core.RedisCache;
+import com.admin.module.system.biz.dal.dataobject.SysMenuDO;
+import com.admin.module.system.biz.dal.dataobject.SysRoleDO;
+import com.admin.module.system.biz.dal.dataobject.SysRoleMenuDO;
+import com.admin.module.system.biz.dal.dataobject.SysUserDO;
+import com.admin.module.system.biz.dal.mapper.SysMenuMapper;
+import com.admin.module.system.biz.dal.mapper.SysRoleMapper;
+import com.admin.module.system.biz.dal.mapper.SysRoleMenuMapper;
+import com.admin.module.system.biz.dal.mapper.SysUserRoleMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 编译后的权限索引
+ *
+ * 将全部权限标识映射为整数ID，每个角色对应一个权限位图，用户权限为其角色位图的并集
+ * 用户位图按请求记忆、跨请求缓存，权限检查退化为一次内存位运算
+ * 菜单或角色变更时递增版本号使索引整体失效，并通过Redis发布订阅通知其他节点
+ *
+ * @author admin
+ * @version 1.0
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionIndex implements MessageListener {
+
+    /**
+     * 请求级记忆的属性名前缀
+     */
+    private static final String REQUEST_ATTRIBUTE_PREFIX = PermissionIndex.class.getName() + ".";
+
+    /**
+     * 广播消息：索引整体失效
+     */
+    private static final String MESSAGE_ALL = "A";
+
+    /**
+     * 广播消息：单个用户失效
+     */
+    private static final String MESSAGE_USER = "U:";
+
+    /**
+     * 启用状态
+     */
+    private static final int STATUS_ENABLED = 1;
+
+    private final SysRoleMapper roleMapper;
+    private final SysMenuMapper menuMapper;
+    private final SysRoleMenuMapper roleMenuMapper;
+    private final SysUserRoleMapper userRoleMapper;
+    private final RedisCache redisCache;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 索引版本号，菜单或角色变更时递增
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 当前索引快照，为null时在下一次访问时重建
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 快照构建锁，构建期间要查库，使用 ReentrantLock 避免钉住虚拟线程
+     */
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    /**
+     * 用户权限集合缓存，条目版本与快照版本不一致时重新编译
+     */
+    private final Cache<Long, UserPermissionSet> userPermissionCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.PERMISSION_INDEX_CHANNEL));
+    }
+
+    /**
+     * 获取用户编译后的权限集合
+     *
+     * @param userId 用户ID
+     * @return 权限集合
+     */
+    public UserPermissionSet getUserPermissionSet(Long userId) {
+        Snapshot current = currentSnapshot();
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        String attributeName = REQUEST_ATTRIBUTE_PREFIX + userId;
+        if (attributes != null
+                && attributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST) instanceof UserPermissionSet memo
+                && memo.version == current.version) {
+            return memo;
+        }
+
+        UserPermissionSet permissionSet = userPermissionCache.getIfPresent(userId);
+        if (permissionSet == null || permissionSet.version != current.version) {
+            permissionSet = compile(userId, current);
+            userPermissionCache.put(userId, permissionSet);
+        }
+
+        if (attributes != null) {
+            attributes.setAttribute(attributeName, permissionSet, RequestAttributes.SCOPE_REQUEST);
+        }
+        return permissionSet;
+    }
+
+    /**
+     * 菜单或角色变更后使整个索引失效，事务内调用时在提交后执行
+     */
+    public void invalidateAll() {
+        runAfterCommit(() -> {
+            applyInvalidateAll();
+            redisCache.publish(RedisKeyConstants.PERMISSION_INDEX_CHANNEL, MESSAGE_ALL);
+        });
+    }
+
+    /**
+     * 用户角色分配变更后使该用户的权限集合失效，事务内调用时在提交后执行
+     *
+     * @param userIds 用户ID集合
+     */
+    public void invalidateUsers(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> userIds.forEach(userId -> {
+            userPermissionCache.invalidate(userId);
+            redisCache.publish(RedisKeyConstants.PERMISSION_INDEX_CHANNEL, MESSAGE_USER + userId);
+        }));
+    }
+
+    /**
+     * 接收其他节点广播的失效消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            if (MESSAGE_ALL.equals(body)) {
+                applyInvalidateAll();
+            } else if (body.startsWith(MESSAGE_USER)) {
+                userPermissionCache.invalidate(Long.valueOf(body.substring(MESSAGE_USER.length())));
+            }
+        } catch (Exception e) {
+            log.error("处理权限索引失效广播失败: {}", e.getMessage());
+        }
+    }
+
+    private void applyInvalidateAll() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        buildLock.lock();
+        try {
+            current = snapshot;
+            if (current == null) {
+                long buildVersion = version.get();
+                current = build(buildVersion);
+                // 构建期间若又发生变更，不发布该快照，下一次访问重新构建
+                if (version.get() == buildVersion) {
+                    snapshot = current;
+                }
+            }
+            return current;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * 构建索引快照：启用的角色、启用且可见的菜单权限、角色菜单关联
+     */
+    private Snapshot build(long buildVersion) {
+        long start = System.currentTimeMillis();
+
+        List<SysRoleDO> roles = roleMapper.selectList(new LambdaQueryWrapper<SysRoleDO>()
+                .eq(SysRoleDO::getStatus, STATUS_ENABLED));
+        List<SysMenuDO> menus = menuMapper.selectList(new LambdaQueryWrapper<SysMenuDO>()
+                .eq(SysMenuDO::getStatus, STATUS_ENABLED)
+                .eq(SysMenuDO::getVisible, STATUS_ENABLED)
+                .isNotNull(SysMenuDO::getPermission)
+                .ne(SysMenuDO::getPermission, ""));
+        List<SysRoleMenuDO> roleMenus = roleMenuMapper.selectList(null);
+
+        // 权限标识驻留为整数ID
+        Map<String, Integer> permissionIds = new HashMap<>();
+        Map<Long, Integer> menuPermissionIds = new HashMap<>();
+        for (SysMenuDO menu : menus) {
+            String permission = menu.getPermission().trim();
+            if (!StringUtils.hasText(permission)) {
+                continue;
+            }
+            Integer permissionId = permissionIds.computeIfAbsent(permission, key -> permissionIds.size());
+            menuPermissionIds.put(menu.getId(), permissionId);
+        }
+
+        Map<Long, String> roleCodes = new HashMap<>();
+        for (SysRoleDO role : roles) {
+            roleCodes.put(role.getId(), role.getRoleCode());
+        }
+
+        // 每个角色一个权限位图
+        Map<Long, BitSet> roleBits = new HashMap<>();
+        for (SysRoleMenuDO roleMenu : roleMenus) {
+            Integer permissionId = menuPermissionIds.get(roleMenu.getMenuId());
+            if (permissionId != null && roleCodes.containsKey(roleMenu.getRoleId())) {
+                roleBits.computeIfAbsent(roleMenu.getRoleId(), key -> new BitSet(permissionIds.size()))
+                        .set(permissionId);
+            }
+        }
+
+        log.info("权限索引构建完成，版本: {}, 权限数: {}, 角色数: {}, 耗时: {}ms",
+                buildVersion, permissionIds.size(), roleCodes.size(), System.currentTimeMillis() - start);
+        return new Snapshot(buildVersion, Collections.unmodifiableMap(permissionIds), roleBits, roleCodes);
+    }
+
+    /**
+     * 编译用户权限集合：角色位图求并集
+     */
+    private UserPermissionSet compile(Long userId, Snapshot current) {
+        boolean admin = SysUserDO.isAdmin(userId);
+        BitSet permissions = new BitSet(current.permissionIds.size());
+        Set<String> roleCodes = new HashSet<>();
+
+        List<Long> roleIds = userRoleMapper.selectRoleIdsByUserId(userId);
+        if (roleIds != null) {
+            for (Long roleId : roleIds) {
+                String roleCode = current.roleCodes.get(roleId);
+                if (roleCode == null) {
+                    // 角色已禁用或已删除
+                    continue;
+                }
+                roleCodes.add(roleCode);
+                BitSet bits = current.roleBits.get(roleId);
+                if (bits != null) {
+                    permissions.or(bits);
+                }
+            }
+        }
+        return new UserPermissionSet(current.version, admin, current.permissionIds, permissions,
+                Collections.unmodifiableSet(roleCodes));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 索引快照，构建后不再修改
+     */
+    private static final class Snapshot {
+
+        private final long version;
+
+        private final Map<String, Integer> permissionIds;
+
+        private final Map<Long, BitSet> roleBits;
+
+        private final Map<Long, String> roleCodes;
+
+        private Snapshot(long version, Map<String, Integer> permissionIds,
+                         Map<Long, BitSet> roleBits, Map<Long, String> roleCodes) {
+            this.version = version;
+            this.permissionIds = permissionIds;
+            this.roleBits = roleBits;
+            this.roleCodes = roleCodes;
+        }
+    }
+
+    /**
+     * 用户编译后的权限集合，构建后不再修改
+     */
+    public static final class UserPermissionSet {
+
+        private final long version;
+
+        private final boolean admin;
+
+        private final Map<String, Integer> permissionIds;
+
+        private final BitSet permissions;
+
+        private final Set<String> roleCodes;
+
+        private UserPermissionSet(long version, boolean admin, Map<String, Integer> permissionIds,
+                                  BitSet permissions, Set<String> roleCodes) {
+            this.version = version;
+            this.admin = admin;
+            this.permissionIds = permissionIds;
+            this.permissions = permissions;
+            this.roleCodes = roleCodes;
+        }
+
+        /**
+         * 是否为超级管理员
+         */
+        public boolean isAdmin() {
+            return admin;
+        }
+
+        /**
+         * 是否具有指定权限
+         */
+        public boolean hasPermission(String permission) {
+            if (admin) {
+                return true;
+            }
+            Integer permissionId = permission != null ? permissionIds.get(permission) : null;
+            return permissionId != null && permissions.get(permissionId);
+        }
+
+        /**
+         * 是否具有指定角色
+         */
+        public boolean hasRole(String roleCode) {
+            return admin || roleCodes.contains(roleCode);
+        }
+    }
+}
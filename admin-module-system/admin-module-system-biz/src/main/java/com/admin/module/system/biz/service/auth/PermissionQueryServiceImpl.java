@@ -6,7 +6,6 @@ import com.admin.module.system.biz.dal.dataobject.SysRoleDO;
 import com.admin.module.system.biz.dal.dataobject.SysUserDO;
 import com.admin.module.system.biz.dal.mapper.SysMenuMapper;
 import com.admin.module.system.biz.dal.mapper.SysRoleMapper;
-import com.admin.module.system.biz.dal.mapper.SysUserMapper;
 import com.admin.module.system.biz.dal.mapper.SysUserRoleMapper;
 import com.admin.framework.redis.constants.CacheConstants;
 import lombok.RequiredArgsConstructor;
@@ -31,13 +30,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PermissionQueryServiceImpl implements PermissionQueryService {
 
-    private final SysUserMapper userMapper;
     private final SysUserRoleMapper userRoleMapper;
     private final SysRoleMapper roleMapper;
     private final SysMenuMapper menuMapper;
+    private final PermissionIndex permissionIndex;
 
     @Override
-    @Cacheable(value = CacheConstants.USER_ROLE_CACHE, key = "#userId", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.USER_ROLE_CACHE, key = "@cacheVersionService.key('user', #userId)", unless = "#result == null || #result.isEmpty()")
     public List<String> getUserRoles(Long userId) {
         try {
             // 查询用户关联的角色ID列表
@@ -64,7 +63,7 @@ public class PermissionQueryServiceImpl implements PermissionQueryService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.USER_PERMISSION_CACHE, key = "#userId", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.USER_PERMISSION_CACHE, key = "@cacheVersionService.key('user', #userId)", unless = "#result == null || #result.isEmpty()")
     public List<String> getUserPermissions(Long userId) {
         try {
             // 直接通过用户ID查询菜单权限（已考虑角色关联）
@@ -91,26 +90,14 @@ public class PermissionQueryServiceImpl implements PermissionQueryService {
 
     @Override
     public boolean isAdmin(Long userId) {
-        try {
-            SysUserDO user = userMapper.selectById(userId);
-            return user != null && user.isAdmin();
-        } catch (Exception e) {
-            log.error("检查用户管理员状态失败，用户ID: {}, 错误: {}", userId, e.getMessage(), e);
-            return false;
-        }
+        return SysUserDO.isAdmin(userId);
     }
 
     @Override
     public boolean hasPermission(Long userId, String permission) {
         try {
-            // 如果是管理员，直接返回true
-            if (isAdmin(userId)) {
-                return true;
-            }
-            
-            // 获取用户权限列表
-            List<String> permissions = getUserPermissions(userId);
-            return permissions.contains(permission);
+            // 编译后的权限索引：管理员直接放行，其余为一次位运算
+            return permissionIndex.getUserPermissionSet(userId).hasPermission(permission);
             
         } catch (Exception e) {
             log.error("检查用户权限失败，用户ID: {}, 权限: {}, 错误: {}", userId, permission, e.getMessage(), e);
@@ -121,14 +108,7 @@ public class PermissionQueryServiceImpl implements PermissionQueryService {
     @Override
     public boolean hasRole(Long userId, String roleCode) {
         try {
-            // 如果是管理员，直接返回true
-            if (isAdmin(userId)) {
-                return true;
-            }
-            
-            // 获取用户角色列表
-            List<String> roles = getUserRoles(userId);
-            return roles.contains(roleCode);
+            return permissionIndex.getUserPermissionSet(userId).hasRole(roleCode);
             
         } catch (Exception e) {
             log.error("检查用户角色失败，用户ID: {}, 角色: {}, 错误: {}", userId, roleCode, e.getMessage(), e);
@@ -15,17 +15,18 @@ import com.admin.module.system.biz.dal.mapper.SysDictDataMapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.admin.framework.redis.cache.CacheVersionService;
 import com.admin.framework.redis.constants.CacheConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 字典数据服务实现类
@@ -43,10 +44,10 @@ import java.util.Set;
 public class SysDictDataServiceImpl implements SysDictDataService {
 
     private final SysDictDataMapper dictDataMapper;
+    private final CacheVersionService cacheVersionService;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @CacheEvict(value = CacheConstants.SYS_DICT_CACHE, allEntries = true)
     public Long createDictData(SysDictDataCreateDTO createDTO) {
         // 校验字典值是否已存在
         if (existsDictValue(createDTO.getDictType(), createDTO.getDictValue())) {
@@ -66,6 +67,7 @@ public class SysDictDataServiceImpl implements SysDictDataService {
         // 转换并保存
         SysDictDataDO dictDataDO = SysDictDataConvert.INSTANCE.convert(createDTO);
         dictDataMapper.insert(dictDataDO);
+        cacheVersionService.bump(CacheConstants.VERSION_DICT_TYPE, dictDataDO.getDictType());
         
         log.info("创建字典数据成功，ID: {}, 字典类型: {}, 字典值: {}", 
                 dictDataDO.getId(), dictDataDO.getDictType(), dictDataDO.getDictValue());
@@ -74,7 +76,6 @@ public class SysDictDataServiceImpl implements SysDictDataService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @CacheEvict(value = CacheConstants.SYS_DICT_CACHE, allEntries = true)
     public void updateDictData(SysDictDataUpdateDTO updateDTO) {
         // 校验字典数据是否存在
         SysDictDataDO existingDictData = dictDataMapper.selectById(updateDTO.getId());
@@ -99,6 +100,9 @@ public class SysDictDataServiceImpl implements SysDictDataService {
         // 转换并更新
         SysDictDataDO dictDataDO = SysDictDataConvert.INSTANCE.convert(updateDTO);
         dictDataMapper.updateById(dictDataDO);
+        cacheVersionService.bump(CacheConstants.VERSION_DICT_DATA, updateDTO.getId());
+        cacheVersionService.bump(CacheConstants.VERSION_DICT_TYPE,
+                Arrays.asList(existingDictData.getDictType(), updateDTO.getDictType()));
         
         log.info("更新字典数据成功，ID: {}, 字典类型: {}, 字典值: {}", 
                 dictDataDO.getId(), dictDataDO.getDictType(), dictDataDO.getDictValue());
@@ -106,7 +110,6 @@ public class SysDictDataServiceImpl implements SysDictDataService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @CacheEvict(value = CacheConstants.SYS_DICT_CACHE, allEntries = true)
     public void deleteDictData(Long id) {
         // 校验字典数据是否存在
         SysDictDataDO dictDataDO = dictDataMapper.selectById(id);
@@ -116,6 +119,8 @@ public class SysDictDataServiceImpl implements SysDictDataService {
 
         // 删除字典数据
         dictDataMapper.deleteById(id);
+        cacheVersionService.bump(CacheConstants.VERSION_DICT_DATA, id);
+        cacheVersionService.bump(CacheConstants.VERSION_DICT_TYPE, dictDataDO.getDictType());
         
         log.info("删除字典数据成功，ID: {}, 字典类型: {}, 字典值: {}", 
                 id, dictDataDO.getDictType(), dictDataDO.getDictValue());
@@ -143,7 +148,7 @@ public class SysDictDataServiceImpl implements SysDictDataService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_DICT_CACHE, key = "'data:' + #id", unless = "#result == null")
+    @Cacheable(value = CacheConstants.SYS_DICT_CACHE, key = "'data:' + @cacheVersionService.key('dict_data', #id)", unless = "#result == null")
     public SysDictDataVO getDictData(Long id) {
         SysDictDataDO dictDataDO = dictDataMapper.selectById(id);
         if (dictDataDO == null) {
@@ -173,14 +178,14 @@ public class SysDictDataServiceImpl implements SysDictDataService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_DICT_CACHE, key = "'type:' + #dictType", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.SYS_DICT_CACHE, key = "'type:' + @cacheVersionService.key('dict_type', #dictType)", sync = true)
     public List<SysDictDataVO> getDictDataByType(String dictType) {
         List<SysDictDataDO> list = dictDataMapper.selectByDictType(dictType);
         return SysDictDataConvert.INSTANCE.convertList(list);
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_DICT_CACHE, key = "'enabled_type:' + #dictType", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.SYS_DICT_CACHE, key = "'enabled_type:' + @cacheVersionService.key('dict_type', #dictType)", sync = true)
     public List<SysDictDataVO> getEnabledDictDataByType(String dictType) {
         List<SysDictDataDO> list = dictDataMapper.selectEnabledByDictType(dictType);
         return SysDictDataConvert.INSTANCE.convertList(list);
@@ -242,6 +247,8 @@ public class SysDictDataServiceImpl implements SysDictDataService {
         // 更新状态
         dictDataDO.setStatus(status);
         dictDataMapper.updateById(dictDataDO);
+        cacheVersionService.bump(CacheConstants.VERSION_DICT_DATA, id);
+        cacheVersionService.bump(CacheConstants.VERSION_DICT_TYPE, dictDataDO.getDictType());
         
         log.info("更新字典数据状态成功，ID: {}, 新状态: {}", id, status);
     }
@@ -253,7 +260,12 @@ public class SysDictDataServiceImpl implements SysDictDataService {
             return 0;
         }
         
+        List<Long> dictDataIds = dictDataMapper.selectByDictType(dictType).stream()
+                .map(SysDictDataDO::getId)
+                .collect(Collectors.toList());
         int deletedCount = dictDataMapper.deleteByDictType(dictType);
+        cacheVersionService.bump(CacheConstants.VERSION_DICT_DATA, dictDataIds);
+        cacheVersionService.bump(CacheConstants.VERSION_DICT_TYPE, dictType);
         log.info("根据字典类型删除字典数据成功，字典类型: {}, 删除数量: {}", dictType, deletedCount);
         return deletedCount;
     }
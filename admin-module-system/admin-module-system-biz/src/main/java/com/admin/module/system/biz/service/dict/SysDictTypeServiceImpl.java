@@ -169,7 +169,7 @@ public class SysDictTypeServiceImpl implements SysDictTypeService {
 
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_DICT_CACHE, key = "'enabled_types'", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.SYS_DICT_CACHE, key = "'enabled_types'", sync = true)
     public List<SysDictTypeVO> getEnabledDictTypes() {
         List<SysDictTypeDO> list = dictTypeMapper.selectEnabledDictTypes();
         return SysDictTypeConvert.INSTANCE.convertList(list);
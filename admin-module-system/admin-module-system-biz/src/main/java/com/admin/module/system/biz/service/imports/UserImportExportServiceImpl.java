@@ -20,8 +20,8 @@ import com.admin.module.system.api.vo.imports.UserImportValidationResult;
 import com.admin.module.system.biz.convert.user.UserImportExportConvert;
 import com.admin.module.system.biz.dal.dataobject.SysUserDO;
 import com.admin.module.system.biz.dal.mapper.SysUserMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -30,6 +30,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -41,7 +42,6 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserImportExportServiceImpl implements UserImportExportService {
 
     private static final String BUSINESS_TYPE = "USER";
@@ -53,6 +53,21 @@ public class UserImportExportServiceImpl implements UserImportExportService {
     private final ImportExportTaskService taskService;
     private final SysUserService userService;
     private final SysUserMapper userMapper;
+    private final Executor taskExecutor;
+
+    public UserImportExportServiceImpl(ExcelImportService excelImportService,
+                                       ExcelExportService excelExportService,
+                                       ImportExportTaskService taskService,
+                                       SysUserService userService,
+                                       SysUserMapper userMapper,
+                                       @Qualifier("importExportTaskExecutor") Executor taskExecutor) {
+        this.excelImportService = excelImportService;
+        this.excelExportService = excelExportService;
+        this.taskService = taskService;
+        this.userService = userService;
+        this.userMapper = userMapper;
+        this.taskExecutor = taskExecutor;
+    }
 
     @Override
     public void downloadImportTemplate(HttpServletResponse response) {
@@ -76,7 +91,7 @@ public class UserImportExportServiceImpl implements UserImportExportService {
                                            BUSINESS_TYPE, file.getOriginalFilename());
 
         // 异步执行导入
-        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> processImportTask(taskId, file));
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> processImportTask(taskId, file), taskExecutor);
         return future.thenApply(v -> taskId);
     }
 
@@ -265,7 +280,7 @@ public class UserImportExportServiceImpl implements UserImportExportService {
                                            BUSINESS_TYPE, "用户数据.xlsx");
 
         // 异步执行导出
-        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> processExportTask(taskId, queryCondition));
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> processExportTask(taskId, queryCondition), taskExecutor);
         return future.thenApply(v -> taskId);
     }
 
@@ -13,14 +13,14 @@ import com.admin.module.system.biz.convert.menu.SysMenuConvert;
 import com.admin.module.system.biz.dal.dataobject.SysMenuDO;
 import com.admin.module.system.biz.dal.mapper.SysMenuMapper;
 import com.admin.module.system.biz.dal.mapper.SysRoleMenuMapper;
+import com.admin.module.system.biz.service.auth.PermissionCacheInvalidator;
+import com.admin.module.system.biz.service.auth.PermissionIndex;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.admin.framework.redis.constants.CacheConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -47,13 +47,11 @@ public class SysMenuServiceImpl implements SysMenuService {
     private final SysMenuMapper menuMapper;
     private final SysRoleMenuMapper roleMenuMapper;
     private final SysMenuConvert menuConvert;
+    private final PermissionCacheInvalidator permissionCacheInvalidator;
+    private final PermissionIndex permissionIndex;
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_MENU_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public Long createMenu(SysMenuCreateDTO createDTO) {
         log.debug("开始创建菜单，参数: {}", createDTO);
 
@@ -76,6 +74,7 @@ public class SysMenuServiceImpl implements SysMenuService {
         // 构建祖先路径
         menuDO.setAncestors(buildAncestors(createDTO.getParentId()));
         
+        // 新菜单尚未被任何角色引用，不影响已有缓存
         menuMapper.insert(menuDO);
 
         log.info("菜单创建成功，菜单ID: {}, 菜单名称: {}", menuDO.getId(), menuDO.getMenuName());
@@ -85,10 +84,6 @@ public class SysMenuServiceImpl implements SysMenuService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_MENU_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void updateMenu(SysMenuUpdateDTO updateDTO) {
         log.debug("开始更新菜单，参数: {}", updateDTO);
 
@@ -126,17 +121,13 @@ public class SysMenuServiceImpl implements SysMenuService {
         if (updateCount == 0) {
             throw new ServiceException(ErrorCode.DATA_VERSION_CONFLICT);
         }
+        permissionCacheInvalidator.onMenusChanged(List.of(updateDTO.getId()));
 
         log.info("菜单更新成功，菜单ID: {}, 菜单名称: {}", updateDTO.getId(), updateDTO.getMenuName());
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_MENU_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.SYS_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void deleteMenu(Long id) {
         log.debug("开始删除菜单，菜单ID: {}", id);
 
@@ -151,6 +142,7 @@ public class SysMenuServiceImpl implements SysMenuService {
 
         // 删除菜单
         menuMapper.deleteById(id);
+        permissionCacheInvalidator.onMenusChanged(List.of(id));
 
         log.info("菜单删除成功，菜单ID: {}", id);
     }
@@ -179,7 +171,7 @@ public class SysMenuServiceImpl implements SysMenuService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_MENU_CACHE, key = "#id", unless = "#result == null")
+    @Cacheable(value = CacheConstants.SYS_MENU_CACHE, key = "@cacheVersionService.key('menu', #id)", unless = "#result == null")
     public SysMenuVO getMenu(Long id) {
         if (id == null) {
             return null;
@@ -240,7 +232,7 @@ public class SysMenuServiceImpl implements SysMenuService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_MENU_CACHE, key = "'role:' + #roleId", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.SYS_MENU_CACHE, key = "'role:' + @cacheVersionService.key('role', #roleId)", sync = true)
     public List<SysMenuVO> getMenusByRoleId(Long roleId) {
         if (roleId == null) {
             return new ArrayList<>();
@@ -284,6 +276,7 @@ public class SysMenuServiceImpl implements SysMenuService {
         if (updateCount == 0) {
             throw new ServiceException(ErrorCode.DATA_UPDATE_FAILED);
         }
+        permissionCacheInvalidator.onMenusChanged(List.of(id));
 
         log.info("菜单状态更新成功，菜单ID: {}, 新状态: {}", id, status);
     }
@@ -291,7 +284,7 @@ public class SysMenuServiceImpl implements SysMenuService {
     @Override
     public void refreshMenuCache() {
         log.info("刷新菜单缓存");
-        // TODO: 实现菜单缓存刷新逻辑
+        permissionIndex.invalidateAll();
     }
 
     /**
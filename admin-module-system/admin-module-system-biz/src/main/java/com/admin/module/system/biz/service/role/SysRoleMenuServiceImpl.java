@@ -11,13 +11,12 @@ import com.admin.module.system.biz.dal.dataobject.SysMenuDO;
 import com.admin.module.system.biz.dal.dataobject.SysRoleMenuDO;
 import com.admin.module.system.biz.dal.mapper.SysMenuMapper;
 import com.admin.module.system.biz.dal.mapper.SysRoleMenuMapper;
+import com.admin.module.system.biz.service.auth.PermissionCacheInvalidator;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.admin.framework.redis.constants.CacheConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -45,14 +44,10 @@ public class SysRoleMenuServiceImpl implements SysRoleMenuService {
     private final SysMenuMapper menuMapper;
     private final SysRoleService roleService;
     private final SysMenuService menuService;
+    private final PermissionCacheInvalidator permissionCacheInvalidator;
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.SYS_MENU_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void assignRoleMenus(SysRoleMenuDTO roleMenuDTO) {
         log.debug("开始分配角色菜单权限，参数: {}", roleMenuDTO);
 
@@ -80,6 +75,7 @@ public class SysRoleMenuServiceImpl implements SysRoleMenuService {
             }
             
             roleMenuMapper.insertBatch(roleMenuList);
+            permissionCacheInvalidator.onRoleMenusChanged(roleMenuDTO.getRoleId(), roleMenuDTO.getMenuIds());
         }
 
         log.info("角色菜单权限分配成功，角色ID: {}, 菜单数量: {}", 
@@ -96,7 +92,7 @@ public class SysRoleMenuServiceImpl implements SysRoleMenuService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_ROLE_CACHE, key = "'menu_ids:' + #roleId", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.SYS_ROLE_CACHE, key = "'menu_ids:' + @cacheVersionService.key('role', #roleId)", unless = "#result == null || #result.isEmpty()")
     public List<Long> getRoleMenuIds(Long roleId) {
         if (roleId == null) {
             return new ArrayList<>();
@@ -107,11 +103,6 @@ public class SysRoleMenuServiceImpl implements SysRoleMenuService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_ROLE_CACHE, key = "'menu_ids:' + #roleId"),
-        @CacheEvict(value = CacheConstants.SYS_MENU_CACHE, key = "'role_ids:' + #menuId"),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void removeRoleMenu(Long roleId, Long menuId) {
         log.debug("开始移除角色菜单权限，角色ID: {}, 菜单ID: {}", roleId, menuId);
 
@@ -128,6 +119,8 @@ public class SysRoleMenuServiceImpl implements SysRoleMenuService {
         
         if (deleteCount == 0) {
             log.warn("角色菜单权限关联不存在，角色ID: {}, 菜单ID: {}", roleId, menuId);
+        } else {
+            permissionCacheInvalidator.onRoleMenusChanged(roleId, List.of(menuId));
         }
 
         log.info("角色菜单权限移除成功，角色ID: {}, 菜单ID: {}", roleId, menuId);
@@ -135,11 +128,6 @@ public class SysRoleMenuServiceImpl implements SysRoleMenuService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.SYS_MENU_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void removeAllRoleMenus(Long roleId) {
         if (roleId == null) {
             return;
@@ -147,6 +135,8 @@ public class SysRoleMenuServiceImpl implements SysRoleMenuService {
 
         log.debug("开始移除角色所有菜单权限，角色ID: {}", roleId);
 
+        // 删除关联前定位受影响的菜单
+        permissionCacheInvalidator.onRoleMenusChanged(roleId, roleMenuMapper.selectMenuIdsByRoleId(roleId));
         roleMenuMapper.deleteByRoleId(roleId);
 
         log.info("角色所有菜单权限移除成功，角色ID: {}", roleId);
@@ -176,7 +166,7 @@ public class SysRoleMenuServiceImpl implements SysRoleMenuService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_MENU_CACHE, key = "'role_ids:' + #menuId", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.SYS_MENU_CACHE, key = "'role_ids:' + @cacheVersionService.key('menu', #menuId)", unless = "#result == null || #result.isEmpty()")
     public List<Long> getRoleIdsByMenuId(Long menuId) {
         if (menuId == null) {
             return new ArrayList<>();
@@ -223,6 +213,8 @@ public class SysRoleMenuServiceImpl implements SysRoleMenuService {
 
         log.debug("开始根据菜单ID列表批量移除角色菜单权限关联，菜单ID列表: {}", menuIds);
 
+        // 删除关联前定位受影响的角色
+        permissionCacheInvalidator.onMenusChanged(menuIds);
         roleMenuMapper.deleteByMenuIds(menuIds);
 
         log.info("根据菜单ID列表批量移除角色菜单权限关联完成，菜单数量: {}", menuIds.size());
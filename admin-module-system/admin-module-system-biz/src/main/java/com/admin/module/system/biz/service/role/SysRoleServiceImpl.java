@@ -13,14 +13,14 @@ import com.admin.module.system.biz.dal.dataobject.SysRoleMenuDO;
 import com.admin.module.system.biz.dal.mapper.SysRoleMapper;
 import com.admin.module.system.biz.dal.mapper.SysRoleMenuMapper;
 import com.admin.module.system.biz.dal.mapper.SysUserRoleMapper;
+import com.admin.module.system.biz.service.auth.PermissionCacheInvalidator;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.admin.framework.redis.cache.CacheVersionService;
 import com.admin.framework.redis.constants.CacheConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -28,6 +28,8 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -50,13 +52,11 @@ public class SysRoleServiceImpl implements SysRoleService {
     private final SysRoleMenuMapper roleMenuMapper;
     private final SysUserRoleMapper userRoleMapper;
     private final SysRoleConvert roleConvert;
+    private final PermissionCacheInvalidator permissionCacheInvalidator;
+    private final CacheVersionService cacheVersionService;
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_ROLE_CACHE, allEntries = true)
-    })
     public Long createRole(SysRoleCreateDTO createDTO) {
         log.debug("开始创建角色，参数: {}", createDTO);
 
@@ -78,11 +78,6 @@ public class SysRoleServiceImpl implements SysRoleService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void updateRole(SysRoleUpdateDTO updateDTO) {
         log.debug("开始更新角色，参数: {}", updateDTO);
 
@@ -96,6 +91,7 @@ public class SysRoleServiceImpl implements SysRoleService {
         validateRoleCodeUnique(updateDTO.getId(), updateDTO.getRoleCode());
 
         // 更新角色信息
+        String oldRoleCode = existingRole.getRoleCode();
         roleConvert.updateDO(updateDTO, existingRole);
         int updateCount = roleMapper.updateById(existingRole);
         
@@ -103,21 +99,19 @@ public class SysRoleServiceImpl implements SysRoleService {
             throw new ServiceException(ErrorCode.ROLE_UPDATE_FAILED);
         }
 
+        cacheVersionService.bump(CacheConstants.VERSION_ROLE_CODE, Arrays.asList(oldRoleCode, existingRole.getRoleCode()));
+        permissionCacheInvalidator.onRolesChanged(List.of(updateDTO.getId()));
+
         log.info("角色更新成功，角色ID: {}, 角色名称: {}", updateDTO.getId(), updateDTO.getRoleName());
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void deleteRole(Long id) {
         log.debug("开始删除角色，角色ID: {}", id);
 
         // 校验角色存在性
-        validateRoleExists(id);
+        SysRoleDO roleDO = validateRoleExists(id);
 
         // 校验角色是否被用户使用
         validateRoleNotUsed(id);
@@ -126,18 +120,16 @@ public class SysRoleServiceImpl implements SysRoleService {
         roleMapper.deleteById(id);
 
         // 删除角色菜单关联关系
+        // 删除关联前定位受影响的菜单
+        permissionCacheInvalidator.onRoleMenusChanged(id, roleMenuMapper.selectMenuIdsByRoleId(id));
         roleMenuMapper.deleteByRoleId(id);
+        cacheVersionService.bump(CacheConstants.VERSION_ROLE_CODE, roleDO.getRoleCode());
 
         log.info("角色删除成功，角色ID: {}", id);
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public int deleteRolesBatch(Set<Long> ids) {
         if (CollectionUtils.isEmpty(ids)) {
             return 0;
@@ -160,7 +152,7 @@ public class SysRoleServiceImpl implements SysRoleService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_ROLE_CACHE, key = "#id", unless = "#result == null")
+    @Cacheable(value = CacheConstants.SYS_ROLE_CACHE, key = "@cacheVersionService.key('role', #id)", unless = "#result == null")
     public SysRoleVO getRole(Long id) {
         if (id == null) {
             return null;
@@ -171,7 +163,7 @@ public class SysRoleServiceImpl implements SysRoleService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_ROLE_CACHE, key = "'code:' + #roleCode", unless = "#result == null")
+    @Cacheable(value = CacheConstants.SYS_ROLE_CACHE, key = "'code:' + @cacheVersionService.key('role_code', #roleCode)", unless = "#result == null")
     public SysRoleVO getRoleByCode(String roleCode) {
         if (!StringUtils.hasText(roleCode)) {
             return null;
@@ -228,6 +220,7 @@ public class SysRoleServiceImpl implements SysRoleService {
         validateRoleExists(roleMenuDTO.getRoleId());
 
         // 删除原有权限关联
+        Set<Long> affectedMenuIds = new HashSet<>(roleMenuMapper.selectMenuIdsByRoleId(roleMenuDTO.getRoleId()));
         roleMenuMapper.deleteByRoleId(roleMenuDTO.getRoleId());
 
         // 批量插入新的权限关联
@@ -246,6 +239,10 @@ public class SysRoleServiceImpl implements SysRoleService {
             
             roleMenuMapper.insertBatch(roleMenuList);
         }
+        if (!CollectionUtils.isEmpty(roleMenuDTO.getMenuIds())) {
+            affectedMenuIds.addAll(roleMenuDTO.getMenuIds());
+        }
+        permissionCacheInvalidator.onRoleMenusChanged(roleMenuDTO.getRoleId(), affectedMenuIds);
 
         log.info("角色菜单权限分配成功，角色ID: {}, 菜单数量: {}", 
                 roleMenuDTO.getRoleId(), roleMenuDTO.getMenuIds().size());
@@ -261,11 +258,6 @@ public class SysRoleServiceImpl implements SysRoleService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_ROLE_CACHE, key = "#id"),
-        @CacheEvict(value = CacheConstants.USER_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void updateRoleStatus(Long id, Integer status) {
         log.debug("开始更新角色状态，角色ID: {}, 状态: {}", id, status);
 
@@ -279,6 +271,7 @@ public class SysRoleServiceImpl implements SysRoleService {
         if (updateCount == 0) {
             throw new ServiceException(ErrorCode.ROLE_STATUS_UPDATE_FAILED);
         }
+        permissionCacheInvalidator.onRolesChanged(List.of(id));
 
         log.info("角色状态更新成功，角色ID: {}, 新状态: {}", id, status);
     }
@@ -11,19 +11,19 @@ import com.admin.module.system.biz.dal.dataobject.SysRoleDO;
 import com.admin.module.system.biz.dal.dataobject.SysUserRoleDO;
 import com.admin.module.system.biz.dal.mapper.SysRoleMapper;
 import com.admin.module.system.biz.dal.mapper.SysUserRoleMapper;
+import com.admin.module.system.biz.service.auth.PermissionCacheInvalidator;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.admin.framework.redis.constants.CacheConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -46,13 +46,10 @@ public class SysUserRoleServiceImpl implements SysUserRoleService {
     private final SysRoleMapper roleMapper;
     private final SysUserService userService;
     private final SysRoleService roleService;
+    private final PermissionCacheInvalidator permissionCacheInvalidator;
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.USER_ROLE_CACHE, allEntries = true),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void assignUserRoles(SysUserRoleDTO userRoleDTO) {
         log.debug("开始分配用户角色，参数: {}", userRoleDTO);
 
@@ -63,6 +60,7 @@ public class SysUserRoleServiceImpl implements SysUserRoleService {
         validateRolesExistAndEnabled(userRoleDTO.getRoleIds());
 
         // 删除用户原有角色关联
+        Set<Long> affectedRoleIds = new HashSet<>(userRoleMapper.selectRoleIdsByUserId(userRoleDTO.getUserId()));
         userRoleMapper.deleteUserRoleByUserId(userRoleDTO.getUserId());
 
         // 批量插入新的角色关联
@@ -81,6 +79,10 @@ public class SysUserRoleServiceImpl implements SysUserRoleService {
             
             userRoleMapper.batchUserRole(userRoleList);
         }
+        if (!CollectionUtils.isEmpty(userRoleDTO.getRoleIds())) {
+            affectedRoleIds.addAll(userRoleDTO.getRoleIds());
+        }
+        permissionCacheInvalidator.onUserRolesChanged(userRoleDTO.getUserId(), affectedRoleIds);
 
         log.info("用户角色分配成功，用户ID: {}, 角色数量: {}", 
                 userRoleDTO.getUserId(), userRoleDTO.getRoleIds().size());
@@ -96,7 +98,7 @@ public class SysUserRoleServiceImpl implements SysUserRoleService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.USER_ROLE_CACHE, key = "'user_role_ids:' + #userId", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.USER_ROLE_CACHE, key = "'user_role_ids:' + @cacheVersionService.key('user', #userId)", unless = "#result == null || #result.isEmpty()")
     public List<Long> getUserRoleIds(Long userId) {
         if (userId == null) {
             return new ArrayList<>();
@@ -107,11 +109,6 @@ public class SysUserRoleServiceImpl implements SysUserRoleService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.USER_ROLE_CACHE, key = "'user_role_ids:' + #userId"),
-        @CacheEvict(value = CacheConstants.USER_ROLE_CACHE, key = "'role_user_ids:' + #roleId"),
-        @CacheEvict(value = CacheConstants.USER_PERMISSION_CACHE, allEntries = true)
-    })
     public void removeUserRole(Long userId, Long roleId) {
         log.debug("开始移除用户角色，用户ID: {}, 角色ID: {}", userId, roleId);
 
@@ -128,6 +125,8 @@ public class SysUserRoleServiceImpl implements SysUserRoleService {
         
         if (deleteCount == 0) {
             log.warn("用户角色关联不存在，用户ID: {}, 角色ID: {}", userId, roleId);
+        } else {
+            permissionCacheInvalidator.onUserRolesChanged(userId, List.of(roleId));
         }
 
         log.info("用户角色移除成功，用户ID: {}, 角色ID: {}", userId, roleId);
@@ -142,6 +141,7 @@ public class SysUserRoleServiceImpl implements SysUserRoleService {
 
         log.debug("开始移除用户所有角色，用户ID: {}", userId);
 
+        permissionCacheInvalidator.onUserRolesChanged(userId, userRoleMapper.selectRoleIdsByUserId(userId));
         userRoleMapper.deleteUserRoleByUserId(userId);
 
         log.info("用户所有角色移除成功，用户ID: {}", userId);
@@ -171,7 +171,7 @@ public class SysUserRoleServiceImpl implements SysUserRoleService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.USER_ROLE_CACHE, key = "'role_user_ids:' + #roleId", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CacheConstants.USER_ROLE_CACHE, key = "'role_user_ids:' + @cacheVersionService.key('role', #roleId)", unless = "#result == null || #result.isEmpty()")
     public List<Long> getUserIdsByRoleId(Long roleId) {
         if (roleId == null) {
             return new ArrayList<>();
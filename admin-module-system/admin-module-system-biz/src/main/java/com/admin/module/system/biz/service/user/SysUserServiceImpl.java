@@ -1,10 +1,13 @@
 package com.admin.module.system.biz.service.user;
 
+import com.admin.common.constants.SystemConstants;
 import com.admin.common.core.domain.PageResult;
 import com.admin.common.enums.ErrorCode;
 import com.admin.common.exception.ServiceException;
 import com.admin.common.utils.PageUtils;
+import com.admin.framework.redis.cache.CacheVersionService;
 import com.admin.framework.redis.constants.CacheConstants;
+import com.admin.framework.security.service.JwtBlacklistService;
 import com.admin.module.system.api.dto.user.SysUserCreateDTO;
 import com.admin.module.system.api.dto.user.SysUserQueryDTO;
 import com.admin.module.system.api.dto.user.SysUserResetPwdDTO;
@@ -16,12 +19,11 @@ import com.admin.module.system.biz.dal.dataobject.SysUserDO;
 import com.admin.module.system.biz.dal.dataobject.SysUserRoleDO;
 import com.admin.module.system.biz.dal.mapper.SysUserMapper;
 import com.admin.module.system.biz.dal.mapper.SysUserRoleMapper;
+import com.admin.module.system.biz.service.auth.PermissionCacheInvalidator;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,7 +31,9 @@ import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 系统用户管理服务实现类
@@ -48,6 +52,9 @@ public class SysUserServiceImpl implements SysUserService {
     private final SysUserMapper userMapper;
     private final SysUserRoleMapper userRoleMapper;
      private final PasswordEncoder passwordEncoder;
+    private final JwtBlacklistService jwtBlacklistService;
+    private final PermissionCacheInvalidator permissionCacheInvalidator;
+    private final CacheVersionService cacheVersionService;
 
     @Override
     public PageResult<SysUserVO> getUserPage(SysUserQueryDTO queryDTO) {
@@ -80,7 +87,7 @@ public class SysUserServiceImpl implements SysUserService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_USER_CACHE, key = "#id", unless = "#result == null")
+    @Cacheable(value = CacheConstants.SYS_USER_CACHE, key = "@cacheVersionService.key('user', #id)", unless = "#result == null")
     public SysUserVO getUser(Long id) {
         SysUserDO user = userMapper.selectById(id);
         if (user == null) {
@@ -90,7 +97,7 @@ public class SysUserServiceImpl implements SysUserService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.SYS_USER_CACHE, key = "'username:' + #username", unless = "#result == null")
+    @Cacheable(value = CacheConstants.SYS_USER_CACHE, key = "'username:' + @cacheVersionService.key('username', #username)", unless = "#result == null")
     public SysUserVO getUserByUsername(String username) {
         SysUserDO user = userMapper.selectUserByUsername(username);
         if (user == null) {
@@ -101,7 +108,6 @@ public class SysUserServiceImpl implements SysUserService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @CacheEvict(value = CacheConstants.SYS_USER_CACHE, allEntries = true)
     public Long createUser(SysUserCreateDTO createDTO) {
         // 1. 数据唯一性校验
         validateUserForCreateOrUpdate(null, createDTO.getUsername(), createDTO.getPhone(), createDTO.getEmail());
@@ -116,16 +122,15 @@ public class SysUserServiceImpl implements SysUserService {
         
         // 4. 分配用户角色
         insertUserRole(user.getId(), createDTO.getRoleIds());
+        if (createDTO.getRoleIds() != null) {
+            permissionCacheInvalidator.onUserRolesChanged(user.getId(), Arrays.asList(createDTO.getRoleIds()));
+        }
         
         return user.getId();
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_USER_CACHE, key = "#updateDTO.id"),
-        @CacheEvict(value = CacheConstants.SYS_USER_CACHE, allEntries = true)
-    })
     public void updateUser(SysUserUpdateDTO updateDTO) {
         SysUserDO existUser = userMapper.selectById(updateDTO.getId());
         if (existUser == null) {
@@ -137,28 +142,31 @@ public class SysUserServiceImpl implements SysUserService {
         SysUserDO user = SysUserConvert.INSTANCE.convert(updateDTO);
         userMapper.updateById(user);
         
+        Set<Long> affectedRoleIds = new HashSet<>(userRoleMapper.selectRoleIdsByUserId(updateDTO.getId()));
         userRoleMapper.deleteUserRoleByUserId(updateDTO.getId());
         insertUserRole(updateDTO.getId(), updateDTO.getRoleIds());
+        if (updateDTO.getRoleIds() != null) {
+            affectedRoleIds.addAll(Arrays.asList(updateDTO.getRoleIds()));
+        }
+        permissionCacheInvalidator.onUserRolesChanged(updateDTO.getId(), affectedRoleIds);
+        cacheVersionService.bump(CacheConstants.VERSION_USERNAME, existUser.getUsername());
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @Caching(evict = {
-        @CacheEvict(value = CacheConstants.SYS_USER_CACHE, key = "#id"),
-        @CacheEvict(value = CacheConstants.SYS_USER_CACHE, allEntries = true)
-    })
     public void deleteUser(Long id) {
         if (SysUserDO.isAdmin(id)) {
             throw new ServiceException(ErrorCode.CANNOT_DELETE_ADMIN_USER);
         }
         
+        evictDeletedUser(id);
         userMapper.deleteById(id);
         userRoleMapper.deleteUserRoleByUserId(id);
+        jwtBlacklistService.revokeUserTokens(id, "用户已删除");
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @CacheEvict(value = CacheConstants.SYS_USER_CACHE, allEntries = true)
     public void deleteUsers(Long[] ids) {
         for (Long id : ids) {
             if (SysUserDO.isAdmin(id)) {
@@ -166,14 +174,17 @@ public class SysUserServiceImpl implements SysUserService {
             }
         }
         
+        for (Long id : ids) {
+            evictDeletedUser(id);
+        }
         userMapper.deleteBatchIds(Arrays.asList(ids));
         for (Long id : ids) {
             userRoleMapper.deleteUserRoleByUserId(id);
+            jwtBlacklistService.revokeUserTokens(id, "用户已删除");
         }
     }
 
     @Override
-    @CacheEvict(value = CacheConstants.SYS_USER_CACHE, key = "#resetPwdDTO.id")
     public void resetUserPwd(SysUserResetPwdDTO resetPwdDTO) {
         SysUserDO user = userMapper.selectById(resetPwdDTO.getId());
         if (user == null) {
@@ -183,19 +194,29 @@ public class SysUserServiceImpl implements SysUserService {
         user.setPassword(passwordEncoder.encode(resetPwdDTO.getPassword())); // 使用BCrypt加密密码
         user.setVersion(resetPwdDTO.getVersion());
         userMapper.updateById(user);
+        bumpUserVersion(user.getId(), user.getUsername());
+        jwtBlacklistService.revokeUserTokens(user.getId(), "密码已重置");
     }
 
     @Override
-    @CacheEvict(value = CacheConstants.SYS_USER_CACHE, key = "#id")
     public void updateUserStatus(Long id, Integer status) {
         if (SysUserDO.isAdmin(id)) {
             throw new ServiceException(ErrorCode.CANNOT_DISABLE_ADMIN_USER);
         }
         
+        SysUserDO existUser = userMapper.selectById(id);
+        if (existUser == null) {
+            throw new ServiceException(ErrorCode.USER_NOT_FOUND);
+        }
+        
         SysUserDO user = new SysUserDO();
         user.setId(id);
         user.setStatus(status);
         userMapper.updateById(user);
+        bumpUserVersion(id, existUser.getUsername());
+        if (!SystemConstants.USER_STATUS_NORMAL.equals(status)) {
+            jwtBlacklistService.revokeUserTokens(id, "用户已停用");
+        }
     }
 
     @Override
@@ -243,6 +264,32 @@ public class SysUserServiceImpl implements SysUserService {
         }
     }
 
+    /**
+     * 递增用户的缓存版本号，使按ID和按用户名缓存的用户信息失效
+     *
+     * @param userId 用户ID
+     * @param username 用户名
+     */
+    private void bumpUserVersion(Long userId, String username) {
+        cacheVersionService.bump(CacheConstants.VERSION_USER, userId);
+        cacheVersionService.bump(CacheConstants.VERSION_USERNAME, username);
+    }
+
+    /**
+     * 使被删除用户的缓存失效
+     * 
+     * 需在删除用户角色关联之前调用，以便定位受影响的角色
+     *
+     * @param userId 用户ID
+     */
+    private void evictDeletedUser(Long userId) {
+        SysUserDO user = userMapper.selectById(userId);
+        if (user != null) {
+            cacheVersionService.bump(CacheConstants.VERSION_USERNAME, user.getUsername());
+        }
+        permissionCacheInvalidator.onUserRolesChanged(userId, userRoleMapper.selectRoleIdsByUserId(userId));
+    }
+
     /**
      * 批量插入用户角色关联关系
      * 
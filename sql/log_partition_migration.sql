@@ -0,0 +1,28 @@
+-- =============================================
+-- 日志表分区改造脚本（已有库执行，新库直接使用 schema.sql）
+-- =============================================
+-- 分区键必须包含在主键中，且不能为空；改造会重建整表，请在业务低峰执行。
+-- 改造后所有数据位于兜底分区 p_future，首次执行分区维护任务时拆出按周期的分区，
+-- 此前的历史数据归入第一个周期分区，随保留策略整体删除。
+
+-- 操作日志表
+UPDATE `sys_operation_log` SET `oper_time` = '1970-01-01 00:00:00' WHERE `oper_time` IS NULL;
+ALTER TABLE `sys_operation_log`
+  MODIFY `oper_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `oper_time`);
+ALTER TABLE `sys_operation_log`
+  PARTITION BY RANGE COLUMNS(`oper_time`) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+-- 登录日志表
+UPDATE `sys_login_log` SET `login_time` = '1970-01-01 00:00:00' WHERE `login_time` IS NULL;
+ALTER TABLE `sys_login_log`
+  MODIFY `login_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '访问时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `login_time`);
+ALTER TABLE `sys_login_log`
+  PARTITION BY RANGE COLUMNS(`login_time`) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
@@ -0,0 +1,10 @@
+-- =============================================
+-- 操作日志载荷压缩改造脚本（已有库执行，新库直接使用 schema.sql）
+-- =============================================
+-- 请求参数、返回参数改为二进制列，应用写入时对超过阈值的载荷做deflate压缩。
+-- TEXT 转 BLOB 保留原有的UTF-8字节，已有明文数据无需转换即可读取，
+-- 随分区保留策略逐步淘汰；改造会重建整表，请在业务低峰执行。
+
+ALTER TABLE `sys_operation_log`
+  MODIFY `oper_param` blob COMMENT '请求参数（超过阈值时deflate压缩）',
+  MODIFY `json_result` blob COMMENT '返回参数（超过阈值时deflate压缩）';
@@ -239,17 +239,21 @@ CREATE TABLE `sys_operation_log` (
   `oper_url` varchar(255) DEFAULT NULL COMMENT '请求URL',
   `oper_ip` varchar(50) DEFAULT NULL COMMENT '主机地址',
   `oper_location` varchar(255) DEFAULT NULL COMMENT '操作地点',
-  `oper_param` text COMMENT '请求参数',
-  `json_result` text COMMENT '返回参数',
+  `oper_param` blob COMMENT '请求参数（超过阈值时deflate压缩）',
+  `json_result` blob COMMENT '返回参数（超过阈值时deflate压缩）',
   `status` tinyint DEFAULT '0' COMMENT '操作状态：0-正常，1-异常',
   `error_msg` varchar(2000) DEFAULT NULL COMMENT '错误消息',
-  `oper_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间',
+  `oper_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间',
   `cost_time` bigint DEFAULT '0' COMMENT '消耗时间',
-  PRIMARY KEY (`id`),
+  PRIMARY KEY (`id`, `oper_time`),
   KEY `idx_sys_oper_log_business_type` (`business_type`),
   KEY `idx_sys_oper_log_status` (`status`),
   KEY `idx_sys_oper_log_oper_time` (`oper_time`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志记录';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志记录'
+-- 按操作时间分区，周期分区由应用的分区维护任务从兜底分区中拆出
+PARTITION BY RANGE COLUMNS(`oper_time`) (
+  PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
 
 -- 登录日志表
 CREATE TABLE `sys_login_log` (
@@ -262,11 +266,57 @@ CREATE TABLE `sys_login_log` (
   `os` varchar(50) DEFAULT NULL COMMENT '操作系统',
   `status` tinyint DEFAULT '0' COMMENT '登录状态：0-成功，1-失败',
   `msg` varchar(255) DEFAULT NULL COMMENT '提示消息',
-  `login_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '访问时间',
-  PRIMARY KEY (`id`),
+  `login_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '访问时间',
+  PRIMARY KEY (`id`, `login_time`),
   KEY `idx_sys_login_log_status` (`status`),
   KEY `idx_sys_login_log_login_time` (`login_time`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='系统访问记录';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='系统访问记录'
+PARTITION BY RANGE COLUMNS(`login_time`) (
+  PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- 日志统计小时汇总表
+CREATE TABLE `sys_log_rollup_hour` (
+  `stat_time` datetime NOT NULL COMMENT '统计小时',
+  `log_type` tinyint NOT NULL COMMENT '日志类型：1-操作日志，2-登录日志',
+  `dim_type` varchar(20) NOT NULL COMMENT '统计维度：ALL、BUSINESS_TYPE、TITLE、OPER_NAME、LOGIN_TYPE、BROWSER',
+  `dim_value` varchar(64) NOT NULL DEFAULT '' COMMENT '维度取值',
+  `total_count` bigint NOT NULL DEFAULT '0' COMMENT '记录数',
+  `error_count` bigint NOT NULL DEFAULT '0' COMMENT '异常或失败数',
+  `cost_sum` bigint NOT NULL DEFAULT '0' COMMENT '耗时合计（毫秒）',
+  `cost_count` bigint NOT NULL DEFAULT '0' COMMENT '有耗时的记录数',
+  PRIMARY KEY (`stat_time`, `log_type`, `dim_type`, `dim_value`),
+  KEY `idx_sys_log_rollup_hour_dim` (`log_type`, `dim_type`, `stat_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='日志统计小时汇总';
+
+-- 日志统计日汇总表
+CREATE TABLE `sys_log_rollup_day` (
+  `stat_date` date NOT NULL COMMENT '统计日期',
+  `log_type` tinyint NOT NULL COMMENT '日志类型：1-操作日志，2-登录日志',
+  `dim_type` varchar(20) NOT NULL COMMENT '统计维度',
+  `dim_value` varchar(64) NOT NULL DEFAULT '' COMMENT '维度取值',
+  `total_count` bigint NOT NULL DEFAULT '0' COMMENT '记录数',
+  `error_count` bigint NOT NULL DEFAULT '0' COMMENT '异常或失败数',
+  `cost_sum` bigint NOT NULL DEFAULT '0' COMMENT '耗时合计（毫秒）',
+  `cost_count` bigint NOT NULL DEFAULT '0' COMMENT '有耗时的记录数',
+  PRIMARY KEY (`stat_date`, `log_type`, `dim_type`, `dim_value`),
+  KEY `idx_sys_log_rollup_day_dim` (`log_type`, `dim_type`, `stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='日志统计日汇总';
+
+-- 日志去重用户基数草图表
+CREATE TABLE `sys_log_rollup_sketch` (
+  `stat_date` date NOT NULL COMMENT '统计日期',
+  `metric` varchar(20) NOT NULL COMMENT '指标：LOGIN_USER-登录用户，ACTIVE_USER-登录成功用户',
+  `registers` varbinary(2048) NOT NULL COMMENT 'HyperLogLog寄存器',
+  PRIMARY KEY (`stat_date`, `metric`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='日志去重用户基数草图';
+
+-- 日志统计汇总状态表
+CREATE TABLE `sys_log_rollup_state` (
+  `state_key` varchar(20) NOT NULL COMMENT '状态键：COVERED_SINCE-汇总覆盖起点，DIRTY_SINCE-待重算起点',
+  `state_time` datetime NOT NULL COMMENT '状态时间',
+  PRIMARY KEY (`state_key`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='日志统计汇总状态';
 
 -- =============================================
 -- 文件管理模块